@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The checked-in sources the benchmarks run against.
+ * They are real JavaParser sources, copied into {@code src/main/resources/corpus} so that results stay comparable
+ * between releases even when the originals change.
+ */
+public enum Corpus {
+
+    /**
+     * A small, plain class (Range).
+     */
+    SMALL("Small.java.txt"),
+    /**
+     * A medium sized class with a bit of everything (LexicalPreservingPrinter).
+     */
+    MEDIUM("Medium.java.txt"),
+    /**
+     * A huge, generated class (JavaParserMetaModel).
+     */
+    HUGE("Huge.java.txt"),
+    /**
+     * A class full of parameterized types and generic methods (GenericListVisitorAdapter).
+     */
+    GENERICS_HEAVY("GenericsHeavy.java.txt"),
+    /**
+     * A class full of lambdas (VoidVisitorAdapter).
+     */
+    LAMBDA_HEAVY("LambdaHeavy.java.txt");
+
+    private final String resourceName;
+
+    private String source;
+
+    Corpus(String resourceName) {
+        this.resourceName = resourceName;
+    }
+
+    /**
+     * @return the source code of this corpus entry.
+     */
+    public synchronized String source() {
+        if (source == null) {
+            source = load("corpus/" + resourceName);
+        }
+        return source;
+    }
+
+    private static String load(String resource) {
+        try (InputStream in = Corpus.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Corpus resource not found: " + resource);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.benchmarks;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LexicalPreservingPrinter}: the cost of setting it up on a freshly parsed unit,
+ * of printing an untouched unit, and of printing a unit after a small edit.
+ * <br>The per-invocation setup is acceptable here since every measured operation takes well over a millisecond.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexicalPreservationBenchmark {
+
+    @State(Scope.Thread)
+    public static class Parsed {
+
+        @Param
+        public Corpus corpus;
+
+        private JavaParser parser;
+
+        CompilationUnit compilationUnit;
+
+        @Setup(Level.Trial)
+        public void createParser() {
+            parser = new JavaParser(new ParserConfiguration().setLexicalPreservationEnabled(false));
+        }
+
+        @Setup(Level.Invocation)
+        public void parse() {
+            compilationUnit = parser.parse(corpus.source()).getResult()
+                    .orElseThrow(() -> new IllegalStateException("Corpus does not parse: " + corpus));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Prepared {
+
+        @Param
+        public Corpus corpus;
+
+        CompilationUnit compilationUnit;
+
+        @Setup(Level.Trial)
+        public void prepare() {
+            compilationUnit = new JavaParser().parse(corpus.source()).getResult()
+                    .orElseThrow(() -> new IllegalStateException("Corpus does not parse: " + corpus));
+            LexicalPreservingPrinter.setup(compilationUnit);
+        }
+    }
+
+    @Benchmark
+    public CompilationUnit setup(Parsed parsed) {
+        return LexicalPreservingPrinter.setup(parsed.compilationUnit);
+    }
+
+    @Benchmark
+    public String print(Prepared prepared) {
+        return LexicalPreservingPrinter.print(prepared.compilationUnit);
+    }
+
+    @Benchmark
+    public String setupEditAndPrint(Parsed parsed) {
+        CompilationUnit compilationUnit = LexicalPreservingPrinter.setup(parsed.compilationUnit);
+        TypeDeclaration<?> type = compilationUnit.getType(0);
+        type.addField("int", "benchmarkField", Modifier.Keyword.PRIVATE);
+        return LexicalPreservingPrinter.print(compilationUnit);
+    }
+}
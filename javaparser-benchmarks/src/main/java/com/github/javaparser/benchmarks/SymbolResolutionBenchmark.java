@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.benchmarks;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JavaParserFacade#solve(MethodCallExpr)} for every method call in a corpus entry.
+ * <br>The corpus consists of JavaParser sources, which are on the benchmark classpath, so a
+ * {@link ReflectionTypeSolver} that is not restricted to the JRE can resolve (almost) all of them.
+ * <br>The facade and the parsed unit are recreated for every iteration, so that node data cached during one iteration
+ * only benefits the remainder of that iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymbolResolutionBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "GENERICS_HEAVY", "LAMBDA_HEAVY"})
+    public Corpus corpus;
+
+    private TypeSolver typeSolver;
+
+    private List<MethodCallExpr> methodCalls;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        JavaParserFacade.clearInstances();
+        typeSolver = new ReflectionTypeSolver(false);
+        ParserConfiguration configuration = new ParserConfiguration()
+                .setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        CompilationUnit compilationUnit = new JavaParser(configuration).parse(corpus.source()).getResult()
+                .orElseThrow(() -> new IllegalStateException("Corpus does not parse: " + corpus));
+        methodCalls = compilationUnit.findAll(MethodCallExpr.class);
+    }
+
+    @Benchmark
+    public void solveMethodCalls(Blackhole blackhole) {
+        JavaParserFacade facade = JavaParserFacade.get(typeSolver);
+        for (MethodCallExpr methodCall : methodCalls) {
+            try {
+                SymbolReference<?> reference = facade.solve(methodCall);
+                blackhole.consume(reference);
+            } catch (RuntimeException e) {
+                // Some calls are not resolvable (yet); what matters is that the work was done.
+                blackhole.consume(e);
+            }
+        }
+    }
+}
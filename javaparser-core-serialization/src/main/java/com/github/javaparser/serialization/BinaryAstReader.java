@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.serialization;
+
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.Range;
+import com.github.javaparser.TokenRange;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.metamodel.PropertyMetaModel;
+import com.github.javaparser.serialization.BinaryAstSchema.NodeKind;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.github.javaparser.serialization.BinaryAstWriter.*;
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads the ASTs written by {@link BinaryAstWriter}, one at a time.
+ */
+public class BinaryAstReader implements Closeable {
+
+    private final InputStream in;
+
+    private final boolean readTokens;
+
+    private final List<String> strings = new ArrayList<>();
+
+    private JavaToken[] tokens = new JavaToken[0];
+
+    private boolean atEnd = false;
+
+    /**
+     * @param in the stream to read from. It is buffered by this reader.
+     * @throws IOException when the stream is not in the binary AST format, or was written by another version of JavaParser.
+     */
+    public BinaryAstReader(InputStream in) throws IOException {
+        assertNotNull(in);
+        this.in = new BufferedInputStream(in);
+        if (readVarInt() != MAGIC) {
+            throw new IOException("Not a binary AST stream.");
+        }
+        int version = readVarInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary AST format version " + version + ".");
+        }
+        if (readVarInt() != BinaryAstSchema.FINGERPRINT) {
+            throw new IOException("The binary AST stream was written by another version of JavaParser.");
+        }
+        readTokens = (readVarInt() & FLAG_TOKENS) != 0;
+    }
+
+    /**
+     * @return the next AST in the stream, or empty when all have been read.
+     */
+    public Optional<Node> read() throws IOException {
+        if (atEnd) {
+            return Optional.empty();
+        }
+        int marker = in.read();
+        if (marker == -1 || marker == END_OF_STREAM) {
+            atEnd = true;
+            return Optional.empty();
+        }
+        if (marker != NEXT_AST) {
+            throw new IOException("Damaged binary AST stream.");
+        }
+        if (readTokens) {
+            readTokens();
+        }
+        Node node = readNode();
+        if (node == null) {
+            throw new IOException("Damaged binary AST stream.");
+        }
+        return Optional.of(node);
+    }
+
+    private void readTokens() throws IOException {
+        tokens = new JavaToken[readVarInt()];
+        int previousLine = 0;
+        JavaToken previous = null;
+        for (int i = 0; i < tokens.length; i++) {
+            int kind = readVarInt();
+            String text = readString();
+            Range range = null;
+            if (readVarInt() == 1) {
+                int beginLine = previousLine + readSignedVarInt();
+                int beginColumn = readVarInt();
+                int endLine = beginLine + readSignedVarInt();
+                int endColumn = readVarInt();
+                range = Range.range(beginLine, beginColumn, endLine, endColumn);
+                previousLine = beginLine;
+            }
+            JavaToken token = new JavaToken(range, kind, text, null, null);
+            if (previous != null) {
+                previous.insertAfter(token);
+            }
+            tokens[i] = token;
+            previous = token;
+        }
+    }
+
+    /**
+     * @return the node, or null when the stream says there is no node here.
+     */
+    private Node readNode() throws IOException {
+        int kindIndex = readVarInt();
+        if (kindIndex == 0) {
+            return null;
+        }
+        NodeKind kind = BinaryAstSchema.kind(kindIndex - 1);
+        Range range = readRange();
+        TokenRange tokenRange = readTokens ? readTokenRange() : null;
+        Object[] values = new Object[kind.properties.length];
+        for (int i = 0; i < values.length; i++) {
+            PropertyMetaModel property = kind.properties[i];
+            if (property.isNodeList()) {
+                values[i] = readNodeList();
+            } else if (property.isNode()) {
+                values[i] = readNode();
+            } else if (property.getType() == String.class) {
+                values[i] = readString();
+            } else if (property.getType() == boolean.class) {
+                values[i] = readVarInt() != 0;
+            } else if (Enum.class.isAssignableFrom(property.getType())) {
+                int ordinal = readVarInt();
+                values[i] = ordinal == 0 ? null : property.getType().getEnumConstants()[ordinal - 1];
+            } else {
+                throw new IllegalStateException("Don't know how to read: " + property.getType());
+            }
+        }
+        Node node = kind.construct(values);
+        node.setRange(range);
+        if (tokenRange != null) {
+            node.setTokenRange(tokenRange);
+        }
+        int orphanComments = readVarInt();
+        for (int i = 0; i < orphanComments; i++) {
+            node.addOrphanComment((Comment) readNode());
+        }
+        return node;
+    }
+
+    private NodeList<Node> readNodeList() throws IOException {
+        int size = readVarInt();
+        if (size == 0) {
+            return null;
+        }
+        NodeList<Node> nodeList = new NodeList<>();
+        for (int i = 0; i < size - 1; i++) {
+            nodeList.add(readNode());
+        }
+        return nodeList;
+    }
+
+    private Range readRange() throws IOException {
+        int beginLine = readVarInt();
+        if (beginLine == 0) {
+            return null;
+        }
+        int beginColumn = readVarInt();
+        int endLine = beginLine + readSignedVarInt();
+        int endColumn = readVarInt();
+        return Range.range(beginLine, beginColumn, endLine, endColumn);
+    }
+
+    private TokenRange readTokenRange() throws IOException {
+        int begin = readVarInt();
+        if (begin == 0) {
+            return null;
+        }
+        int end = begin - 1 + readSignedVarInt();
+        if (begin - 1 >= tokens.length || end < 0 || end >= tokens.length) {
+            throw new IOException("Damaged binary AST stream.");
+        }
+        return new TokenRange(tokens[begin - 1], tokens[end]);
+    }
+
+    private String readString() throws IOException {
+        int reference = readVarInt();
+        if (reference == 0) {
+            return null;
+        }
+        if (reference == 1) {
+            byte[] bytes = new byte[readVarInt()];
+            readFully(bytes);
+            String string = new String(bytes, UTF_8);
+            strings.add(string);
+            return string;
+        }
+        if (reference - 2 >= strings.size()) {
+            throw new IOException("Damaged binary AST stream.");
+        }
+        return strings.get(reference - 2);
+    }
+
+    private void readFully(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            int read = in.read(bytes, offset, bytes.length - offset);
+            if (read == -1) {
+                throw new EOFException();
+            }
+            offset += read;
+        }
+    }
+
+    private int readSignedVarInt() throws IOException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Damaged binary AST stream.");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.serialization;
+
+import com.github.javaparser.ast.AllFieldsConstructor;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.metamodel.BaseNodeMetaModel;
+import com.github.javaparser.metamodel.JavaParserMetaModel;
+import com.github.javaparser.metamodel.PropertyMetaModel;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+
+/**
+ * The node kinds and properties of the binary AST format, derived once from {@link JavaParserMetaModel}.
+ * <br>Node kinds are numbered by their position in {@link JavaParserMetaModel#getNodeMetaModels()}, and properties by
+ * their position in {@link BaseNodeMetaModel#getAllPropertyMetaModels()}, so the format only stays readable by the
+ * same version of the meta model. {@link #FINGERPRINT} is written into every stream to detect a mismatch.
+ */
+final class BinaryAstSchema {
+
+    static final String COMMENT_PROPERTY = "comment";
+
+    static final List<NodeKind> KINDS;
+
+    static final int FINGERPRINT;
+
+    private static final Map<Class<?>, NodeKind> KINDS_BY_CLASS = new HashMap<>();
+
+    static {
+        List<NodeKind> kinds = new ArrayList<>();
+        int fingerprint = 1;
+        for (BaseNodeMetaModel metaModel : JavaParserMetaModel.getNodeMetaModels()) {
+            NodeKind kind = new NodeKind(kinds.size(), metaModel);
+            kinds.add(kind);
+            KINDS_BY_CLASS.put(metaModel.getType(), kind);
+            fingerprint = 31 * fingerprint + metaModel.getTypeName().hashCode();
+            for (PropertyMetaModel property : kind.properties) {
+                fingerprint = 31 * fingerprint + property.getName().hashCode();
+            }
+        }
+        KINDS = Collections.unmodifiableList(kinds);
+        FINGERPRINT = fingerprint;
+    }
+
+    private BinaryAstSchema() {
+    }
+
+    static NodeKind kindOf(Node node) {
+        NodeKind kind = KINDS_BY_CLASS.get(node.getClass());
+        if (kind == null) {
+            throw new IllegalStateException("Unknown Node: " + node.getClass());
+        }
+        return kind;
+    }
+
+    static NodeKind kind(int index) {
+        if (index < 0 || index >= KINDS.size()) {
+            throw new IllegalStateException("Unknown node kind: " + index);
+        }
+        return KINDS.get(index);
+    }
+
+    /**
+     * A concrete node class, with its properties and the constructor to build it from them.
+     */
+    static final class NodeKind {
+
+        final int index;
+
+        final BaseNodeMetaModel metaModel;
+
+        final PropertyMetaModel[] properties;
+
+        /**
+         * For every parameter of the constructor, the index of the corresponding property.
+         */
+        private final int[] constructorArguments;
+
+        private final Constructor<?> constructor;
+
+        private final int commentProperty;
+
+        private NodeKind(int index, BaseNodeMetaModel metaModel) {
+            this.index = index;
+            this.metaModel = metaModel;
+            this.properties = metaModel.getAllPropertyMetaModels().toArray(new PropertyMetaModel[0]);
+            this.constructor = metaModel.isAbstract() ? null : Arrays.stream(metaModel.getType().getConstructors())
+                    .filter(c -> c.getAnnotation(AllFieldsConstructor.class) != null)
+                    .findFirst()
+                    .orElse(null);
+            List<PropertyMetaModel> parameters = metaModel.getConstructorParameters();
+            this.constructorArguments = new int[parameters.size()];
+            for (int i = 0; i < parameters.size(); i++) {
+                constructorArguments[i] = propertyIndex(parameters.get(i).getName());
+            }
+            this.commentProperty = propertyIndex(COMMENT_PROPERTY);
+        }
+
+        private int propertyIndex(String name) {
+            for (int i = 0; i < properties.length; i++) {
+                if (properties[i].getName().equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @param values the values of all properties, in property order.
+         */
+        Node construct(Object[] values) {
+            if (constructor == null) {
+                throw new IllegalStateException("Can not construct a " + metaModel.getTypeName());
+            }
+            Object[] arguments = new Object[constructorArguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                Object value = values[constructorArguments[i]];
+                PropertyMetaModel property = properties[constructorArguments[i]];
+                if (value == null && property.isRequired() && property.isNodeList()) {
+                    value = new NodeList<>();
+                }
+                arguments[i] = value;
+            }
+            final Node node;
+            try {
+                node = (Node) constructor.newInstance(arguments);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new RuntimeException(e);
+            }
+            // The comment is a property, but not a constructor parameter.
+            if (commentProperty >= 0 && values[commentProperty] != null) {
+                node.setComment((Comment) values[commentProperty]);
+            }
+            return node;
+        }
+    }
+}
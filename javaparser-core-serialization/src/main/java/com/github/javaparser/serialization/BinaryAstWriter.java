@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.serialization;
+
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.Range;
+import com.github.javaparser.TokenRange;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.metamodel.PropertyMetaModel;
+import com.github.javaparser.serialization.BinaryAstSchema.NodeKind;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes ASTs in a compact binary format, to be read back by {@link BinaryAstReader}.
+ * Any number of ASTs can be written to one stream; strings are interned over the whole stream.
+ * <br>The format is driven by {@link com.github.javaparser.metamodel.JavaParserMetaModel}:
+ * <ul>
+ * <li>numbers are written as varints,</li>
+ * <li>a node is written as its node kind, its range, and then the values of its properties in meta model order,
+ * so no property names are written,</li>
+ * <li>every distinct string is written once; later occurrences refer to it by number,</li>
+ * <li>optionally, the complete token list of an AST is written before the AST, and nodes refer to their first and last
+ * token by position in that list. This is what lexical preservation needs. Without it, nodes get no token range.</li>
+ * </ul>
+ * Like {@link JavaParserJsonSerializer}, this does not write node data, and the format can only be read by the same
+ * version of JavaParser.
+ */
+public class BinaryAstWriter implements Closeable, Flushable {
+
+    static final int MAGIC = 0x4A5042;
+
+    static final int VERSION = 1;
+
+    static final int END_OF_STREAM = 0;
+
+    static final int NEXT_AST = 1;
+
+    static final int FLAG_TOKENS = 1;
+
+    private final OutputStream out;
+
+    private final boolean writeTokens;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    private Map<JavaToken, Integer> tokenIndexes = new IdentityHashMap<>();
+
+    /**
+     * @param out the stream to write to. It is buffered by this writer.
+     * @param writeTokens whether to write the token lists of the ASTs.
+     */
+    public BinaryAstWriter(OutputStream out, boolean writeTokens) throws IOException {
+        assertNotNull(out);
+        this.out = new BufferedOutputStream(out);
+        this.writeTokens = writeTokens;
+        writeVarInt(MAGIC);
+        writeVarInt(VERSION);
+        writeVarInt(BinaryAstSchema.FINGERPRINT);
+        writeVarInt(writeTokens ? FLAG_TOKENS : 0);
+    }
+
+    /**
+     * Writes node and all its children. Its parent and siblings are not written.
+     */
+    public BinaryAstWriter write(Node node) throws IOException {
+        assertNotNull(node);
+        writeVarInt(NEXT_AST);
+        tokenIndexes = new IdentityHashMap<>();
+        if (writeTokens) {
+            writeTokens(node);
+        }
+        writeNode(node);
+        return this;
+    }
+
+    private void writeTokens(Node node) throws IOException {
+        if (!node.getTokenRange().isPresent()) {
+            writeVarInt(0);
+            return;
+        }
+        int count = 0;
+        for (JavaToken token = node.getTokenRange().get().getBegin().findFirstToken(); token != null; token = token.getNextToken().orElse(null)) {
+            tokenIndexes.put(token, count++);
+        }
+        writeVarInt(count);
+        int previousLine = 0;
+        for (JavaToken token = node.getTokenRange().get().getBegin().findFirstToken(); token != null; token = token.getNextToken().orElse(null)) {
+            writeVarInt(token.getKind());
+            writeString(token.getText());
+            if (token.getRange().isPresent()) {
+                Range range = token.getRange().get();
+                writeVarInt(1);
+                writeSignedVarInt(range.begin.line - previousLine);
+                writeVarInt(range.begin.column);
+                writeSignedVarInt(range.end.line - range.begin.line);
+                writeVarInt(range.end.column);
+                previousLine = range.begin.line;
+            } else {
+                writeVarInt(0);
+            }
+        }
+    }
+
+    private void writeNode(Node node) throws IOException {
+        NodeKind kind = BinaryAstSchema.kindOf(node);
+        writeVarInt(kind.index + 1);
+        writeRange(node);
+        if (writeTokens) {
+            writeTokenRange(node);
+        }
+        for (PropertyMetaModel property : kind.properties) {
+            Object value = property.getValue(node);
+            if (property.isNodeList()) {
+                writeNodeList((NodeList<?>) value);
+            } else if (property.isNode()) {
+                writeOptionalNode((Node) value);
+            } else if (property.getType() == String.class) {
+                writeString((String) value);
+            } else if (property.getType() == boolean.class) {
+                writeVarInt((Boolean) value ? 1 : 0);
+            } else if (Enum.class.isAssignableFrom(property.getType())) {
+                writeVarInt(value == null ? 0 : ((Enum<?>) value).ordinal() + 1);
+            } else {
+                throw new IllegalStateException("Don't know how to write: " + property.getType());
+            }
+        }
+        List<Comment> orphanComments = node.getOrphanComments();
+        writeVarInt(orphanComments.size());
+        for (Comment orphanComment : orphanComments) {
+            writeNode(orphanComment);
+        }
+    }
+
+    private void writeOptionalNode(Node node) throws IOException {
+        if (node == null) {
+            writeVarInt(0);
+        } else {
+            writeNode(node);
+        }
+    }
+
+    private void writeNodeList(NodeList<?> nodeList) throws IOException {
+        if (nodeList == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(nodeList.size() + 1);
+        for (Node node : nodeList) {
+            writeNode(node);
+        }
+    }
+
+    /**
+     * Writes 0 for no range. Lines start at 1, so a range never starts with 0.
+     */
+    private void writeRange(Node node) throws IOException {
+        if (!node.getRange().isPresent()) {
+            writeVarInt(0);
+            return;
+        }
+        Range range = node.getRange().get();
+        writeVarInt(range.begin.line);
+        writeVarInt(range.begin.column);
+        writeSignedVarInt(range.end.line - range.begin.line);
+        writeVarInt(range.end.column);
+    }
+
+    /**
+     * Tokens that are not in the written token list (e.g. of nodes created after parsing) are not written.
+     */
+    private void writeTokenRange(Node node) throws IOException {
+        Integer begin = null;
+        Integer end = null;
+        if (node.getTokenRange().isPresent()) {
+            TokenRange tokenRange = node.getTokenRange().get();
+            begin = tokenIndexes.get(tokenRange.getBegin());
+            end = tokenIndexes.get(tokenRange.getEnd());
+        }
+        if (begin == null || end == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(begin + 1);
+        writeSignedVarInt(end - begin);
+    }
+
+    /**
+     * Writes 0 for null, 1 followed by the string for a new string, or the number of a known string plus 2.
+     */
+    private void writeString(String string) throws IOException {
+        if (string == null) {
+            writeVarInt(0);
+            return;
+        }
+        Integer known = strings.get(string);
+        if (known != null) {
+            writeVarInt(known + 2);
+            return;
+        }
+        strings.put(string, strings.size());
+        byte[] bytes = string.getBytes(UTF_8);
+        writeVarInt(1);
+        writeVarInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Zigzag encodes a value that may be negative, so that small negative values stay small.
+     */
+    private void writeSignedVarInt(int value) throws IOException {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Marks the end of the stream, and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        writeVarInt(END_OF_STREAM);
+        out.close();
+    }
+}
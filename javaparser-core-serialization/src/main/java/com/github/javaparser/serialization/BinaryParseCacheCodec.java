@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.serialization;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.utils.PersistentParseCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Lets a {@link PersistentParseCache} store compilation units in the binary AST format of {@link BinaryAstWriter},
+ * including their token list, so that lexical preservation can be set up on the compilation units it reads.
+ */
+public class BinaryParseCacheCodec implements PersistentParseCache.Codec {
+
+    @Override
+    public String getId() {
+        return "binary-" + BinaryAstWriter.VERSION;
+    }
+
+    @Override
+    public void write(CompilationUnit compilationUnit, OutputStream out) throws IOException {
+        try (BinaryAstWriter writer = new BinaryAstWriter(out, true)) {
+            writer.write(compilationUnit);
+        }
+    }
+
+    @Override
+    public CompilationUnit read(InputStream in) throws IOException {
+        try (BinaryAstReader reader = new BinaryAstReader(in)) {
+            Node node = reader.read().orElseThrow(() -> new IOException("Empty binary AST stream."));
+            if (!(node instanceof CompilationUnit)) {
+                throw new IOException("Expected a CompilationUnit but found a " + node.getClass().getSimpleName());
+            }
+            return (CompilationUnit) node;
+        }
+    }
+
+    @Override
+    public boolean preservesTokens() {
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.serialization;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.utils.PersistentParseCache;
+
+import javax.json.Json;
+import javax.json.JsonReader;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Lets a {@link PersistentParseCache} store compilation units as JSON,
+ * using {@link JavaParserJsonSerializer} and {@link JavaParserJsonDeserializer}.
+ * <br>JSON doesn't keep the token list, so this codec is only used for configurations that don't store tokens, see
+ * {@link com.github.javaparser.ParserConfiguration#setStoreTokens(boolean)}.
+ */
+public class JsonParseCacheCodec implements PersistentParseCache.Codec {
+
+    @Override
+    public String getId() {
+        return "json-1";
+    }
+
+    @Override
+    public void write(CompilationUnit compilationUnit, OutputStream out) {
+        new JavaParserJsonSerializer().serialize(compilationUnit, Json.createGenerator(out));
+    }
+
+    @Override
+    public CompilationUnit read(InputStream in) {
+        try (JsonReader reader = Json.createReader(in)) {
+            Node node = new JavaParserJsonDeserializer().deserializeObject(reader);
+            if (!(node instanceof CompilationUnit)) {
+                throw new IllegalStateException("Expected a CompilationUnit but found a " + node.getClass().getSimpleName());
+            }
+            return (CompilationUnit) node;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.serialization;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+import com.github.javaparser.utils.PersistentParseCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static com.github.javaparser.StaticJavaParser.parse;
+import static com.github.javaparser.StaticJavaParser.parseExpression;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryAstReaderTest {
+
+    private static final String CODE = "package a.b;\n" +
+            "\n" +
+            "import java.util.List;\n" +
+            "\n" +
+            "/** Javadoc */\n" +
+            "public abstract class X<T extends Comparable<T>> implements Runnable {\n" +
+            "    // a field\n" +
+            "    private final List<List<T>> xs = null;\n" +
+            "\n" +
+            "    abstract int m(int a, String... b) throws Exception;\n" +
+            "\n" +
+            "    void run() {\n" +
+            "        Runnable r = () -> System.out.println(\"\u00e9\" + 'c' + 1L >>> 2);\n" +
+            "        /* orphan */\n" +
+            "    }\n" +
+            "}\n";
+
+    @TempDir
+    Path cacheDir;
+
+    private static byte[] write(boolean tokens, Node... nodes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BinaryAstWriter writer = new BinaryAstWriter(out, tokens)) {
+            for (Node node : nodes) {
+                writer.write(node);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        CompilationUnit cu = parse(CODE);
+
+        BinaryAstReader reader = new BinaryAstReader(new ByteArrayInputStream(write(false, cu)));
+        CompilationUnit read = (CompilationUnit) reader.read().get();
+
+        assertEquals(cu, read);
+        assertEquals(cu.toString(), read.toString());
+        assertEquals(cu.getAllContainedComments(), read.getAllContainedComments());
+        assertEquals(cu.findAll(Node.class).size(), read.findAll(Node.class).size());
+        assertEquals(cu.getType(0).getRange(), read.getType(0).getRange());
+        assertFalse(read.getTokenRange().isPresent());
+        assertFalse(reader.read().isPresent());
+    }
+
+    @Test
+    void tokensAreKept() throws IOException {
+        CompilationUnit cu = parse(CODE);
+
+        CompilationUnit read = (CompilationUnit) new BinaryAstReader(new ByteArrayInputStream(write(true, cu))).read().get();
+
+        assertEquals(cu.getTokenRange().get().toString(), read.getTokenRange().get().toString());
+        ClassOrInterfaceDeclaration x = read.getClassByName("X").get();
+        assertEquals(cu.getClassByName("X").get().getTokenRange().get().getBegin().getRange(), x.getTokenRange().get().getBegin().getRange());
+
+        LexicalPreservingPrinter.setup(read);
+        x.addField("int", "y");
+        assertTrue(LexicalPreservingPrinter.print(read).startsWith("package a.b;\n\nimport java.util.List;\n\n/** Javadoc */\n"));
+        assertTrue(LexicalPreservingPrinter.print(read).contains("int y;"));
+    }
+
+    @Test
+    void manyAstsShareTheStringTable() throws IOException {
+        Expression a = parseExpression("someLongIdentifier + someLongIdentifier");
+        Expression b = parseExpression("someLongIdentifier * 2");
+
+        byte[] both = write(false, a, b);
+        BinaryAstReader reader = new BinaryAstReader(new ByteArrayInputStream(both));
+
+        assertEquals(a, reader.read().get());
+        assertEquals(b, reader.read().get());
+        assertFalse(reader.read().isPresent());
+        assertEquals(1, new String(both, UTF_8).split("someLongIdentifier", -1).length - 1);
+    }
+
+    @Test
+    void muchSmallerThanJson() throws IOException {
+        CompilationUnit cu = parse(CODE);
+
+        int binary = write(true, cu).length;
+        int json = JavaParserJsonSerializerTest.serialize(cu, false).getBytes(UTF_8).length;
+
+        assertTrue(binary * 4 < json, binary + " vs " + json);
+    }
+
+    @Test
+    void otherStreamsAreRejected() {
+        assertThrows(IOException.class, () -> new BinaryAstReader(new ByteArrayInputStream("{}".getBytes(UTF_8))));
+    }
+
+    @Test
+    void parseCacheKeepsLexicalPreservation() throws IOException {
+        ParserConfiguration configuration = new ParserConfiguration().setLexicalPreservationEnabled(true);
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, new BinaryParseCacheCodec(), 1_000_000);
+        byte[] source = CODE.getBytes(UTF_8);
+        cache.store(source, configuration, new JavaParser(configuration).parse(CODE).getResult().get());
+
+        Optional<CompilationUnit> loaded = cache.load(source, configuration);
+
+        assertTrue(loaded.isPresent());
+        assertEquals(CODE, LexicalPreservingPrinter.print(loaded.get()));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.serialization;
+
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.utils.PersistentParseCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static com.github.javaparser.StaticJavaParser.parse;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class JsonParseCacheCodecTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void unitsSurviveTheCache() throws IOException {
+        String code = "package a; /** A class */ class X { int x = 1 + 2; }";
+        ParserConfiguration configuration = new ParserConfiguration().setStoreTokens(false);
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, new JsonParseCacheCodec(), 1_000_000);
+        CompilationUnit parsed = parse(code);
+
+        cache.store(code.getBytes(UTF_8), configuration, parsed);
+        CompilationUnit loaded = cache.load(code.getBytes(UTF_8), configuration).get();
+
+        assertEquals(parsed, loaded);
+        assertEquals(parsed.getRange(), loaded.getRange());
+        assertEquals(parsed.getType(0).getComment(), loaded.getType(0).getComment());
+    }
+
+    @Test
+    void configurationsStoringTokensAreNotSupported() throws IOException {
+        String code = "class X {}";
+        ParserConfiguration configuration = new ParserConfiguration();
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, new JsonParseCacheCodec(), 1_000_000);
+
+        cache.store(code.getBytes(UTF_8), configuration, parse(code));
+
+        assertFalse(cache.supports(configuration));
+        assertEquals(0, cache.getSizeInBytes());
+        assertFalse(cache.load(code.getBytes(UTF_8), configuration).isPresent());
+    }
+}
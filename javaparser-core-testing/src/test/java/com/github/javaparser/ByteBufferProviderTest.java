@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteBufferProviderTest {
+
+    private static final String MIXED = "class A { String s = \"café € 😀 éé\"; } // 中文\n";
+
+    private static String readAll(Provider provider, int chunkSize) throws IOException {
+        StringBuilder result = new StringBuilder();
+        char[] buffer = new char[chunkSize];
+        int read;
+        while ((read = provider.read(buffer, 0, chunkSize)) != -1) {
+            result.append(buffer, 0, read);
+        }
+        return result.toString();
+    }
+
+    private static String readWithReader(byte[] bytes, Charset encoding) throws IOException {
+        StringBuilder result = new StringBuilder();
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes), encoding)) {
+            int c;
+            while ((c = reader.read()) != -1) {
+                result.append((char) c);
+            }
+        }
+        return result.toString();
+    }
+
+    @Test
+    void decodesUtf8WithAnyReadSize() throws IOException {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            source.append(MIXED);
+        }
+        byte[] bytes = source.toString().getBytes(UTF_8);
+        for (int chunkSize : new int[]{1, 2, 3, 7, 64, 4096}) {
+            assertEquals(source.toString(), readAll(new ByteBufferProvider(ByteBuffer.wrap(bytes), UTF_8), chunkSize));
+        }
+    }
+
+    @Test
+    void decodesDirectBuffers() throws IOException {
+        byte[] bytes = MIXED.getBytes(UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(MIXED, readAll(new ByteBufferProvider(direct, UTF_8), 5));
+    }
+
+    @Test
+    void decodesOtherCharsets() throws IOException {
+        String latin = "class A { String s = \"éèÿ\"; }";
+        assertEquals(latin, readAll(new ByteBufferProvider(ByteBuffer.wrap(latin.getBytes(ISO_8859_1)), ISO_8859_1), 4));
+        assertEquals(MIXED, readAll(new ByteBufferProvider(ByteBuffer.wrap(MIXED.getBytes(UTF_16)), UTF_16), 3));
+    }
+
+    @Test
+    void malformedInputIsReplacedLikeAReaderDoes() throws IOException {
+        byte[] bytes = {'a', (byte) 0xC3, 'b', (byte) 0xE2, (byte) 0x82, 'c', (byte) 0xFF, (byte) 0xE2};
+        assertEquals(readWithReader(bytes, UTF_8), readAll(new ByteBufferProvider(ByteBuffer.wrap(bytes), UTF_8), 2));
+    }
+
+    /**
+     * A charset of which the decoder holds every byte back until it sees the next one, and gives the last one back
+     * only when flushed.
+     */
+    private static class HoldingBackCharset extends Charset {
+
+        HoldingBackCharset() {
+            super("X-HOLDING-BACK", null);
+        }
+
+        @Override
+        public boolean contains(Charset cs) {
+            return false;
+        }
+
+        @Override
+        public CharsetDecoder newDecoder() {
+            return new CharsetDecoder(this, 1, 1) {
+                private int held = -1;
+
+                @Override
+                protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out) {
+                    while (in.hasRemaining()) {
+                        if (held >= 0) {
+                            if (!out.hasRemaining()) {
+                                return CoderResult.OVERFLOW;
+                            }
+                            out.put((char) held);
+                        }
+                        held = in.get() & 0xFF;
+                    }
+                    return CoderResult.UNDERFLOW;
+                }
+
+                @Override
+                protected CoderResult implFlush(CharBuffer out) {
+                    if (held >= 0) {
+                        if (!out.hasRemaining()) {
+                            return CoderResult.OVERFLOW;
+                        }
+                        out.put((char) held);
+                        held = -1;
+                    }
+                    return CoderResult.UNDERFLOW;
+                }
+
+                @Override
+                protected void implReset() {
+                    held = -1;
+                }
+            };
+        }
+
+        @Override
+        public CharsetEncoder newEncoder() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Test
+    void whatTheDecoderHoldsIsFlushedAtTheEnd() throws IOException {
+        String source = "class A {}";
+        for (int chunkSize : new int[]{1, 2, 3, 64}) {
+            Provider provider = new ByteBufferProvider(ByteBuffer.wrap(source.getBytes(US_ASCII)), new HoldingBackCharset());
+            assertEquals(source, readAll(provider, chunkSize));
+        }
+    }
+
+    @Test
+    void statefulCharsetsAreDecoded() throws IOException {
+        Charset iso2022jp = Charset.forName("ISO-2022-JP");
+        String source = "class A { String s = \"日本語\"; }";
+        assertEquals(source, readAll(new ByteBufferProvider(ByteBuffer.wrap(source.getBytes(iso2022jp)), iso2022jp), 3));
+    }
+
+    @Test
+    void filesAreReadIntoTheHeap(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("A.java");
+        Files.write(file, MIXED.getBytes(UTF_8));
+
+        assertEquals(MIXED, readAll(Providers.provider(file), 7));
+    }
+
+    @Test
+    void largeFilesCanBeParsedFromAMapping(@TempDir Path dir) throws IOException {
+        StringBuilder source = new StringBuilder("class A {\n");
+        int fields = 0;
+        while (source.length() < 1024 * 1024) {
+            source.append("    String f").append(fields++).append(" = \"é\";\n");
+        }
+        source.append("}\n");
+        Path file = dir.resolve("A.java");
+        Files.write(file, source.toString().getBytes(UTF_8));
+
+        ParseResult<CompilationUnit> result = new JavaParser().parse(ParseStart.COMPILATION_UNIT, ByteBufferProvider.mapped(file, UTF_8));
+
+        assertTrue(result.isSuccessful());
+        assertEquals(fields, result.getResult().get().getType(0).getFields().size());
+    }
+
+    @Test
+    void closedProviderCannotBeRead() throws IOException {
+        Provider provider = new ByteBufferProvider(ByteBuffer.wrap(MIXED.getBytes(UTF_8)), UTF_8);
+        provider.close();
+        assertThrows(IOException.class, () -> provider.read(new char[10], 0, 10));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.Expression;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.javaparser.ParseStart.EXPRESSION;
+import static com.github.javaparser.Providers.provider;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaParserPoolTest {
+
+    @Test
+    void parsersAreReused() {
+        JavaParserPool pool = new JavaParserPool(new ParserConfiguration(), 2);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(pool.parse("class A" + i + " {}").isSuccessful());
+        }
+
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(10, pool.getBorrowCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void surplusParsersAreDropped() {
+        JavaParserPool pool = new JavaParserPool(new ParserConfiguration(), 1);
+
+        pool.withParser(outer -> pool.withParser(inner -> {
+            assertNotSame(outer, inner);
+            return null;
+        }));
+
+        assertEquals(2, pool.getCreatedCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void problemsAreNotSharedBetweenParses() {
+        JavaParserPool pool = new JavaParserPool(new ParserConfiguration(), 1);
+
+        ParseResult<CompilationUnit> broken = pool.parse("class {");
+        ParseResult<CompilationUnit> fine = pool.parse("class A {}");
+
+        assertFalse(broken.isSuccessful());
+        assertTrue(fine.isSuccessful());
+        assertTrue(fine.getProblems().isEmpty());
+    }
+
+    @Test
+    void parseFromManyThreads() throws Exception {
+        int threads = 8;
+        JavaParserPool pool = new JavaParserPool(new ParserConfiguration(), threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ParseResult<Expression>>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                String code = "a" + i + " + b" + i;
+                futures.add(executor.submit(() -> pool.parse(EXPRESSION, provider(code))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                ParseResult<Expression> result = futures.get(i).get();
+                assertTrue(result.isSuccessful(), result::toString);
+                assertEquals("a" + i + " + b" + i, result.getResult().get().toString());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(2000, pool.getBorrowCount());
+        assertTrue(pool.getCreatedCount() <= threads);
+        assertTrue(pool.getIdleCount() <= threads);
+    }
+}
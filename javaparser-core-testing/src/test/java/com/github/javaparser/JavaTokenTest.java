@@ -22,11 +22,14 @@
 package com.github.javaparser;
 
 
+import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.expr.Expression;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import static com.github.javaparser.GeneratedJavaParserConstants.*;
 import static com.github.javaparser.JavaToken.Category.*;
@@ -60,6 +63,58 @@ class JavaTokenTest {
         assertTrue(token.getNextToken().isPresent() || token.getPreviousToken().isPresent());
     }
 
+    @Test
+    void rangeCanBeSetAndRemoved() {
+        JavaToken token = new JavaToken(GeneratedJavaParserConstants.IDENTIFIER, "a");
+        assertFalse(token.hasRange());
+        assertFalse(token.getRange().isPresent());
+
+        token.setRange(range(3, 4, 3, 4));
+        assertEquals(range(3, 4, 3, 4), token.getRange().get());
+
+        token.setRange(null);
+        assertFalse(token.hasRange());
+    }
+
+    @Test
+    void positionsAreComparedLikeTheRange() {
+        JavaToken token = new JavaToken(GeneratedJavaParserConstants.IDENTIFIER, "ab");
+        assertFalse(token.isInside(range(1, 1, 9, 9)));
+        assertFalse(token.beginsBefore(new Position(9, 9)));
+
+        token.setRange(range(3, 4, 3, 5));
+        assertEquals(3, token.getBeginLine());
+        assertEquals(4, token.getBeginColumn());
+        assertEquals(3, token.getEndLine());
+        assertEquals(5, token.getEndColumn());
+        assertTrue(token.isInside(range(3, 4, 3, 5)));
+        assertTrue(token.isInside(range(2, 9, 4, 1)));
+        assertFalse(token.isInside(range(3, 5, 4, 1)));
+        assertFalse(token.isInside(range(1, 1, 3, 4)));
+        assertTrue(token.beginsBefore(new Position(3, 5)));
+        assertFalse(token.beginsBefore(new Position(3, 4)));
+        assertTrue(token.beginsAfter(new Position(2, 10)));
+        assertFalse(token.beginsAfter(new Position(3, 4)));
+    }
+
+    @Test
+    void tokensWithTheSameTextShareIt() {
+        CompilationUnit cu = new JavaParser().parse("class A { A a; A b() { return a; } }").getResult().get();
+        List<JavaToken> identifiers = new ArrayList<>();
+        List<JavaToken> spaces = new ArrayList<>();
+        for (JavaToken token : cu.getTokenRange().get()) {
+            if (token.getKind() == GeneratedJavaParserConstants.IDENTIFIER && token.getText().equals("A")) {
+                identifiers.add(token);
+            } else if (token.getKind() == SPACE) {
+                spaces.add(token);
+            }
+        }
+        assertEquals(3, identifiers.size());
+        assertTrue(identifiers.stream().allMatch(t -> t.getText() == identifiers.get(0).getText()));
+        assertTrue(spaces.stream().allMatch(t -> t.getText() == spaces.get(0).getText()));
+        assertSame(identifiers.get(0).getText(), cu.getType(0).getName().getIdentifier());
+    }
+
     @Test
     void testAFewImagesForTokenKinds() {
         assertEquals("=", new JavaToken(ASSIGN).getText());
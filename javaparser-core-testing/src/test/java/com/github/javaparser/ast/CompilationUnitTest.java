@@ -25,11 +25,18 @@ import com.github.javaparser.ast.body.AnnotationDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.expr.ArrayAccessExpr;
 import com.github.javaparser.ast.modules.ModuleDeclaration;
+import com.github.javaparser.printer.DefaultPrettyPrinter;
+import com.github.javaparser.printer.Printer;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.stream.Stream;
 
 import static com.github.javaparser.StaticJavaParser.parse;
 import static com.github.javaparser.utils.CodeGenerationUtils.mavenModuleRoot;
@@ -77,6 +84,45 @@ class CompilationUnitTest {
         assertEquals(sourceRoot, sourceRoot1);
     }
 
+    @Test
+    void saveWritesThePrintedCode(@TempDir Path dir) throws IOException {
+        CompilationUnit cu = parse("class A { int  a; }");
+        cu.setStorage(dir.resolve(Paths.get("p", "A.java")));
+
+        cu.getStorage().get().save();
+        assertEquals(cu.toString(), new String(Files.readAllBytes(cu.getStorage().get().getPath()), StandardCharsets.UTF_8));
+
+        LexicalPreservingPrinter.setup(cu);
+        cu.getStorage().get().save(LexicalPreservingPrinter::print);
+        assertEquals("class A { int  a; }", new String(Files.readAllBytes(cu.getStorage().get().getPath()), StandardCharsets.UTF_8));
+
+        cu.getClassByName("A").get().addField("int", "b");
+        cu.getStorage().get().save(LexicalPreservingPrinter.printer());
+        assertEquals(LexicalPreservingPrinter.print(cu), new String(Files.readAllBytes(cu.getStorage().get().getPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void saveLeavesTheFileAsItWasWhenPrintingFails(@TempDir Path dir) throws IOException {
+        CompilationUnit cu = parse("class A { int  a; }");
+        cu.setStorage(dir.resolve("A.java"));
+        cu.getStorage().get().save();
+        byte[] saved = Files.readAllBytes(cu.getStorage().get().getPath());
+
+        Printer failing = new DefaultPrettyPrinter() {
+            @Override
+            public void print(Node node, Appendable output) throws IOException {
+                output.append("class");
+                throw new IOException("failed");
+            }
+        };
+
+        assertThrows(RuntimeException.class, () -> cu.getStorage().get().save(failing));
+        assertArrayEquals(saved, Files.readAllBytes(cu.getStorage().get().getPath()));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
     @Test
     void testGetPrimaryTypeName() throws IOException {
         Path sourceRoot = mavenModuleRoot(CompilationUnitTest.class).resolve(Paths.get("src", "test", "resources")).normalize();
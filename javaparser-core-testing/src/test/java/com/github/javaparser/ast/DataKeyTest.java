@@ -24,8 +24,12 @@ package com.github.javaparser.ast;
 import com.github.javaparser.ast.expr.SimpleName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -83,4 +87,39 @@ class DataKeyTest {
         assertEquals("ABC!", clone.getData(ABC));
         assertEquals("DEF!", clone.getData(DEF));
     }
+
+    @Test
+    void settingNullRemovesTheData() {
+        Node node = new SimpleName();
+        node.setData(ABC, "Hurray!");
+
+        node.setData(ABC, null);
+
+        assertThat(node.containsData(ABC)).isFalse();
+    }
+
+    @Test
+    void dataCanBeSetFromManyThreadsAtOnce() throws Exception {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            nodes.add(new SimpleName());
+        }
+        List<DataKey<String>> keys = Arrays.asList(ABC, DEF);
+        ExecutorService executor = Executors.newFixedThreadPool(keys.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (DataKey<String> key : keys) {
+                futures.add(executor.submit(() -> nodes.forEach(node -> node.setData(key, "set"))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (Node node : nodes) {
+            assertThat(node.getDataKeys()).containsExactlyInAnyOrder(ABC, DEF);
+        }
+    }
 }
@@ -21,11 +21,21 @@
 
 package com.github.javaparser.printer;
 
+import com.github.javaparser.GeneratedJavaParserConstants;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.expr.ClassExpr;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.printer.concretesyntaxmodel.CsmProgram;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static com.github.javaparser.StaticJavaParser.*;
+import static com.github.javaparser.printer.concretesyntaxmodel.CsmConditional.Condition.IS_PRESENT;
+import static com.github.javaparser.printer.concretesyntaxmodel.CsmElement.*;
+import static com.github.javaparser.printer.concretesyntaxmodel.CsmProgram.Instruction.*;
 import static com.github.javaparser.utils.Utils.SYSTEM_EOL;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -94,4 +104,47 @@ class ConcreteSyntaxModelTest {
         assertEquals("public interface A {" + SYSTEM_EOL +
                 "}" + SYSTEM_EOL, print(node));
     }
+
+    @Test
+    void programsPrintLikeTheModelsTheyAreCompiledFrom() {
+        Node cu = parse("package p;\n" +
+                "import static java.util.List.*;\n" +
+                "@Deprecated public abstract class A<T extends Number & Comparable<T>> extends B implements C, D {\n" +
+                "    private static final int[] X = {1, 2}, Y[] = {};\n" +
+                "    A(int... a) throws E { super(); this.x = a.length > 0 ? a[0] : -1; }\n" +
+                "    abstract <U> U m(@Q final U u);\n" +
+                "    void n() {\n" +
+                "        label: for (int i = 0, j = 1; i < 10; i++, j--) { if (i == 2) continue label; else break; }\n" +
+                "        for (String s : list) synchronized (this) { s.length(); }\n" +
+                "        try (R r = new R()) { throw new E(\"m\"); } catch (E1 | E2 e) { } finally { }\n" +
+                "        switch (x) { case 1: case 2: y = 'c'; break; default: y = (char) 0; }\n" +
+                "        Runnable r = () -> {}; Function<T, T> f = T::of; assert x != null : \"x\";\n" +
+                "        do { x <<= 1; } while (!(x instanceof String));\n" +
+                "        new A<>() { int z; }.n(); Object o = new int[][]{{1}}; int[] a = new int[3];\n" +
+                "    }\n" +
+                "    enum E { ONE(1) { }, TWO; E() { } }\n" +
+                "    @interface Q { int value() default 1; }\n" +
+                "}\n");
+
+        for (Node node : cu.findAll(Node.class)) {
+            SourcePrinter fromModel = new SourcePrinter();
+            ConcreteSyntaxModel.forClass(node.getClass()).prettyPrint(node, fromModel);
+            SourcePrinter fromProgram = new SourcePrinter();
+            ConcreteSyntaxModel.programForClass(node.getClass()).prettyPrint(node, fromProgram);
+            assertEquals(fromModel.toString(), fromProgram.toString(), node.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void sequencesAreInlinedAndConditionalsBecomeJumps() {
+        CsmProgram program = CsmProgram.compile(sequence(
+                token(GeneratedJavaParserConstants.LBRACE),
+                conditional(ObservableProperty.TYPE, IS_PRESENT, sequence(child(ObservableProperty.TYPE), space()), token(GeneratedJavaParserConstants.VOID)),
+                sequence(none(), token(GeneratedJavaParserConstants.RBRACE))));
+
+        assertEquals(Arrays.asList(TOKEN, JUMP_UNLESS, SINGLE_REFERENCE, TOKEN, JUMP, TOKEN, TOKEN),
+                IntStream.range(0, program.size()).mapToObj(program::getInstruction).collect(Collectors.toList()));
+        assertEquals(5, program.getJumpTarget(1));
+        assertEquals(6, program.getJumpTarget(4));
+    }
 }
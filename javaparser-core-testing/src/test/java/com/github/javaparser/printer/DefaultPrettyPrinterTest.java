@@ -25,7 +25,9 @@ import com.github.javaparser.*;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
 import com.github.javaparser.ast.expr.VariableDeclarationExpr;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.type.PrimitiveType;
@@ -41,12 +43,19 @@ import com.github.javaparser.printer.configuration.imports.IntelliJImportOrderin
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
 import static com.github.javaparser.ParseStart.COMPILATION_UNIT;
 import static com.github.javaparser.ParserConfiguration.LanguageLevel.JAVA_9;
 import static com.github.javaparser.Providers.provider;
 import static com.github.javaparser.StaticJavaParser.*;
 import static com.github.javaparser.utils.TestUtils.assertEqualsStringIgnoringEol;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DefaultPrettyPrinterTest {
@@ -662,4 +671,164 @@ class DefaultPrettyPrinterTest {
         assertEqualsStringIgnoringEol(expectedCode, actualCode);
     }
 
+    private CompilationUnit largeCompilationUnit() {
+        StringBuilder code = new StringBuilder("class A {\n");
+        for (int i = 0; i < 1000; i++) {
+            code.append("    int f").append(i).append(" = ").append(i).append(";\n");
+        }
+        return parse(code.append("}\n").toString());
+    }
+
+    @Test
+    void printingToAnAppendableGivesTheSameCode() throws IOException {
+        CompilationUnit cu = largeCompilationUnit();
+        Printer printer = getDefaultPrinter();
+
+        StringBuilder output = new StringBuilder();
+        printer.print(cu, output);
+
+        assertEquals(printer.print(cu), output.toString());
+    }
+
+    @Test
+    void printingToAnAppendableWithAVisitorFactory() throws IOException {
+        CompilationUnit cu = largeCompilationUnit();
+        Printer printer = new DefaultPrettyPrinter(DefaultPrettyPrinterVisitor::new, new DefaultPrinterConfiguration());
+
+        StringBuilder output = new StringBuilder();
+        printer.print(cu, output);
+
+        assertEquals(getDefaultPrinter().print(cu), output.toString());
+    }
+
+    @Test
+    void errorsWritingToTheAppendableAreThrown() {
+        CompilationUnit cu = parse("class A {}");
+        Appendable output = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) throws IOException {
+                throw new IOException("No space left on device");
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) throws IOException {
+                throw new IOException("No space left on device");
+            }
+
+            @Override
+            public Appendable append(char c) throws IOException {
+                throw new IOException("No space left on device");
+            }
+        };
+
+        assertThrows(IOException.class, () -> getDefaultPrinter().print(cu, output));
+    }
+
+    private static final String CACHED_CODE = "package a;\n" +
+            "\n" +
+            "/** A class */\n" +
+            "class A {\n" +
+            "    // orphan comment\n" +
+            "\n" +
+            "    int x;\n" +
+            "\n" +
+            "    /** first */\n" +
+            "    void first(int a) {\n" +
+            "        // a comment\n" +
+            "        System.out.println(a);\n" +
+            "        switch (a) {\n" +
+            "            case 1:\n" +
+            "                a++;\n" +
+            "        }\n" +
+            "    }\n" +
+            "\n" +
+            "    void second() {\n" +
+            "        int y = 2;\n" +
+            "    }\n" +
+            "\n" +
+            "    class Inner {\n" +
+            "        void third() {\n" +
+            "            return;\n" +
+            "        }\n" +
+            "    }\n" +
+            "    // orphan comment at the end\n" +
+            "}\n";
+
+    private static MethodDeclaration method(CompilationUnit cu, String name) {
+        return cu.findFirst(MethodDeclaration.class, m -> m.getNameAsString().equals(name)).get();
+    }
+
+    @Test
+    void cachedPrintingGivesTheSameCodeAfterModifications() throws IOException {
+        CompilationUnit cu = parse(CACHED_CODE);
+        DefaultPrettyPrinter printer = new DefaultPrettyPrinter().setPrintCacheEnabled(true);
+        List<Consumer<CompilationUnit>> modifications = Arrays.asList(
+                c -> method(c, "first").setName("renamed"),
+                c -> method(c, "second").getBody().get().addStatement("y++;"),
+                c -> method(c, "third").getBody().get().getStatement(0).setLineComment("returns"),
+                c -> method(c, "renamed").getJavadocComment().get().setContent("renamed"),
+                c -> c.getType(0).removeOrphanComment(c.getType(0).getOrphanComments().get(0)),
+                c -> method(c, "second").getBody().get().addStatement(method(c, "renamed").getBody().get().getStatement(0)),
+                c -> c.getType(0).addMember(method(c, "second").clone().setName("fourth")),
+                c -> method(c, "third").remove(),
+                c -> c.getType(0).getMember(0).asFieldDeclaration().getVariable(0).setName("z"));
+
+        assertEquals(new DefaultPrettyPrinter().print(cu), printer.print(cu));
+        for (Consumer<CompilationUnit> modification : modifications) {
+            modification.accept(cu);
+            String expected = new DefaultPrettyPrinter().print(cu);
+            assertEquals(expected, printer.print(cu));
+            StringBuilder output = new StringBuilder();
+            printer.print(cu, output);
+            assertEquals(expected, output.toString());
+        }
+    }
+
+    @Test
+    void onlyTheModifiedNodesAreDroppedFromThePrintCache() {
+        CompilationUnit cu = parse(CACHED_CODE);
+        DefaultPrettyPrinter printer = new DefaultPrettyPrinter().setPrintCacheEnabled(true);
+        printer.print(cu);
+
+        method(cu, "first").getBody().get().getStatement(0).remove();
+
+        assertTrue(method(cu, "first").getDataKeys().isEmpty());
+        assertTrue(cu.getType(0).getDataKeys().isEmpty());
+        assertFalse(method(cu, "second").getDataKeys().isEmpty());
+        assertFalse(method(cu, "first").getBody().get().getStatement(0).getDataKeys().isEmpty());
+        assertEquals(new DefaultPrettyPrinter().print(cu), printer.print(cu));
+    }
+
+    @Test
+    void printCacheIsNotUsedForClonesEditedBeforeBeingAdded() {
+        CompilationUnit cu = parse(CACHED_CODE);
+        DefaultPrettyPrinter printer = new DefaultPrettyPrinter().setPrintCacheEnabled(true);
+        printer.print(cu);
+
+        MethodDeclaration clone = method(cu, "second").clone().setName("fourth");
+        clone.findFirst(IntegerLiteralExpr.class).get().setValue("3");
+        cu.getType(0).addMember(clone);
+
+        assertEquals(new DefaultPrettyPrinter().print(cu), printer.print(cu));
+    }
+
+    @Test
+    void printCacheIsNotUsedWithAnotherConfiguration() {
+        CompilationUnit cu = parse(CACHED_CODE);
+        DefaultPrettyPrinter printer = new DefaultPrettyPrinter().setPrintCacheEnabled(true);
+        printer.print(cu);
+
+        Indentation indentation = new Indentation(IndentType.TABS, 1);
+        printer.getConfiguration().addOption(new DefaultConfigurationOption(ConfigOption.INDENTATION, indentation));
+
+        assertEquals(cu.toString(new DefaultPrinterConfiguration()
+                .addOption(new DefaultConfigurationOption(ConfigOption.INDENTATION, indentation))), printer.print(cu));
+    }
+
+    @Test
+    void printCacheNeedsTheDefaultVisitor() {
+        DefaultPrettyPrinter printer = new DefaultPrettyPrinter(DefaultPrettyPrinterVisitor::new, new DefaultPrinterConfiguration());
+
+        assertThrows(IllegalStateException.class, () -> printer.setPrintCacheEnabled(true));
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.printer.lexicalpreservation;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import static com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter.NODE_TEXT_DATA;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyLexicalPreservingPrinterTest extends AbstractLexicalPreservingTest {
+
+    private static final String CODE = "public class A {\n" +
+            "    // a comment\n" +
+            "    public  static void first(int a, String b[]) {\n" +
+            "        System.out.println( \"first\" );\n" +
+            "    }\n" +
+            "\n" +
+            "    /** javadoc */\n" +
+            "    protected void second() { int x = 1, y[] = {}; }\n" +
+            "}\n";
+
+    private static MethodDeclaration method(CompilationUnit cu, String name) {
+        return cu.findFirst(MethodDeclaration.class, m -> m.getNameAsString().equals(name)).get();
+    }
+
+    /**
+     * Applies the same modification to a tree set up eagerly and to a tree set up lazily.
+     */
+    private static void assertSameAsEager(String code, Consumer<CompilationUnit> modification) {
+        CompilationUnit eager = LexicalPreservingPrinter.setup(StaticJavaParser.parse(code));
+        CompilationUnit lazy = LexicalPreservingPrinter.setupLazily(StaticJavaParser.parse(code));
+        modification.accept(eager);
+        modification.accept(lazy);
+        assertEquals(LexicalPreservingPrinter.print(eager), LexicalPreservingPrinter.print(lazy));
+    }
+
+    @Test
+    void noTextIsBuiltWhenNothingIsModified() {
+        CompilationUnit cu = LexicalPreservingPrinter.setupLazily(StaticJavaParser.parse(CODE));
+
+        assertEquals(CODE, LexicalPreservingPrinter.print(cu));
+        assertFalse(cu.stream().anyMatch(n -> n.containsData(NODE_TEXT_DATA)));
+        assertTrue(LexicalPreservingPrinter.isAvailableOn(method(cu, "first")));
+    }
+
+    @Test
+    void onlyTheModifiedNodesAndTheirAncestorsHaveText() {
+        CompilationUnit cu = LexicalPreservingPrinter.setupLazily(StaticJavaParser.parse(CODE));
+        MethodDeclaration first = method(cu, "first");
+
+        first.setName("renamed");
+
+        for (Node node = first; node != null; node = node.getParentNode().orElse(null)) {
+            assertTrue(node.containsData(NODE_TEXT_DATA), node.getClass().getSimpleName());
+        }
+        assertFalse(first.getBody().get().containsData(NODE_TEXT_DATA));
+        assertFalse(method(cu, "second").stream().anyMatch(n -> n.containsData(NODE_TEXT_DATA)));
+        assertEquals(CODE.replace("first(", "renamed("), LexicalPreservingPrinter.print(cu));
+    }
+
+    @Test
+    void modificationsGiveTheSameTextAsWithAnEagerSetup() {
+        assertSameAsEager(CODE, cu -> method(cu, "first").removeModifier(Modifier.Keyword.PUBLIC));
+        assertSameAsEager(CODE, cu -> method(cu, "second").getBody().get().addStatement("return;"));
+        assertSameAsEager(CODE, cu -> method(cu, "first").getParameter(1).setName("c"));
+        assertSameAsEager(CODE, cu -> cu.findFirst(StringLiteralExpr.class).get().setValue("changed"));
+        assertSameAsEager(CODE, cu -> method(cu, "second").remove());
+        assertSameAsEager(CODE, cu -> cu.getType(0).addMember(method(cu, "first").clone().setName("third")));
+        assertSameAsEager(CODE, cu -> {
+            BlockStmt body = method(cu, "first").getBody().get();
+            Statement moved = body.getStatement(0);
+            method(cu, "second").getBody().get().addStatement(moved);
+        });
+    }
+
+    @Test
+    void nodesParsedSeparatelyAreAddedAsWithAnEagerSetup() {
+        assertSameAsEager(CODE, cu -> method(cu, "second").getBody().get()
+                .addStatement(StaticJavaParser.parseStatement("if(x>0){  x--;}")));
+        assertSameAsEager(CODE, cu -> method(cu, "second").getBody().get()
+                .addStatement(LexicalPreservingPrinter.setup(StaticJavaParser.parseStatement("if(x>0){  x--;}"))));
+    }
+
+    @Test
+    void manyMembersWithOverlappingRangesGiveTheSameTextAsWithAnEagerSetup() {
+        StringBuilder code = new StringBuilder("class B {\n");
+        for (int i = 0; i < 500; i++) {
+            code.append("    int a").append(i).append(", b").append(i).append("[] = {};\n");
+        }
+        code.append("}\n");
+
+        assertEquals(code.toString(), LexicalPreservingPrinter.print(LexicalPreservingPrinter.setupLazily(StaticJavaParser.parse(code.toString()))));
+        assertSameAsEager(code.toString(), cu -> cu.getType(0).getMember(250).remove());
+        assertSameAsEager(code.toString(), cu -> cu.getType(0).getMember(250).asFieldDeclaration().getVariable(1).setName("c"));
+    }
+
+    @Test
+    void unchangedExamplesArePrintedAsTheyAre() throws IOException {
+        for (String example : new String[]{"Example1_original", "Example2_original", "Example10_original"}) {
+            String code = readExample(example);
+            CompilationUnit cu = LexicalPreservingPrinter.setupLazily(StaticJavaParser.parse(code));
+            assertEquals(code, LexicalPreservingPrinter.print(cu));
+        }
+    }
+}
@@ -1754,4 +1754,56 @@ class LexicalPreservingPrinterTest extends AbstractLexicalPreservingTest {
         assertFalse(LexicalPreservingPrinter.isAvailableOn(cu));
     }
 
+    @Test
+    void removingOneOfTwoEqualStatements() {
+        considerCode("class A {\n" +
+                "    void foo() {\n" +
+                "        bar();\n" +
+                "        bar();\n" +
+                "        baz();\n" +
+                "    }\n" +
+                "}");
+        cu.findFirst(BlockStmt.class).get().getStatements().remove(1);
+
+        assertEqualsStringIgnoringEol("class A {\n" +
+                "    void foo() {\n" +
+                "        bar();\n" +
+                "        baz();\n" +
+                "    }\n" +
+                "}", LexicalPreservingPrinter.print(cu));
+    }
+
+    @Test
+    void removingManyMembers() {
+        StringBuilder code = new StringBuilder("class A {\n");
+        StringBuilder expected = new StringBuilder("class A {\n");
+        for (int i = 0; i < 200; i++) {
+            String field = "    int f" + i + " = " + i + ";\n";
+            code.append(field);
+            if (i % 2 == 1) {
+                expected.append(field);
+            }
+        }
+        considerCode(code.append("}").toString());
+        NodeList<BodyDeclaration<?>> members = cu.getType(0).getMembers();
+        for (int i = 0; i < 100; i++) {
+            members.remove(i);
+        }
+
+        assertEqualsStringIgnoringEol(expected.append("}").toString(), LexicalPreservingPrinter.print(cu));
+    }
+
+    @Test
+    void printToAnAppendable() throws IOException {
+        considerCode("class A {\n" +
+                "    int  a;\n" +
+                "}");
+        cu.getType(0).addField("int", "b");
+
+        StringBuilder output = new StringBuilder();
+        LexicalPreservingPrinter.print(cu, output);
+
+        assertEquals(LexicalPreservingPrinter.print(cu), output.toString());
+    }
+
 }
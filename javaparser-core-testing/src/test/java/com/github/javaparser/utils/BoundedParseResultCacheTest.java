@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.utils;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedParseResultCacheTest {
+
+    @TempDir
+    Path root;
+
+    private SourceRoot sourceRootWithFiles(int count, BoundedParseResultCache cache) throws IOException {
+        Files.createDirectories(root.resolve("a"));
+        for (int i = 0; i < count; i++) {
+            Files.write(root.resolve("a/C" + i + ".java"), ("package a; class C" + i + " {}").getBytes(UTF_8));
+        }
+        return new SourceRoot(root).setParseResultCache(cache);
+    }
+
+    @Test
+    void leastRecentlyUsedResultsAreDropped() throws IOException {
+        BoundedParseResultCache cache = new BoundedParseResultCache(2, result -> 1);
+        SourceRoot sourceRoot = sourceRootWithFiles(3, cache);
+
+        CompilationUnit first = sourceRoot.parse("a", "C0.java");
+        sourceRoot.parse("a", "C1.java");
+        assertSame(first, sourceRoot.parse("a", "C0.java"));
+        sourceRoot.parse("a", "C2.java");
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getWeight());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(first, sourceRoot.parse("a", "C0.java"));
+    }
+
+    @Test
+    void droppedResultsInUseAreGivenBack() throws IOException {
+        BoundedParseResultCache cache = new BoundedParseResultCache(1, result -> 1);
+        SourceRoot sourceRoot = sourceRootWithFiles(2, cache);
+
+        CompilationUnit first = sourceRoot.parse("a", "C0.java");
+        sourceRoot.parse("a", "C1.java");
+        assertEquals(1, cache.getEvictionCount());
+
+        assertSame(first, sourceRoot.parse("a", "C0.java"));
+    }
+
+    @Test
+    void unitsModifiedAfterBeingDroppedAreKeptAndSaved() throws IOException {
+        BoundedParseResultCache cache = new BoundedParseResultCache(1, result -> 1);
+        SourceRoot sourceRoot = sourceRootWithFiles(3, cache);
+
+        CompilationUnit first = sourceRoot.parse("a", "C0.java");
+        sourceRoot.parse("a", "C1.java");
+        sourceRoot.parse("a", "C2.java");
+        first.getType(0).asClassOrInterfaceDeclaration().setInterface(true);
+        sourceRoot.parse("a", "C1.java");
+        sourceRoot.saveAll();
+
+        assertSame(first, sourceRoot.parse("a", "C0.java"));
+        assertTrue(new String(Files.readAllBytes(root.resolve("a/C0.java")), UTF_8).contains("interface C0"));
+    }
+
+    @Test
+    void tryToParseReturnsDroppedResultsToo() throws IOException {
+        BoundedParseResultCache cache = new BoundedParseResultCache(1, result -> 1);
+        SourceRoot sourceRoot = sourceRootWithFiles(3, cache);
+
+        List<ParseResult<CompilationUnit>> results = sourceRoot.tryToParse();
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(ParseResult::isSuccessful));
+        assertTrue(cache.getWeight() <= 1);
+    }
+
+    @Test
+    void droppedFilesAreNotParsedAgainWhenListingTheCache() throws IOException {
+        BoundedParseResultCache cache = new BoundedParseResultCache(1, result -> 1);
+        SourceRoot sourceRoot = sourceRootWithFiles(3, cache);
+        sourceRoot.tryToParse();
+        long evictions = cache.getEvictionCount();
+
+        int cached = sourceRoot.getCache().size();
+        Set<Path> dropped = sourceRoot.getDroppedPaths();
+
+        assertEquals(evictions, cache.getEvictionCount());
+        assertEquals(3, cached + dropped.size());
+        assertEquals(cached, sourceRoot.getCompilationUnits().size());
+    }
+
+    @Test
+    void modifiedAndAddedUnitsAreKept() throws IOException {
+        BoundedParseResultCache cache = new BoundedParseResultCache(1, result -> 1);
+        SourceRoot sourceRoot = sourceRootWithFiles(3, cache);
+
+        CompilationUnit modified = sourceRoot.parse("a", "C0.java");
+        modified.getClassByName("C0").get().addField("int", "x");
+        sourceRoot.add("a", "Added.java", new CompilationUnit("a").addClass("Added").findCompilationUnit().get());
+        sourceRoot.parse("a", "C1.java");
+        sourceRoot.parse("a", "C2.java");
+
+        assertSame(modified, sourceRoot.parse("a", "C0.java"));
+        // The pinned units alone exceed the budget, so every other result is dropped
+        assertEquals(2, cache.size());
+        assertTrue(sourceRoot.getCompilationUnits().stream()
+                .anyMatch(cu -> cu.getType(0).getNameAsString().equals("Added")));
+    }
+
+    @Test
+    void saveAllWritesDroppedFilesToo(@TempDir Path target) throws IOException {
+        BoundedParseResultCache cache = new BoundedParseResultCache(1, result -> 1);
+        SourceRoot sourceRoot = sourceRootWithFiles(3, cache);
+
+        sourceRoot.parse("a", "C0.java").getType(0).asClassOrInterfaceDeclaration().setInterface(true);
+        sourceRoot.parse("a", "C1.java");
+        sourceRoot.parse("a", "C2.java");
+        sourceRoot.saveAll(target);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(Files.exists(target.resolve("a/C" + i + ".java")));
+        }
+        assertTrue(new String(Files.readAllBytes(target.resolve("a/C0.java")), UTF_8).contains("interface C0"));
+    }
+
+    @Test
+    void defaultWeightGrowsWithTheNumberOfNodes() throws IOException {
+        BoundedParseResultCache cache = new BoundedParseResultCache(Long.MAX_VALUE);
+        SourceRoot sourceRoot = sourceRootWithFiles(1, cache);
+        CompilationUnit cu = sourceRoot.parse("a", "C0.java");
+        long small = cache.getWeight();
+        ClassOrInterfaceDeclaration c = cu.getClassByName("C0").get();
+        c.addField("int", "x");
+        c.addField("int", "y");
+
+        assertTrue(small > 0);
+        assertTrue(BoundedParseResultCache.estimateSizeInBytes(sourceRoot.getCache().get(0)) > small);
+    }
+}
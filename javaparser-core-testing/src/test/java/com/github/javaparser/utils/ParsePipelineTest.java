@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.utils;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParsePipelineTest {
+
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    private Stream<ParsePipeline.Source> classes(int count) {
+        return IntStream.range(0, count).mapToObj(i -> ParsePipeline.Source.of(Paths.get("C" + i + ".java"), path -> {
+            parsed.incrementAndGet();
+            return new JavaParser().parse("class C" + i + " {}");
+        }));
+    }
+
+    @Test
+    void resultsComeInTheOrderOfTheSources() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (Stream<Pair<Path, ParseResult<CompilationUnit>>> results = new ParsePipeline(executor, 8).parse(classes(50))) {
+            List<String> names = results.map(pair -> pair.b.getResult().get().getType(0).getNameAsString())
+                    .collect(Collectors.toList());
+
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                expected.add("C" + i);
+            }
+            assertEquals(expected, names);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void unorderedPipelineReturnsAllResults() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (Stream<Pair<Path, ParseResult<CompilationUnit>>> results = new ParsePipeline(executor, 3).setOrdered(false).parse(classes(20))) {
+            assertEquals(20, results.filter(pair -> pair.b.isSuccessful()).count());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void noMoreThanMaxInFlightSourcesAreStartedAheadOfTheConsumer() {
+        try (Stream<Pair<Path, ParseResult<CompilationUnit>>> results = new ParsePipeline(Runnable::run, 3).parse(classes(100))) {
+            Iterator<Pair<Path, ParseResult<CompilationUnit>>> iterator = results.iterator();
+            iterator.next();
+            assertEquals(3, parsed.get());
+            iterator.next();
+            assertEquals(4, parsed.get());
+        }
+    }
+
+    @Test
+    void stoppingEarlyStopsParsing() {
+        try (Stream<Pair<Path, ParseResult<CompilationUnit>>> results = new ParsePipeline(Runnable::run, 5).parse(classes(100))) {
+            assertTrue(results.findFirst().isPresent());
+        }
+        assertEquals(5, parsed.get());
+    }
+
+    @Test
+    void closingTheStreamClosesTheSources() {
+        AtomicInteger closed = new AtomicInteger();
+        new ParsePipeline().parse(classes(1).onClose(closed::incrementAndGet)).close();
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void readErrorsBecomeProblems() {
+        Stream<ParsePipeline.Source> sources = Stream.of(ParsePipeline.Source.of(Paths.get("Missing.java"), path -> {
+            throw new FileNotFoundException(path.toString());
+        }));
+        try (Stream<Pair<Path, ParseResult<CompilationUnit>>> results = new ParsePipeline().parse(sources)) {
+            ParseResult<CompilationUnit> result = results.findFirst().get().b;
+
+            assertFalse(result.isSuccessful());
+            assertTrue(result.getProblem(0).getMessage().contains("Missing.java"));
+            assertTrue(result.getProblem(0).getCause().get() instanceof FileNotFoundException);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static com.github.javaparser.ParserConfiguration.LanguageLevel.JAVA_9;
 import static com.github.javaparser.utils.CodeGenerationUtils.mavenModuleRoot;
@@ -65,6 +66,17 @@ class ParserCollectionStrategyTest {
                 .containsExactly("without_module_info");
     }
 
+    @Test
+    void parseProjectRootAsStream() {
+        final Path root = mavenModuleRoot(SourceRootTest.class).resolve("src/test/resources/com/github/javaparser/utils/projectroot/issue2615/with_module_info");
+        final ProjectRoot projectRoot = parserCollectionStrategy.collect(root);
+
+        try (Stream<Pair<Path, ParseResult<CompilationUnit>>> results = projectRoot.parseAsStream(new ParsePipeline())) {
+            assertThat(results.map(pair -> pair.a.getFileName().toString()))
+                    .containsExactlyInAnyOrder("module-info.java", "Main.java");
+        }
+    }
+
     @Test
     void rootsAreFound_withModuleInfoAndJavaFileInPackage() {
         final Path root = mavenModuleRoot(SourceRootTest.class).resolve("src/test/resources/com/github/javaparser/utils/projectroot/issue2615/with_module_info");
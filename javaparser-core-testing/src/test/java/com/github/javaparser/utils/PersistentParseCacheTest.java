@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.utils;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.javaparser.ParserConfiguration.LanguageLevel.JAVA_8;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentParseCacheTest {
+
+    /**
+     * Stores the printed compilation unit, and parses it again when reading.
+     */
+    private static class PrintingCodec implements PersistentParseCache.Codec {
+
+        int reads = 0;
+
+        @Override
+        public String getId() {
+            return "printing";
+        }
+
+        @Override
+        public void write(CompilationUnit compilationUnit, OutputStream out) throws IOException {
+            out.write(compilationUnit.toString().getBytes(UTF_8));
+        }
+
+        @Override
+        public CompilationUnit read(InputStream in) throws IOException {
+            reads++;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                bytes.write(b);
+            }
+            ParseResult<CompilationUnit> result = new JavaParser().parse(new String(bytes.toByteArray(), UTF_8));
+            if (!result.isSuccessful()) {
+                throw new IOException("Damaged entry");
+            }
+            return result.getResult().get();
+        }
+    }
+
+    @TempDir
+    Path cacheDir;
+
+    @TempDir
+    Path sourceDir;
+
+    private final PrintingCodec codec = new PrintingCodec();
+
+    private final ParserConfiguration configuration = new ParserConfiguration().setStoreTokens(false);
+
+    private CompilationUnit parse(String code) {
+        return new JavaParser(configuration).parse(code).getResult().get();
+    }
+
+    @Test
+    void storedUnitsAreFound() throws IOException {
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, codec, 1_000_000);
+        byte[] source = "class A {}".getBytes(UTF_8);
+
+        assertFalse(cache.load(source, configuration).isPresent());
+        cache.store(source, configuration, parse("class A {}"));
+        Optional<CompilationUnit> loaded = cache.load(source, configuration);
+
+        assertTrue(loaded.isPresent());
+        assertEquals("A", loaded.get().getType(0).getNameAsString());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertTrue(cache.getSizeInBytes() > 0);
+    }
+
+    @Test
+    void otherContentOrConfigurationMisses() throws IOException {
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, codec, 1_000_000);
+        cache.store("class A {}".getBytes(UTF_8), configuration, parse("class A {}"));
+
+        assertFalse(cache.load("class B {}".getBytes(UTF_8), configuration).isPresent());
+        assertFalse(cache.load("class A {}".getBytes(UTF_8), new ParserConfiguration().setLanguageLevel(JAVA_8)).isPresent());
+    }
+
+    @Test
+    void entriesSurviveTheInstance() throws IOException {
+        byte[] source = "class A {}".getBytes(UTF_8);
+        new PersistentParseCache(cacheDir, codec, 1_000_000).store(source, configuration, parse("class A {}"));
+
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, codec, 1_000_000);
+
+        assertTrue(cache.getSizeInBytes() > 0);
+        assertTrue(cache.load(source, configuration).isPresent());
+    }
+
+    @Test
+    void loadedUnitsAreSetUpLikeParsedOnes() throws IOException {
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, codec, 1_000_000);
+        byte[] source = "class A {}\r\n".getBytes(UTF_8);
+        cache.store(source, configuration, parse("class A {}\r\n"));
+
+        CompilationUnit loaded = cache.load(source, configuration).get();
+
+        assertEquals(LineSeparator.CRLF, loaded.getData(Node.LINE_SEPARATOR_KEY));
+    }
+
+    @Test
+    void tokensAreOnlySupportedWhenTheCodecPreservesThem() throws IOException {
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, codec, 1_000_000);
+        ParserConfiguration storingTokens = new ParserConfiguration();
+        byte[] source = "class A {}".getBytes(UTF_8);
+
+        cache.store(source, storingTokens, parse("class A {}"));
+
+        assertFalse(cache.supports(storingTokens));
+        assertEquals(0, cache.getSizeInBytes());
+        assertFalse(cache.load(source, storingTokens).isPresent());
+    }
+
+    @Test
+    void lexicalPreservationIsOnlySupportedWhenTokensArePreserved() throws IOException {
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, codec, 1_000_000);
+        ParserConfiguration lexicalPreserving = new ParserConfiguration().setLexicalPreservationEnabled(true);
+        byte[] source = "class A {}".getBytes(UTF_8);
+
+        cache.store(source, lexicalPreserving, parse("class A {}"));
+
+        assertFalse(cache.supports(lexicalPreserving));
+        assertEquals(0, cache.getSizeInBytes());
+        assertFalse(cache.load(source, lexicalPreserving).isPresent());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() throws IOException {
+        CompilationUnit unit = parse("class A {}");
+        long entrySize = unit.toString().getBytes(UTF_8).length;
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, codec, entrySize * 3);
+
+        for (int i = 0; i < 10; i++) {
+            cache.store(("class A" + i + " {}").getBytes(UTF_8), configuration, unit);
+        }
+
+        assertTrue(cache.getSizeInBytes() <= entrySize * 3);
+        assertEquals(cache.getSizeInBytes(), entrySizes());
+        assertTrue(cache.load("class A9 {}".getBytes(UTF_8), configuration).isPresent());
+        assertFalse(cache.load("class A0 {}".getBytes(UTF_8), configuration).isPresent());
+    }
+
+    @Test
+    void damagedEntriesAreDropped() throws IOException {
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, codec, 1_000_000);
+        byte[] source = "class A {}".getBytes(UTF_8);
+        cache.store(source, configuration, parse("class A {}"));
+        for (Path entry : entries()) {
+            byte[] damaged = Files.readAllBytes(entry);
+            Arrays.fill(damaged, (byte) '#');
+            Files.write(entry, damaged);
+        }
+
+        assertFalse(cache.load(source, configuration).isPresent());
+        assertTrue(entries().isEmpty());
+        assertEquals(0, cache.getSizeInBytes());
+    }
+
+    @Test
+    void clearRemovesEverything() throws IOException {
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, codec, 1_000_000);
+        cache.store("class A {}".getBytes(UTF_8), configuration, parse("class A {}"));
+
+        cache.clear();
+
+        assertTrue(entries().isEmpty());
+        assertEquals(0, cache.getSizeInBytes());
+    }
+
+    @Test
+    void sourceRootSkipsParsingOfKnownFiles() throws IOException {
+        Files.createDirectories(sourceDir.resolve("a"));
+        Files.write(sourceDir.resolve("a/A.java"), "package a; class A {}".getBytes(UTF_8));
+        Files.write(sourceDir.resolve("a/B.java"), "package a; class B {}".getBytes(UTF_8));
+        PersistentParseCache cache = new PersistentParseCache(cacheDir, codec, 1_000_000);
+
+        new SourceRoot(sourceDir, configuration).setPersistentParseCache(cache).tryToParse();
+        assertEquals(0, codec.reads);
+
+        SourceRoot warm = new SourceRoot(sourceDir, configuration).setPersistentParseCache(cache);
+        List<ParseResult<CompilationUnit>> results = warm.tryToParseParallelized();
+
+        assertEquals(2, codec.reads);
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(ParseResult::isSuccessful));
+        for (CompilationUnit unit : warm.getCompilationUnits()) {
+            Path path = unit.getStorage().get().getPath();
+            assertEquals(path.getFileName().toString(), unit.getType(0).getNameAsString() + ".java");
+        }
+    }
+
+    private List<Path> entries() throws IOException {
+        try (Stream<Path> paths = Files.walk(cacheDir)) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private long entrySizes() throws IOException {
+        long size = 0;
+        for (Path entry : entries()) {
+            size += Files.size(entry);
+        }
+        return size;
+    }
+}
@@ -35,6 +35,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -57,6 +59,18 @@ class SourceRootTest {
         assertTrue(parseResults.stream().noneMatch(cu -> cu.getResult().get().getStorage().get().getPath().toString().contains("source.root")));
     }
 
+    @Test
+    void parseTestDirectoryAsStream() {
+        try (Stream<Pair<Path, ParseResult<CompilationUnit>>> results = sourceRoot.parseAsStream(new ParsePipeline())) {
+            List<Pair<Path, ParseResult<CompilationUnit>>> parsed = results.collect(Collectors.toList());
+
+            assertEquals(7, parsed.size());
+            assertTrue(parsed.stream().allMatch(pair -> pair.a.isAbsolute() && pair.b.isSuccessful()));
+            assertTrue(parsed.stream().noneMatch(pair -> pair.a.toString().contains("source.root")));
+        }
+        assertTrue(sourceRoot.getCache().isEmpty());
+    }
+
     @Test
     void saveInCallback() throws IOException {
         sourceRoot.parse("", sourceRoot.getParserConfiguration(), (localPath, absolutePath, result) -> SourceRoot.Callback.Result.SAVE);
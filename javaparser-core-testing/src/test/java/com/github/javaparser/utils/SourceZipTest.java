@@ -30,6 +30,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -67,6 +69,17 @@ class SourceZipTest {
         assertTrue(units.stream().noneMatch(unit -> unit.getTypes().isEmpty()));
     }
 
+    @Test
+    void parseTestDirectoryAsStream() throws IOException {
+        SourceZip sourceZip = new SourceZip(testDir.resolve("test.zip"));
+        try (Stream<Pair<Path, ParseResult<CompilationUnit>>> results = sourceZip.parseAsStream(new ParsePipeline())) {
+            List<CompilationUnit> units = results.map(pr -> pr.b.getResult().get()).collect(Collectors.toList());
+
+            assertEquals(3, units.size());
+            assertTrue(units.stream().noneMatch(unit -> unit.getTypes().isEmpty()));
+        }
+    }
+
     @Test
     void dirAsZipIsNotAllowed() {
         assertThrows(IOException.class, () -> new SourceZip(testDir.resolve("test")).parse());
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.github.javaparser.utils.Utils.assertNotNull;
+
+/**
+ * {@link Provider} decoding source code straight from a {@link ByteBuffer}, without the intermediate buffers of a
+ * {@link java.io.Reader}.
+ * <br>For UTF-8, US-ASCII and ISO-8859-1, runs of ASCII bytes are copied to the parser's buffer directly, and only the
+ * other bytes go through a {@link CharsetDecoder}. Other charsets are decoded by the decoder only.
+ * Like {@link java.io.InputStreamReader}, malformed input is replaced rather than reported.
+ * <br>Files are read into the heap with {@link #of(Path, Charset)}, or memory-mapped with
+ * {@link #mapped(Path, Charset)}.
+ */
+public class ByteBufferProvider implements Provider {
+
+    private static final int EOF = -1;
+
+    /**
+     * The most bytes that are handed to the decoder at once, so that the next run of ASCII gets the fast path again.
+     */
+    private static final int DECODE_CHUNK = 256;
+
+    private ByteBuffer input;
+
+    private final CharsetDecoder decoder;
+
+    private final boolean asciiCompatible;
+
+    private final boolean latin1;
+
+    /**
+     * The low surrogate of a pair of which the high surrogate was returned by the previous read, or -1.
+     */
+    private int pendingChar = -1;
+
+    private final CharBuffer pair = CharBuffer.allocate(2);
+
+    /**
+     * Whether the decoder was told that the input ended, and gave back what it still held.
+     */
+    private boolean flushed = false;
+
+    public ByteBufferProvider(ByteBuffer input, Charset encoding) {
+        assertNotNull(input);
+        assertNotNull(encoding);
+        this.input = input.slice();
+        this.decoder = encoding.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.latin1 = encoding.equals(StandardCharsets.ISO_8859_1);
+        this.asciiCompatible = latin1 || encoding.equals(StandardCharsets.UTF_8) || encoding.equals(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Provides the contents of a file, read into the heap.
+     */
+    public static ByteBufferProvider of(Path path, Charset encoding) throws IOException {
+        assertNotNull(path);
+        assertNotNull(encoding);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to be read: " + path);
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read until the buffer is full, or the file turned out to be shorter
+            }
+            buffer.flip();
+            return new ByteBufferProvider(buffer, encoding);
+        }
+    }
+
+    /**
+     * Provides the contents of a file through a memory mapping, so a large file is not copied before decoding.
+     * Note that the mapping stays until the buffer is garbage collected, and that some operating systems do not allow
+     * a mapped file to be overwritten or deleted before that.
+     */
+    public static ByteBufferProvider mapped(Path path, Charset encoding) throws IOException {
+        assertNotNull(path);
+        assertNotNull(encoding);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ByteBufferProvider(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), encoding);
+        }
+    }
+
+    @Override
+    public int read(char[] buffer, final int offset, int len) throws IOException {
+        if (input == null) {
+            throw new IOException("Provider is closed");
+        }
+        int pos = offset;
+        final int stop = offset + len;
+        if (pendingChar >= 0 && pos < stop) {
+            buffer[pos++] = (char) pendingChar;
+            pendingChar = EOF;
+        }
+        while (pos < stop && input.hasRemaining()) {
+            if (asciiCompatible) {
+                pos = copyAscii(buffer, pos, stop);
+                if (pos == stop || !input.hasRemaining()) {
+                    break;
+                }
+            }
+            pos = decode(buffer, pos, stop);
+        }
+        while (pos < stop && !input.hasRemaining() && !flushed) {
+            pos = convert(buffer, pos, stop, true);
+        }
+        if (pos == offset && len > 0) {
+            return EOF;
+        }
+        return pos - offset;
+    }
+
+    /**
+     * Copies bytes that are a character on their own, until the first one that is not.
+     */
+    private int copyAscii(char[] buffer, int pos, int stop) {
+        final int end = Math.min(stop, pos + input.remaining());
+        int i = input.position();
+        if (input.hasArray()) {
+            final byte[] bytes = input.array();
+            final int arrayOffset = input.arrayOffset();
+            while (pos < end && (latin1 || bytes[arrayOffset + i] >= 0)) {
+                buffer[pos++] = (char) (bytes[arrayOffset + i++] & 0xFF);
+            }
+        } else if (latin1) {
+            while (pos < end) {
+                buffer[pos++] = (char) (input.get(i++) & 0xFF);
+            }
+        } else {
+            byte b;
+            while (pos < end && (b = input.get(i)) >= 0) {
+                buffer[pos++] = (char) b;
+                i++;
+            }
+        }
+        input.position(i);
+        return pos;
+    }
+
+    private int decode(char[] buffer, int pos, int stop) {
+        final int limit = input.limit();
+        // Once the end of the input is passed to the decoder, it has to be passed on every following call.
+        final boolean endOfInput = !asciiCompatible || input.remaining() <= DECODE_CHUNK;
+        if (!endOfInput) {
+            input.limit(input.position() + DECODE_CHUNK);
+        }
+        try {
+            return convert(buffer, pos, stop, endOfInput);
+        } finally {
+            input.limit(limit);
+        }
+    }
+
+    private int convert(char[] buffer, int pos, int stop, boolean endOfInput) {
+        if (stop - pos >= 2) {
+            final CharBuffer out = CharBuffer.wrap(buffer, pos, stop - pos);
+            transfer(out, endOfInput);
+            return out.position();
+        }
+        // Not enough room for a surrogate pair, so decode a single character aside.
+        pair.clear();
+        transfer(pair, endOfInput);
+        pair.flip();
+        if (pair.hasRemaining()) {
+            buffer[pos++] = pair.get();
+        }
+        if (pair.hasRemaining()) {
+            pendingChar = pair.get();
+        }
+        return pos;
+    }
+
+    private void transfer(CharBuffer out, boolean endOfInput) {
+        if (input.hasRemaining()) {
+            decoder.decode(input, out, endOfInput);
+            return;
+        }
+        // All input was decoded, but a stateful decoder may still hold characters.
+        flushed = !decoder.decode(input, out, true).isOverflow() && decoder.flush(out).isUnderflow();
+    }
+
+    @Override
+    public void close() {
+        input = null;
+    }
+}
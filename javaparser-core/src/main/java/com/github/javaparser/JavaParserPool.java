@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static com.github.javaparser.ParseStart.COMPILATION_UNIT;
+import static com.github.javaparser.Providers.provider;
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static com.github.javaparser.utils.Utils.assertPositive;
+
+/**
+ * A pool of {@link JavaParser} instances that can be shared between threads.
+ * <br>A single {@link JavaParser} is not thread safe, since it reuses its generated parser and token manager
+ * between parses. Creating a new {@link JavaParser} for every parse is safe but pays for allocating those every time.
+ * This pool hands out each parser to one thread at a time, and keeps up to {@code maxIdle} parsers around for reuse.
+ * <br>Parsing never blocks: when no idle parser is available a new one is created.
+ * When more than {@code maxIdle} parsers are returned, the surplus is dropped.
+ * <br>All parsers share the same {@link ParserConfiguration}, which must not be modified while the pool is in use.
+ */
+public final class JavaParserPool {
+
+    private final ParserConfiguration configuration;
+
+    private final int maxIdle;
+
+    private final ConcurrentLinkedDeque<JavaParser> idle = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final LongAdder created = new LongAdder();
+
+    private final LongAdder borrowed = new LongAdder();
+
+    /**
+     * Create a pool with the default configuration, keeping up to one idle parser per available processor.
+     */
+    public JavaParserPool() {
+        this(new ParserConfiguration());
+    }
+
+    /**
+     * Create a pool keeping up to one idle parser per available processor.
+     */
+    public JavaParserPool(ParserConfiguration configuration) {
+        this(configuration, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param configuration the configuration shared by all parsers in the pool.
+     * @param maxIdle the maximum number of parsers that are kept for reuse.
+     */
+    public JavaParserPool(ParserConfiguration configuration, int maxIdle) {
+        assertNotNull(configuration);
+        assertPositive(maxIdle);
+        this.configuration = configuration;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * @return The configuration shared by all parsers in this pool.
+     */
+    public ParserConfiguration getParserConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Parses source code with a parser from the pool.
+     *
+     * @see JavaParser#parse(ParseStart, Provider)
+     */
+    public <N extends Node> ParseResult<N> parse(ParseStart<N> start, Provider provider) {
+        return withParser(parser -> parser.parse(start, provider));
+    }
+
+    /**
+     * Parses the Java code contained in code and returns a {@link CompilationUnit} that represents it.
+     *
+     * @see JavaParser#parse(String)
+     */
+    public ParseResult<CompilationUnit> parse(String code) {
+        return parse(COMPILATION_UNIT, provider(code));
+    }
+
+    /**
+     * Runs an action with a parser that is exclusively owned by the calling thread until the action completes.
+     * The parser must not escape the action.
+     */
+    public <T> T withParser(Function<JavaParser, T> action) {
+        assertNotNull(action);
+        JavaParser parser = borrow();
+        try {
+            return action.apply(parser);
+        } finally {
+            release(parser);
+        }
+    }
+
+    private JavaParser borrow() {
+        borrowed.increment();
+        JavaParser parser = idle.pollFirst();
+        if (parser != null) {
+            idleCount.decrementAndGet();
+            return parser;
+        }
+        created.increment();
+        return new JavaParser(configuration);
+    }
+
+    private void release(JavaParser parser) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offerFirst(parser);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the maximum number of parsers that are kept for reuse.
+     */
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * @return the number of parsers currently waiting for reuse.
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    /**
+     * @return the number of parsers this pool has created so far.
+     */
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    /**
+     * @return the number of times a parser was taken from this pool so far, whether it was reused or newly created.
+     */
+    public long getBorrowCount() {
+        return borrowed.sum();
+    }
+}
@@ -33,12 +33,26 @@ import static com.github.javaparser.utils.Utils.assertNotNull;
  * A token from a parsed source file.
  * (Awkwardly named "Java"Token since JavaCC already generates an internal class Token.)
  * It is a node in a double linked list called token list.
+ * <br>Since a parsed file has many tokens, the range is kept as plain numbers, and a {@link Range} is only created when
+ * asked for. Code going over many tokens can use the accessors of the begin and end line and column, and the
+ * comparisons with positions, which create nothing.
  */
 public class JavaToken {
 
     public static final JavaToken INVALID = new JavaToken();
 
-    private Range range;
+    /**
+     * The value of {@link #beginLine} for a token without a range.
+     */
+    private static final int NO_RANGE = Integer.MIN_VALUE;
+
+    private int beginLine = NO_RANGE;
+
+    private int beginColumn;
+
+    private int endLine;
+
+    private int endColumn;
 
     private int kind;
 
@@ -85,16 +99,19 @@ public class JavaToken {
         // 
         // So given the image could be wrong but the type is correct, we look at the type of the token and we fix
         // the image. Everybody is happy and we can keep this horrible thing as our little secret.
-        Range range = Range.range(token.beginLine, token.beginColumn, token.endLine, token.endColumn);
+        int endColumn = token.endColumn;
         String text = token.image;
         if (token.kind == GeneratedJavaParserConstants.GT) {
-            range = Range.range(token.beginLine, token.beginColumn, token.endLine, token.beginColumn);
+            endColumn = token.beginColumn;
             text = ">";
         } else if (token.kind == GeneratedJavaParserConstants.RSIGNEDSHIFT) {
-            range = Range.range(token.beginLine, token.beginColumn, token.endLine, token.beginColumn + 1);
+            endColumn = token.beginColumn + 1;
             text = ">>";
         }
-        this.range = range;
+        this.beginLine = token.beginLine;
+        this.beginColumn = token.beginColumn;
+        this.endLine = token.endLine;
+        this.endColumn = endColumn;
         this.kind = token.kind;
         this.text = text;
         if (!tokens.isEmpty()) {
@@ -125,7 +142,7 @@ public class JavaToken {
 
     public JavaToken(Range range, int kind, String text, JavaToken previousToken, JavaToken nextToken) {
         assertNotNull(text);
-        this.range = range;
+        setRange(range);
         this.kind = kind;
         this.text = text;
         this.previousToken = previousToken;
@@ -133,14 +150,88 @@ public class JavaToken {
     }
 
     public Optional<Range> getRange() {
-        return Optional.ofNullable(range);
+        if (!hasRange()) {
+            return Optional.empty();
+        }
+        return Optional.of(Range.range(beginLine, beginColumn, endLine, endColumn));
     }
 
     /*
      * Returns true if the token has a range
      */
     public boolean hasRange() {
-        return getRange().isPresent();
+        return beginLine != NO_RANGE;
+    }
+
+    /**
+     * @return the line the token begins on. Only meaningful when the token {@link #hasRange() has a range}.
+     */
+    public int getBeginLine() {
+        return beginLine;
+    }
+
+    /**
+     * @return the column the token begins on. Only meaningful when the token {@link #hasRange() has a range}.
+     */
+    public int getBeginColumn() {
+        return beginColumn;
+    }
+
+    /**
+     * @return the line the token ends on. Only meaningful when the token {@link #hasRange() has a range}.
+     */
+    public int getEndLine() {
+        return endLine;
+    }
+
+    /**
+     * @return the column the token ends on. Only meaningful when the token {@link #hasRange() has a range}.
+     */
+    public int getEndColumn() {
+        return endColumn;
+    }
+
+    /**
+     * @return true if the token has a range and the range contains it, like {@code range.contains(getRange().get())}.
+     */
+    public boolean isInside(Range range) {
+        return hasRange() && !isBefore(beginLine, beginColumn, range.begin) && !isAfter(endLine, endColumn, range.end);
+    }
+
+    /**
+     * @return true if the token has a range and begins before the position, like
+     * {@code getRange().get().begin.isBefore(position)}.
+     */
+    public boolean beginsBefore(Position position) {
+        return hasRange() && isBefore(beginLine, beginColumn, position);
+    }
+
+    /**
+     * @return true if the token has a range and begins after the position, like
+     * {@code getRange().get().begin.isAfter(position)}.
+     */
+    public boolean beginsAfter(Position position) {
+        return hasRange() && isAfter(beginLine, beginColumn, position);
+    }
+
+    /**
+     * Same as {@link Position#isBefore(Position)}.
+     */
+    private static boolean isBefore(int line, int column, Position position) {
+        if (line == position.line) {
+            return column < position.column;
+        }
+        return line < position.line || position.line == Position.ABSOLUTE_END_LINE;
+    }
+
+    /**
+     * Same as {@link Position#isAfter(Position)}.
+     */
+    private static boolean isAfter(int line, int column, Position position) {
+        if (line == position.line) {
+            return column > position.column;
+        }
+        return line > position.line || position.line == Position.ABSOLUTE_BEGIN_LINE;
     }
 
     public int getKind() {
@@ -164,7 +255,14 @@ public class JavaToken {
     }
 
     public void setRange(Range range) {
-        this.range = range;
+        if (range == null) {
+            beginLine = NO_RANGE;
+            return;
+        }
+        beginLine = range.begin.line;
+        beginColumn = range.begin.column;
+        endLine = range.end.line;
+        endColumn = range.end.column;
     }
 
     public void setText(String text) {
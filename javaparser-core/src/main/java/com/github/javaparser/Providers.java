@@ -21,8 +21,8 @@
 package com.github.javaparser;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static com.github.javaparser.utils.Utils.assertNotNull;
@@ -66,14 +66,28 @@ public final class Providers {
         return provider(assertNotNull(file), UTF8);
     }
 
+    /**
+     * Provide the contents of a file, decoded straight from its bytes.
+     * Use {@link ByteBufferProvider#mapped(Path, Charset)} to decode from a memory mapping instead.
+     *
+     * @see ByteBufferProvider#of(Path, Charset)
+     */
     public static Provider provider(Path path, Charset encoding) throws IOException {
-        return provider(Files.newInputStream(assertNotNull(path)), assertNotNull(encoding));
+        return ByteBufferProvider.of(assertNotNull(path), assertNotNull(encoding));
     }
 
     public static Provider provider(Path path) throws IOException {
         return provider(assertNotNull(path), UTF8);
     }
 
+    public static Provider provider(ByteBuffer buffer, Charset encoding) {
+        return new ByteBufferProvider(assertNotNull(buffer), assertNotNull(encoding));
+    }
+
+    public static Provider provider(ByteBuffer buffer) {
+        return provider(buffer, UTF8);
+    }
+
     public static Provider provider(String source) {
         return new StringProvider(assertNotNull(source));
     }
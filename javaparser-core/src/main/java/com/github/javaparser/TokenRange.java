@@ -51,7 +51,7 @@ public class TokenRange implements Iterable<JavaToken> {
 
     public Optional<Range> toRange() {
         if (begin.hasRange() && end.hasRange()) {
-            return Optional.of(new Range(begin.getRange().get().begin, end.getRange().get().end));
+            return Optional.of(Range.range(begin.getBeginLine(), begin.getBeginColumn(), end.getEndLine(), end.getEndColumn()));
         }
         return Optional.empty();
     }
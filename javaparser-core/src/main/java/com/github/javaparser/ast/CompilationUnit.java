@@ -41,11 +41,16 @@ import com.github.javaparser.utils.ClassUtils;
 import com.github.javaparser.utils.CodeGenerationUtils;
 import com.github.javaparser.utils.Utils;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -61,6 +66,10 @@ import static com.github.javaparser.StaticJavaParser.parseName;
 import static com.github.javaparser.ast.Modifier.createModifierList;
 import static com.github.javaparser.utils.CodeGenerationUtils.subtractPaths;
 import static com.github.javaparser.utils.Utils.assertNotNull;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 /**
  * <p>
@@ -770,7 +779,51 @@ public class CompilationUnit extends Node {
          * Saves the compilation unit to its original location
          */
         public void save() {
-            save(cu -> compilationUnit.getPrinter().print(cu));
+            save(compilationUnit.getPrinter());
+        }
+
+        /**
+         * Saves the compilation unit to its original location with the printer passed as a parameter. The code is
+         * written to a temporary file as it is printed, without building the whole code in memory first, which then
+         * replaces the file. If printing fails, the file is left as it was.
+         *
+         * @param printer the printer that formats the compilation unit
+         */
+        public void save(Printer printer) {
+            save(printer, encoding);
+        }
+
+        /**
+         * Saves the compilation unit to its original location with the printer and encoding passed as a parameter.
+         * The code is written to a temporary file as it is printed, without building the whole code in memory first,
+         * which then replaces the file. If printing fails, the file is left as it was.
+         *
+         * @param printer the printer that formats the compilation unit
+         * @param encoding the encoding to use for the saved file
+         */
+        public void save(Printer printer, Charset encoding) {
+            try {
+                Files.createDirectories(path.getParent());
+                // in the same directory, so that it can be moved atomically
+                final Path temporary = path.resolveSibling(path.getFileName() + "." + System.nanoTime() + ".tmp");
+                try {
+                    try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(temporary, CREATE_NEW, WRITE), encoding))) {
+                        printer.print(getCompilationUnit(), writer);
+                    }
+                    if (Files.exists(path) && Files.getFileStore(path).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                        Files.setPosixFilePermissions(temporary, Files.getPosixFilePermissions(path));
+                    }
+                    try {
+                        Files.move(temporary, path, ATOMIC_MOVE, REPLACE_EXISTING);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(temporary, path, REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(temporary);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
         }
 
         /**
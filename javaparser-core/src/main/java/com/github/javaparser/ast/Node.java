@@ -21,6 +21,7 @@
 package com.github.javaparser.ast;
 
 import com.github.javaparser.HasParentNode;
+import com.github.javaparser.JavaToken;
 import com.github.javaparser.Position;
 import com.github.javaparser.Range;
 import com.github.javaparser.TokenRange;
@@ -49,6 +50,8 @@ import com.github.javaparser.resolution.SymbolResolver;
 import com.github.javaparser.utils.LineSeparator;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -153,6 +156,9 @@ public abstract class Node implements Cloneable, HasParentNode<Node>, Visitable,
     // usefull to find if the node is a phantom node
     private static final int LEVELS_TO_EXPLORE = 3;
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, ConcurrentHashMap> DATA = AtomicReferenceFieldUpdater.newUpdater(Node.class, ConcurrentHashMap.class, "data");
+
     protected static final PrinterConfiguration prettyPrinterNoCommentsConfiguration = new DefaultPrinterConfiguration().removeOption(new DefaultConfigurationOption(ConfigOption.PRINT_COMMENTS));
 
     @InternalProperty
@@ -170,8 +176,9 @@ public abstract class Node implements Cloneable, HasParentNode<Node>, Visitable,
     @InternalProperty
     private ArrayList<Comment> orphanComments = new ArrayList<>(0);
 
+    // created on the first use, as most nodes never get any data
     @InternalProperty
-    private IdentityHashMap<DataKey<?>, Object> data = null;
+    private volatile ConcurrentHashMap<DataKey<?>, Object> data = null;
 
     @OptionalProperty
     private Comment comment;
@@ -253,7 +260,9 @@ public abstract class Node implements Cloneable, HasParentNode<Node>, Visitable,
         if (tokenRange == null || !(tokenRange.getBegin().hasRange() && tokenRange.getEnd().hasRange())) {
             range = null;
         } else {
-            range = new Range(tokenRange.getBegin().getRange().get().begin, tokenRange.getEnd().getRange().get().end);
+            JavaToken begin = tokenRange.getBegin();
+            JavaToken end = tokenRange.getEnd();
+            range = Range.range(begin.getBeginLine(), begin.getBeginColumn(), end.getEndLine(), end.getEndColumn());
         }
         return this;
     }
@@ -500,6 +509,7 @@ public abstract class Node implements Cloneable, HasParentNode<Node>, Visitable,
      */
     @SuppressWarnings("unchecked")
     public <M> M getData(final DataKey<M> key) {
+        final Map<DataKey<?>, Object> data = this.data;
         if (data == null) {
             throw new IllegalStateException("No data of this type found. Use containsData to check for this first.");
         }
@@ -516,6 +526,7 @@ public abstract class Node implements Cloneable, HasParentNode<Node>, Visitable,
      * @return all known data keys.
      */
     public Set<DataKey<?>> getDataKeys() {
+        final Map<DataKey<?>, Object> data = this.data;
         if (data == null) {
             return emptySet();
         }
@@ -525,6 +536,8 @@ public abstract class Node implements Cloneable, HasParentNode<Node>, Visitable,
     /**
      * Sets data for this node using the given key.
      * For information on creating DataKey, see {@link DataKey}.
+     * <br>Data is kept in a concurrent map, so that threads resolving symbols concurrently can store results on nodes
+     * they share, like those of a library parsed by a type solver. Setting null removes the data.
      *
      * @param <M>    The type of data
      * @param key    The singleton key for the data
@@ -532,8 +545,14 @@ public abstract class Node implements Cloneable, HasParentNode<Node>, Visitable,
      * @see DataKey
      */
     public <M> void setData(DataKey<M> key, M object) {
+        if (object == null) {
+            removeData(key);
+            return;
+        }
+        ConcurrentHashMap<DataKey<?>, Object> data = this.data;
         if (data == null) {
-            data = new IdentityHashMap<>();
+            DATA.compareAndSet(this, null, new ConcurrentHashMap<>(4));
+            data = this.data;
         }
         data.put(key, object);
     }
@@ -543,6 +562,7 @@ public abstract class Node implements Cloneable, HasParentNode<Node>, Visitable,
      * @see DataKey
      */
     public boolean containsData(DataKey<?> key) {
+        final Map<DataKey<?>, Object> data = this.data;
         if (data == null) {
             return false;
         }
@@ -555,6 +575,7 @@ public abstract class Node implements Cloneable, HasParentNode<Node>, Visitable,
      * @see DataKey
      */
     public void removeData(DataKey<?> key) {
+        final Map<DataKey<?>, Object> data = this.data;
         if (data != null) {
             data.remove(key);
         }
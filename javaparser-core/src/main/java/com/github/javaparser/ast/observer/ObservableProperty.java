@@ -26,9 +26,12 @@ import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.utils.Utils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Properties considered by the AstObserver
@@ -153,6 +156,9 @@ public enum ObservableProperty {
 
     private boolean derived;
 
+    // the getter of this property in each class of node, looked up once
+    private final Map<Class<?>, Method> getters = new ConcurrentHashMap<>();
+
     public static ObservableProperty fromCamelCaseName(String camelCaseName) {
         Optional<ObservableProperty> observableProperty = Arrays.stream(values()).filter(v -> v.camelCaseName().equals(camelCaseName)).findFirst();
         if (observableProperty.isPresent()) {
@@ -220,9 +226,9 @@ public enum ObservableProperty {
         }
     }
 
-    private boolean hasMethod(Node node, String name) {
+    private boolean hasMethod(Class<?> nodeClass, String name) {
         try {
-            node.getClass().getMethod(name);
+            nodeClass.getMethod(name);
             return true;
         } catch (NoSuchMethodException e) {
             return false;
@@ -268,18 +274,27 @@ public enum ObservableProperty {
     }
 
     public Object getRawValue(Node node) {
+        try {
+            Method getter = getters.get(node.getClass());
+            if (getter == null) {
+                getter = findGetter(node.getClass());
+                getters.put(node.getClass(), getter);
+            }
+            return getter.invoke(node);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException("Unable to get value for " + this.name() + " from " + node + " (" + node.getClass().getSimpleName() + ")", e);
+        }
+    }
+
+    private Method findGetter(Class<?> nodeClass) throws NoSuchMethodException {
         String getterName = "get" + Utils.capitalize(camelCaseName());
-        if (!hasMethod(node, getterName)) {
+        if (!hasMethod(nodeClass, getterName)) {
             getterName = "is" + Utils.capitalize(camelCaseName());
-            if (!hasMethod(node, getterName)) {
+            if (!hasMethod(nodeClass, getterName)) {
                 getterName = "has" + Utils.capitalize(camelCaseName());
             }
         }
-        try {
-            return node.getClass().getMethod(getterName).invoke(node);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException("Unable to get value for " + this.name() + " from " + node + " (" + node.getClass().getSimpleName() + ")", e);
-        }
+        return nodeClass.getMethod(getterName);
     }
 
     public boolean isNull(Node node) {
@@ -33,6 +33,7 @@ import com.github.javaparser.metamodel.JavaParserMetaModel;
 import com.github.javaparser.printer.concretesyntaxmodel.CsmConditional;
 import com.github.javaparser.printer.concretesyntaxmodel.CsmElement;
 import com.github.javaparser.printer.concretesyntaxmodel.CsmMix;
+import com.github.javaparser.printer.concretesyntaxmodel.CsmProgram;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -50,6 +51,8 @@ public class ConcreteSyntaxModel {
 
     private static final Map<Class, CsmElement> concreteSyntaxModelByClass = new HashMap<>();
 
+    private static final Map<Class, CsmProgram> programByClass = new HashMap<>();
+
     private static Optional<String> initializationError;
 
     private static CsmElement modifiers() {
@@ -196,6 +199,7 @@ public class ConcreteSyntaxModel {
         concreteSyntaxModelByClass.put(ModuleProvidesDirective.class, sequence(token(GeneratedJavaParserConstants.PROVIDES), space(), child(ObservableProperty.NAME), list(ObservableProperty.WITH, sequence(comma(), space()), sequence(space(), token(GeneratedJavaParserConstants.WITH), space()), none()), semicolon(), newline()));
         concreteSyntaxModelByClass.put(ModuleRequiresDirective.class, sequence(token(GeneratedJavaParserConstants.REQUIRES), space(), modifiers(), child(ObservableProperty.NAME), semicolon(), newline()));
         concreteSyntaxModelByClass.put(ModuleUsesDirective.class, sequence(token(GeneratedJavaParserConstants.USES), space(), child(ObservableProperty.NAME), semicolon(), newline()));
+        concreteSyntaxModelByClass.forEach((nodeClass, csm) -> programByClass.put(nodeClass, CsmProgram.compile(csm)));
         List<String> unsupportedNodeClassNames = JavaParserMetaModel.getNodeMetaModels().stream().filter(c -> !c.isAbstract() && !Comment.class.isAssignableFrom(c.getType()) && !concreteSyntaxModelByClass.containsKey(c.getType())).map(nm -> nm.getType().getSimpleName()).collect(Collectors.toList());
         if (unsupportedNodeClassNames.isEmpty()) {
             initializationError = Optional.empty();
@@ -208,12 +212,12 @@ public class ConcreteSyntaxModel {
     }
 
     public static void genericPrettyPrint(Node node, SourcePrinter printer) {
-        forClass(node.getClass()).prettyPrint(node, printer);
+        programForClass(node.getClass()).prettyPrint(node, printer);
     }
 
     public static String genericPrettyPrint(Node node) {
         SourcePrinter sourcePrinter = new SourcePrinter();
-        forClass(node.getClass()).prettyPrint(node, sourcePrinter);
+        programForClass(node.getClass()).prettyPrint(node, sourcePrinter);
         return sourcePrinter.toString();
     }
 
@@ -226,4 +230,17 @@ public class ConcreteSyntaxModel {
         }
         return concreteSyntaxModelByClass.get(nodeClazz);
     }
+
+    /**
+     * @return the model of the class compiled once, to be interpreted faster than the model itself.
+     */
+    public static CsmProgram programForClass(Class<? extends Node> nodeClazz) {
+        initializationError.ifPresent(s -> {
+            throw new IllegalStateException(s);
+        });
+        if (!programByClass.containsKey(nodeClazz)) {
+            throw new UnsupportedOperationException(nodeClazz.getSimpleName());
+        }
+        return programByClass.get(nodeClazz);
+    }
 }
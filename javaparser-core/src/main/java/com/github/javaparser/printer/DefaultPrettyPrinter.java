@@ -25,6 +25,9 @@ import com.github.javaparser.ast.visitor.VoidVisitor;
 import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration;
 import com.github.javaparser.printer.configuration.PrinterConfiguration;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
@@ -37,6 +40,12 @@ public class DefaultPrettyPrinter implements Printer {
     // visitor factory
     Function<PrinterConfiguration, VoidVisitor<Void>> visitorFactory;
 
+    // factory of a visitor printing with the given SourcePrinter, only known for the default visitor
+    private final BiFunction<PrinterConfiguration, SourcePrinter, VoidVisitor<Void>> outputVisitorFactory;
+
+    // null when the printed text is not cached
+    private PrintCache cache;
+
     // static methods
     private static Function<PrinterConfiguration, VoidVisitor<Void>> createDefaultVisitor() {
         return (config) -> new DefaultPrettyPrinterVisitor(config, new SourcePrinter(config));
@@ -59,7 +68,7 @@ public class DefaultPrettyPrinter implements Printer {
      * @param configuration
      */
     public DefaultPrettyPrinter(PrinterConfiguration configuration) {
-        this(createDefaultVisitor(), configuration);
+        this(createDefaultVisitor(), DefaultPrettyPrinterVisitor::new, configuration);
     }
 
     /**
@@ -68,8 +77,13 @@ public class DefaultPrettyPrinter implements Printer {
      * @param configuration Configuration to apply
      */
     public DefaultPrettyPrinter(Function<PrinterConfiguration, VoidVisitor<Void>> visitorFactory, PrinterConfiguration configuration) {
+        this(visitorFactory, null, configuration);
+    }
+
+    private DefaultPrettyPrinter(Function<PrinterConfiguration, VoidVisitor<Void>> visitorFactory, BiFunction<PrinterConfiguration, SourcePrinter, VoidVisitor<Void>> outputVisitorFactory, PrinterConfiguration configuration) {
         this.configuration = configuration;
         this.visitorFactory = visitorFactory;
+        this.outputVisitorFactory = outputVisitorFactory;
     }
 
     // Methods
@@ -88,11 +102,74 @@ public class DefaultPrettyPrinter implements Printer {
         return this;
     }
 
+    /**
+     * @return true if the text printed for types, members and statements is kept to print them again.
+     * @see #setPrintCacheEnabled(boolean)
+     */
+    public boolean isPrintCacheEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Keep the text printed for types, members and statements, and print it again without visiting them as long as
+     * they are not modified. This saves most of the work when the same tree is printed again after a small change.
+     * <p>
+     * The text is kept in the data of the nodes, and an observer is registered on the printed trees to drop it when
+     * they are modified. The text printed with a configuration is not used once the configuration is changed.
+     *
+     * @throws IllegalStateException when enabling the cache of a printer built with a visitor factory, as only the
+     * default visitor can print from the cache
+     */
+    public DefaultPrettyPrinter setPrintCacheEnabled(boolean printCacheEnabled) {
+        if (!printCacheEnabled) {
+            cache = null;
+        } else if (outputVisitorFactory == null) {
+            throw new IllegalStateException("The print cache can only be used with the default visitor.");
+        } else if (cache == null) {
+            cache = new PrintCache(configuration);
+        }
+        return this;
+    }
+
     @Override
     public String print(Node node) {
+        if (cache != null) {
+            SourcePrinter printer = new SourcePrinter(configuration);
+            node.accept(createOutputVisitor(printer), null);
+            return printer.toString();
+        }
         // lazy initialization of visitor which can have a state (like a buffer)
         VoidVisitor<Void> visitor = visitorFactory.apply(configuration);
         node.accept(visitor, null);
         return visitor.toString();
     }
+
+    /**
+     * Print the node to the output, writing the code as it is printed. With a visitor factory given to the
+     * constructor, the code is printed in memory first, as the visitor may not print to a {@link SourcePrinter}.
+     */
+    @Override
+    public void print(Node node, Appendable output) throws IOException {
+        if (outputVisitorFactory == null) {
+            Printer.super.print(node, output);
+            return;
+        }
+        SourcePrinter printer = new SourcePrinter(configuration, output);
+        try {
+            node.accept(createOutputVisitor(printer), null);
+            printer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private VoidVisitor<Void> createOutputVisitor(SourcePrinter printer) {
+        if (cache == null) {
+            return outputVisitorFactory.apply(configuration, printer);
+        }
+        if (!cache.isFor(configuration)) {
+            cache = new PrintCache(configuration);
+        }
+        return new DefaultPrettyPrinterVisitor(configuration, printer, cache);
+    }
 }
@@ -62,13 +62,21 @@ public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
 
     protected final SourcePrinter printer;
 
+    // null when the printed text is not cached
+    private final PrintCache cache;
+
     public DefaultPrettyPrinterVisitor(PrinterConfiguration configuration) {
         this(configuration, new SourcePrinter(configuration));
     }
 
     public DefaultPrettyPrinterVisitor(PrinterConfiguration configuration, SourcePrinter printer) {
+        this(configuration, printer, null);
+    }
+
+    DefaultPrettyPrinterVisitor(PrinterConfiguration configuration, SourcePrinter printer, PrintCache cache) {
         this.configuration = configuration;
         this.printer = printer;
+        this.cache = cache;
     }
 
     @Override
@@ -85,11 +93,22 @@ public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
     protected void printMembers(final NodeList<BodyDeclaration<?>> members, final Void arg) {
         for (final BodyDeclaration<?> member : members) {
             printer.println();
-            member.accept(this, arg);
+            acceptCached(member, arg);
             printer.println();
         }
     }
 
+    /**
+     * Types, members and statements are printed from the cache when there is one.
+     */
+    private void acceptCached(final Node node, final Void arg) {
+        if (cache == null) {
+            node.accept(this, arg);
+        } else {
+            cache.print(node, printer, () -> node.accept(this, arg));
+        }
+    }
+
     protected void printMemberAnnotations(final NodeList<AnnotationExpr> annotations, final Void arg) {
         if (annotations.isEmpty()) {
             return;
@@ -215,7 +234,7 @@ public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
         printImports(n.getImports(), arg);
 
         for (final Iterator<TypeDeclaration<?>> i = n.getTypes().iterator(); i.hasNext(); ) {
-            i.next().accept(this, arg);
+            acceptCached(i.next(), arg);
             printer.println();
             if (i.hasNext()) {
                 printer.println();
@@ -1156,7 +1175,7 @@ public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
         if (n.getStatements() != null) {
             printer.indent();
             for (final Statement s : n.getStatements()) {
-                s.accept(this, arg);
+                acceptCached(s, arg);
                 printer.println();
             }
         }
@@ -1239,7 +1258,7 @@ public class DefaultPrettyPrinterVisitor implements VoidVisitor<Void> {
         printer.indent();
         if (n.getStatements() != null) {
             for (final Statement s : n.getStatements()) {
-                s.accept(this, arg);
+                acceptCached(s, arg);
                 printer.println();
             }
         }
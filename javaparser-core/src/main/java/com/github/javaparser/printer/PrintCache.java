@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.printer;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.observer.AstObserver;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.ast.observer.PropagatingAstObserver;
+import com.github.javaparser.printer.configuration.ConfigurationOption;
+import com.github.javaparser.printer.configuration.PrinterConfiguration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the text printed for a node in its data, to print it again without visiting the node as long as nothing it
+ * depends on is modified.
+ * <p>
+ * The text of a node depends on its descendants, and on its siblings through the orphan comments printed before it.
+ * An observer registered on the printed trees drops the text of the changed node and of its ancestors, and the text of
+ * its children and of its siblings when they have comments to print. Modifications that are not notified to the
+ * observers, like {@link Node#addOrphanComment(Comment)}, are not seen.
+ */
+final class PrintCache {
+
+    private static final DataKey<CachedText> CACHED_TEXT_KEY = new DataKey<CachedText>() {
+    };
+
+    private static final AstObserver INVALIDATOR = new PropagatingAstObserver() {
+
+        @Override
+        public void concretePropertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+            if (oldValue instanceof Node) {
+                // no longer observed once removed from the tree
+                forgetSubtree((Node) oldValue);
+            }
+            forget(observedNode);
+        }
+
+        @Override
+        public void concreteListChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+            if (type == ListChangeType.REMOVAL) {
+                forgetSubtree(nodeAddedOrRemoved);
+            }
+            observedNode.getParentNode().ifPresent(PrintCache::forget);
+        }
+
+        @Override
+        public void concreteListReplacement(NodeList<?> observedNode, int index, Node oldValue, Node newValue) {
+            forgetSubtree(oldValue);
+            observedNode.getParentNode().ifPresent(PrintCache::forget);
+        }
+
+        @Override
+        public void parentChange(Node observedNode, Node previousParent, Node newParent) {
+            forget(observedNode);
+        }
+    };
+
+    // the options the text was printed with, compared by value as a configuration can be changed in place
+    private final Map<ConfigurationOption, String> options;
+
+    PrintCache(PrinterConfiguration configuration) {
+        this.options = optionsOf(configuration);
+    }
+
+    private static Map<ConfigurationOption, String> optionsOf(PrinterConfiguration configuration) {
+        Map<ConfigurationOption, String> options = new HashMap<>();
+        for (ConfigurationOption option : configuration.get()) {
+            options.put(option, option.hasValue() ? String.valueOf((Object) option.asValue()) : null);
+        }
+        return options;
+    }
+
+    /**
+     * @return true if the text printed with this cache is also what would be printed with the configuration.
+     */
+    boolean isFor(PrinterConfiguration configuration) {
+        return options.equals(optionsOf(configuration));
+    }
+
+    /**
+     * Print the node from this cache if possible, or else visit it and keep what was printed. Only nodes printed from
+     * the beginning of a line are cached, with the indentation they were printed with.
+     *
+     * @param visit prints the node with the printer
+     */
+    void print(Node node, SourcePrinter printer, Runnable visit) {
+        if (!printer.isAtLineStart()) {
+            visit.run();
+            return;
+        }
+        String indent = printer.getIndent();
+        if (node.containsData(CACHED_TEXT_KEY)) {
+            CachedText cached = node.getData(CACHED_TEXT_KEY);
+            // the data of a node is copied into its clones, which are not observed
+            if (cached.node == node && cached.cache == this && cached.indent.equals(indent)) {
+                printer.printRecorded(cached.text);
+                return;
+            }
+        }
+        Node root = node.findRootNode();
+        if (!root.isRegistered(INVALIDATOR)) {
+            root.registerForSubtree(INVALIDATOR);
+            // the comments of nodes are not among their children
+            root.getAllContainedComments().forEach(comment -> comment.register(INVALIDATOR));
+        }
+        int line = printer.getCursor().line;
+        int mark = printer.startRecording();
+        visit.run();
+        node.setData(CACHED_TEXT_KEY, new CachedText(node, this, indent, printer.stopRecording(mark, line)));
+    }
+
+    private static void forget(Node node) {
+        if (node instanceof Comment) {
+            ((Comment) node).getCommentedNode().ifPresent(PrintCache::forget);
+        }
+        for (Node ancestor = node; ancestor != null; ancestor = ancestor.getParentNode().orElse(null)) {
+            ancestor.removeData(CACHED_TEXT_KEY);
+        }
+        forgetChildrenPrintingComments(node);
+        node.getParentNode().ifPresent(PrintCache::forgetChildrenPrintingComments);
+    }
+
+    /**
+     * Children only print the comments found among their siblings, so their text is kept when there are none.
+     */
+    private static void forgetChildrenPrintingComments(Node node) {
+        List<Node> children = node.getChildNodes();
+        if (children.stream().anyMatch(child -> child instanceof Comment)) {
+            children.forEach(child -> child.removeData(CACHED_TEXT_KEY));
+        }
+    }
+
+    private static void forgetSubtree(Node node) {
+        node.walk(n -> n.removeData(CACHED_TEXT_KEY));
+    }
+
+    private static final class CachedText {
+
+        private final Node node;
+
+        private final PrintCache cache;
+
+        private final String indent;
+
+        private final SourcePrinter.PrintedText text;
+
+        private CachedText(Node node, PrintCache cache, String indent, SourcePrinter.PrintedText text) {
+            this.node = node;
+            this.cache = cache;
+            this.indent = indent;
+            this.text = text;
+        }
+    }
+}
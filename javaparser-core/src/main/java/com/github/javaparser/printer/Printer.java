@@ -23,6 +23,8 @@ package com.github.javaparser.printer;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.printer.configuration.PrinterConfiguration;
 
+import java.io.IOException;
+
 /**
  * Printer interface defines the API for a printer.
  * A printer outputs the AST as formatted Java source code.
@@ -31,6 +33,17 @@ public interface Printer {
 
     String print(Node node);
 
+    /**
+     * Print the node to the output. Printers that support it write the code as it is printed, instead of building the
+     * whole code in memory first; the others write the result of {@link #print(Node)}.
+     *
+     * @param node the node to print
+     * @param output where to write the code, for example a {@link java.io.Writer}
+     */
+    default void print(Node node, Appendable output) throws IOException {
+        output.append(print(node));
+    }
+
     Printer setConfiguration(PrinterConfiguration configuration);
 
     PrinterConfiguration getConfiguration();
@@ -26,14 +26,21 @@ import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration.C
 import com.github.javaparser.printer.configuration.Indentation.IndentType;
 import com.github.javaparser.utils.Utils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Deque;
 import java.util.LinkedList;
 
 /**
  * A support class for code that outputs formatted source code.
+ * <p>
+ * The code is kept in memory, unless an output is given: the code is then written to the output each time a few
+ * kilobytes have been printed, and {@link #flush()} writes what remains at the end.
  */
 public class SourcePrinter {
 
+    private static final int BUFFER_SIZE = 8192;
+
     private String endOfLineCharacter;
 
     private Indentation indentation;
@@ -46,11 +53,19 @@ public class SourcePrinter {
 
     private final StringBuilder buf = new StringBuilder();
 
+    // null when the code is kept in memory
+    private final Appendable output;
+
     // Start before the first column
     private Position cursor = new Position(Position.FIRST_LINE, Position.FIRST_COLUMN - 1);
 
     private boolean indented = false;
 
+    // what was printed since the outermost recording started, null when nothing is recorded
+    private StringBuilder recorded;
+
+    private int recordings = 0;
+
     SourcePrinter() {
         this(new DefaultPrinterConfiguration());
     }
@@ -60,12 +75,21 @@ public class SourcePrinter {
     }
 
     SourcePrinter(final PrinterConfiguration configuration) {
-        this(configuration.get(new DefaultConfigurationOption(ConfigOption.INDENTATION)).get().asValue(), configuration.get(new DefaultConfigurationOption(ConfigOption.END_OF_LINE_CHARACTER)).get().asString());
+        this(configuration, null);
+    }
+
+    SourcePrinter(final PrinterConfiguration configuration, Appendable output) {
+        this(configuration.get(new DefaultConfigurationOption(ConfigOption.INDENTATION)).get().asValue(), configuration.get(new DefaultConfigurationOption(ConfigOption.END_OF_LINE_CHARACTER)).get().asString(), output);
     }
 
     SourcePrinter(Indentation indentation, String eol) {
+        this(indentation, eol, null);
+    }
+
+    SourcePrinter(Indentation indentation, String eol, Appendable output) {
         this.indentation = indentation;
         this.endOfLineCharacter = eol;
+        this.output = output;
         indents.push("");
     }
 
@@ -152,10 +176,20 @@ public class SourcePrinter {
     }
 
     private void append(String arg) {
-        buf.append(arg);
+        write(arg);
         cursor = cursor.withColumn(cursor.column + arg.length());
     }
 
+    private void write(String text) {
+        buf.append(text);
+        if (recorded != null) {
+            recorded.append(text);
+        }
+        if (buf.length() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
     /**
      * Append the source string passed as argument to the buffer.
      * If this is being appended at the beginning of a line, performs indentation first.
@@ -202,13 +236,87 @@ public class SourcePrinter {
      * @return this instance, for nesting calls to method as fluent interface
      */
     public SourcePrinter println() {
-        buf.append(endOfLineCharacter);
+        write(endOfLineCharacter);
         // Start before the first column
         cursor = new Position(cursor.line + 1, Position.FIRST_COLUMN - 1);
         indented = false;
         return this;
     }
 
+    /**
+     * @return true if nothing was printed on the current line yet, not even its indentation.
+     */
+    boolean isAtLineStart() {
+        return !indented;
+    }
+
+    /**
+     * @return the indentation the next line will be printed with.
+     */
+    String getIndent() {
+        return indents.peek();
+    }
+
+    /**
+     * Start recording what is printed, to print it again later with {@link #printRecorded(PrintedText)}.
+     * Recordings can be nested, and have to be started at the beginning of a line.
+     *
+     * @return the mark to give to {@link #stopRecording(int, int)}
+     */
+    int startRecording() {
+        if (recorded == null) {
+            recorded = new StringBuilder();
+        }
+        recordings++;
+        return recorded.length();
+    }
+
+    /**
+     * @param mark the value returned when the recording was started
+     * @param startLine the line of the cursor when the recording was started
+     * @return what was printed since the recording was started
+     */
+    PrintedText stopRecording(int mark, int startLine) {
+        PrintedText text = new PrintedText(recorded.substring(mark), cursor.line - startLine, cursor.column, indented, lastPrintedIndent);
+        if (--recordings == 0) {
+            recorded = null;
+        }
+        return text;
+    }
+
+    /**
+     * Print again a recorded text, at the beginning of a line with the same indentation as when it was recorded.
+     */
+    void printRecorded(PrintedText text) {
+        if (indented) {
+            throw new IllegalStateException("Recorded text can only be printed at the beginning of a line.");
+        }
+        write(text.text);
+        cursor = new Position(cursor.line + text.lines, text.endColumn);
+        indented = text.indented;
+        if (indented) {
+            lastPrintedIndent = text.lastPrintedIndent;
+        }
+    }
+
+    /**
+     * Write the code printed so far to the output, if this printer has one.
+     * When the code is kept in memory this does nothing.
+     *
+     * @throws UncheckedIOException if the code could not be written to the output
+     */
+    public void flush() {
+        if (output == null || buf.length() == 0) {
+            return;
+        }
+        try {
+            output.append(buf);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buf.setLength(0);
+    }
+
     /**
      * Return the current cursor position (line, column) in the source printer buffer.
      * <p>
@@ -233,7 +341,8 @@ public class SourcePrinter {
     }
 
     /**
-     * @return the currently printed source code.
+     * @return the currently printed source code. When this printer has an output, only the code that was not written
+     * to it yet.
      */
     @Override
     public String toString() {
@@ -278,4 +387,30 @@ public class SourcePrinter {
     public void duplicateIndent() {
         indents.push(indents.peek());
     }
+
+    /**
+     * Text printed between {@link #startRecording()} and {@link #stopRecording(int, int)}, with the state of the
+     * cursor it was left in.
+     */
+    static final class PrintedText {
+
+        private final String text;
+
+        // number of lines started by the text
+        private final int lines;
+
+        private final int endColumn;
+
+        private final boolean indented;
+
+        private final String lastPrintedIndent;
+
+        private PrintedText(String text, int lines, int endColumn, boolean indented, String lastPrintedIndent) {
+            this.text = text;
+            this.lines = lines;
+            this.endColumn = endColumn;
+            this.indented = indented;
+            this.lastPrintedIndent = lastPrintedIndent;
+        }
+    }
 }
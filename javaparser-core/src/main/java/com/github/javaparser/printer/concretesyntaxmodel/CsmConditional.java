@@ -119,13 +119,20 @@ public class CsmConditional implements CsmElement {
         this(property, condition, thenElement, new CsmNone());
     }
 
-    @Override
-    public void prettyPrint(Node node, SourcePrinter printer) {
+    /**
+     * @return true if the condition holds for one of the properties of the node.
+     */
+    boolean evaluate(Node node) {
         boolean test = false;
         for (ObservableProperty prop : properties) {
             test = test || condition.evaluate(node, prop);
         }
-        if (test) {
+        return test;
+    }
+
+    @Override
+    public void prettyPrint(Node node, SourcePrinter printer) {
+        if (evaluate(node)) {
             thenElement.prettyPrint(node, printer);
         } else {
             elseElement.prettyPrint(node, printer);
@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.printer.concretesyntaxmodel;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.printer.ConcreteSyntaxModel;
+import com.github.javaparser.printer.SourcePrinter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A concrete syntax model compiled into a flat array of instructions. Sequences are inlined, conditionals become
+ * jumps, and lists and mixes refer to the programs of their parts. Interpreting a program only loops over the
+ * instructions, instead of walking down the elements of the model and testing the type of each of them.
+ */
+public final class CsmProgram implements CsmElement {
+
+    public enum Instruction {
+
+        TOKEN,
+        SINGLE_REFERENCE,
+        ATTRIBUTE,
+        STRING,
+        CHAR,
+        TEXT_BLOCK,
+        INDENT,
+        UNINDENT,
+        COMMENT,
+        ORPHAN_COMMENTS_ENDING,
+        /**
+         * A list, with the programs of its preceding element, separators and following element as sub programs.
+         */
+        LIST,
+        /**
+         * A mix, with the program of its elements as sub program.
+         */
+        MIX,
+        /**
+         * Go to the jump target when the conditional is not satisfied, to the next instruction otherwise.
+         */
+        JUMP_UNLESS,
+        /**
+         * Go to the jump target.
+         */
+        JUMP,
+        /**
+         * Any other element.
+         */
+        OTHER
+    }
+
+    public static final int PRECEEDING = 0;
+
+    public static final int SEPARATOR_PRE = 1;
+
+    public static final int SEPARATOR_POST = 2;
+
+    public static final int FOLLOWING = 3;
+
+    private static final CsmProgram[] NO_SUB_PROGRAMS = new CsmProgram[0];
+
+    private final Instruction[] instructions;
+
+    private final CsmElement[] elements;
+
+    private final int[] jumpTargets;
+
+    private final CsmProgram[][] subPrograms;
+
+    private CsmProgram(Instruction[] instructions, CsmElement[] elements, int[] jumpTargets, CsmProgram[][] subPrograms) {
+        this.instructions = instructions;
+        this.elements = elements;
+        this.jumpTargets = jumpTargets;
+        this.subPrograms = subPrograms;
+    }
+
+    /**
+     * @return the program of the element, which is the element itself when it is already a program.
+     */
+    public static CsmProgram compile(CsmElement csm) {
+        if (csm instanceof CsmProgram) {
+            return (CsmProgram) csm;
+        }
+        Compiler compiler = new Compiler();
+        compiler.compile(csm);
+        return compiler.build();
+    }
+
+    public int size() {
+        return instructions.length;
+    }
+
+    public Instruction getInstruction(int index) {
+        return instructions[index];
+    }
+
+    /**
+     * @return the element the instruction was compiled from: the conditional for a {@link Instruction#JUMP_UNLESS},
+     * null for a {@link Instruction#JUMP}.
+     */
+    public CsmElement getElement(int index) {
+        return elements[index];
+    }
+
+    /**
+     * @return the index of the next instruction when jumping, which can be the size of the program.
+     */
+    public int getJumpTarget(int index) {
+        return jumpTargets[index];
+    }
+
+    /**
+     * @param part {@link #PRECEEDING}, {@link #SEPARATOR_PRE}, {@link #SEPARATOR_POST} or {@link #FOLLOWING} for a
+     * list, 0 for a mix
+     */
+    public CsmProgram getSubProgram(int index, int part) {
+        return subPrograms[index][part];
+    }
+
+    @Override
+    public void prettyPrint(Node node, SourcePrinter printer) {
+        int index = 0;
+        while (index < instructions.length) {
+            CsmElement element = elements[index];
+            switch (instructions[index]) {
+                case JUMP_UNLESS:
+                    if (!((CsmConditional) element).evaluate(node)) {
+                        index = jumpTargets[index];
+                        continue;
+                    }
+                    break;
+                case JUMP:
+                    index = jumpTargets[index];
+                    continue;
+                case LIST:
+                    prettyPrintList((CsmList) element, subPrograms[index], node, printer);
+                    break;
+                case MIX:
+                    subPrograms[index][0].prettyPrint(node, printer);
+                    break;
+                default:
+                    element.prettyPrint(node, printer);
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Does what {@link CsmList#prettyPrint(Node, SourcePrinter)} does, with the compiled parts of the list.
+     */
+    private static void prettyPrintList(CsmList list, CsmProgram[] parts, Node node, SourcePrinter printer) {
+        if (list.getProperty().isAboutNodes()) {
+            NodeList<? extends Node> nodeList = list.getProperty().getValueAsMultipleReference(node);
+            if (nodeList == null) {
+                return;
+            }
+            if (!nodeList.isEmpty()) {
+                parts[PRECEEDING].prettyPrint(node, printer);
+            }
+            for (int i = 0; i < nodeList.size(); i++) {
+                if (i != 0) {
+                    parts[SEPARATOR_PRE].prettyPrint(node, printer);
+                }
+                ConcreteSyntaxModel.genericPrettyPrint(nodeList.get(i), printer);
+                if (i != (nodeList.size() - 1)) {
+                    parts[SEPARATOR_POST].prettyPrint(node, printer);
+                }
+            }
+            if (!nodeList.isEmpty()) {
+                parts[FOLLOWING].prettyPrint(node, printer);
+            }
+        } else {
+            Collection<?> values = list.getProperty().getValueAsCollection(node);
+            if (values == null) {
+                return;
+            }
+            if (!values.isEmpty()) {
+                parts[PRECEEDING].prettyPrint(node, printer);
+            }
+            for (Iterator<?> it = values.iterator(); it.hasNext(); ) {
+                if (it.hasNext()) {
+                    parts[SEPARATOR_PRE].prettyPrint(node, printer);
+                }
+                printer.print(PrintingHelper.printToString(it.next()));
+                if (it.hasNext()) {
+                    parts[SEPARATOR_POST].prettyPrint(node, printer);
+                }
+            }
+            if (!values.isEmpty()) {
+                parts[FOLLOWING].prettyPrint(node, printer);
+            }
+        }
+    }
+
+    private static final class Compiler {
+
+        private final List<Instruction> instructions = new ArrayList<>();
+
+        private final List<CsmElement> elements = new ArrayList<>();
+
+        private final List<Integer> jumpTargets = new ArrayList<>();
+
+        private final List<CsmProgram[]> subPrograms = new ArrayList<>();
+
+        private int add(Instruction instruction, CsmElement element, CsmProgram... subPrograms) {
+            instructions.add(instruction);
+            elements.add(element);
+            jumpTargets.add(-1);
+            this.subPrograms.add(subPrograms.length == 0 ? NO_SUB_PROGRAMS : subPrograms);
+            return instructions.size() - 1;
+        }
+
+        private void jumpHere(int jump) {
+            jumpTargets.set(jump, instructions.size());
+        }
+
+        private void compile(CsmElement csm) {
+            if (csm == null || csm instanceof CsmNone) {
+                // nothing to do
+            } else if (csm instanceof CsmSequence) {
+                ((CsmSequence) csm).getElements().forEach(this::compile);
+            } else if (csm instanceof CsmConditional) {
+                CsmConditional conditional = (CsmConditional) csm;
+                int jumpToElse = add(Instruction.JUMP_UNLESS, conditional);
+                compile(conditional.getThenElement());
+                if (conditional.getElseElement() instanceof CsmNone) {
+                    jumpHere(jumpToElse);
+                } else {
+                    int jumpToEnd = add(Instruction.JUMP, null);
+                    jumpHere(jumpToElse);
+                    compile(conditional.getElseElement());
+                    jumpHere(jumpToEnd);
+                }
+            } else if (csm instanceof CsmList) {
+                CsmList list = (CsmList) csm;
+                add(Instruction.LIST, list, CsmProgram.compile(list.getPreceeding()), CsmProgram.compile(list.getSeparatorPre()), CsmProgram.compile(list.getSeparatorPost()), CsmProgram.compile(list.getFollowing()));
+            } else if (csm instanceof CsmMix) {
+                CsmMix mix = (CsmMix) csm;
+                add(Instruction.MIX, mix, CsmProgram.compile(new CsmSequence(mix.getElements())));
+            } else {
+                add(instructionFor(csm), csm);
+            }
+        }
+
+        private static Instruction instructionFor(CsmElement csm) {
+            if (csm instanceof CsmToken) {
+                return Instruction.TOKEN;
+            } else if (csm instanceof CsmSingleReference) {
+                return Instruction.SINGLE_REFERENCE;
+            } else if (csm instanceof CsmAttribute) {
+                return Instruction.ATTRIBUTE;
+            } else if (csm instanceof CsmString) {
+                return Instruction.STRING;
+            } else if (csm instanceof CsmChar) {
+                return Instruction.CHAR;
+            } else if (csm instanceof CsmTextBlock) {
+                return Instruction.TEXT_BLOCK;
+            } else if (csm instanceof CsmIndent) {
+                return Instruction.INDENT;
+            } else if (csm instanceof CsmUnindent) {
+                return Instruction.UNINDENT;
+            } else if (csm instanceof CsmComment) {
+                return Instruction.COMMENT;
+            } else if (csm instanceof CsmOrphanCommentsEnding) {
+                return Instruction.ORPHAN_COMMENTS_ENDING;
+            }
+            return Instruction.OTHER;
+        }
+
+        private CsmProgram build() {
+            int[] targets = new int[jumpTargets.size()];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = jumpTargets.get(i);
+            }
+            return new CsmProgram(instructions.toArray(new Instruction[0]), elements.toArray(new CsmElement[0]), targets, subPrograms.toArray(new CsmProgram[0][]));
+        }
+    }
+}
@@ -136,6 +136,10 @@ class ChildTextElement extends TextElement {
 
 	@Override
 	public void accept(LexicalPreservingVisitor visitor) {
+		if (LexicalPreservingPrinter.isUnmodifiedOriginal(child)) {
+			LexicalPreservingPrinter.printOriginalText(child, visitor);
+			return;
+		}
 		NodeText nodeText = getNodeTextForWrappedNode();
 		nodeText.getElements().forEach(element -> element.accept(visitor));
 	}
@@ -182,7 +182,7 @@ public class Difference {
     }
 
     private List<TextElement> indentationBlock() {
-        List<TextElement> res = new LinkedList<>();
+        List<TextElement> res = new ArrayList<>();
         res.add(new TokenTextElement(SPACE));
         res.add(new TokenTextElement(SPACE));
         res.add(new TokenTextElement(SPACE));
@@ -395,6 +395,7 @@ public class Difference {
                 CsmMix elementsFromNextOrder = reshuffled.getNextOrder();
                 // This contains indexes from elementsFromNextOrder to indexes from elementsFromPreviousOrder
                 Map<Integer, Integer> correspondanceBetweenNextOrderAndPreviousOrder = getCorrespondanceBetweenNextOrderAndPreviousOrder(elementsFromPreviousOrder, elementsFromNextOrder);
+                Set<Integer> keptPreviousOrderIndexes = new HashSet<>(correspondanceBetweenNextOrderAndPreviousOrder.values());
                 // We now find out which Node Text elements corresponds to the elements in the original CSM
                 List<Integer> nodeTextIndexOfPreviousElements = findIndexOfCorrespondingNodeTextElement(elementsFromPreviousOrder.getElements(), nodeText, originalIndex, node);
                 Map<Integer, Integer> nodeTextIndexToPreviousCSMIndex = new HashMap<>();
@@ -406,7 +407,7 @@ public class Difference {
                 }
                 int lastNodeTextIndex = nodeTextIndexOfPreviousElements.stream().max(Integer::compareTo).orElse(-1);
                 // Elements to be added at the end
-                List<CsmElement> elementsToBeAddedAtTheEnd = new LinkedList<>();
+                List<CsmElement> elementsToBeAddedAtTheEnd = new ArrayList<>();
                 List<CsmElement> nextOrderElements = elementsFromNextOrder.getElements();
                 Map<Integer, List<CsmElement>> elementsToAddBeforeGivenOriginalCSMElement = new HashMap<>();
                 for (int ni = 0; ni < nextOrderElements.size(); ni++) {
@@ -419,7 +420,7 @@ public class Difference {
                             if (correspondanceBetweenNextOrderAndPreviousOrder.containsKey(nj)) {
                                 originalCsmIndex = correspondanceBetweenNextOrderAndPreviousOrder.get(nj);
                                 if (!elementsToAddBeforeGivenOriginalCSMElement.containsKey(originalCsmIndex)) {
-                                    elementsToAddBeforeGivenOriginalCSMElement.put(originalCsmIndex, new LinkedList<>());
+                                    elementsToAddBeforeGivenOriginalCSMElement.put(originalCsmIndex, new ArrayList<>());
                                 }
                                 elementsToAddBeforeGivenOriginalCSMElement.get(originalCsmIndex).add(nextOrderElements.get(ni));
                             }
@@ -450,7 +451,7 @@ public class Difference {
                                 }
                             }
                             CsmElement originalCSMElement = elementsFromPreviousOrder.getElements().get(indexOfOriginalCSMElement);
-                            boolean toBeKept = correspondanceBetweenNextOrderAndPreviousOrder.containsValue(indexOfOriginalCSMElement);
+                            boolean toBeKept = keptPreviousOrderIndexes.contains(indexOfOriginalCSMElement);
                             if (toBeKept) {
                                 diffElements.add(diffElIterator++, new Kept(originalCSMElement));
                             } else {
@@ -1071,6 +1072,7 @@ public class Difference {
 	private Map<Integer, Integer> getCorrespondanceBetweenNextOrderAndPreviousOrder(CsmMix elementsFromPreviousOrder,
 			CsmMix elementsFromNextOrder) {
 		Map<Integer, Integer> correspondanceBetweenNextOrderAndPreviousOrder = new HashMap<>();
+		Set<Integer> matchedPreviousOrderIndexes = new HashSet<>();
 		ReadOnlyListIterator<CsmElement> previousOrderElementsIterator = new ReadOnlyListIterator(
 				elementsFromPreviousOrder.getElements());
 		int syncNextIndex = 0;
@@ -1080,10 +1082,11 @@ public class Difference {
 					elementsFromNextOrder.getElements(), syncNextIndex);
 			while (nextOrderElementsIterator.hasNext()) {
 				CsmElement ne = nextOrderElementsIterator.next();
-				if (!correspondanceBetweenNextOrderAndPreviousOrder.values().contains(previousOrderElementsIterator.index())
+				if (!matchedPreviousOrderIndexes.contains(previousOrderElementsIterator.index())
 						&& DifferenceElementCalculator.matching(ne, pe)) {
 					correspondanceBetweenNextOrderAndPreviousOrder.put(nextOrderElementsIterator.index(),
 							previousOrderElementsIterator.index());
+					matchedPreviousOrderIndexes.add(previousOrderElementsIterator.index());
 					// set the position to start on the next {@code nextOrderElementsIterator} iteration
 					syncNextIndex = nextOrderElementsIterator.index(); 
 					break;
@@ -1171,13 +1174,14 @@ public class Difference {
 
     private List<Integer> findIndexOfCorrespondingNodeTextElement(List<CsmElement> elements, NodeText nodeText, int startIndex, Node node) {
         List<Integer> correspondingIndices = new ArrayList<>();
+        Set<Integer> usedIndices = new HashSet<>();
         for (ListIterator<CsmElement> csmElementListIterator = elements.listIterator(); csmElementListIterator.hasNext(); ) {
             int previousCsmElementIndex = csmElementListIterator.previousIndex();
             CsmElement csmElement = csmElementListIterator.next();
             int nextCsmElementIndex = csmElementListIterator.nextIndex();
             Map<MatchClassification, Integer> potentialMatches = new EnumMap<>(MatchClassification.class);
             for (int i = startIndex; i < nodeText.numberOfElements(); i++) {
-                if (!correspondingIndices.contains(i)) {
+                if (!usedIndices.contains(i)) {
                     TextElement textElement = nodeText.getTextElement(i);
                     boolean isCorresponding = isCorrespondingElement(textElement, csmElement, node);
                     if (isCorresponding) {
@@ -1209,6 +1213,7 @@ public class Difference {
             Optional<MatchClassification> bestMatchKey = potentialMatches.keySet().stream().min(Comparator.comparing(MatchClassification::getPriority));
             if (bestMatchKey.isPresent()) {
                 correspondingIndices.add(potentialMatches.get(bestMatchKey.get()));
+                usedIndices.add(potentialMatches.get(bestMatchKey.get()));
             } else {
                 correspondingIndices.add(-1);
             }
@@ -29,8 +29,9 @@ import com.github.javaparser.printer.lexicalpreservation.LexicalDifferenceCalcul
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 class DifferenceElementCalculator {
 
@@ -41,11 +42,21 @@ class DifferenceElementCalculator {
 
         Integer position;
 
+        private Integer nodeHashCode;
+
         ChildPositionInfo(Node node, Integer position) {
             this.node = node;
             this.position = position;
         }
 
+        // the hash code of a node is calculated from its whole content, so it is only calculated once
+        int nodeHashCode() {
+            if (nodeHashCode == null) {
+                nodeHashCode = node.hashCode();
+            }
+            return nodeHashCode;
+        }
+
         @Override
         public boolean equals(Object other) {
             if (other == null || !(other instanceof ChildPositionInfo))
@@ -149,6 +160,42 @@ class DifferenceElementCalculator {
         return positions;
     }
 
+    /**
+     * Group the given children by the hash code of their node. Nodes are compared by their content, which is costly, so
+     * a child is only compared with the children in its group.
+     */
+    private static Map<Integer, List<ChildPositionInfo>> groupByHashCode(List<ChildPositionInfo> children) {
+        Map<Integer, List<ChildPositionInfo>> groups = new HashMap<>();
+        for (ChildPositionInfo child : children) {
+            groups.computeIfAbsent(child.nodeHashCode(), k -> new ArrayList<>()).add(child);
+        }
+        return groups;
+    }
+
+    /**
+     * Tell if the given child is equal to one of the children.
+     */
+    private static boolean containsEqualChild(Map<Integer, List<ChildPositionInfo>> children, ChildPositionInfo child) {
+        for (ChildPositionInfo candidate : children.getOrDefault(child.nodeHashCode(), Collections.emptyList())) {
+            if (child.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the first position after the given one of a child equal to the given child, or return the default position.
+     */
+    private static int findPosition(Map<Integer, List<ChildPositionInfo>> children, ChildPositionInfo child, int after, int defaultPosition) {
+        for (ChildPositionInfo candidate : children.getOrDefault(child.nodeHashCode(), Collections.emptyList())) {
+            if (candidate.position > after && candidate.equals(child)) {
+                return candidate.position;
+            }
+        }
+        return defaultPosition;
+    }
+
     /**
      * Calculate the Difference between two CalculatedSyntaxModel elements, determining which elements were kept,
      * which were added and which were removed.
@@ -167,9 +214,15 @@ class DifferenceElementCalculator {
         // would calculate the difference between "uiop" and "uiop"
         List<ChildPositionInfo> childrenInOriginal = findChildrenPositions(original);
         List<ChildPositionInfo> childrenInAfter = findChildrenPositions(after);
-        List<ChildPositionInfo> commonChildren = new ArrayList<>(childrenInOriginal);
-        commonChildren.retainAll(childrenInAfter);
-        List<DifferenceElement> elements = new LinkedList<>();
+        Map<Integer, List<ChildPositionInfo>> childrenInOriginalByHashCode = groupByHashCode(childrenInOriginal);
+        Map<Integer, List<ChildPositionInfo>> childrenInAfterByHashCode = groupByHashCode(childrenInAfter);
+        List<ChildPositionInfo> commonChildren = new ArrayList<>();
+        for (ChildPositionInfo child : childrenInOriginal) {
+            if (containsEqualChild(childrenInAfterByHashCode, child)) {
+                commonChildren.add(child);
+            }
+        }
+        List<DifferenceElement> elements = new ArrayList<>();
         int originalIndex = 0;
         int afterIndex = 0;
         int commonChildrenIndex = 0;
@@ -182,19 +235,9 @@ class DifferenceElementCalculator {
         while (commonChildrenIndex < commonChildren.size()) {
             ChildPositionInfo child = commonChildren.get(commonChildrenIndex++);
             // search the position of the node "child" in the original list of cms element
-            final int currentPosOfNextChildInOriginal = posOfNextChildInOriginal;
-            final int currentPosOfNextChildInAfter = posOfNextChildInAfter;
-            posOfNextChildInOriginal = childrenInOriginal.stream()
-            		.filter(i -> i.equals(child))
-            		.map(i -> i.position)
-            		.filter(position -> position > currentPosOfNextChildInOriginal)
-            		.findFirst().orElse(posOfNextChildInOriginal);
+            posOfNextChildInOriginal = findPosition(childrenInOriginalByHashCode, child, posOfNextChildInOriginal, posOfNextChildInOriginal);
             // search the position of the node "child" in the modified list of cms element
-            posOfNextChildInAfter = childrenInAfter.stream()
-            		.filter(i -> i.equals(child))
-            		.map(i -> i.position)
-            		.filter(position -> position > currentPosOfNextChildInAfter)
-            		.findFirst().orElse(posOfNextChildInAfter);
+            posOfNextChildInAfter = findPosition(childrenInAfterByHashCode, child, posOfNextChildInAfter, posOfNextChildInAfter);
             // Imagine that the common elements has been moved, for example in the case where the parameters of a method are reversed
 			// In this case the afterIndex will be greater than the position of the child in
 			// the list
@@ -264,7 +307,7 @@ class DifferenceElementCalculator {
     }
 
     private static List<DifferenceElement> calculateImpl(LexicalDifferenceCalculator.CalculatedSyntaxModel original, LexicalDifferenceCalculator.CalculatedSyntaxModel after) {
-        List<DifferenceElement> elements = new LinkedList<>();
+        List<DifferenceElement> elements = new ArrayList<>();
         int originalIndex = 0;
         int afterIndex = 0;
         // We move through the two CalculatedSyntaxModel, moving both forward when we have a match
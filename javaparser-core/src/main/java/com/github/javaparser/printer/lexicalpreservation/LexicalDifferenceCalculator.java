@@ -109,7 +109,7 @@ class LexicalDifferenceCalculator {
 
     List<DifferenceElement> calculateListRemovalDifference(ObservableProperty observableProperty, NodeList<?> nodeList, int index) {
         Node container = nodeList.getParentNodeForChildren();
-        CsmElement element = ConcreteSyntaxModel.forClass(container.getClass());
+        CsmElement element = ConcreteSyntaxModel.programForClass(container.getClass());
         CalculatedSyntaxModel original = calculatedSyntaxModelForNode(element, container);
         CalculatedSyntaxModel after = calculatedSyntaxModelAfterListRemoval(element, observableProperty, nodeList, index);
         return DifferenceElementCalculator.calculate(original, after);
@@ -117,7 +117,7 @@ class LexicalDifferenceCalculator {
 
     List<DifferenceElement> calculateListAdditionDifference(ObservableProperty observableProperty, NodeList<?> nodeList, int index, Node nodeAdded) {
         Node container = nodeList.getParentNodeForChildren();
-        CsmElement element = ConcreteSyntaxModel.forClass(container.getClass());
+        CsmElement element = ConcreteSyntaxModel.programForClass(container.getClass());
         CalculatedSyntaxModel original = calculatedSyntaxModelForNode(element, container);
         CalculatedSyntaxModel after = calculatedSyntaxModelAfterListAddition(element, observableProperty, nodeList, index, nodeAdded);
         List<DifferenceElement> differenceElements = DifferenceElementCalculator.calculate(original, after);
@@ -147,7 +147,7 @@ class LexicalDifferenceCalculator {
 
     List<DifferenceElement> calculateListReplacementDifference(ObservableProperty observableProperty, NodeList<?> nodeList, int index, Node newValue) {
         Node container = nodeList.getParentNodeForChildren();
-        CsmElement element = ConcreteSyntaxModel.forClass(container.getClass());
+        CsmElement element = ConcreteSyntaxModel.programForClass(container.getClass());
         CalculatedSyntaxModel original = calculatedSyntaxModelForNode(element, container);
         CalculatedSyntaxModel after = calculatedSyntaxModelAfterListReplacement(element, observableProperty, nodeList, index, newValue);
         return DifferenceElementCalculator.calculate(original, after);
@@ -157,7 +157,7 @@ class LexicalDifferenceCalculator {
         if (nodeText == null) {
             throw new NullPointerException();
         }
-        CsmElement element = ConcreteSyntaxModel.forClass(observedNode.getClass());
+        CsmElement element = ConcreteSyntaxModel.programForClass(observedNode.getClass());
         CalculatedSyntaxModel original = calculatedSyntaxModelForNode(element, observedNode);
         CalculatedSyntaxModel after = calculatedSyntaxModelAfterPropertyChange(element, observedNode, property, oldValue, newValue);
         List<DifferenceElement> differenceElements = DifferenceElementCalculator.calculate(original, after);
@@ -167,148 +167,174 @@ class LexicalDifferenceCalculator {
 
     // Visible for testing
     CalculatedSyntaxModel calculatedSyntaxModelForNode(CsmElement csm, Node node) {
-        List<CsmElement> elements = new LinkedList<>();
+        List<CsmElement> elements = new ArrayList<>();
         calculatedSyntaxModelForNode(csm, node, elements, new NoChange());
         return new CalculatedSyntaxModel(elements);
     }
 
     CalculatedSyntaxModel calculatedSyntaxModelForNode(Node node) {
-        return calculatedSyntaxModelForNode(ConcreteSyntaxModel.forClass(node.getClass()), node);
+        return calculatedSyntaxModelForNode(ConcreteSyntaxModel.programForClass(node.getClass()), node);
     }
 
     private void calculatedSyntaxModelForNode(CsmElement csm, Node node, List<CsmElement> elements, Change change) {
-        if (csm instanceof CsmSequence) {
-            CsmSequence csmSequence = (CsmSequence) csm;
-            csmSequence.getElements().forEach(e -> calculatedSyntaxModelForNode(e, node, elements, change));
-        } else if (csm instanceof CsmComment) {
-            // nothing to do
-        } else if (csm instanceof CsmSingleReference) {
-            CsmSingleReference csmSingleReference = (CsmSingleReference) csm;
-            Node child;
-            if (change instanceof PropertyChange && ((PropertyChange) change).getProperty() == csmSingleReference.getProperty()) {
-                child = (Node) ((PropertyChange) change).getNewValue();
-            } else {
-                child = csmSingleReference.getProperty().getValueAsSingleReference(node);
-            }
-            if (child != null) {
-                elements.add(new CsmChild(child));
-            }
-        } else if (csm instanceof CsmNone) {
-            // nothing to do
-        } else if (csm instanceof CsmToken) {
-            elements.add(csm);
-        } else if (csm instanceof CsmOrphanCommentsEnding) {
-            // nothing to do
-        } else if (csm instanceof CsmList) {
-            CsmList csmList = (CsmList) csm;
-            if (csmList.getProperty().isAboutNodes()) {
-                Object rawValue = change.getValue(csmList.getProperty(), node);
-                NodeList<?> nodeList;
-                if (rawValue instanceof Optional) {
-                    Optional<?> optional = (Optional<?>) rawValue;
-                    if (optional.isPresent()) {
-                        if (!(optional.get() instanceof NodeList)) {
-                            throw new IllegalStateException("Expected NodeList, found " + optional.get().getClass().getCanonicalName());
-                        }
-                        nodeList = (NodeList<?>) optional.get();
+        calculatedSyntaxModelForNode(CsmProgram.compile(csm), node, elements, change);
+    }
+
+    private void calculatedSyntaxModelForNode(CsmProgram program, Node node, List<CsmElement> elements, Change change) {
+        int index = 0;
+        while (index < program.size()) {
+            CsmElement csm = program.getElement(index);
+            switch (program.getInstruction(index)) {
+                case JUMP_UNLESS:
+                    if (!change.evaluate((CsmConditional) csm, node)) {
+                        index = program.getJumpTarget(index);
+                        continue;
+                    }
+                    break;
+                case JUMP:
+                    index = program.getJumpTarget(index);
+                    continue;
+                case COMMENT:
+                case ORPHAN_COMMENTS_ENDING:
+                    // nothing to do
+                    break;
+                case SINGLE_REFERENCE:
+                    CsmSingleReference csmSingleReference = (CsmSingleReference) csm;
+                    Node child;
+                    if (change instanceof PropertyChange && ((PropertyChange) change).getProperty() == csmSingleReference.getProperty()) {
+                        child = (Node) ((PropertyChange) change).getNewValue();
                     } else {
-                        nodeList = new NodeList<>();
+                        child = csmSingleReference.getProperty().getValueAsSingleReference(node);
                     }
-                } else {
-                    if (!(rawValue instanceof NodeList)) {
-                        throw new IllegalStateException("Expected NodeList, found " + rawValue.getClass().getCanonicalName());
+                    if (child != null) {
+                        elements.add(new CsmChild(child));
                     }
-                    nodeList = (NodeList<?>) rawValue;
-                }
-                if (!nodeList.isEmpty()) {
-                    calculatedSyntaxModelForNode(csmList.getPreceeding(), node, elements, change);
-                    for (int i = 0; i < nodeList.size(); i++) {
-                        if (i != 0) {
-                            calculatedSyntaxModelForNode(csmList.getSeparatorPre(), node, elements, change);
-                        }
-                        elements.add(new CsmChild(nodeList.get(i)));
-                        if (i != (nodeList.size() - 1)) {
-                            calculatedSyntaxModelForNode(csmList.getSeparatorPost(), node, elements, change);
-                        }
+                    break;
+                case TOKEN:
+                case INDENT:
+                case UNINDENT:
+                    elements.add(csm);
+                    break;
+                case LIST:
+                    calculatedSyntaxModelForList(program, index, node, elements, change);
+                    break;
+                case ATTRIBUTE:
+                    CsmAttribute csmAttribute = (CsmAttribute) csm;
+                    Object value = change.getValue(csmAttribute.getProperty(), node);
+                    String text = value.toString();
+                    if (value instanceof Stringable) {
+                        text = ((Stringable) value).asString();
                     }
-                    calculatedSyntaxModelForNode(csmList.getFollowing(), node, elements, change);
-                }
-            } else {
-                Collection<?> collection = (Collection<?>) change.getValue(csmList.getProperty(), node);
-                if (!collection.isEmpty()) {
-                    calculatedSyntaxModelForNode(csmList.getPreceeding(), node, elements, change);
-                    boolean first = true;
-                    for (Iterator<?> it = collection.iterator(); it.hasNext(); ) {
-                        if (!first) {
-                            calculatedSyntaxModelForNode(csmList.getSeparatorPre(), node, elements, change);
-                        }
-                        Object value = it.next();
-                        if (value instanceof Modifier) {
-                            Modifier modifier = (Modifier) value;
-                            elements.add(new CsmToken(toToken(modifier)));
+                    elements.add(new CsmToken(csmAttribute.getTokenType(node, value.toString(), text), text));
+                    break;
+                case STRING:
+                    if (node instanceof StringLiteralExpr) {
+                        // fix #2382:
+                        // This method calculates the syntax model _after_ the change has been applied.
+                        // If the given change is a PropertyChange, the returned model should
+                        // contain the new value, otherwise the original/current value should be used.
+                        if (change instanceof PropertyChange) {
+                            elements.add(new CsmToken(GeneratedJavaParserConstants.STRING_LITERAL, "\"" + ((PropertyChange) change).getNewValue() + "\""));
                         } else {
-                            throw new UnsupportedOperationException(it.next().getClass().getSimpleName());
+                            elements.add(new CsmToken(GeneratedJavaParserConstants.STRING_LITERAL, "\"" + ((StringLiteralExpr) node).getValue() + "\""));
                         }
-                        if (it.hasNext()) {
-                            calculatedSyntaxModelForNode(csmList.getSeparatorPost(), node, elements, change);
+                    } else if (node instanceof TextBlockLiteralExpr) {
+                        // FIXME: csm should be CsmTextBlock -- See also #2677
+                        if (change instanceof PropertyChange) {
+                            elements.add(new CsmToken(GeneratedJavaParserConstants.TEXT_BLOCK_LITERAL, "\"\"\"" + ((PropertyChange) change).getNewValue() + "\"\"\""));
+                        } else {
+                            elements.add(new CsmToken(GeneratedJavaParserConstants.TEXT_BLOCK_LITERAL, "\"\"\"" + ((TextBlockLiteralExpr) node).getValue() + "\"\"\""));
                         }
-                        first = false;
+                    } else {
+                        throw new UnsupportedOperationException(csm.getClass().getSimpleName() + " " + csm);
                     }
-                    calculatedSyntaxModelForNode(csmList.getFollowing(), node, elements, change);
-                }
-            }
-        } else if (csm instanceof CsmConditional) {
-            CsmConditional csmConditional = (CsmConditional) csm;
-            boolean satisfied = change.evaluate(csmConditional, node);
-            if (satisfied) {
-                calculatedSyntaxModelForNode(csmConditional.getThenElement(), node, elements, change);
-            } else {
-                calculatedSyntaxModelForNode(csmConditional.getElseElement(), node, elements, change);
-            }
-        } else if (csm instanceof CsmIndent) {
-            elements.add(csm);
-        } else if (csm instanceof CsmUnindent) {
-            elements.add(csm);
-        } else if (csm instanceof CsmAttribute) {
-            CsmAttribute csmAttribute = (CsmAttribute) csm;
-            Object value = change.getValue(csmAttribute.getProperty(), node);
-            String text = value.toString();
-            if (value instanceof Stringable) {
-                text = ((Stringable) value).asString();
-            }
-            elements.add(new CsmToken(csmAttribute.getTokenType(node, value.toString(), text), text));
-        } else if ((csm instanceof CsmString) && (node instanceof StringLiteralExpr)) {
-            // fix #2382:
-            // This method calculates the syntax model _after_ the change has been applied.
-            // If the given change is a PropertyChange, the returned model should
-            // contain the new value, otherwise the original/current value should be used.
-            if (change instanceof PropertyChange) {
-                elements.add(new CsmToken(GeneratedJavaParserConstants.STRING_LITERAL, "\"" + ((PropertyChange) change).getNewValue() + "\""));
-            } else {
-                elements.add(new CsmToken(GeneratedJavaParserConstants.STRING_LITERAL, "\"" + ((StringLiteralExpr) node).getValue() + "\""));
+                    break;
+                case CHAR:
+                    if (!(node instanceof CharLiteralExpr)) {
+                        throw new UnsupportedOperationException(csm.getClass().getSimpleName() + " " + csm);
+                    }
+                    if (change instanceof PropertyChange) {
+                        elements.add(new CsmToken(GeneratedJavaParserConstants.CHAR, "'" + ((PropertyChange) change).getNewValue() + "'"));
+                    } else {
+                        elements.add(new CsmToken(GeneratedJavaParserConstants.CHAR, "'" + ((CharLiteralExpr) node).getValue() + "'"));
+                    }
+                    break;
+                case MIX:
+                    List<CsmElement> mixElements = new ArrayList<>();
+                    calculatedSyntaxModelForNode(program.getSubProgram(index, 0), node, mixElements, change);
+                    elements.add(new CsmMix(mixElements));
+                    break;
+                default:
+                    if (!(csm instanceof CsmChild)) {
+                        throw new UnsupportedOperationException(csm.getClass().getSimpleName() + " " + csm);
+                    }
+                    elements.add(csm);
             }
-        } else if ((csm instanceof CsmString) && (node instanceof TextBlockLiteralExpr)) {
-            // FIXME: csm should be CsmTextBlock -- See also #2677
-            if (change instanceof PropertyChange) {
-                elements.add(new CsmToken(GeneratedJavaParserConstants.TEXT_BLOCK_LITERAL, "\"\"\"" + ((PropertyChange) change).getNewValue() + "\"\"\""));
+            index++;
+        }
+    }
+
+    private void calculatedSyntaxModelForList(CsmProgram program, int index, Node node, List<CsmElement> elements, Change change) {
+        CsmList csmList = (CsmList) program.getElement(index);
+        CsmProgram preceeding = program.getSubProgram(index, CsmProgram.PRECEEDING);
+        CsmProgram separatorPre = program.getSubProgram(index, CsmProgram.SEPARATOR_PRE);
+        CsmProgram separatorPost = program.getSubProgram(index, CsmProgram.SEPARATOR_POST);
+        CsmProgram following = program.getSubProgram(index, CsmProgram.FOLLOWING);
+        if (csmList.getProperty().isAboutNodes()) {
+            Object rawValue = change.getValue(csmList.getProperty(), node);
+            NodeList<?> nodeList;
+            if (rawValue instanceof Optional) {
+                Optional<?> optional = (Optional<?>) rawValue;
+                if (optional.isPresent()) {
+                    if (!(optional.get() instanceof NodeList)) {
+                        throw new IllegalStateException("Expected NodeList, found " + optional.get().getClass().getCanonicalName());
+                    }
+                    nodeList = (NodeList<?>) optional.get();
+                } else {
+                    nodeList = new NodeList<>();
+                }
             } else {
-                elements.add(new CsmToken(GeneratedJavaParserConstants.TEXT_BLOCK_LITERAL, "\"\"\"" + ((TextBlockLiteralExpr) node).getValue() + "\"\"\""));
+                if (!(rawValue instanceof NodeList)) {
+                    throw new IllegalStateException("Expected NodeList, found " + rawValue.getClass().getCanonicalName());
+                }
+                nodeList = (NodeList<?>) rawValue;
             }
-        } else if ((csm instanceof CsmChar) && (node instanceof CharLiteralExpr)) {
-            if (change instanceof PropertyChange) {
-                elements.add(new CsmToken(GeneratedJavaParserConstants.CHAR, "'" + ((PropertyChange) change).getNewValue() + "'"));
-            } else {
-                elements.add(new CsmToken(GeneratedJavaParserConstants.CHAR, "'" + ((CharLiteralExpr) node).getValue() + "'"));
+            if (!nodeList.isEmpty()) {
+                calculatedSyntaxModelForNode(preceeding, node, elements, change);
+                for (int i = 0; i < nodeList.size(); i++) {
+                    if (i != 0) {
+                        calculatedSyntaxModelForNode(separatorPre, node, elements, change);
+                    }
+                    elements.add(new CsmChild(nodeList.get(i)));
+                    if (i != (nodeList.size() - 1)) {
+                        calculatedSyntaxModelForNode(separatorPost, node, elements, change);
+                    }
+                }
+                calculatedSyntaxModelForNode(following, node, elements, change);
             }
-        } else if (csm instanceof CsmMix) {
-            CsmMix csmMix = (CsmMix) csm;
-            List<CsmElement> mixElements = new LinkedList<>();
-            csmMix.getElements().forEach(e -> calculatedSyntaxModelForNode(e, node, mixElements, change));
-            elements.add(new CsmMix(mixElements));
-        } else if (csm instanceof CsmChild) {
-            elements.add(csm);
         } else {
-            throw new UnsupportedOperationException(csm.getClass().getSimpleName() + " " + csm);
+            Collection<?> collection = (Collection<?>) change.getValue(csmList.getProperty(), node);
+            if (!collection.isEmpty()) {
+                calculatedSyntaxModelForNode(preceeding, node, elements, change);
+                boolean first = true;
+                for (Iterator<?> it = collection.iterator(); it.hasNext(); ) {
+                    if (!first) {
+                        calculatedSyntaxModelForNode(separatorPre, node, elements, change);
+                    }
+                    Object value = it.next();
+                    if (value instanceof Modifier) {
+                        Modifier modifier = (Modifier) value;
+                        elements.add(new CsmToken(toToken(modifier)));
+                    } else {
+                        throw new UnsupportedOperationException(it.next().getClass().getSimpleName());
+                    }
+                    if (it.hasNext()) {
+                        calculatedSyntaxModelForNode(separatorPost, node, elements, change);
+                    }
+                    first = false;
+                }
+                calculatedSyntaxModelForNode(following, node, elements, change);
+            }
         }
     }
 
@@ -348,19 +374,19 @@ class LexicalDifferenceCalculator {
     // /
     // Visible for testing
     CalculatedSyntaxModel calculatedSyntaxModelAfterPropertyChange(Node node, ObservableProperty property, Object oldValue, Object newValue) {
-        return calculatedSyntaxModelAfterPropertyChange(ConcreteSyntaxModel.forClass(node.getClass()), node, property, oldValue, newValue);
+        return calculatedSyntaxModelAfterPropertyChange(ConcreteSyntaxModel.programForClass(node.getClass()), node, property, oldValue, newValue);
     }
 
     // Visible for testing
     CalculatedSyntaxModel calculatedSyntaxModelAfterPropertyChange(CsmElement csm, Node node, ObservableProperty property, Object oldValue, Object newValue) {
-        List<CsmElement> elements = new LinkedList<>();
+        List<CsmElement> elements = new ArrayList<>();
         calculatedSyntaxModelForNode(csm, node, elements, new PropertyChange(property, oldValue, newValue));
         return new CalculatedSyntaxModel(elements);
     }
 
     // Visible for testing
     CalculatedSyntaxModel calculatedSyntaxModelAfterListRemoval(CsmElement csm, ObservableProperty observableProperty, NodeList<?> nodeList, int index) {
-        List<CsmElement> elements = new LinkedList<>();
+        List<CsmElement> elements = new ArrayList<>();
         Node container = nodeList.getParentNodeForChildren();
         calculatedSyntaxModelForNode(csm, container, elements, new ListRemovalChange(observableProperty, index));
         return new CalculatedSyntaxModel(elements);
@@ -368,7 +394,7 @@ class LexicalDifferenceCalculator {
 
     // Visible for testing
     CalculatedSyntaxModel calculatedSyntaxModelAfterListAddition(CsmElement csm, ObservableProperty observableProperty, NodeList<?> nodeList, int index, Node nodeAdded) {
-        List<CsmElement> elements = new LinkedList<>();
+        List<CsmElement> elements = new ArrayList<>();
         Node container = nodeList.getParentNodeForChildren();
         calculatedSyntaxModelForNode(csm, container, elements, new ListAdditionChange(observableProperty, index, nodeAdded));
         return new CalculatedSyntaxModel(elements);
@@ -376,7 +402,7 @@ class LexicalDifferenceCalculator {
 
     // Visible for testing
     CalculatedSyntaxModel calculatedSyntaxModelAfterListAddition(Node container, ObservableProperty observableProperty, int index, Node nodeAdded) {
-        CsmElement csm = ConcreteSyntaxModel.forClass(container.getClass());
+        CsmElement csm = ConcreteSyntaxModel.programForClass(container.getClass());
         Object rawValue = observableProperty.getRawValue(container);
         if (!(rawValue instanceof NodeList)) {
             throw new IllegalStateException("Expected NodeList, found " + rawValue.getClass().getCanonicalName());
@@ -387,7 +413,7 @@ class LexicalDifferenceCalculator {
 
     // Visible for testing
     CalculatedSyntaxModel calculatedSyntaxModelAfterListRemoval(Node container, ObservableProperty observableProperty, int index) {
-        CsmElement csm = ConcreteSyntaxModel.forClass(container.getClass());
+        CsmElement csm = ConcreteSyntaxModel.programForClass(container.getClass());
         Object rawValue = observableProperty.getRawValue(container);
         if (!(rawValue instanceof NodeList)) {
             throw new IllegalStateException("Expected NodeList, found " + rawValue.getClass().getCanonicalName());
@@ -398,7 +424,7 @@ class LexicalDifferenceCalculator {
 
     // Visible for testing
     private CalculatedSyntaxModel calculatedSyntaxModelAfterListReplacement(CsmElement csm, ObservableProperty observableProperty, NodeList<?> nodeList, int index, Node newValue) {
-        List<CsmElement> elements = new LinkedList<>();
+        List<CsmElement> elements = new ArrayList<>();
         Node container = nodeList.getParentNodeForChildren();
         calculatedSyntaxModelForNode(csm, container, elements, new ListReplacementChange(observableProperty, index, newValue));
         return new CalculatedSyntaxModel(elements);
@@ -40,6 +40,8 @@ import static com.github.javaparser.utils.Utils.decapitalize;
 import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
@@ -52,9 +54,12 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import com.github.javaparser.JavaToken;
+import com.github.javaparser.Position;
 import com.github.javaparser.Range;
+import com.github.javaparser.TokenRange;
 import com.github.javaparser.ast.DataKey;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.Node;
@@ -71,11 +76,14 @@ import com.github.javaparser.ast.observer.PropagatingAstObserver;
 import com.github.javaparser.ast.type.PrimitiveType;
 import com.github.javaparser.ast.visitor.TreeVisitor;
 import com.github.javaparser.printer.ConcreteSyntaxModel;
+import com.github.javaparser.printer.Printer;
 import com.github.javaparser.printer.concretesyntaxmodel.CsmElement;
 import com.github.javaparser.printer.concretesyntaxmodel.CsmIndent;
 import com.github.javaparser.printer.concretesyntaxmodel.CsmMix;
 import com.github.javaparser.printer.concretesyntaxmodel.CsmToken;
 import com.github.javaparser.printer.concretesyntaxmodel.CsmUnindent;
+import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration;
+import com.github.javaparser.printer.configuration.PrinterConfiguration;
 import com.github.javaparser.printer.lexicalpreservation.LexicalDifferenceCalculator.CsmChild;
 import com.github.javaparser.utils.LineSeparator;
 import com.github.javaparser.utils.Pair;
@@ -99,6 +107,12 @@ public class LexicalPreservingPrinter {
     public static final DataKey<NodeText> NODE_TEXT_DATA = new DataKey<NodeText>() {
     };
 
+    /**
+     * Marks the nodes prepared with {@link #setupLazily(Node)}, and the nodes taken out of them.
+     */
+    private static final DataKey<LazySetup> LAZY_SETUP = new DataKey<LazySetup>() {
+    };
+
     private static final LexicalDifferenceCalculator LEXICAL_DIFFERENCE_CALCULATOR = new LexicalDifferenceCalculator();
 
     // 
@@ -131,11 +145,36 @@ public class LexicalPreservingPrinter {
         return node;
     }
     
+    /**
+     * Prepares the node so it can be used in the print methods, like {@link #setup(Node)}, but without building the
+     * text of every node upfront.
+     * <p>
+     * The text of a node is only built from its tokens when it is first needed: when the node or one of its
+     * descendants is modified. The nodes that were not modified are printed directly from their original tokens.
+     * This makes the setup much cheaper on large files where only a few nodes are modified.
+     *
+     * @return the node passed as a parameter for your convenience.
+     */
+    public static <N extends Node> N setupLazily(N node) {
+        assertNotNull(node);
+        if (observer == null) {
+            observer = createObserver();
+        }
+        node.getTokenRange().ifPresent(r -> {
+            node.setData(LAZY_SETUP, new LazySetup(r));
+            // Setup observer
+            if (!node.isRegistered(observer)) {
+                node.registerForSubtree(observer);
+            }
+        });
+        return node;
+    }
+
     /*
      * Returns true if the lexical preserving printer is initialized on the node
      */
     public static boolean isAvailableOn(Node node) {
-    	return node.containsData(NODE_TEXT_DATA);
+    	return node.containsData(NODE_TEXT_DATA) || findLazySetup(node) != null;
     }
 
     // 
@@ -156,6 +195,8 @@ public class LexicalPreservingPrinter {
             if (property == ObservableProperty.RANGE || property == ObservableProperty.COMMENTED_NODE) {
                 return;
             }
+            keepLazySetup(observedNode, oldValue);
+            keepLazySetup(observedNode, newValue);
             if (property == ObservableProperty.COMMENT) {
                 Optional<Node> parentNode = observedNode.getParentNode();
                 NodeText nodeText = parentNode.map(parent -> getOrCreateNodeText(parentNode.get())).// We're at the root node.
@@ -387,6 +428,7 @@ public class LexicalPreservingPrinter {
 
         @Override
         public void concreteListChange(NodeList<?> changedList, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+            keepLazySetup(changedList.getParentNodeForChildren(), nodeAddedOrRemoved);
             NodeText nodeText = getOrCreateNodeText(changedList.getParentNodeForChildren());
             final List<DifferenceElement> differenceElements;
             if (type == AstObserver.ListChangeType.REMOVAL) {
@@ -400,8 +442,30 @@ public class LexicalPreservingPrinter {
             difference.apply();
         }
 
+        @Override
+        public void parentChange(Node observedNode, Node previousParent, Node newParent) {
+            // In a tree prepared lazily, whether a node is a phantom is decided in its original place, as it is when
+            // the tree is set up eagerly
+            LazySetup lazySetup = findLazySetup(observedNode);
+            if (lazySetup != null && observedNode.getTokenRange().filter(r -> lazySetup.contains(r.getBegin())).isPresent()) {
+                observedNode.isPhantom();
+            }
+            // and the text of the parents is built while they still have their original children
+            if (previousParent != null) {
+                keepLazySetup(previousParent, observedNode);
+                if (isUnmodifiedOriginal(previousParent)) {
+                    getOrCreateNodeText(previousParent);
+                }
+            }
+            if (newParent != null && isUnmodifiedOriginal(newParent)) {
+                getOrCreateNodeText(newParent);
+            }
+        }
+
         @Override
         public void concreteListReplacement(NodeList<?> changedList, int index, Node oldValue, Node newValue) {
+            keepLazySetup(changedList.getParentNodeForChildren(), oldValue);
+            keepLazySetup(changedList.getParentNodeForChildren(), newValue);
             NodeText nodeText = getOrCreateNodeText(changedList.getParentNodeForChildren());
             List<DifferenceElement> differenceElements = LEXICAL_DIFFERENCE_CALCULATOR.calculateListReplacementDifference(findNodeListName(changedList), changedList, index, newValue);
             Difference difference = new Difference(differenceElements, nodeText, changedList.getParentNodeForChildren());
@@ -416,8 +480,10 @@ public class LexicalPreservingPrinter {
         // range of interest and ignore all other branches
         root.getTokenRange().ifPresent(rootTokenRange -> {
             for (JavaToken token : rootTokenRange) {
-                Range tokenRange = token.getRange().orElseThrow(() -> new RuntimeException("Token without range: " + token));
-                Node owner = findNodeForToken(root, tokenRange).orElseThrow(() -> new RuntimeException("Token without node owning it: " + token));
+                if (!token.hasRange()) {
+                    throw new RuntimeException("Token without range: " + token);
+                }
+                Node owner = findNodeForToken(root, token).orElseThrow(() -> new RuntimeException("Token without node owning it: " + token));
                 if (!tokensByNode.containsKey(owner)) {
                     tokensByNode.put(owner, new LinkedList<>());
                 }
@@ -436,18 +502,219 @@ public class LexicalPreservingPrinter {
         });
     }
     
-    private static Optional<Node> findNodeForToken(Node node, Range tokenRange) {
+    /**
+     * Builds the text of a node prepared lazily from the tokens it owns: the tokens in its range that are not in the
+     * range of one of its children. This gives the same text as {@link #storeInitialText(Node)}.
+     */
+    private static void storeLazyTextForOneNode(Node node, LazySetup lazySetup) {
+        List<Node> children = new ArrayList<>();
+        for (Node child : node.getChildNodes()) {
+            if (!child.isPhantom()) {
+                if (!child.hasRange()) {
+                    throw new RuntimeException("Range not present on node " + child);
+                }
+                children.add(child);
+            }
+        }
+        children.sort(comparing(child -> child.getRange().get().begin));
+        List<JavaToken> nodeTokens = new ArrayList<>();
+        Range range = node.getRange().get();
+        List<Range> rangesOwnedElsewhere = rangesOwnedElsewhere(node, lazySetup);
+        int childIndex = 0;
+        // The tokens are followed past the end of the token range of the node, as empty tokens like the end of file
+        // can be in its range too
+        JavaToken token = node.getTokenRange().get().getBegin();
+        while (token != null && lazySetup.contains(token)) {
+            if (!token.hasRange()) {
+                throw new RuntimeException("Token without range: " + token);
+            }
+            if (!token.isInside(range)) {
+                break;
+            }
+            while (childIndex < children.size() && token.beginsAfter(children.get(childIndex).getRange().get().end)) {
+                childIndex++;
+            }
+            if (childIndex < children.size() && token.isInside(children.get(childIndex).getRange().get())) {
+                // The token belongs to the child, and so do the following tokens of the child
+                JavaToken last = children.get(childIndex).getTokenRange().map(TokenRange::getEnd).orElse(null);
+                if (last != null && last.hasRange() && beginsBefore(token, last)) {
+                    token = last;
+                }
+            } else if (!isInAny(token, rangesOwnedElsewhere)) {
+                nodeTokens.add(token);
+            }
+            token = token.getNextToken().orElse(null);
+        }
+        storeInitialTextForOneNode(node, nodeTokens);
+    }
+
+    /**
+     * When the ranges of siblings overlap, the tokens in both ranges belong to the first sibling. These are the ranges
+     * of the siblings of the node, or of its ancestors, that come first.
+     */
+    private static List<Range> rangesOwnedElsewhere(Node node, LazySetup lazySetup) {
+        List<Range> ranges = new ArrayList<>();
+        Node current = node;
+        while (!current.containsData(LAZY_SETUP) && current.getParentNode().isPresent()) {
+            Node parent = current.getParentNode().get();
+            ranges.addAll(lazySetup.overlappingSiblingRanges(parent, current));
+            current = parent;
+        }
+        return ranges;
+    }
+
+    private static boolean isInAny(JavaToken token, List<Range> ranges) {
+        for (Range range : ranges) {
+            if (token.isInside(range)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean beginsBefore(JavaToken token, JavaToken other) {
+        return token.getBeginLine() < other.getBeginLine()
+                || token.getBeginLine() == other.getBeginLine() && token.getBeginColumn() < other.getBeginColumn();
+    }
+
+    /**
+     * Prints a node that was not modified from its original tokens.
+     */
+    static void printOriginalText(Node node, LexicalPreservingVisitor visitor) {
+        List<Range> rangesOwnedElsewhere = rangesOwnedElsewhere(node, findLazySetup(node));
+        if (rangesOwnedElsewhere.isEmpty()) {
+            visitor.visit(node.getTokenRange().get());
+            return;
+        }
+        for (JavaToken token : node.getTokenRange().get()) {
+            if (!isInAny(token, rangesOwnedElsewhere)) {
+                visitor.visit(new TokenTextElement(token));
+            }
+        }
+    }
+
+    private static LazySetup findLazySetup(Node node) {
+        Node current = node;
+        while (current != null) {
+            if (current.containsData(LAZY_SETUP)) {
+                return current.getData(LAZY_SETUP);
+            }
+            current = current.getParentNode().orElse(null);
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the node was in a tree prepared lazily and its text was not built yet, meaning that neither the
+     * node nor its descendants were modified.
+     */
+    static boolean isUnmodifiedOriginal(Node node) {
+        if (node.containsData(NODE_TEXT_DATA)) {
+            return false;
+        }
+        LazySetup lazySetup = findLazySetup(node);
+        return lazySetup != null && lazySetup.isOriginal(node);
+    }
+
+    /**
+     * A node taken out of a tree prepared lazily, or put in it, is marked with the setup of the tree, so that its text
+     * can still be built from its tokens while it is not attached to the tree.
+     */
+    private static void keepLazySetup(Node parent, Object node) {
+        if (node instanceof Node && !((Node) node).containsData(NODE_TEXT_DATA) && !((Node) node).containsData(LAZY_SETUP)) {
+            LazySetup lazySetup = findLazySetup(parent);
+            if (lazySetup != null) {
+                ((Node) node).setData(LAZY_SETUP, lazySetup);
+            }
+        }
+    }
+
+    /**
+     * The tokens of a tree prepared lazily. Only the nodes owning these tokens have their text built from them: nodes
+     * parsed separately and added to the tree are pretty printed, as they are when the tree is set up eagerly.
+     */
+    private static final class LazySetup {
+
+        private final TokenRange tokenRange;
+
+        private Set<JavaToken> tokens;
+
+        private final Map<Node, Map<Node, List<Range>>> overlappingSiblings = new IdentityHashMap<>();
+
+        private LazySetup(TokenRange tokenRange) {
+            this.tokenRange = tokenRange;
+        }
+
+        boolean isOriginal(Node node) {
+            return !node.isPhantom() && node.getTokenRange().isPresent() && node.hasRange()
+                    && contains(node.getTokenRange().get().getBegin());
+        }
+
+        synchronized boolean contains(JavaToken token) {
+            if (tokens == null) {
+                tokens = Collections.newSetFromMap(new IdentityHashMap<>());
+                tokenRange.forEach(tokens::add);
+            }
+            return tokens.contains(token);
+        }
+
+        /**
+         * @return the ranges of the siblings that come before a child and overlap it. They are found once for all the
+         * children of a parent, the first time one of them is printed, like the tokens of all nodes are assigned once
+         * when a tree is set up eagerly.
+         */
+        synchronized List<Range> overlappingSiblingRanges(Node parent, Node child) {
+            return overlappingSiblings.computeIfAbsent(parent, LazySetup::findOverlappingSiblings)
+                    .getOrDefault(child, Collections.emptyList());
+        }
+
+        /**
+         * Siblings are only compared one by one when one begins before the end of an earlier one, which is rare, so
+         * that this takes a time linear in the number of children.
+         */
+        private static Map<Node, List<Range>> findOverlappingSiblings(Node parent) {
+            Map<Node, List<Range>> overlapping = new IdentityHashMap<>();
+            List<Range> earlier = new ArrayList<>();
+            Position end = null;
+            for (Node child : parent.getChildNodes()) {
+                if (!child.hasRange()) {
+                    continue;
+                }
+                Range range = child.getRange().get();
+                if (end != null && !range.begin.isAfter(end)) {
+                    List<Range> ranges = new ArrayList<>();
+                    for (Range earlierRange : earlier) {
+                        if (earlierRange.overlapsWith(range)) {
+                            ranges.add(earlierRange);
+                        }
+                    }
+                    if (!ranges.isEmpty()) {
+                        overlapping.put(child, ranges);
+                    }
+                }
+                if (!child.isPhantom()) {
+                    earlier.add(range);
+                    if (end == null || range.end.isAfter(end)) {
+                        end = range.end;
+                    }
+                }
+            }
+            return overlapping;
+        }
+    }
+
+    private static Optional<Node> findNodeForToken(Node node, JavaToken token) {
         if (node.isPhantom()) {
             return Optional.empty();
         }
         if (!node.hasRange()) {
             return Optional.empty();
         }
-        if (!node.getRange().get().contains(tokenRange)) {
+        if (!token.isInside(node.getRange().get())) {
             return Optional.empty();
         }
         for (Node child : node.getChildNodes()) {
-            Optional<Node> found = findNodeForToken(child, tokenRange);
+            Optional<Node> found = findNodeForToken(child, token);
             if (found.isPresent()) {
                 return found;
             }
@@ -506,12 +773,68 @@ public class LexicalPreservingPrinter {
      */
     public static String print(Node node) {
     	LexicalPreservingVisitor visitor = new LexicalPreservingVisitor();
-    	final NodeText nodeText = getOrCreateNodeText(node);
-    	nodeText.getElements().forEach(element -> element.accept(visitor));
+    	print(node, visitor);
         return visitor.toString();
 																					  
     }
 
+    /**
+     * Print a Node to the output, preserving the lexical information. The text is written as it is printed, without
+     * building the whole text in memory first.
+     */
+    public static void print(Node node, Appendable output) throws IOException {
+        try {
+            print(node, new LexicalPreservingVisitor(output));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A printer that prints nodes preserving the lexical information, to be used where a {@link Printer} is expected,
+     * like {@link com.github.javaparser.utils.SourceRoot#setPrinter(Printer)}. It writes the text to the files as it is
+     * printed, which a function like {@code LexicalPreservingPrinter::print} cannot do.
+     * Its configuration is not used: the formatting comes from the original code.
+     */
+    public static Printer printer() {
+        return new StreamingPrinter();
+    }
+
+    private static final class StreamingPrinter implements Printer {
+
+        private PrinterConfiguration configuration = new DefaultPrinterConfiguration();
+
+        @Override
+        public String print(Node node) {
+            return LexicalPreservingPrinter.print(node);
+        }
+
+        @Override
+        public void print(Node node, Appendable output) throws IOException {
+            LexicalPreservingPrinter.print(node, output);
+        }
+
+        @Override
+        public Printer setConfiguration(PrinterConfiguration configuration) {
+            this.configuration = assertNotNull(configuration);
+            return this;
+        }
+
+        @Override
+        public PrinterConfiguration getConfiguration() {
+            return configuration;
+        }
+    }
+
+    private static void print(Node node, LexicalPreservingVisitor visitor) {
+        if (isUnmodifiedOriginal(node)) {
+            printOriginalText(node, visitor);
+            return;
+        }
+        final NodeText nodeText = getOrCreateNodeText(node);
+        nodeText.getElements().forEach(element -> element.accept(visitor));
+    }
+
     // 
     // Methods to handle transformations
     // 
@@ -568,7 +891,7 @@ public class LexicalPreservingPrinter {
             nodeText.addToken(LexicalDifferenceCalculator.toToken(modifier), modifier.getKeyword().asString());
             return;
         }
-        interpret(node, ConcreteSyntaxModel.forClass(node.getClass()), nodeText);
+        interpret(node, ConcreteSyntaxModel.programForClass(node.getClass()), nodeText);
     }
 
     /**
@@ -640,6 +963,14 @@ public class LexicalPreservingPrinter {
 
     // Visible for testing
     static NodeText getOrCreateNodeText(Node node) {
+        if (isUnmodifiedOriginal(node)) {
+            // The text of the original ancestors is built first: a node without text is then known to be unmodified
+            node.getParentNode().filter(LexicalPreservingPrinter::isUnmodifiedOriginal)
+                    .ifPresent(LexicalPreservingPrinter::getOrCreateNodeText);
+            if (!node.containsData(NODE_TEXT_DATA)) {
+                storeLazyTextForOneNode(node, findLazySetup(node));
+            }
+        }
         if (!node.containsData(NODE_TEXT_DATA)) {
             NodeText nodeText = new NodeText();
             node.setData(NODE_TEXT_DATA, nodeText);
@@ -650,7 +981,7 @@ public class LexicalPreservingPrinter {
 
     // Visible for testing
     static List<TextElement> findIndentation(Node node) {
-        List<TextElement> followingNewlines = new LinkedList<>();
+        List<TextElement> followingNewlines = new ArrayList<>();
         Iterator<TokenTextElement> it = tokensPreceeding(node);
         while (it.hasNext()) {
             TokenTextElement tte = it.next();
@@ -20,18 +20,29 @@
 
 package com.github.javaparser.printer.lexicalpreservation;
 
+import com.github.javaparser.TokenRange;
+
+import java.io.IOException;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 
 public class LexicalPreservingVisitor {
 
-	private StringWriter writer;
+	private Appendable writer;
 	
 	public LexicalPreservingVisitor() {
 		this(new StringWriter());
 	}
 	
 	public LexicalPreservingVisitor(StringWriter writer) {
-		this.writer = writer;
+		this((Appendable) writer);
+	}
+	
+	/*
+	 * Writes the text directly to the output, the IOExceptions are rethrown as UncheckedIOExceptions
+	 */
+	public LexicalPreservingVisitor(Appendable output) {
+		this.writer = output;
 	}
 
 	public void visit(ChildTextElement child) {
@@ -39,7 +50,22 @@ public class LexicalPreservingVisitor {
 	}
 	
 	public void visit(TokenTextElement token) {
-		writer.append(token.getText());
+		append(token.getText());
+	}
+
+	/*
+	 * Writes the original text of a node that was not modified
+	 */
+	public void visit(TokenRange tokenRange) {
+		tokenRange.forEach(token -> append(token.getText()));
+	}
+
+	private void append(String text) {
+		try {
+			writer.append(text);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 	
 	@Override
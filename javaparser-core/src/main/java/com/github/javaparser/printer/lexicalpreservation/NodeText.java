@@ -22,12 +22,15 @@ package com.github.javaparser.printer.lexicalpreservation;
 
 import com.github.javaparser.ast.Node;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * This contains the lexical information for a single node.
  * It is basically a list of tokens and children.
+ * <p>
+ * The elements are kept in an array based list: the differences are applied by walking it with an index, so positional
+ * access must be cheap.
  */
 class NodeText {
 
@@ -46,7 +49,7 @@ class NodeText {
      * Initialize with an empty list of elements.
      */
     NodeText() {
-        this(new LinkedList<>());
+        this(new ArrayList<>());
     }
 
     // 
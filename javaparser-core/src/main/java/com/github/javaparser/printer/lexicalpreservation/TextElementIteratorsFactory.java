@@ -21,7 +21,6 @@
 package com.github.javaparser.printer.lexicalpreservation;
 
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 class TextElementIteratorsFactory {
@@ -188,10 +187,48 @@ class TextElementIteratorsFactory {
     }
 
     public static Iterator<TokenTextElement> partialReverseIterator(NodeText nodeText, int fromIndex) {
-        List<Iterator<TokenTextElement>> elements = new LinkedList<>();
-        for (int i = fromIndex; i >= 0; i--) {
-            elements.add(reverseIterator(nodeText, i));
+        return new PartialReverseIterator(nodeText, fromIndex);
+    }
+
+    /**
+     * Goes backward through the elements of a NodeText, looking into the text of a child only when it is reached.
+     * The callers usually stop after a few tokens, for example at the previous newline.
+     */
+    private static class PartialReverseIterator implements Iterator<TokenTextElement> {
+
+        private final NodeText nodeText;
+
+        private int nextIndex;
+
+        private Iterator<TokenTextElement> current = new EmptyIterator<>();
+
+        PartialReverseIterator(NodeText nodeText, int fromIndex) {
+            this.nodeText = nodeText;
+            this.nextIndex = fromIndex;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (nextIndex < 0) {
+                    return false;
+                }
+                current = reverseIterator(nodeText, nextIndex--);
+            }
+            return true;
+        }
+
+        @Override
+        public TokenTextElement next() {
+            if (!hasNext()) {
+                throw new IllegalArgumentException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void remove() {
+            current.remove();
         }
-        return new ComposedIterator<>(elements);
     }
 }
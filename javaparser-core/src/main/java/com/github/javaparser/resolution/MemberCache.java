@@ -0,0 +1,396 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.resolution;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.resolution.declarations.ResolvedDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedFieldDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.resolution.model.typesystem.NullType;
+import com.github.javaparser.resolution.types.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static com.github.javaparser.utils.Utils.assertPositive;
+
+/**
+ * Remembers the ancestors, methods and fields of type declarations while it is in use, so that they are computed once
+ * instead of every time a method call or a field access is resolved.
+ * <p>
+ * A cache is put in use for the tasks given to {@link #run(Runnable)} or {@link #call(Supplier)}, on the thread
+ * running them. The same cache can be used by several threads at the same time. It is meant to be used for resolving
+ * with a single type solver, while the code being resolved is not modified: the cached ancestors of a type declared
+ * in source code would not see the changes.
+ * <p>
+ * Declarations are identified by their AST node when they have one, and by {@link Object#equals(Object)} otherwise.
+ * <p>
+ * All the ancestors of a type are only remembered for the traversals of
+ * {@link ResolvedReferenceTypeDeclaration#depthFirstFunc} and {@link ResolvedReferenceTypeDeclaration#breadthFirstFunc}:
+ * other traversers cannot be told apart, as a lambda can be a new object every time it is evaluated.
+ * <p>
+ * The methods chosen for calls are remembered too, by the type they are called on, their name and the types of the
+ * arguments. At most {@link #getMaximumSolvedMethods()} of them are remembered, the least recently used ones are
+ * forgotten first. Calls with lambdas, method references or arguments whose type is still being inferred are always
+ * solved again.
+ *
+ * <pre>{@code
+ * MemberCache cache = new MemberCache();
+ * cache.run(() -> compilationUnit.findAll(MethodCallExpr.class).forEach(MethodCallExpr::resolve));
+ * }</pre>
+ */
+public final class MemberCache {
+
+    private static final ThreadLocal<MemberCache> CURRENT = new ThreadLocal<>();
+
+    private final ConcurrentMap<Object, List<ResolvedReferenceType>> ancestors = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Object, List<ResolvedReferenceType>> allAncestorsDepthFirst = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Object, List<ResolvedReferenceType>> allAncestorsBreadthFirst = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Object, Set<MethodUsage>> allMethods = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Object, List<ResolvedMethodDeclaration>> allMethodDeclarations = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Object, Map<String, List<MethodUsage>>> allMethodsByName = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Object, Map<String, ResolvedFieldDeclaration>> allFieldsByName = new ConcurrentHashMap<>();
+
+    // in access order, guarded by itself
+    private final LinkedHashMap<MethodKey, SymbolReference<ResolvedMethodDeclaration>> solvedMethods;
+
+    private final int maximumSolvedMethods;
+
+    public MemberCache() {
+        this(10_000);
+    }
+
+    /**
+     * @param maximumSolvedMethods how many method calls can be remembered.
+     */
+    public MemberCache(int maximumSolvedMethods) {
+        this.maximumSolvedMethods = assertPositive(maximumSolvedMethods);
+        this.solvedMethods = new LinkedHashMap<MethodKey, SymbolReference<ResolvedMethodDeclaration>>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MethodKey, SymbolReference<ResolvedMethodDeclaration>> eldest) {
+                return size() > maximumSolvedMethods;
+            }
+        };
+    }
+
+    public int getMaximumSolvedMethods() {
+        return maximumSolvedMethods;
+    }
+
+    /**
+     * @return the cache in use on this thread, if any.
+     */
+    public static Optional<MemberCache> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Runs a task with this cache in use on the current thread.
+     */
+    public void run(Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a task with this cache in use on the current thread, and returns its result.
+     */
+    public <T> T call(Supplier<T> task) {
+        MemberCache previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return the direct ancestors of a type, computing them with the given function the first time.
+     * @see ResolvedReferenceTypeDeclaration#getAncestors()
+     */
+    public List<ResolvedReferenceType> getAncestors(ResolvedReferenceTypeDeclaration typeDeclaration,
+                                                    Supplier<List<ResolvedReferenceType>> computation) {
+        return new ArrayList<>(cached(ancestors, keyOf(typeDeclaration), computation));
+    }
+
+    /**
+     * @return the ancestors of a type found by a traverser, computing them with the given function the first time.
+     * They are computed every time for traversers other than the depth first and breadth first ones.
+     * @see ResolvedReferenceTypeDeclaration#getAllAncestors(Function)
+     */
+    public List<ResolvedReferenceType> getAllAncestors(ResolvedReferenceTypeDeclaration typeDeclaration,
+                                                       Function<ResolvedReferenceTypeDeclaration, List<ResolvedReferenceType>> traverser,
+                                                       Supplier<List<ResolvedReferenceType>> computation) {
+        if (traverser == ResolvedReferenceTypeDeclaration.depthFirstFunc) {
+            return new ArrayList<>(cached(allAncestorsDepthFirst, keyOf(typeDeclaration), computation));
+        }
+        if (traverser == ResolvedReferenceTypeDeclaration.breadthFirstFunc) {
+            return new ArrayList<>(cached(allAncestorsBreadthFirst, keyOf(typeDeclaration), computation));
+        }
+        return computation.get();
+    }
+
+    /**
+     * @return the methods of a type, including the inherited ones, computing them with the given function the first
+     * time.
+     * @see ResolvedReferenceTypeDeclaration#getAllMethods()
+     */
+    public Set<MethodUsage> getAllMethods(ResolvedReferenceTypeDeclaration typeDeclaration,
+                                          Supplier<Set<MethodUsage>> computation) {
+        return cached(allMethods, keyOf(typeDeclaration), () -> Collections.unmodifiableSet(computation.get()));
+    }
+
+    /**
+     * @return the methods declared by a type and by its ancestors, computing them with the given function the first
+     * time.
+     * @see ResolvedReferenceType#getAllMethods()
+     */
+    public List<ResolvedMethodDeclaration> getAllMethodDeclarations(ResolvedReferenceTypeDeclaration typeDeclaration,
+                                                                    Supplier<List<ResolvedMethodDeclaration>> computation) {
+        return new ArrayList<>(cached(allMethodDeclarations, keyOf(typeDeclaration), computation));
+    }
+
+    /**
+     * @return the methods of a type with a given name, including the inherited ones.
+     */
+    public List<MethodUsage> getAllMethods(ResolvedReferenceTypeDeclaration typeDeclaration, String name) {
+        Map<String, List<MethodUsage>> byName = cached(allMethodsByName, keyOf(typeDeclaration), () -> {
+            Map<String, List<MethodUsage>> methods = new HashMap<>();
+            for (MethodUsage method : typeDeclaration.getAllMethods()) {
+                methods.computeIfAbsent(method.getName(), k -> new ArrayList<>()).add(method);
+            }
+            methods.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            return methods;
+        });
+        return byName.getOrDefault(name, Collections.emptyList());
+    }
+
+    /**
+     * @return the field of a type with a given name, including the inherited ones. When several have the name, the
+     * first one in {@link ResolvedReferenceTypeDeclaration#getAllFields()} is returned.
+     */
+    public Optional<ResolvedFieldDeclaration> getField(ResolvedReferenceTypeDeclaration typeDeclaration, String name) {
+        Map<String, ResolvedFieldDeclaration> byName = cached(allFieldsByName, keyOf(typeDeclaration), () -> {
+            Map<String, ResolvedFieldDeclaration> fields = new HashMap<>();
+            for (ResolvedFieldDeclaration field : typeDeclaration.getAllFields()) {
+                fields.putIfAbsent(field.getName(), field);
+            }
+            return fields;
+        });
+        return Optional.ofNullable(byName.get(name));
+    }
+
+    /**
+     * @return the method of a type chosen for a call with some arguments, solving it with the given function the first
+     * time.
+     * @see com.github.javaparser.resolution.logic.MethodResolutionLogic#solveMethodInType(ResolvedTypeDeclaration, String, List, boolean)
+     */
+    public SymbolReference<ResolvedMethodDeclaration> solveMethod(ResolvedTypeDeclaration typeDeclaration, String name,
+                                                                  List<ResolvedType> argumentsTypes, boolean staticOnly,
+                                                                  Supplier<SymbolReference<ResolvedMethodDeclaration>> solution) {
+        List<String> arguments = new ArrayList<>(argumentsTypes.size());
+        for (ResolvedType argumentType : argumentsTypes) {
+            if (!isFullyKnown(argumentType)) {
+                return solution.get();
+            }
+            arguments.add(argumentType.describe());
+        }
+        MethodKey key = new MethodKey(keyOf(typeDeclaration), name, arguments, staticOnly);
+        SymbolReference<ResolvedMethodDeclaration> method;
+        synchronized (solvedMethods) {
+            method = solvedMethods.get(key);
+        }
+        if (method != null) {
+            return method;
+        }
+        // Solved outside of the lock: solving a call can solve other calls first.
+        method = assertNotNull(solution.get());
+        synchronized (solvedMethods) {
+            SymbolReference<ResolvedMethodDeclaration> existing = solvedMethods.putIfAbsent(key, method);
+            return existing == null ? method : existing;
+        }
+    }
+
+    /**
+     * Forgets everything, for example after the code being resolved was modified.
+     */
+    public void clear() {
+        ancestors.clear();
+        allAncestorsDepthFirst.clear();
+        allAncestorsBreadthFirst.clear();
+        allMethods.clear();
+        allMethodDeclarations.clear();
+        allMethodsByName.clear();
+        allFieldsByName.clear();
+        synchronized (solvedMethods) {
+            solvedMethods.clear();
+        }
+    }
+
+    /**
+     * @return the number of type declarations something is remembered for.
+     */
+    public int size() {
+        Set<Object> keys = new HashSet<>(ancestors.keySet());
+        keys.addAll(allAncestorsDepthFirst.keySet());
+        keys.addAll(allAncestorsBreadthFirst.keySet());
+        keys.addAll(allMethods.keySet());
+        keys.addAll(allMethodDeclarations.keySet());
+        keys.addAll(allMethodsByName.keySet());
+        keys.addAll(allFieldsByName.keySet());
+        synchronized (solvedMethods) {
+            solvedMethods.keySet().forEach(key -> keys.add(key.declaration));
+        }
+        return keys.size();
+    }
+
+    private static <K, V> V cached(Map<K, V> map, K key, Supplier<V> computation) {
+        V value = map.get(key);
+        if (value != null) {
+            return value;
+        }
+        // Not computeIfAbsent: computing the members of a type needs the members of its ancestors first.
+        value = assertNotNull(computation.get());
+        V existing = map.putIfAbsent(key, value);
+        return existing == null ? value : existing;
+    }
+
+    private static Object keyOf(ResolvedDeclaration declaration) {
+        Optional<Node> node = declaration.toAst();
+        return node.isPresent() ? new NodeKey(node.get(), declaration.getClass()) : declaration;
+    }
+
+    /**
+     * @return false for the types of lambdas, method references and type variables, including those found in the type
+     * arguments of a type: the method chosen for them depends on more than the way they are described.
+     */
+    private static boolean isFullyKnown(ResolvedType type) {
+        if (type instanceof ResolvedPrimitiveType || type instanceof NullType) {
+            return true;
+        }
+        if (type instanceof ResolvedArrayType) {
+            return isFullyKnown(((ResolvedArrayType) type).getComponentType());
+        }
+        if (type instanceof ResolvedWildcard) {
+            ResolvedWildcard wildcard = (ResolvedWildcard) type;
+            return !wildcard.isBounded() || isFullyKnown(wildcard.getBoundedType());
+        }
+        if (type instanceof ResolvedReferenceType) {
+            for (ResolvedType typeArgument : ((ResolvedReferenceType) type).typeParametersValues()) {
+                if (!isFullyKnown(typeArgument)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static final class MethodKey {
+
+        private final Object declaration;
+
+        private final String name;
+
+        private final List<String> arguments;
+
+        private final boolean staticOnly;
+
+        private MethodKey(Object declaration, String name, List<String> arguments, boolean staticOnly) {
+            this.declaration = declaration;
+            this.name = name;
+            this.arguments = arguments;
+            this.staticOnly = staticOnly;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MethodKey)) {
+                return false;
+            }
+            MethodKey that = (MethodKey) o;
+            return staticOnly == that.staticOnly && declaration.equals(that.declaration) && name.equals(that.name)
+                    && arguments.equals(that.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(declaration, name, arguments, staticOnly);
+        }
+    }
+
+    /**
+     * Identifies a declaration by the identity of its AST node: comparing nodes with equals would compare whole
+     * subtrees. Two kinds of declarations can wrap the same node, like type parameters and type variables.
+     */
+    private static final class NodeKey {
+
+        private final Node node;
+
+        private final Class<?> declarationClass;
+
+        private NodeKey(Node node, Class<?> declarationClass) {
+            this.node = node;
+            this.declarationClass = declarationClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof NodeKey)) {
+                return false;
+            }
+            NodeKey that = (NodeKey) o;
+            return node == that.node && declarationClass == that.declarationClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(node) + declarationClass.hashCode();
+        }
+    }
+}
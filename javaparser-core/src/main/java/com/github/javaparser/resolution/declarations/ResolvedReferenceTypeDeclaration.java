@@ -21,6 +21,7 @@
 package com.github.javaparser.resolution.declarations;
 
 import com.github.javaparser.ast.AccessSpecifier;
+import com.github.javaparser.resolution.MemberCache;
 import com.github.javaparser.resolution.MethodUsage;
 import com.github.javaparser.resolution.UnsolvedSymbolException;
 import com.github.javaparser.resolution.types.ResolvedReferenceType;
@@ -69,6 +70,10 @@ public interface ResolvedReferenceTypeDeclaration extends ResolvedTypeDeclaratio
      * @throws UnsolvedSymbolException if some ancestor could not be resolved.
      */
     default List<ResolvedReferenceType> getAncestors() {
+        Optional<MemberCache> cache = MemberCache.current();
+        if (cache.isPresent()) {
+            return cache.get().getAncestors(this, () -> getAncestors(false));
+        }
         return getAncestors(false);
     }
 
@@ -108,6 +113,10 @@ public interface ResolvedReferenceTypeDeclaration extends ResolvedTypeDeclaratio
      * Apply the specified traversal
      */
     default List<ResolvedReferenceType> getAllAncestors(Function<ResolvedReferenceTypeDeclaration, List<ResolvedReferenceType>> traverser) {
+        Optional<MemberCache> cache = MemberCache.current();
+        if (cache.isPresent()) {
+            return cache.get().getAllAncestors(this, traverser, () -> traverser.apply(this));
+        }
         return traverser.apply(this);
     }
 
@@ -172,7 +181,9 @@ public interface ResolvedReferenceTypeDeclaration extends ResolvedTypeDeclaratio
      * Bar I should get a FieldDeclaration with type String.
      */
     default ResolvedFieldDeclaration getField(String name) {
-        Optional<ResolvedFieldDeclaration> field = this.getAllFields().stream().filter(f -> f.getName().equals(name)).findFirst();
+        Optional<MemberCache> cache = MemberCache.current();
+        Optional<ResolvedFieldDeclaration> field = cache.isPresent() ? cache.get().getField(this, name)
+                : this.getAllFields().stream().filter(f -> f.getName().equals(name)).findFirst();
         if (field.isPresent()) {
             return field.get();
         } else {
@@ -196,6 +207,10 @@ public interface ResolvedReferenceTypeDeclaration extends ResolvedTypeDeclaratio
      * Has this type a field with the given name?
      */
     default boolean hasField(String name) {
+        Optional<MemberCache> cache = MemberCache.current();
+        if (cache.isPresent()) {
+            return cache.get().getField(this, name).isPresent();
+        }
         return this.getAllFields().stream().anyMatch(f -> f.getName().equals(name));
     }
 
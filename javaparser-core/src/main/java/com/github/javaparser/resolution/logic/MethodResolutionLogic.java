@@ -21,6 +21,7 @@
 
 package com.github.javaparser.resolution.logic;
 
+import com.github.javaparser.resolution.MemberCache;
 import com.github.javaparser.resolution.MethodAmbiguityException;
 import com.github.javaparser.resolution.MethodUsage;
 import com.github.javaparser.resolution.TypeSolver;
@@ -840,8 +841,13 @@ public class MethodResolutionLogic {
                                                                                boolean staticOnly) {
 
         if (typeDeclaration instanceof MethodResolutionCapability) {
-            return ((MethodResolutionCapability) typeDeclaration).solveMethod(name, argumentsTypes,
-                    staticOnly);
+            MethodResolutionCapability capability = (MethodResolutionCapability) typeDeclaration;
+            Optional<MemberCache> cache = MemberCache.current();
+            if (cache.isPresent()) {
+                return cache.get().solveMethod(typeDeclaration, name, argumentsTypes, staticOnly,
+                        () -> capability.solveMethod(name, argumentsTypes, staticOnly));
+            }
+            return capability.solveMethod(name, argumentsTypes, staticOnly);
         }
         throw new UnsupportedOperationException(typeDeclaration.getClass().getCanonicalName());
     }
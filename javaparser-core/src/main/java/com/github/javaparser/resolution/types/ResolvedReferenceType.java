@@ -25,6 +25,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.github.javaparser.ast.AccessSpecifier;
+import com.github.javaparser.resolution.MemberCache;
 import com.github.javaparser.resolution.MethodUsage;
 import com.github.javaparser.resolution.declarations.ResolvedFieldDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
@@ -398,6 +399,15 @@ public abstract class ResolvedReferenceType implements ResolvedType, ResolvedTyp
             // empty list -- consider IllegalStateException or similar
             return new ArrayList<>();
         }
+        // They only depend on the declarations, not on the type arguments.
+        Optional<MemberCache> cache = MemberCache.current();
+        if (cache.isPresent()) {
+            return cache.get().getAllMethodDeclarations(this.getTypeDeclaration().get(), this::getAllMethodsUncached);
+        }
+        return getAllMethodsUncached();
+    }
+
+    private List<ResolvedMethodDeclaration> getAllMethodsUncached() {
         // Get the methods declared directly on this.
         List<ResolvedMethodDeclaration> allMethods = new LinkedList<>(this.getTypeDeclaration().get().getDeclaredMethods());
         // Also get methods inherited from ancestors.
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.utils;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.observer.ObservableProperty;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static com.github.javaparser.utils.Utils.assertPositive;
+
+/**
+ * A {@link ParseResultCache} with a memory budget. Every result gets a weight, by default a rough estimate of its size
+ * in bytes. When the total weight exceeds the budget, the least recently used results are dropped.
+ * <br>Results that were put as not evictable, and results of which the compilation unit has been modified since it was
+ * put, are never dropped. They do count towards the budget, so they can make the cache exceed it.
+ * Modifications are noticed by observing the compilation unit.
+ * <br>A dropped result is only forgotten once its compilation unit is no longer in use. Until then, it is put back in
+ * the cache when it is asked for again or when its compilation unit is modified, so there is never more than one
+ * compilation unit for a file and no modification is lost.
+ */
+public class BoundedParseResultCache implements ParseResultCache {
+
+    /**
+     * A rough estimate of the memory a parsed node takes, including its share of ranges and tokens.
+     */
+    private static final long ESTIMATED_BYTES_PER_NODE = 400;
+
+    private static final class Entry {
+
+        final Path path;
+
+        final ParseResult<CompilationUnit> result;
+
+        final long weight;
+
+        final boolean evictable;
+
+        volatile boolean modified = false;
+
+        // set while the entry is only referenced by the dropped map
+        volatile boolean dropped = false;
+
+        Entry(Path path, ParseResult<CompilationUnit> result, long weight, boolean evictable) {
+            this.path = path;
+            this.result = result;
+            this.weight = weight;
+            this.evictable = evictable;
+        }
+
+        boolean canBeDropped() {
+            return evictable && !modified;
+        }
+    }
+
+    private final long maxWeight;
+
+    private final ToLongFunction<ParseResult<CompilationUnit>> weigher;
+
+    private static final class DroppedEntry extends WeakReference<Entry> {
+
+        final Path path;
+
+        DroppedEntry(Entry entry, ReferenceQueue<Entry> queue) {
+            super(entry, queue);
+            this.path = entry.path;
+        }
+    }
+
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The entries that were dropped, for as long as their compilation unit is referenced from elsewhere. The observer
+     * registered on the compilation unit references the entry, so it is collected together with it.
+     */
+    private final Map<Path, DroppedEntry> dropped = new HashMap<>();
+
+    private final ReferenceQueue<Entry> collected = new ReferenceQueue<>();
+
+    private long weight = 0;
+
+    private long evictionCount = 0;
+
+    /**
+     * @param maxSizeInBytes the memory budget, compared against an estimate of the size of the results.
+     */
+    public BoundedParseResultCache(long maxSizeInBytes) {
+        this(maxSizeInBytes, BoundedParseResultCache::estimateSizeInBytes);
+    }
+
+    /**
+     * @param maxWeight the maximum total weight of the results in the cache.
+     * @param weigher calculates the weight of a result.
+     */
+    public BoundedParseResultCache(long maxWeight, ToLongFunction<ParseResult<CompilationUnit>> weigher) {
+        assertPositive(maxWeight);
+        assertNotNull(weigher);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @return a rough estimate of the memory taken by the result, based on its number of nodes.
+     */
+    public static long estimateSizeInBytes(ParseResult<CompilationUnit> result) {
+        return result.getResult().map(cu -> cu.stream().count()).orElse(0L) * ESTIMATED_BYTES_PER_NODE;
+    }
+
+    @Override
+    public synchronized Optional<ParseResult<CompilationUnit>> get(Path path) {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            entry = droppedEntry(path);
+            if (entry != null) {
+                reinstate(entry);
+            }
+        }
+        return Optional.ofNullable(entry).map(e -> e.result);
+    }
+
+    private Entry droppedEntry(Path path) {
+        final DroppedEntry reference = dropped.get(path);
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Puts a dropped entry that is still in use back in the cache.
+     */
+    private synchronized void reinstate(Entry entry) {
+        if (!entry.dropped) {
+            return;
+        }
+        dropped.remove(entry.path);
+        entry.dropped = false;
+        entries.put(entry.path, entry);
+        weight += entry.weight;
+        evict();
+    }
+
+    @Override
+    public void put(Path path, ParseResult<CompilationUnit> result, boolean evictable) {
+        assertNotNull(path);
+        assertNotNull(result);
+        final Entry entry = new Entry(path, result, weigher.applyAsLong(result), evictable);
+        if (evictable) {
+            result.getResult().ifPresent(cu -> cu.registerForSubtree(new AstObserverAdapter() {
+
+                @Override
+                public void propertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+                    modified(entry);
+                }
+
+                @Override
+                public void listChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+                    modified(entry);
+                }
+
+                @Override
+                public void listReplacement(NodeList<?> observedNode, int index, Node oldNode, Node newNode) {
+                    modified(entry);
+                }
+            }));
+        }
+        synchronized (this) {
+            final DroppedEntry droppedPrevious = dropped.remove(path);
+            if (droppedPrevious != null && droppedPrevious.get() != null) {
+                droppedPrevious.get().dropped = false;
+            }
+            final Entry previous = entries.put(path, entry);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += entry.weight;
+            evict();
+        }
+    }
+
+    private void modified(Entry entry) {
+        entry.modified = true;
+        if (entry.dropped) {
+            reinstate(entry);
+        }
+    }
+
+    private void evict() {
+        for (Reference<? extends Entry> reference = collected.poll(); reference != null; reference = collected.poll()) {
+            dropped.remove(((DroppedEntry) reference).path, reference);
+        }
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry.canBeDropped()) {
+                iterator.remove();
+                weight -= entry.weight;
+                evictionCount++;
+                entry.dropped = true;
+                dropped.put(entry.path, new DroppedEntry(entry, collected));
+            }
+        }
+    }
+
+    /**
+     * Calls the action for every result in the cache, and for every dropped result that is still in use.
+     */
+    @Override
+    public void forEach(BiConsumer<Path, ParseResult<CompilationUnit>> action) {
+        final List<Pair<Path, ParseResult<CompilationUnit>>> snapshot = new ArrayList<>();
+        synchronized (this) {
+            entries.forEach((path, entry) -> snapshot.add(new Pair<>(path, entry.result)));
+            dropped.forEach((path, reference) -> {
+                final Entry entry = reference.get();
+                if (entry != null) {
+                    snapshot.add(new Pair<>(path, entry.result));
+                }
+            });
+        }
+        snapshot.forEach(pair -> action.accept(pair.a, pair.b));
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return the total weight of the results currently in the cache.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return the number of results dropped so far.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.utils;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link ParseResultCache} that keeps every result. This is the default for {@link SourceRoot}.
+ * Note that it grows with every file parsed.
+ */
+public class InMemoryParseResultCache implements ParseResultCache {
+
+    private final Map<Path, ParseResult<CompilationUnit>> results = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<ParseResult<CompilationUnit>> get(Path path) {
+        return Optional.ofNullable(results.get(path));
+    }
+
+    @Override
+    public void put(Path path, ParseResult<CompilationUnit> result, boolean evictable) {
+        results.put(path, result);
+    }
+
+    @Override
+    public void forEach(BiConsumer<Path, ParseResult<CompilationUnit>> action) {
+        results.forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return results.size();
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.utils;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.Problem;
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static com.github.javaparser.utils.Utils.assertPositive;
+import static java.util.Collections.singletonList;
+
+/**
+ * Parses many files concurrently, and hands out the results as a stream while the files are being parsed.
+ * <p>The files are parsed by tasks on an {@link Executor} chosen by the caller, so parsing can be done on a dedicated
+ * pool, or on virtual threads when reading the files is the bottleneck.
+ * At most {@code maxInFlight} files are being parsed or waiting to be consumed at any time:
+ * a new file is only started when a result has been taken from the stream.
+ * This keeps memory use steady no matter how many files there are, and makes a slow consumer slow down the parsing.
+ * <p>The results come in the order of the files, or in the order in which they are done when the pipeline is not
+ * {@link #setOrdered(boolean) ordered}.
+ * A file that could not be read gives a result with a problem describing the error.
+ * <p>The streams should be closed, for example with try-with-resources.
+ * Closing a stream stops it from starting new files, and files that were handed to the executor but have not started
+ * yet are skipped.
+ */
+public class ParsePipeline {
+
+    /**
+     * A file to be parsed.
+     */
+    public interface Source {
+
+        /**
+         * @return the path that the result is reported with.
+         */
+        Path getPath();
+
+        ParseResult<CompilationUnit> parse() throws IOException;
+
+        static Source of(Path path, ParseFunction parseFunction) {
+            assertNotNull(path);
+            assertNotNull(parseFunction);
+            return new Source() {
+
+                @Override
+                public Path getPath() {
+                    return path;
+                }
+
+                @Override
+                public ParseResult<CompilationUnit> parse() throws IOException {
+                    return parseFunction.parse(path);
+                }
+            };
+        }
+    }
+
+    @FunctionalInterface
+    public interface ParseFunction {
+
+        ParseResult<CompilationUnit> parse(Path path) throws IOException;
+    }
+
+    private final Executor executor;
+
+    private final int maxInFlight;
+
+    private boolean ordered = true;
+
+    /**
+     * Create a pipeline that parses on the common fork-join pool, with two files in flight per available processor.
+     */
+    public ParsePipeline() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * @param executor runs the parsing of the files.
+     * @param maxInFlight the maximum number of files that are being parsed, or have been parsed but not consumed yet.
+     */
+    public ParsePipeline(Executor executor, int maxInFlight) {
+        assertNotNull(executor);
+        assertPositive(maxInFlight);
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * @param ordered when true, the results come in the order of the files. A file that takes long to parse then
+     * holds back the results after it. When false, the results come as soon as they are done.
+     */
+    public ParsePipeline setOrdered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * Parses the sources, which are taken from the stream lazily, as results are consumed.
+     * Closing the returned stream closes the stream of sources.
+     *
+     * @return a stream of the path of each source, paired with the result of parsing it.
+     */
+    public Stream<Pair<Path, ParseResult<CompilationUnit>>> parse(Stream<? extends Source> sources) {
+        assertNotNull(sources);
+        final Results results = new Results(sources.iterator(), ordered);
+        return StreamSupport.stream(results, false).onClose(results::cancel).onClose(sources::close);
+    }
+
+    private static ParseResult<CompilationUnit> failure(IOException e) {
+        return new ParseResult<>(null, singletonList(new Problem(e.getClass().getSimpleName() + ": " + e.getMessage(), null, e)), null);
+    }
+
+    /**
+     * Starts parsing sources while results are taken. It is only used by the thread consuming the stream, except for
+     * the cancellation flag and the queue of finished results, which the parsing tasks use too.
+     */
+    private class Results extends Spliterators.AbstractSpliterator<Pair<Path, ParseResult<CompilationUnit>>> {
+
+        private final Iterator<? extends Source> sources;
+
+        private final boolean ordered;
+
+        /**
+         * When ordered: the results in the order in which they were started.
+         */
+        private final Queue<CompletableFuture<Pair<Path, ParseResult<CompilationUnit>>>> started = new ArrayDeque<>();
+
+        /**
+         * When not ordered: the results in the order in which they were finished.
+         */
+        private final BlockingQueue<CompletableFuture<Pair<Path, ParseResult<CompilationUnit>>>> finished = new LinkedBlockingQueue<>();
+
+        private int inFlight = 0;
+
+        private volatile boolean cancelled = false;
+
+        Results(Iterator<? extends Source> sources, boolean ordered) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0));
+            this.sources = sources;
+            this.ordered = ordered;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Pair<Path, ParseResult<CompilationUnit>>> action) {
+            startMore();
+            if (inFlight == 0) {
+                return false;
+            }
+            final CompletableFuture<Pair<Path, ParseResult<CompilationUnit>>> next;
+            if (ordered) {
+                next = started.remove();
+            } else {
+                try {
+                    next = finished.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new CancellationException("Interrupted while waiting for a parse result");
+                }
+            }
+            inFlight--;
+            action.accept(next.join());
+            return true;
+        }
+
+        private void startMore() {
+            while (!cancelled && inFlight < maxInFlight && sources.hasNext()) {
+                final Source source = sources.next();
+                final CompletableFuture<Pair<Path, ParseResult<CompilationUnit>>> result = CompletableFuture.supplyAsync(() -> parse(source), executor);
+                if (ordered) {
+                    started.add(result);
+                } else {
+                    result.whenComplete((r, e) -> finished.add(result));
+                }
+                inFlight++;
+            }
+        }
+
+        private Pair<Path, ParseResult<CompilationUnit>> parse(Source source) {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            Log.trace("Parsing %s", source::getPath);
+            try {
+                return new Pair<>(source.getPath(), source.parse());
+            } catch (IOException e) {
+                Log.error(e);
+                return new Pair<>(source.getPath(), failure(e));
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.utils;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * The cache in which a {@link SourceRoot} keeps the results of the files it parsed, and the files that were added to it.
+ * <br>An implementation may drop results to save memory, but only when they are evictable: results of files that
+ * were added manually don't exist on disk yet, so they must be kept until they are saved.
+ * A {@link SourceRoot} re-parses dropped files when they are asked for again, and does not save them, so an
+ * implementation must keep results of which the compilation unit was modified, and give back a dropped result as
+ * long as its compilation unit can still be modified, or a modification would be lost.
+ * <br>Implementations must be thread-safe.
+ *
+ * @see InMemoryParseResultCache
+ * @see BoundedParseResultCache
+ */
+public interface ParseResultCache {
+
+    /**
+     * @return the result cached for the path, or empty if there is none (anymore).
+     */
+    Optional<ParseResult<CompilationUnit>> get(Path path);
+
+    /**
+     * Associates the result with the path, replacing any earlier result.
+     *
+     * @param evictable whether the result can be dropped as long as its compilation unit is not modified.
+     */
+    void put(Path path, ParseResult<CompilationUnit> result, boolean evictable);
+
+    /**
+     * Calls the action for every result currently in the cache.
+     */
+    void forEach(BiConsumer<Path, ParseResult<CompilationUnit>> action);
+
+    /**
+     * @return the number of results currently in the cache.
+     */
+    int size();
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+package com.github.javaparser.utils;
+
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static com.github.javaparser.utils.Utils.assertPositive;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A cache of parsed compilation units that is kept on disk, so that it survives the JVM.
+ * <br>Entries are keyed by a hash of the source code and of the parts of the {@link ParserConfiguration} that influence
+ * the resulting AST, so a changed file or a changed configuration simply misses the cache.
+ * The ASTs themselves are written and read by a {@link Codec}.
+ * <br>The cache is bounded by the total size of its entries. When a new entry makes it exceed that bound, the least
+ * recently used entries are removed until it is well under the bound again.
+ * <br>Use it through {@link SourceRoot#setPersistentParseCache(PersistentParseCache)}.
+ * It is safe to share one instance between threads and source roots.
+ */
+public class PersistentParseCache {
+
+    /**
+     * Turns compilation units into bytes and back.
+     */
+    public interface Codec {
+
+        /**
+         * @return an identifier of this codec and its format version. Entries written by another codec (version) are never read.
+         */
+        String getId();
+
+        void write(CompilationUnit compilationUnit, OutputStream out) throws IOException;
+
+        CompilationUnit read(InputStream in) throws IOException;
+
+        /**
+         * @return whether the compilation units read by this codec have their complete token list, which is needed
+         * for lexical preservation. If not, configurations that store tokens or enable lexical preservation bypass
+         * the cache, as the units they get from the parser have token ranges.
+         */
+        default boolean preservesTokens() {
+            return false;
+        }
+    }
+
+    private static final String ENTRY_SUFFIX = ".ast";
+
+    private final Path directory;
+
+    private final Codec codec;
+
+    private final long maxSizeInBytes;
+
+    private final AtomicLong sizeInBytes = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param directory the directory to keep the cache in. It is created if it doesn't exist.
+     * Entries left behind by an earlier run are reused.
+     * @param codec the codec for writing and reading the compilation units.
+     * @param maxSizeInBytes the maximum total size of the entries in the cache.
+     */
+    public PersistentParseCache(Path directory, Codec codec, long maxSizeInBytes) throws IOException {
+        assertNotNull(directory);
+        assertNotNull(codec);
+        assertPositive(maxSizeInBytes);
+        this.directory = Files.createDirectories(directory);
+        this.codec = codec;
+        this.maxSizeInBytes = maxSizeInBytes;
+        try (Stream<Path> entries = entries()) {
+            sizeInBytes.set(entries.mapToLong(PersistentParseCache::sizeOf).sum());
+        }
+    }
+
+    /**
+     * @return whether compilation units parsed with this configuration can be kept in this cache.
+     */
+    public boolean supports(ParserConfiguration configuration) {
+        return codec.preservesTokens() || !(configuration.isStoreTokens() || configuration.isLexicalPreservationEnabled());
+    }
+
+    /**
+     * Looks up the compilation unit that results from parsing the source with the configuration.
+     * The compilation unit is set up like the parser would have: it gets the symbol resolver, line separator and
+     * lexical preservation the configuration asks for. It doesn't get a storage.
+     *
+     * @param source the bytes of a source file, in the configured character encoding.
+     */
+    public Optional<CompilationUnit> load(byte[] source, ParserConfiguration configuration) {
+        assertNotNull(source);
+        assertNotNull(configuration);
+        if (!supports(configuration)) {
+            return Optional.empty();
+        }
+        final Path entry = entryPath(source, configuration);
+        if (!Files.isRegularFile(entry)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        final CompilationUnit compilationUnit;
+        try (InputStream in = Files.newInputStream(entry)) {
+            compilationUnit = codec.read(in);
+        } catch (IOException | RuntimeException e) {
+            // A damaged entry, or one that disappeared while reading. Either way, parse again.
+            Log.error(e, "Dropping unreadable parse cache entry %s", () -> entry);
+            remove(entry);
+            misses.increment();
+            return Optional.empty();
+        }
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Only affects the order of eviction.
+        }
+        hits.increment();
+        prepare(compilationUnit, source, configuration);
+        return Optional.of(compilationUnit);
+    }
+
+    /**
+     * Keeps the compilation unit that resulted from parsing the source with the configuration.
+     * Failing to write the entry is logged but otherwise ignored: it only costs a parse next time.
+     *
+     * @param source the bytes of a source file, in the configured character encoding.
+     */
+    public void store(byte[] source, ParserConfiguration configuration, CompilationUnit compilationUnit) {
+        assertNotNull(source);
+        assertNotNull(configuration);
+        assertNotNull(compilationUnit);
+        if (!supports(configuration)) {
+            return;
+        }
+        final Path entry = entryPath(source, configuration);
+        try {
+            Files.createDirectories(entry.getParent());
+            final Path temporary = Files.createTempFile(entry.getParent(), null, ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temporary)) {
+                    codec.write(compilationUnit, out);
+                }
+                final long previousSize = Files.exists(entry) ? sizeOf(entry) : 0;
+                move(temporary, entry);
+                sizeInBytes.addAndGet(sizeOf(entry) - previousSize);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.error(e, "Could not write parse cache entry %s", () -> entry);
+            return;
+        }
+        if (sizeInBytes.get() > maxSizeInBytes) {
+            evict();
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public synchronized void clear() throws IOException {
+        try (Stream<Path> entries = entries()) {
+            for (Path entry : entries.collect(toList())) {
+                remove(entry);
+            }
+        }
+    }
+
+    private void prepare(CompilationUnit compilationUnit, byte[] source, ParserConfiguration configuration) {
+        if (configuration.isDetectOriginalLineSeparator()) {
+            String code = new String(source, configuration.getCharacterEncoding());
+            compilationUnit.setData(Node.LINE_SEPARATOR_KEY, LineSeparator.detect(code));
+        }
+        configuration.getSymbolResolver().ifPresent(symbolResolver -> compilationUnit.setData(Node.SYMBOL_RESOLVER_KEY, symbolResolver));
+        if (configuration.isLexicalPreservationEnabled()) {
+            LexicalPreservingPrinter.setup(compilationUnit);
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the cache is at 90% of its maximum size, so that eviction doesn't
+     * need to run again for every following store.
+     */
+    private synchronized void evict() {
+        if (sizeInBytes.get() <= maxSizeInBytes) {
+            return;
+        }
+        final long target = maxSizeInBytes / 10 * 9;
+        final List<Pair<Path, Long>> entries = new ArrayList<>();
+        try (Stream<Path> paths = entries()) {
+            paths.forEach(path -> lastModified(path).ifPresent(time -> entries.add(new Pair<>(path, time))));
+        } catch (IOException e) {
+            Log.error(e, "Could not evict parse cache entries from %s", () -> directory);
+            return;
+        }
+        entries.sort(Comparator.comparing(entry -> entry.b));
+        for (Pair<Path, Long> entry : entries) {
+            if (sizeInBytes.get() <= target) {
+                break;
+            }
+            remove(entry.a);
+        }
+    }
+
+    private void remove(Path entry) {
+        final long size = sizeOf(entry);
+        try {
+            if (Files.deleteIfExists(entry)) {
+                sizeInBytes.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            Log.error(e, "Could not remove parse cache entry %s", () -> entry);
+        }
+    }
+
+    private Stream<Path> entries() throws IOException {
+        return Files.walk(directory, 2).filter(path -> path.getFileName().toString().endsWith(ENTRY_SUFFIX));
+    }
+
+    /**
+     * Entries are spread over 256 subdirectories to keep directory listings short.
+     */
+    private Path entryPath(byte[] source, ParserConfiguration configuration) {
+        final String key = key(source, configuration);
+        return directory.resolve(key.substring(0, 2)).resolve(key + ENTRY_SUFFIX);
+    }
+
+    private String key(byte[] source, ParserConfiguration configuration) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be supported by every JVM", e);
+        }
+        digest.update(codec.getId().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(fingerprint(configuration).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(source);
+        final StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return a description of every configuration option that influences the AST that gets parsed.
+     * Options that are applied after reading an entry anyway (symbol resolver, lexical preservation, line separator
+     * detection) are left out.
+     */
+    static String fingerprint(ParserConfiguration configuration) {
+        return String.join(",",
+                String.valueOf(configuration.getLanguageLevel()),
+                String.valueOf(configuration.isStoreTokens()),
+                String.valueOf(configuration.isAttributeComments()),
+                String.valueOf(configuration.isDoNotAssignCommentsPrecedingEmptyLines()),
+                String.valueOf(configuration.isIgnoreAnnotationsWhenAttributingComments()),
+                String.valueOf(configuration.isPreprocessUnicodeEscapes()),
+                String.valueOf(configuration.getTabSize()),
+                configuration.getCharacterEncoding().name());
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static long sizeOf(Path entry) {
+        try {
+            return Files.size(entry);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static Optional<Long> lastModified(Path entry) {
+        try {
+            return Optional.of(Files.readAttributes(entry, BasicFileAttributes.class).lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the directory the cache is kept in.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the codec used to write and read entries.
+     */
+    public Codec getCodec() {
+        return codec;
+    }
+
+    public long getMaxSizeInBytes() {
+        return maxSizeInBytes;
+    }
+
+    /**
+     * @return the total size of all entries in the cache, as far as this instance knows.
+     */
+    public long getSizeInBytes() {
+        return sizeInBytes.get();
+    }
+
+    /**
+     * @return the number of times {@link #load(byte[], ParserConfiguration)} found an entry.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of times {@link #load(byte[], ParserConfiguration)} found no (usable) entry.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentParseCache at " + directory;
+    }
+}
@@ -20,7 +20,9 @@
  */
 package com.github.javaparser.utils;
 
+import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -28,6 +30,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.github.javaparser.utils.Utils.assertNotNull;
 
 /**
  * The structure of a Java project directory.
@@ -65,6 +70,22 @@ public class ProjectRoot {
         cache.put(path, new SourceRoot(path).setParserConfiguration(parserConfiguration));
     }
 
+    /**
+     * Parses all .java files in all source roots with the pipeline, and returns a stream of the results paired with the
+     * absolute path of their file. The files are found and parsed while the stream is consumed.
+     * Close the stream when done with it.
+     *
+     * @see SourceRoot#parseAsStream(String, ParserConfiguration, ParsePipeline)
+     */
+    public Stream<Pair<Path, ParseResult<CompilationUnit>>> parseAsStream(ParsePipeline pipeline) {
+        assertNotNull(pipeline);
+        Stream<ParsePipeline.Source> sources = Stream.empty();
+        for (SourceRoot sourceRoot : getSourceRoots()) {
+            sources = Stream.concat(sources, sourceRoot.sources("", sourceRoot.getParserConfiguration()));
+        }
+        return pipeline.parse(sources);
+    }
+
     public Path getRoot() {
         return root;
     }
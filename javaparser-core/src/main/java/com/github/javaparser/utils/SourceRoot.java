@@ -26,23 +26,40 @@ import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.printer.DefaultPrettyPrinter;
+import com.github.javaparser.printer.Printer;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.github.javaparser.ParseStart.COMPILATION_UNIT;
 import static com.github.javaparser.Providers.provider;
@@ -53,7 +70,8 @@ import static java.nio.file.FileVisitResult.*;
 /**
  * A collection of Java source files located in one directory and its subdirectories on the file system. The root directory
  * corresponds to the root of the package structure of the source files within. Files can be parsed and written back one
- * by one or all together. <b>Note that</b> the internal cache used is thread-safe.
+ * by one or all together. <b>Note that</b> the internal cache used is thread-safe. By default it keeps every parsed
+ * file; see {@link #setParseResultCache(ParseResultCache)} to put a bound on it.
  * <ul>
  * <li>methods called "tryToParse..." will return their result inside a "ParseResult", which supports parse successes and failures.</li>
  * <li>methods called "parse..." will return "CompilationUnit"s. If a file fails to parse, an exception is thrown.</li>
@@ -80,11 +98,21 @@ public class SourceRoot {
 
     private final Path root;
 
-    private final Map<Path, ParseResult<CompilationUnit>> cache = new ConcurrentHashMap<>();
+    private ParseResultCache cache = new InMemoryParseResultCache();
+
+    /**
+     * The files that were parsed into the cache, whether the cache still has their results or not.
+     */
+    private final Set<Path> parsedPaths = ConcurrentHashMap.newKeySet();
 
     private ParserConfiguration parserConfiguration = new ParserConfiguration();
 
-    private Function<CompilationUnit, String> printer = new DefaultPrettyPrinter()::print;
+    // set when the printing function is a Printer, which can write the code directly to the files
+    private Printer streamingPrinter = new DefaultPrettyPrinter();
+
+    private Function<CompilationUnit, String> printer = streamingPrinter::print;
+
+    private PersistentParseCache persistentParseCache = null;
 
     private static final Pattern JAVA_IDENTIFIER = Pattern.compile("\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*");
 
@@ -121,16 +149,44 @@ public class SourceRoot {
     public ParseResult<CompilationUnit> tryToParse(String startPackage, String filename, ParserConfiguration configuration) throws IOException {
         assertNotNull(startPackage);
         assertNotNull(filename);
-        final Path relativePath = fileInPackageRelativePath(startPackage, filename);
-        if (cache.containsKey(relativePath)) {
+        return tryToParse(fileInPackageRelativePath(startPackage, filename), configuration);
+    }
+
+    private ParseResult<CompilationUnit> tryToParse(Path relativePath, ParserConfiguration configuration) throws IOException {
+        final Optional<ParseResult<CompilationUnit>> cached = cache.get(relativePath);
+        if (cached.isPresent()) {
             Log.trace("Retrieving cached %s", () -> relativePath);
-            return cache.get(relativePath);
+            return cached.get();
         }
         final Path path = root.resolve(relativePath);
         Log.trace("Parsing %s", () -> path);
-        final ParseResult<CompilationUnit> result = new JavaParser(configuration).parse(COMPILATION_UNIT, provider(path, configuration.getCharacterEncoding()));
+        final ParseResult<CompilationUnit> result = parseFile(path, configuration);
+        cache.put(relativePath, result, true);
+        parsedPaths.add(relativePath);
+        return result;
+    }
+
+    /**
+     * Parses a file, or takes it from the persistent parse cache if there is one and it knows the file.
+     */
+    private ParseResult<CompilationUnit> parseFile(Path path, ParserConfiguration configuration) throws IOException {
+        final ParseResult<CompilationUnit> result;
+        if (persistentParseCache == null || !persistentParseCache.supports(configuration)) {
+            result = new JavaParser(configuration).parse(COMPILATION_UNIT, provider(path, configuration.getCharacterEncoding()));
+        } else {
+            final byte[] source = Files.readAllBytes(path);
+            final Optional<CompilationUnit> cached = persistentParseCache.load(source, configuration);
+            if (cached.isPresent()) {
+                Log.trace("Retrieving %s from the persistent parse cache", () -> path);
+                result = new ParseResult<>(cached.get(), new ArrayList<>(), null);
+            } else {
+                result = new JavaParser(configuration).parse(COMPILATION_UNIT, provider(ByteBuffer.wrap(source), configuration.getCharacterEncoding()));
+                if (result.isSuccessful()) {
+                    persistentParseCache.store(source, configuration, result.getResult().get());
+                }
+            }
+        }
         result.getResult().ifPresent(cu -> cu.setStorage(path, configuration.getCharacterEncoding()));
-        cache.put(relativePath, result);
         return result;
     }
 
@@ -151,6 +207,9 @@ public class SourceRoot {
      * It keeps track of all parsed files so you can write them out with a single saveAll() call. Note that the cache
      * grows with every file parsed, so if you don't need saveAll(), or you don't ask SourceRoot to parse files multiple
      * times (where the cache is useful) you might want to use the parse method with a callback.
+     * <br>The results are taken from the cache when they are read from the returned list. With a bounded
+     * {@link ParseResultCache}, the list doesn't hold them, and a result dropped from the cache is parsed again when it
+     * is read.
      *
      * @param startPackage files in this package and deeper are parsed. Pass "" to parse all files.
      */
@@ -174,7 +233,7 @@ public class SourceRoot {
                 return isSensibleDirectoryToEnter(dir) ? CONTINUE : SKIP_SUBTREE;
             }
         });
-        return getCache();
+        return parsedResults();
     }
 
     boolean isSensibleDirectoryToEnter(Path dir) throws IOException {
@@ -195,6 +254,7 @@ public class SourceRoot {
      * source root. It keeps track of all parsed files so you can write them out with a single saveAll() call. Note that
      * the cache grows with every file parsed, so if you don't need saveAll(), or you don't ask SourceRoot to parse
      * files multiple times (where the cache is useful) you might want to use the parse method with a callback.
+     * <br>The results are read from the cache lazily, see {@link #tryToParse(String)}.
      */
     public List<ParseResult<CompilationUnit>> tryToParse() throws IOException {
         return tryToParse("");
@@ -209,6 +269,7 @@ public class SourceRoot {
      * Note that the cache grows with every file parsed,
      * so if you don't need saveAll(), or you don't ask SourceRoot to parse files multiple times (where the cache is
      * useful) you might want to use the parse method with a callback.
+     * <br>The results are read from the cache lazily, see {@link #tryToParse(String)}.
      *
      * @param startPackage files in this package and deeper are parsed. Pass "" to parse all files.
      */
@@ -229,7 +290,7 @@ public class SourceRoot {
         });
         ForkJoinPool pool = new ForkJoinPool();
         pool.invoke(parse);
-        return getCache();
+        return parsedResults();
     }
 
     /**
@@ -240,6 +301,7 @@ public class SourceRoot {
      * all parsed files so you can write them out with a single saveAll() call. Note that the cache grows with every
      * file parsed, so if you don't need saveAll(), or you don't ask SourceRoot to parse files multiple times (where the
      * cache is useful) you might want to use the parse method with a callback.
+     * <br>The results are read from the cache lazily, see {@link #tryToParse(String)}.
      */
     public List<ParseResult<CompilationUnit>> tryToParseParallelized() {
         return tryToParseParallelized("");
@@ -271,8 +333,7 @@ public class SourceRoot {
     private FileVisitResult callback(Path absolutePath, ParserConfiguration configuration, Callback callback) throws IOException {
         Path localPath = root.relativize(absolutePath);
         Log.trace("Parsing %s", () -> localPath);
-        ParseResult<CompilationUnit> result = new JavaParser(configuration).parse(COMPILATION_UNIT, provider(absolutePath, configuration.getCharacterEncoding()));
-        result.getResult().ifPresent(cu -> cu.setStorage(absolutePath, configuration.getCharacterEncoding()));
+        ParseResult<CompilationUnit> result = parseFile(absolutePath, configuration);
         switch(callback.process(localPath, absolutePath, result)) {
             case SAVE:
                 result.getResult().ifPresent(cu -> save(cu, absolutePath));
@@ -347,6 +408,87 @@ public class SourceRoot {
         return this;
     }
 
+    /**
+     * Parses all .java files in a package recursively with the pipeline, and returns a stream of the results paired
+     * with the absolute path of their file. The files are found and parsed while the stream is consumed, and at most
+     * {@link ParsePipeline#getMaxInFlight()} results are kept in memory. Like the parse methods with a callback, this
+     * is memory efficient, but saveAll() won't work. Close the stream when done with it.
+     *
+     * @param startPackage files in this package and deeper are parsed. Pass "" to parse all files.
+     */
+    public Stream<Pair<Path, ParseResult<CompilationUnit>>> parseAsStream(String startPackage, ParserConfiguration configuration, ParsePipeline pipeline) {
+        assertNotNull(startPackage);
+        assertNotNull(configuration);
+        assertNotNull(pipeline);
+        logPackage(startPackage);
+        return pipeline.parse(sources(startPackage, configuration));
+    }
+
+    public Stream<Pair<Path, ParseResult<CompilationUnit>>> parseAsStream(String startPackage, ParsePipeline pipeline) {
+        return parseAsStream(startPackage, parserConfiguration, pipeline);
+    }
+
+    public Stream<Pair<Path, ParseResult<CompilationUnit>>> parseAsStream(ParsePipeline pipeline) {
+        return parseAsStream("", parserConfiguration, pipeline);
+    }
+
+    /**
+     * The .java files in a package and deeper, found lazily, one directory at a time.
+     */
+    Stream<ParsePipeline.Source> sources(String startPackage, ParserConfiguration configuration) {
+        final Path start = packageAbsolutePath(root, startPackage);
+        final Iterator<Path> files = new Iterator<Path>() {
+
+            private final Deque<Path> directories = new ArrayDeque<>();
+
+            private final Deque<Path> filesInDirectory = new ArrayDeque<>();
+
+            {
+                if (Files.isDirectory(start)) {
+                    directories.push(start);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (filesInDirectory.isEmpty() && !directories.isEmpty()) {
+                    visit(directories.pop());
+                }
+                return !filesInDirectory.isEmpty();
+            }
+
+            @Override
+            public Path next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return filesInDirectory.remove();
+            }
+
+            private void visit(Path directory) {
+                final List<Path> subdirectories = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                    for (Path entry : entries) {
+                        if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                            if (isSensibleDirectoryToEnter(entry)) {
+                                subdirectories.add(entry);
+                            }
+                        } else if (entry.toString().endsWith(".java")) {
+                            filesInDirectory.add(entry);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                for (int i = subdirectories.size() - 1; i >= 0; i--) {
+                    directories.push(subdirectories.get(i));
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(files, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(file -> ParsePipeline.Source.of(file, path -> parseFile(path, configuration)));
+    }
+
     private void logPackage(String startPackage) {
         if (startPackage.isEmpty()) {
             return;
@@ -423,7 +565,7 @@ public class SourceRoot {
         Log.trace("Adding new file %s.%s", () -> startPackage, () -> filename);
         final Path path = fileInPackageRelativePath(startPackage, filename);
         final ParseResult<CompilationUnit> parseResult = new ParseResult<>(compilationUnit, new ArrayList<>(), null);
-        cache.put(path, parseResult);
+        cache.put(path, parseResult, false);
         return this;
     }
 
@@ -437,7 +579,7 @@ public class SourceRoot {
             final Path path = compilationUnit.getStorage().get().getPath();
             Log.trace("Adding new file %s", () -> path);
             final ParseResult<CompilationUnit> parseResult = new ParseResult<>(compilationUnit, new ArrayList<>(), null);
-            cache.put(path, parseResult);
+            cache.put(path, parseResult, false);
         } else {
             throw new AssertionError("Files added with this method should have their path set.");
         }
@@ -463,23 +605,50 @@ public class SourceRoot {
         assertNotNull(cu);
         assertNotNull(path);
         cu.setStorage(path, encoding);
-        cu.getStorage().get().save(printer);
+        if (streamingPrinter != null) {
+            cu.getStorage().get().save(streamingPrinter);
+        } else {
+            cu.getStorage().get().save(printer);
+        }
         return this;
     }
 
     /**
      * Save all previously parsed files back to a new path.
+     * With a bounded {@link ParseResultCache}, the files that were dropped from it are not printed: they are left as
+     * they are when saving them back to where they were found, and copied otherwise.
      * @param root the root of the java packages
      * @param encoding the encoding to use while saving the file
      */
     public SourceRoot saveAll(Path root, Charset encoding) {
         assertNotNull(root);
         Log.info("Saving all files (%s) to %s", cache::size, () -> root);
-        for (Map.Entry<Path, ParseResult<CompilationUnit>> cu : cache.entrySet()) {
-            final Path path = root.resolve(cu.getKey());
-            if (cu.getValue().getResult().isPresent()) {
+        final Set<Path> saved = new HashSet<>();
+        cache.forEach((localPath, result) -> {
+            saved.add(localPath);
+            final Path path = root.resolve(localPath);
+            if (result.getResult().isPresent()) {
                 Log.trace("Saving %s", () -> path);
-                save(cu.getValue().getResult().get(), path, encoding);
+                save(result.getResult().get(), path, encoding);
+            }
+        });
+        // Files that were dropped from the cache are unmodified and no longer in use, so they are not printed again.
+        // Saving to another root, they are copied.
+        if (root.normalize().equals(this.root)) {
+            return this;
+        }
+        for (Path localPath : parsedPaths) {
+            if (saved.contains(localPath)) {
+                continue;
+            }
+            final Path path = root.resolve(localPath);
+            try {
+                Log.trace("Copying %s", () -> path);
+                final String code = new String(Files.readAllBytes(this.root.resolve(localPath)), parserConfiguration.getCharacterEncoding());
+                Files.createDirectories(path.getParent());
+                Files.write(path, code.getBytes(encoding));
+            } catch (IOException e) {
+                Log.error(e);
             }
         }
         return this;
@@ -510,17 +679,63 @@ public class SourceRoot {
 
     /**
      * The Java files that have been parsed by this source root object, or have been added manually.
+     * With a bounded {@link ParseResultCache}, the files that were dropped from it are absent, see
+     * {@link #getDroppedPaths()}.
      */
     public List<ParseResult<CompilationUnit>> getCache() {
-        return new ArrayList<>(cache.values());
+        final List<ParseResult<CompilationUnit>> results = new ArrayList<>();
+        cache.forEach((path, result) -> results.add(result));
+        return results;
+    }
+
+    /**
+     * The paths, relative to the source root, of the files that were parsed by this source root object but were
+     * dropped from a bounded {@link ParseResultCache}. They are parsed again when they are asked for.
+     */
+    public Set<Path> getDroppedPaths() {
+        final Set<Path> dropped = new HashSet<>(parsedPaths);
+        cache.forEach((path, result) -> dropped.remove(path));
+        return dropped;
+    }
+
+    /**
+     * The results of the files ever parsed with this source root, or added to it, taken from the cache when they are
+     * read. A result that was dropped from the cache is parsed again.
+     */
+    private List<ParseResult<CompilationUnit>> parsedResults() {
+        final List<Path> paths = new ArrayList<>();
+        cache.forEach((path, result) -> paths.add(path));
+        final Set<Path> cached = new HashSet<>(paths);
+        for (Path path : parsedPaths) {
+            if (!cached.contains(path)) {
+                paths.add(path);
+            }
+        }
+        return new AbstractList<ParseResult<CompilationUnit>>() {
+
+            @Override
+            public ParseResult<CompilationUnit> get(int index) {
+                try {
+                    return tryToParse(paths.get(index), parserConfiguration);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public int size() {
+                return paths.size();
+            }
+        };
     }
 
     /**
      * The CompilationUnits of the Java files that have been parsed succesfully by this source root object, or have been
-     * added manually.
+     * added manually. With a bounded {@link ParseResultCache}, the files that were dropped from it are absent, see
+     * {@link #getDroppedPaths()}.
      */
     public List<CompilationUnit> getCompilationUnits() {
-        return cache.values().stream().filter(ParseResult::isSuccessful).map(p -> p.getResult().get()).collect(Collectors.toList());
+        return getCache().stream().filter(ParseResult::isSuccessful).map(p -> p.getResult().get()).collect(Collectors.toList());
     }
 
     /**
@@ -545,10 +760,23 @@ public class SourceRoot {
 
     /**
      * Set the printing function that transforms compilation units into a string to save.
+     * To save with the lexical preserving printer without building the code of each file in memory, use
+     * {@link #setPrinter(Printer)} with {@link LexicalPreservingPrinter#printer()} instead.
      */
     public SourceRoot setPrinter(Function<CompilationUnit, String> printer) {
         assertNotNull(printer);
         this.printer = printer;
+        this.streamingPrinter = null;
+        return this;
+    }
+
+    /**
+     * Set the printer used to save compilation units. The code is written to the files as it is printed.
+     */
+    public SourceRoot setPrinter(Printer printer) {
+        assertNotNull(printer);
+        this.printer = printer::print;
+        this.streamingPrinter = printer;
         return this;
     }
 
@@ -559,6 +787,37 @@ public class SourceRoot {
         return printer;
     }
 
+    /**
+     * Set the cache that keeps the results of parsed files, and the files added to this source root.
+     * The default {@link InMemoryParseResultCache} keeps everything; a {@link BoundedParseResultCache} keeps memory use
+     * in check by dropping unmodified results, which are parsed again when needed.
+     * Set it before parsing: results in the previous cache are forgotten.
+     */
+    public SourceRoot setParseResultCache(ParseResultCache cache) {
+        assertNotNull(cache);
+        this.cache = cache;
+        this.parsedPaths.clear();
+        return this;
+    }
+
+    public ParseResultCache getParseResultCache() {
+        return cache;
+    }
+
+    /**
+     * Set a cache that keeps parsed files on disk between runs. Files are taken from it instead of being parsed
+     * whenever it has an entry for their exact content and parser configuration, and files that parse successfully are
+     * added to it. Pass null to stop using it.
+     */
+    public SourceRoot setPersistentParseCache(PersistentParseCache persistentParseCache) {
+        this.persistentParseCache = persistentParseCache;
+        return this;
+    }
+
+    public Optional<PersistentParseCache> getPersistentParseCache() {
+        return Optional.ofNullable(persistentParseCache);
+    }
+
     /**
      * Executes a recursive file tree walk using threads. A new thread is invoked for each new directory discovered
      * during the walk. For each file visited, the user-provided {@link VisitFileCallback} is called with the current
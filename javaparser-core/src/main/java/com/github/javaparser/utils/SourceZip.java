@@ -21,16 +21,19 @@
 package com.github.javaparser.utils;
 
 import com.github.javaparser.JavaParser;
+import com.github.javaparser.JavaParserPool;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -111,6 +114,32 @@ public class SourceZip {
         return this;
     }
 
+    /**
+     * Parses all '.java' files in the ZIP with the pipeline, and returns a stream of the results paired with the
+     * relative path of their entry. The entries are parsed while the stream is consumed.
+     * The ZIP file stays open until the stream is closed, so close it when done with it.
+     *
+     * @throws IOException If the ZIP file can't be opened.
+     */
+    public Stream<Pair<Path, ParseResult<CompilationUnit>>> parseAsStream(ParsePipeline pipeline) throws IOException {
+        assertNotNull(pipeline);
+        Log.info("Parsing zip at \"%s\"", () -> zipPath);
+        final ZipFile zipFile = new ZipFile(zipPath.toFile());
+        final JavaParserPool parsers = new JavaParserPool(parserConfiguration);
+        final Stream<ParsePipeline.Source> sources = zipFile.stream()
+                .filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".java"))
+                .map(entry -> ParsePipeline.Source.of(Paths.get(entry.getName()), path ->
+                        parsers.parse(COMPILATION_UNIT, provider(zipFile.getInputStream(entry), parserConfiguration.getCharacterEncoding()))))
+                .onClose(() -> {
+                    try {
+                        zipFile.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return pipeline.parse(sources);
+    }
+
     /**
      * An interface to define a callback for each file that's parsed.
      */
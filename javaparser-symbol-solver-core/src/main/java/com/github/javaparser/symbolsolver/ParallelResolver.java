@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.PackageDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.modules.ModuleDeclaration;
+import com.github.javaparser.resolution.MemberCache;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import com.github.javaparser.utils.Pair;
+import com.github.javaparser.utils.ParsePipeline;
+import com.github.javaparser.utils.ProjectRoot;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static com.github.javaparser.utils.Utils.assertPositive;
+
+/**
+ * Resolves the type of every expression in many compilation units, using many threads.
+ * <br>Each compilation unit is resolved by a single task on the {@link Executor}, and all tasks share the
+ * {@link TypeSolver}, so what one task learns about a library is reused by the others.
+ * Failures to resolve an expression are counted and passed to the {@link Listener}, and resolution goes on.
+ *
+ * @see SourceFileInfoExtractor for resolving the nodes of a few files on a single thread.
+ */
+public class ParallelResolver {
+
+    /**
+     * Receives the outcome for every expression. It is called from many threads at once, so it must be thread-safe.
+     */
+    public interface Listener {
+
+        default void resolved(Expression expression, ResolvedType type) {
+        }
+
+        default void failed(Expression expression, RuntimeException exception) {
+        }
+    }
+
+    /**
+     * Counts of the expressions that were resolved, or failed to resolve.
+     */
+    public static class Summary {
+
+        private final LongAdder successes = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder compilationUnits = new LongAdder();
+
+        public long getSuccesses() {
+            return successes.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getCompilationUnits() {
+            return compilationUnits.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "Summary{" +
+                    "compilationUnits=" + getCompilationUnits() +
+                    ", successes=" + getSuccesses() +
+                    ", failures=" + getFailures() +
+                    '}';
+        }
+    }
+
+    private final TypeSolver typeSolver;
+
+    private final Executor executor;
+
+    private final int maxInFlight;
+
+    private Listener listener = new Listener() {
+    };
+
+    private MemberCache memberCache = null;
+
+    /**
+     * Resolve on the common fork-join pool.
+     */
+    public ParallelResolver(TypeSolver typeSolver) {
+        this(typeSolver, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * @param executor runs the resolution of the compilation units.
+     * @param maxInFlight the maximum number of compilation units that are waiting to be resolved or being resolved,
+     * when they are parsed along the way.
+     */
+    public ParallelResolver(TypeSolver typeSolver, Executor executor, int maxInFlight) {
+        assertNotNull(typeSolver);
+        assertNotNull(executor);
+        assertPositive(maxInFlight);
+        this.typeSolver = typeSolver;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public ParallelResolver setListener(Listener listener) {
+        this.listener = assertNotNull(listener);
+        return this;
+    }
+
+    /**
+     * Makes all the threads resolving share a cache of the ancestors and members of types. The compilation units must
+     * not be modified while they are being resolved.
+     *
+     * @param memberCache the cache to use, or null to use none.
+     */
+    public ParallelResolver setMemberCache(MemberCache memberCache) {
+        this.memberCache = memberCache;
+        return this;
+    }
+
+    public Optional<MemberCache> getMemberCache() {
+        return Optional.ofNullable(memberCache);
+    }
+
+    /**
+     * Resolves the expressions in the compilation units, and waits until that is done.
+     */
+    public Summary resolve(Collection<CompilationUnit> compilationUnits) {
+        assertNotNull(compilationUnits);
+        final Summary summary = new Summary();
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (CompilationUnit compilationUnit : compilationUnits) {
+            tasks.add(CompletableFuture.runAsync(() -> resolve(compilationUnit, summary), executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        return summary;
+    }
+
+    /**
+     * Parses all files of the project and resolves their expressions, and waits until that is done. Compilation units
+     * are dropped once they are resolved, and parsing waits while {@code maxInFlight} of them are waiting to be
+     * resolved, so that memory use stays steady. Files that fail to parse are skipped.
+     */
+    public Summary resolve(ProjectRoot projectRoot) {
+        assertNotNull(projectRoot);
+        final Summary summary = new Summary();
+        final Semaphore inFlight = new Semaphore(maxInFlight);
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        try (Stream<Pair<Path, ParseResult<CompilationUnit>>> results = projectRoot.parseAsStream(new ParsePipeline(executor, maxInFlight))) {
+            results.forEach(result -> result.b.getResult().ifPresent(compilationUnit -> {
+                try {
+                    inFlight.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted while resolving " + projectRoot.getRoot());
+                }
+                final CompletableFuture<Void> task = CompletableFuture.runAsync(() -> resolve(compilationUnit, summary), executor);
+                task.whenComplete((nothing, e) -> inFlight.release());
+                tasks.add(task);
+            }));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        return summary;
+    }
+
+    private void resolve(CompilationUnit compilationUnit, Summary summary) {
+        if (memberCache != null) {
+            memberCache.run(() -> resolveExpressions(compilationUnit, summary));
+        } else {
+            resolveExpressions(compilationUnit, summary);
+        }
+    }
+
+    private void resolveExpressions(CompilationUnit compilationUnit, Summary summary) {
+        final JavaParserFacade facade = JavaParserFacade.get(typeSolver);
+        compilationUnit.walk(Expression.class, expression -> {
+            if (!isResolvable(expression)) {
+                return;
+            }
+            try {
+                final ResolvedType type = facade.getType(expression);
+                summary.successes.increment();
+                listener.resolved(expression, type);
+            } catch (RuntimeException e) {
+                summary.failures.increment();
+                listener.failed(expression, e);
+            }
+        });
+        summary.compilationUnits.increment();
+    }
+
+    /**
+     * Annotations, and names in package, import and module declarations, are expressions without a type.
+     */
+    private static boolean isResolvable(Expression expression) {
+        if (expression instanceof AnnotationExpr) {
+            return false;
+        }
+        for (Node node = expression; node != null; node = node.getParentNode().orElse(null)) {
+            if (node instanceof PackageDeclaration || node instanceof ImportDeclaration || node instanceof ModuleDeclaration) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
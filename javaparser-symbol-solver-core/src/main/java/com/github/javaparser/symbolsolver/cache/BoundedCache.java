@@ -0,0 +1,641 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.cache;
+
+import com.github.javaparser.ast.Node;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A cache bounded by the total weight of its values, that keeps the values that are used often rather than the ones
+ * that were used last.
+ * <br>
+ * Values are held by strong references: unlike a cache with soft values, this cache never makes the garbage collector
+ * work harder when memory runs low. The weight of a value is given by a weigher, for example the number of nodes of a
+ * compilation unit, so that the bound follows the memory used more closely than a number of entries.
+ * <br>
+ * The entries are spread over segments, each with its own lock, so that threads reading different keys rarely wait
+ * for each other. Writes, which follow misses, are made one at a time, so that the maximum weight holds for the whole
+ * cache: a value can weigh up to the maximum weight, whichever segment it is in. Each segment works like W-TinyLFU:
+ * <ul>
+ *     <li>new entries go to a small window, kept in least recently used order;</li>
+ *     <li>the entries pushed out of the window become candidates for the main part of the segment. A candidate is only
+ *     admitted if its key was used more often than the keys of all the least recently used entries it would evict,
+ *     taken from its segment first and then from the others; when it is not, nothing is evicted. How often keys are used
+ *     is estimated with a small count-min sketch, whose counts are halved regularly so that the cache adapts when the
+ *     keys used change.</li>
+ * </ul>
+ * Optionally, an entry older than a given duration is reloaded in the background the next time it is found, while the
+ * old value is still returned.
+ *
+ * <pre>{@code
+ * Cache<Path, Optional<CompilationUnit>> cache = BoundedCache.<Path, Optional<CompilationUnit>>newBuilder()
+ *         .maximumWeight(5_000_000)
+ *         .weigher(cu -> cu.map(BoundedCache::countNodes).orElse(1L))
+ *         .build();
+ * }</pre>
+ *
+ * @param <K> The type of the key.
+ * @param <V> The type of the value.
+ */
+public class BoundedCache<K, V> implements Cache<K, V> {
+
+    /**
+     * Create a builder for a new cache.
+     *
+     * @param <expectedK> The expected type for the key.
+     * @param <expectedV> The expected type for the value.
+     *
+     * @return A newly created builder, for a cache of at most 10 000 entries weighing 1 each.
+     */
+    public static <expectedK, expectedV> Builder<expectedK, expectedV> newBuilder() {
+        return new Builder<>();
+    }
+
+    /**
+     * A weigher for AST nodes.
+     *
+     * @return The number of nodes in the tree of this node, itself included.
+     */
+    public static long countNodes(Node node) {
+        return node.stream().count();
+    }
+
+    private final long maximumWeight;
+    private final Segment<K, V>[] segments;
+    private final ToLongFunction<? super V> weigher;
+    private final long refreshAfterNanos;
+    private final Function<? super K, ? extends V> loader;
+    private final Executor refreshExecutor;
+
+    /**
+     * Held to change which entries are in the cache. The lock of a segment can be taken while holding it, never the
+     * other way around.
+     */
+    private final Object writeLock = new Object();
+    private long totalWeight;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    private BoundedCache(Builder<K, V> builder) {
+        int segmentCount = 1;
+        while (segmentCount < builder.concurrencyLevel && segmentCount * 2L <= builder.maximumWeight) {
+            segmentCount *= 2;
+        }
+        maximumWeight = builder.maximumWeight;
+        long windowMaximumWeight = Math.max(1, maximumWeight / segmentCount / 100);
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(windowMaximumWeight);
+        }
+        weigher = builder.weigher;
+        refreshAfterNanos = builder.refreshAfter == null ? -1 : builder.refreshAfter.toNanos();
+        loader = builder.loader;
+        refreshExecutor = builder.refreshExecutor;
+    }
+
+    private int segmentIndex(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return hash & (segments.length - 1);
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        return segments[segmentIndex(key)];
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Objects.requireNonNull(key, "The key can't be null.");
+        Objects.requireNonNull(value, "The value can't be null.");
+        long weight = weigher.applyAsLong(value);
+        if (weight < 0) {
+            throw new IllegalStateException("The weight of a value can't be negative: " + weight);
+        }
+        put(key, new Entry<>(value, weight));
+    }
+
+    private void put(K key, Entry<V> entry) {
+        synchronized (writeLock) {
+            Segment<K, V> segment = segmentFor(key);
+            segment.recordUse(key);
+            totalWeight -= segment.remove(key);
+            if (entry.weight > maximumWeight) {
+                evictionCount.increment();
+                return;
+            }
+            totalWeight += entry.weight;
+            for (Map.Entry<K, Entry<V>> candidate : segment.addToWindow(key, entry)) {
+                admit(candidate.getKey(), candidate.getValue());
+            }
+            if (totalWeight > maximumWeight) {
+                // The entry stayed in the window, which takes room from the main parts. The windows together weigh no
+                // more than the maximum weight, so the main parts can always make that room.
+                List<Victim<K, V>> victims = selectVictims(segmentIndex(key), Integer.MAX_VALUE, totalWeight - maximumWeight);
+                if (victims != null) {
+                    evict(victims);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves an entry pushed out of a window into the main part of its segment, if it is used more often than all the
+     * entries it would evict. When it is not admitted, nothing is evicted.
+     */
+    private void admit(K key, Entry<V> candidate) {
+        int index = segmentIndex(key);
+        long excess = totalWeight - maximumWeight;
+        if (excess > 0) {
+            List<Victim<K, V>> victims = selectVictims(index, segments[index].frequency(key), excess);
+            if (victims == null) {
+                totalWeight -= candidate.weight;
+                evictionCount.increment();
+                return;
+            }
+            evict(victims);
+        }
+        segments[index].addToMain(key, candidate);
+    }
+
+    /**
+     * Selects the least recently used entries of the main part of a segment first, and then of the other segments,
+     * until they weigh enough.
+     *
+     * @return The victims, or null when one of them is used at least as often as the candidate, or when the main parts
+     * do not weigh enough.
+     */
+    private List<Victim<K, V>> selectVictims(int index, int candidateFrequency, long weight) {
+        List<Victim<K, V>> victims = new ArrayList<>();
+        long selected = 0;
+        for (int i = 0; i < segments.length && selected < weight; i++) {
+            long weightInSegment = segments[(index + i) & (segments.length - 1)].selectVictims(candidateFrequency, weight - selected, victims);
+            if (weightInSegment < 0) {
+                return null;
+            }
+            selected += weightInSegment;
+        }
+        return selected < weight ? null : victims;
+    }
+
+    private void evict(List<Victim<K, V>> victims) {
+        for (Victim<K, V> victim : victims) {
+            victim.segment.remove(victim.key, victim.entry);
+            totalWeight -= victim.entry.weight;
+            evictionCount.increment();
+        }
+    }
+
+    @Override
+    public Optional<V> get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        Entry<V> entry = segment.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return Optional.empty();
+        }
+        hitCount.increment();
+        if (refreshAfterNanos >= 0 && System.nanoTime() - entry.writeTime >= refreshAfterNanos && segment.startRefresh(entry)) {
+            refreshExecutor.execute(() -> refresh(segment, key, entry));
+        }
+        return Optional.of(entry.value);
+    }
+
+    private void refresh(Segment<K, V> segment, K key, Entry<V> entry) {
+        V value = null;
+        try {
+            value = loader.apply(key);
+        } finally {
+            if (value == null) {
+                entry.refreshing = false;
+            } else {
+                long weight = weigher.applyAsLong(value);
+                synchronized (writeLock) {
+                    // unless it was removed or replaced while it was reloaded
+                    if (segment.remove(key, entry)) {
+                        totalWeight -= entry.weight;
+                        put(key, new Entry<>(value, Math.max(weight, 0)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        synchronized (writeLock) {
+            totalWeight -= segmentFor(key).remove(key);
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        synchronized (writeLock) {
+            for (Segment<K, V> segment : segments) {
+                segment.clear();
+            }
+            totalWeight = 0;
+        }
+    }
+
+    @Override
+    public boolean contains(K key) {
+        return segmentFor(key).contains(key);
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Entries discarded to stay under the maximum weight are counted as evictions, and so are the new entries that
+     * were not admitted.
+     */
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+
+    /**
+     * @return The total weight of the values in this cache.
+     */
+    public long weight() {
+        synchronized (writeLock) {
+            return totalWeight;
+        }
+    }
+
+    private static final int MINIMUM_SKETCH_WIDTH = 64;
+
+    private static final int MAXIMUM_SKETCH_WIDTH = 1 << 16;
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long weight;
+        private final long writeTime;
+        private volatile boolean refreshing;
+
+        private Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = System.nanoTime();
+        }
+    }
+
+    private static final class Victim<K, V> {
+
+        private final Segment<K, V> segment;
+        private final K key;
+        private final Entry<V> entry;
+
+        private Victim(Segment<K, V> segment, K key, Entry<V> entry) {
+            this.segment = segment;
+            this.key = key;
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * A part of the cache with its own lock, which reads only take. All its methods are synchronized; the ones that
+     * add or remove entries are only called while holding the write lock of the cache.
+     */
+    private static final class Segment<K, V> {
+
+        private final long windowMaximumWeight;
+        private final Map<K, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<K, Entry<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+        private FrequencySketch sketch = new FrequencySketch(MINIMUM_SKETCH_WIDTH);
+        private long windowWeight;
+
+        private Segment(long windowMaximumWeight) {
+            this.windowMaximumWeight = windowMaximumWeight;
+        }
+
+        /**
+         * Widens the sketch when the segment holds more entries, so that there are about four counters per entry.
+         * Only the counts of the keys in the segment are kept.
+         */
+        private void ensureSketchWidth() {
+            int width = sketch.width();
+            if (width < MAXIMUM_SKETCH_WIDTH && (window.size() + main.size()) * 4L > width) {
+                FrequencySketch wider = new FrequencySketch(width * 2);
+                for (K key : window.keySet()) {
+                    wider.raise(key, sketch.frequency(key));
+                }
+                for (K key : main.keySet()) {
+                    wider.raise(key, sketch.frequency(key));
+                }
+                sketch = wider;
+            }
+        }
+
+        synchronized Entry<V> get(Object key) {
+            sketch.increment(key);
+            Entry<V> entry = window.get(key);
+            return entry != null ? entry : main.get(key);
+        }
+
+        synchronized boolean contains(Object key) {
+            return window.containsKey(key) || main.containsKey(key);
+        }
+
+        synchronized boolean startRefresh(Entry<V> entry) {
+            if (entry.refreshing) {
+                return false;
+            }
+            entry.refreshing = true;
+            return true;
+        }
+
+        synchronized void recordUse(Object key) {
+            sketch.increment(key);
+        }
+
+        synchronized int frequency(Object key) {
+            return sketch.frequency(key);
+        }
+
+        /**
+         * Adds an entry to the window, and removes the least recently used entries that no longer fit in it.
+         *
+         * @return The entries removed from the window, which are candidates for the main part.
+         */
+        synchronized List<Map.Entry<K, Entry<V>>> addToWindow(K key, Entry<V> entry) {
+            window.put(key, entry);
+            windowWeight += entry.weight;
+            ensureSketchWidth();
+            List<Map.Entry<K, Entry<V>>> candidates = new ArrayList<>(1);
+            while (windowWeight > windowMaximumWeight && !window.isEmpty()) {
+                Iterator<Map.Entry<K, Entry<V>>> eldest = window.entrySet().iterator();
+                Map.Entry<K, Entry<V>> candidate = eldest.next();
+                eldest.remove();
+                windowWeight -= candidate.getValue().weight;
+                candidates.add(candidate);
+            }
+            return candidates;
+        }
+
+        synchronized void addToMain(K key, Entry<V> entry) {
+            main.put(key, entry);
+        }
+
+        /**
+         * Adds the least recently used entries of the main part to the victims, until they weigh enough.
+         *
+         * @return The weight of the entries added, or -1 when the next victim is used at least as often as the candidate.
+         */
+        synchronized long selectVictims(int candidateFrequency, long weight, List<Victim<K, V>> victims) {
+            long selected = 0;
+            Iterator<Map.Entry<K, Entry<V>>> eldest = main.entrySet().iterator();
+            while (selected < weight && eldest.hasNext()) {
+                Map.Entry<K, Entry<V>> victim = eldest.next();
+                if (candidateFrequency <= sketch.frequency(victim.getKey())) {
+                    return -1;
+                }
+                victims.add(new Victim<>(this, victim.getKey(), victim.getValue()));
+                selected += victim.getValue().weight;
+            }
+            return selected;
+        }
+
+        /**
+         * @return The weight of the entry that was removed, or 0 when there was none.
+         */
+        synchronized long remove(Object key) {
+            long weight = 0;
+            Entry<V> entry = window.remove(key);
+            if (entry != null) {
+                windowWeight -= entry.weight;
+                weight += entry.weight;
+            }
+            entry = main.remove(key);
+            if (entry != null) {
+                weight += entry.weight;
+            }
+            return weight;
+        }
+
+        /**
+         * @return Whether the key was still associated with that entry, which was then removed.
+         */
+        synchronized boolean remove(Object key, Entry<V> expected) {
+            if (window.remove(key, expected)) {
+                windowWeight -= expected.weight;
+                return true;
+            }
+            return main.remove(key, expected);
+        }
+
+        synchronized void clear() {
+            window.clear();
+            main.clear();
+            windowWeight = 0;
+        }
+
+        synchronized int size() {
+            return window.size() + main.size();
+        }
+    }
+
+    /**
+     * Estimates how often keys were used, with four rows of small counters. The estimate of a key is the smallest of
+     * its four counters, so it can only be too high when all of them are shared with other keys.
+     * <br>
+     * When as many keys as ten times the number of counters were counted, all the counts are halved, so that keys
+     * used often a long time ago make way for keys used often recently.
+     */
+    static final class FrequencySketch {
+
+        private static final int MAXIMUM_COUNT = 15;
+        private static final int[] SEEDS = {0x97cb3127, 0xb8f2a5b1, 0x6a09e667, 0x3c6ef372};
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int samplingSize;
+        private int additions;
+
+        FrequencySketch(int width) {
+            int size = Integer.highestOneBit(Math.max(width, 2) - 1) << 1;
+            counters = new byte[SEEDS.length][size];
+            mask = size - 1;
+            samplingSize = 10 * size;
+        }
+
+        private int index(Object key, int row) {
+            int hash = key.hashCode() * SEEDS[row];
+            hash ^= hash >>> 17;
+            return hash & mask;
+        }
+
+        int width() {
+            return mask + 1;
+        }
+
+        void increment(Object key) {
+            boolean added = false;
+            for (int row = 0; row < counters.length; row++) {
+                int i = index(key, row);
+                if (counters[row][i] < MAXIMUM_COUNT) {
+                    counters[row][i]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= samplingSize) {
+                reset();
+            }
+        }
+
+        /**
+         * Makes the estimate of a key at least the given frequency.
+         */
+        void raise(Object key, int frequency) {
+            for (int row = 0; row < counters.length; row++) {
+                int i = index(key, row);
+                counters[row][i] = (byte) Math.max(counters[row][i], frequency);
+            }
+        }
+
+        int frequency(Object key) {
+            int frequency = MAXIMUM_COUNT;
+            for (int row = 0; row < counters.length; row++) {
+                frequency = Math.min(frequency, counters[row][index(key, row)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+
+    /**
+     * Configures a {@link BoundedCache}.
+     *
+     * @param <K> The type of the key.
+     * @param <V> The type of the value.
+     */
+    public static final class Builder<K, V> {
+
+        private long maximumWeight = 10_000;
+        private ToLongFunction<? super V> weigher = value -> 1;
+        private int concurrencyLevel = 16;
+        private Duration refreshAfter;
+        private Function<? super K, ? extends V> loader;
+        private Executor refreshExecutor = ForkJoinPool.commonPool();
+
+        private Builder() {
+        }
+
+        /**
+         * @param maximumWeight The maximum total weight of the values in the cache.
+         *
+         * @return This builder.
+         */
+        public Builder<K, V> maximumWeight(long maximumWeight) {
+            if (maximumWeight <= 0) {
+                throw new IllegalArgumentException("The maximum weight must be positive.");
+            }
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /**
+         * @param weigher Gives the weight of a value. By default, every value weighs 1.
+         *
+         * @return This builder.
+         */
+        public Builder<K, V> weigher(ToLongFunction<? super V> weigher) {
+            this.weigher = Objects.requireNonNull(weigher, "The weigher can't be null.");
+            return this;
+        }
+
+        /**
+         * @param concurrencyLevel How many threads are expected to use the cache at the same time. The cache is split
+         *                         in as many segments, rounded to a power of two. 16 by default.
+         *
+         * @return This builder.
+         */
+        public Builder<K, V> concurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel <= 0) {
+                throw new IllegalArgumentException("The concurrency level must be positive.");
+            }
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        /**
+         * Reloads entries in the background when they are found and were written longer than a duration ago.
+         * Until the new value is loaded, the old one is returned. When the loader returns null or throws an exception,
+         * the old value is kept.
+         *
+         * @param duration The age at which an entry is reloaded.
+         * @param loader   Loads the new value of a key.
+         * @param executor Runs the loader.
+         *
+         * @return This builder.
+         */
+        public Builder<K, V> refreshAfterWrite(Duration duration, Function<? super K, ? extends V> loader, Executor executor) {
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException("The duration can't be negative.");
+            }
+            this.refreshAfter = duration;
+            this.loader = Objects.requireNonNull(loader, "The loader can't be null.");
+            this.refreshExecutor = Objects.requireNonNull(executor, "The executor can't be null.");
+            return this;
+        }
+
+        public BoundedCache<K, V> build() {
+            return new BoundedCache<>(this);
+        }
+    }
+}
@@ -93,4 +93,15 @@ public interface Cache<K, V> {
      */
     boolean isEmpty();
 
+    /**
+     * Returns how this cache was used since it was created.
+     * <br>
+     * Caches that do not keep statistics return {@link CacheStats#EMPTY}.
+     *
+     * @return The statistics of this cache.
+     */
+    default CacheStats stats() {
+        return CacheStats.EMPTY;
+    }
+
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.cache;
+
+/**
+ * A snapshot of how a {@link Cache} was used since it was created.
+ * <br>
+ * The counts never decrease, so the difference between two snapshots of the same cache tells how it was used in
+ * between.
+ */
+public final class CacheStats {
+
+    /**
+     * The statistics of a cache that was never used.
+     */
+    public static final CacheStats EMPTY = new CacheStats(0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    /**
+     * @param hitCount      The number of times {@link Cache#get(Object)} found a value.
+     * @param missCount     The number of times {@link Cache#get(Object)} found no value.
+     * @param evictionCount The number of entries the cache discarded by itself, to stay under a size limit or because
+     *                      the memory was needed.
+     */
+    public CacheStats(long hitCount, long missCount, long evictionCount) {
+        if (hitCount < 0 || missCount < 0 || evictionCount < 0) {
+            throw new IllegalArgumentException("The counts of a cache can't be negative.");
+        }
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return The number of times a value was looked up.
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * @return The ratio of look ups that found a value, or 1 when there was no look up.
+     */
+    public double getHitRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return The ratio of look ups that found no value, or 0 when there was no look up.
+     */
+    public double getMissRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 0.0 : (double) missCount / requestCount;
+    }
+
+    /**
+     * Adds the statistics of two caches, for example to get the statistics of all the caches of a type solver.
+     *
+     * @param other The statistics to add to these.
+     *
+     * @return The sum of both statistics.
+     */
+    public CacheStats plus(CacheStats other) {
+        return new CacheStats(hitCount + other.hitCount, missCount + other.missCount, evictionCount + other.evictionCount);
+    }
+
+    /**
+     * @param other Earlier statistics of the same cache.
+     *
+     * @return How the cache was used since the other statistics were taken.
+     */
+    public CacheStats minus(CacheStats other) {
+        return new CacheStats(Math.max(0, hitCount - other.hitCount), Math.max(0, missCount - other.missCount),
+                Math.max(0, evictionCount - other.evictionCount));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        CacheStats that = (CacheStats) o;
+        return hitCount == that.hitCount && missCount == that.missCount && evictionCount == that.evictionCount;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(hitCount);
+        result = 31 * result + Long.hashCode(missCount);
+        result = 31 * result + Long.hashCode(evictionCount);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+}
@@ -89,4 +89,14 @@ public class GuavaCache<K, V> implements Cache<K, V>  {
         return size() == 0;
     }
 
+    /**
+     * The wrapped cache only keeps statistics when it was built with
+     * {@link com.google.common.cache.CacheBuilder#recordStats()}.
+     */
+    @Override
+    public CacheStats stats() {
+        com.google.common.cache.CacheStats stats = guavaCache.stats();
+        return new CacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
 }
@@ -21,14 +21,17 @@
 
 package com.github.javaparser.symbolsolver.cache;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A cache implementation that stores the information in memory.
  * <br>
- * The current implementation stores the values in memory in a {@link WeakHashMap}.
+ * The current implementation stores the values in memory in a synchronized {@link WeakHashMap}, so it can be shared
+ * between threads.
  *
  * @param <K> The type of the key.
  * @param <V> The type of the value.
@@ -47,7 +50,11 @@ public class InMemoryCache<K, V> implements Cache<K, V>  {
         return new InMemoryCache<>();
     }
 
-    private final Map<K, V> mappedValues = new WeakHashMap<>();
+    private final Map<K, V> mappedValues = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
 
     @Override
     public void put(K key, V value) {
@@ -56,9 +63,13 @@ public class InMemoryCache<K, V> implements Cache<K, V>  {
 
     @Override
     public Optional<V> get(K key) {
-        return Optional.ofNullable(
-                mappedValues.get(key)
-        );
+        V value = mappedValues.get(key);
+        if (value == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return Optional.ofNullable(value);
     }
 
     @Override
@@ -86,4 +97,12 @@ public class InMemoryCache<K, V> implements Cache<K, V>  {
         return mappedValues.isEmpty();
     }
 
+    /**
+     * The entries whose key was garbage collected are not counted as evicted.
+     */
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(hitCount.get(), missCount.get(), 0);
+    }
+
 }
@@ -22,6 +22,7 @@
 package com.github.javaparser.symbolsolver.cache;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A cache implementation that does not store any information.
@@ -43,6 +44,8 @@ public class NoCache<K, V> implements Cache<K, V> {
         return new NoCache<>();
     }
 
+    private final AtomicLong missCount = new AtomicLong();
+
     @Override
     public void put(K key, V value) {
         // Nothing to do here.
@@ -50,6 +53,7 @@ public class NoCache<K, V> implements Cache<K, V> {
 
     @Override
     public Optional<V> get(K key) {
+        missCount.incrementAndGet();
         return Optional.empty();
     }
 
@@ -78,4 +82,12 @@ public class NoCache<K, V> implements Cache<K, V> {
         return true;
     }
 
+    /**
+     * Every look up is a miss.
+     */
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(0, missCount.get(), 0);
+    }
+
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.javaparsermodel;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.ast.observer.PropagatingAstObserver;
+import com.github.javaparser.resolution.Context;
+import com.github.javaparser.resolution.TypeSolver;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the {@link Context} created for a node in the data of that node, so that it is created once instead of for
+ * every symbol looked up from it.
+ * <br>A context depends on the node and on where it is in the tree, so the contexts of a tree are dropped when the
+ * tree is modified: an observer registered on the root of the tree counts the modifications, and a context is only
+ * reused while the count is the one it was created with.
+ */
+final class ContextCache {
+
+    private static final DataKey<CachedContext> CACHED_CONTEXT = new DataKey<CachedContext>() {
+    };
+
+    private static final DataKey<ModificationCounter> MODIFICATION_COUNTER = new DataKey<ModificationCounter>() {
+    };
+
+    private ContextCache() {
+        // prevent instantiation
+    }
+
+    /**
+     * @return the context cached for this node and type solver, or null when there is none or the tree changed since.
+     */
+    static Context get(Node node, TypeSolver typeSolver) {
+        if (!node.containsData(CACHED_CONTEXT)) {
+            return null;
+        }
+        CachedContext cached = node.getData(CACHED_CONTEXT);
+        if (cached.typeSolver != typeSolver || cached.modifications != cached.counter.get()) {
+            return null;
+        }
+        return cached.context;
+    }
+
+    static void put(Node node, TypeSolver typeSolver, Context context) {
+        ModificationCounter counter = counterFor(node.findRootNode());
+        node.setData(CACHED_CONTEXT, new CachedContext(typeSolver, context, counter, counter.get()));
+    }
+
+    private static ModificationCounter counterFor(Node root) {
+        synchronized (root) {
+            if (root.containsData(MODIFICATION_COUNTER)) {
+                return root.getData(MODIFICATION_COUNTER);
+            }
+            ModificationCounter counter = new ModificationCounter();
+            root.register(counter, Node.ObserverRegistrationMode.SELF_PROPAGATING);
+            root.setData(MODIFICATION_COUNTER, counter);
+            return counter;
+        }
+    }
+
+    private static final class CachedContext {
+
+        private final TypeSolver typeSolver;
+
+        private final Context context;
+
+        private final ModificationCounter counter;
+
+        private final long modifications;
+
+        private CachedContext(TypeSolver typeSolver, Context context, ModificationCounter counter, long modifications) {
+            this.typeSolver = typeSolver;
+            this.context = context;
+            this.counter = counter;
+            this.modifications = modifications;
+        }
+    }
+
+    /**
+     * Counts every change made to the nodes of a tree, including the nodes attached to it later.
+     * A node moved to another tree counts as a change in its old tree too.
+     */
+    private static final class ModificationCounter extends PropagatingAstObserver {
+
+        private final AtomicLong modifications = new AtomicLong();
+
+        long get() {
+            return modifications.get();
+        }
+
+        @Override
+        public void concretePropertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+            modifications.incrementAndGet();
+        }
+
+        @Override
+        public void concreteListChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+            modifications.incrementAndGet();
+        }
+
+        @Override
+        public void concreteListReplacement(NodeList<?> observedNode, int index, Node oldValue, Node newValue) {
+            modifications.incrementAndGet();
+        }
+
+        @Override
+        public void parentChange(Node observedNode, Node previousParent, Node newParent) {
+            modifications.incrementAndGet();
+        }
+    }
+}
@@ -26,6 +26,7 @@ import static com.github.javaparser.resolution.model.SymbolReference.solved;
 import static com.github.javaparser.resolution.model.SymbolReference.unsolved;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 import com.github.javaparser.ast.CompilationUnit;
@@ -53,6 +54,7 @@ import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParse
 import com.github.javaparser.symbolsolver.resolution.SymbolSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import com.github.javaparser.utils.Log;
+import com.google.common.collect.MapMaker;
 
 /**
  * Class to be used by final users to solve symbols for JavaParser ASTs.
@@ -63,27 +65,31 @@ public class JavaParserFacade {
 
     // Start of static class
 
-    private static final DataKey<ResolvedType> TYPE_WITH_LAMBDAS_RESOLVED = new DataKey<ResolvedType>() {
-    };
-    private static final DataKey<ResolvedType> TYPE_WITHOUT_LAMBDAS_RESOLVED = new DataKey<ResolvedType>() {
-    };
+    private static final DataKey<ResolvedTypeCache.CachedType> TYPE_WITH_LAMBDAS_RESOLVED = ResolvedTypeCache.TYPE_WITH_LAMBDAS_RESOLVED;
+    private static final DataKey<ResolvedTypeCache.CachedType> TYPE_WITHOUT_LAMBDAS_RESOLVED = ResolvedTypeCache.TYPE_WITHOUT_LAMBDAS_RESOLVED;
 
-    private static final Map<TypeSolver, JavaParserFacade> instances = new WeakHashMap<>();
+    private static final ConcurrentMap<TypeSolver, JavaParserFacade> instances = new MapMaker().weakKeys().makeMap();
 
     private static final String JAVA_LANG_STRING = String.class.getCanonicalName();
 
     /**
-     * Note that the addition of the modifier {@code synchronized} is specific and directly in response to issue #2668.
-     * <br>This <strong>MUST NOT</strong> be misinterpreted as a signal that JavaParser is safe to use within a multi-threaded environment.
-     * <br>
-     * <br>Additional discussion and context from a user attempting multithreading can be found within issue #2671 .
-     * <br>
+     * Gets the facade for the root of the type solver. This can be called from many threads at once (issue #2668).
+     * <br>Symbols can be resolved from many threads at once as long as each thread works on its own compilation units,
+     * see {@link com.github.javaparser.symbolsolver.ParallelResolver}. A single compilation unit must not be resolved
+     * from several threads at once.
      *
      * @see <a href="https://github.com/javaparser/javaparser/issues/2668">https://github.com/javaparser/javaparser/issues/2668</a>
      * @see <a href="https://github.com/javaparser/javaparser/issues/2671">https://github.com/javaparser/javaparser/issues/2671</a>
      */
-    public static synchronized JavaParserFacade get(TypeSolver typeSolver) {
-        return instances.computeIfAbsent(typeSolver.getRoot(), JavaParserFacade::new);
+    public static JavaParserFacade get(TypeSolver typeSolver) {
+        final TypeSolver root = typeSolver.getRoot();
+        final JavaParserFacade instance = instances.get(root);
+        if (instance != null) {
+            return instance;
+        }
+        final JavaParserFacade created = new JavaParserFacade(root);
+        final JavaParserFacade raced = instances.putIfAbsent(root, created);
+        return raced == null ? created : raced;
     }
 
     /**
@@ -102,6 +108,10 @@ public class JavaParserFacade {
 
     private FailureHandler failureHandler;
 
+    private final ResolvedTypeCache typeCache = new ResolvedTypeCache();
+
+    private volatile boolean contextCacheEnabled = false;
+
     private JavaParserFacade(TypeSolver typeSolver) {
         this.typeSolver = typeSolver.getRoot();
         this.symbolSolver = new SymbolSolver(typeSolver);
@@ -114,6 +124,39 @@ public class JavaParserFacade {
         return typeSolver;
     }
 
+    /**
+     * When enabled, the types calculated for the nodes are dropped when the code they depend on is modified, so that
+     * trees can be resolved again after being edited. An observer is then registered on every tree where symbols are
+     * resolved. Disabled by default: the types are kept as long as the nodes. Enable it before resolving anything.
+     */
+    public JavaParserFacade setTypeInvalidationEnabled(boolean enabled) {
+        typeCache.setInvalidationEnabled(enabled);
+        return this;
+    }
+
+    public boolean isTypeInvalidationEnabled() {
+        return typeCache.isInvalidationEnabled();
+    }
+
+    /**
+     * When enabled, the context created for a node is kept in the data of the node and reused for every symbol looked
+     * up from it with this facade's type solver, until the tree containing the node is modified.
+     * This saves creating a context for every name that is resolved, but an observer is registered on every node of
+     * the trees in which contexts are created. Disabled by default.
+     */
+    public JavaParserFacade setContextCacheEnabled(boolean enabled) {
+        this.contextCacheEnabled = enabled;
+        return this;
+    }
+
+    public boolean isContextCacheEnabled() {
+        return contextCacheEnabled;
+    }
+
+    ResolvedTypeCache getTypeCache() {
+        return typeCache;
+    }
+
     public Solver getSymbolSolver() {
         return symbolSolver;
     }
@@ -346,54 +389,49 @@ public class JavaParserFacade {
 
     public ResolvedType getType(Node node, boolean solveLambdas) {
         if (solveLambdas) {
-            if (!node.containsData(TYPE_WITH_LAMBDAS_RESOLVED)) {
-                ResolvedType res = getTypeConcrete(node, solveLambdas);
-
-                node.setData(TYPE_WITH_LAMBDAS_RESOLVED, res);
-
-                boolean secondPassNecessary = false;
-                if (node instanceof MethodCallExpr) {
-                    MethodCallExpr methodCallExpr = (MethodCallExpr) node;
-                    for (Node arg : methodCallExpr.getArguments()) {
-                        if (!arg.containsData(TYPE_WITH_LAMBDAS_RESOLVED)) {
-                            getType(arg, true);
-                            secondPassNecessary = true;
-                        }
-                    }
-                }
-                if (secondPassNecessary) {
-                    node.removeData(TYPE_WITH_LAMBDAS_RESOLVED);
-                    ResolvedType type = getType(node, true);
-                    node.setData(TYPE_WITH_LAMBDAS_RESOLVED, type);
+            Optional<ResolvedType> cached = typeCache.get(node, TYPE_WITH_LAMBDAS_RESOLVED);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            ResolvedType res = getTypeConcrete(node, solveLambdas);
 
+            typeCache.put(node, TYPE_WITH_LAMBDAS_RESOLVED, res);
+
+            boolean secondPassNecessary = false;
+            if (node instanceof MethodCallExpr) {
+                MethodCallExpr methodCallExpr = (MethodCallExpr) node;
+                for (Node arg : methodCallExpr.getArguments()) {
+                    if (!typeCache.get(arg, TYPE_WITH_LAMBDAS_RESOLVED).isPresent()) {
+                        getType(arg, true);
+                        secondPassNecessary = true;
+                    }
                 }
-                Log.trace("getType on %s  -> %s", () -> node, () -> res);
             }
-            return node.getData(TYPE_WITH_LAMBDAS_RESOLVED);
+            if (secondPassNecessary) {
+                typeCache.remove(node, TYPE_WITH_LAMBDAS_RESOLVED);
+                ResolvedType type = getType(node, true);
+                typeCache.put(node, TYPE_WITH_LAMBDAS_RESOLVED, type);
+                Log.trace("getType on %s  -> %s", () -> node, () -> type);
+                return type;
+            }
+            Log.trace("getType on %s  -> %s", () -> node, () -> res);
+            return res;
         } else {
-            Optional<ResolvedType> res = find(TYPE_WITH_LAMBDAS_RESOLVED, node);
+            Optional<ResolvedType> res = typeCache.get(node, TYPE_WITH_LAMBDAS_RESOLVED);
             if (res.isPresent()) {
                 return res.get();
             }
-            res = find(TYPE_WITHOUT_LAMBDAS_RESOLVED, node);
+            res = typeCache.get(node, TYPE_WITHOUT_LAMBDAS_RESOLVED);
             if (!res.isPresent()) {
                 ResolvedType resType = getTypeConcrete(node, solveLambdas);
-                node.setData(TYPE_WITHOUT_LAMBDAS_RESOLVED, resType);
-                Optional<ResolvedType> finalRes = res;
-                Log.trace("getType on %s (no solveLambdas) -> %s", () -> node, () -> finalRes);
+                typeCache.put(node, TYPE_WITHOUT_LAMBDAS_RESOLVED, resType);
+                Log.trace("getType on %s (no solveLambdas) -> %s", () -> node, () -> resType);
                 return resType;
             }
             return res.get();
         }
     }
 
-    private Optional<ResolvedType> find(DataKey<ResolvedType> dataKey, Node node) {
-        if (node.containsData(dataKey)) {
-            return Optional.of(node.getData(dataKey));
-        }
-        return Optional.empty();
-    }
-
     protected MethodUsage toMethodUsage(MethodReferenceExpr methodReferenceExpr, List<ResolvedType> paramTypes) {
         Expression scope = methodReferenceExpr.getScope();
         ResolvedType typeOfScope = getType(methodReferenceExpr.getScope());
@@ -404,7 +442,9 @@ public class JavaParserFacade {
         Optional<MethodUsage> result;
         ResolvedReferenceTypeDeclaration resolvedTypdeDecl = typeOfScope.asReferenceType().getTypeDeclaration()
                 .orElseThrow(() -> new RuntimeException("TypeDeclaration unexpectedly empty."));
-        Set<MethodUsage> allMethods = resolvedTypdeDecl.getAllMethods();
+        Collection<MethodUsage> allMethods = MemberCache.current()
+                .<Collection<MethodUsage>>map(cache -> cache.getAllMethods(resolvedTypdeDecl, methodReferenceExpr.getIdentifier()))
+                .orElseGet(resolvedTypdeDecl::getAllMethods);
 
         if (scope.isTypeExpr()) {
             // static methods should match all params
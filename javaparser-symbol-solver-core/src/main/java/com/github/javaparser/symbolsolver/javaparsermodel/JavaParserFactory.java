@@ -44,7 +44,21 @@ public class JavaParserFactory {
         if (node == null) {
             throw new NullPointerException("Node should not be null");
         }
+        if (!JavaParserFacade.get(typeSolver).isContextCacheEnabled()) {
+            return createContext(node, typeSolver);
+        }
+        Context context = ContextCache.get(node, typeSolver);
+        if (context == null) {
+            context = createContext(node, typeSolver);
+            // Only the node a context was created for keeps it: the others find it again by going up the tree.
+            if (context.getWrappedNode() == node) {
+                ContextCache.put(node, typeSolver, context);
+            }
+        }
+        return context;
+    }
 
+    private static Context createContext(Node node, TypeSolver typeSolver) {
         // TODO: Is order important here?
         if (node instanceof ArrayAccessExpr) {
             return new ArrayAccessExprContext((ArrayAccessExpr) node, typeSolver);
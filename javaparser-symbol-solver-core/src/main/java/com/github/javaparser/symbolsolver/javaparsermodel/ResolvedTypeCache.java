@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.javaparsermodel;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.ast.observer.PropagatingAstObserver;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.types.ResolvedType;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the types calculated by a {@link JavaParserFacade} in the data of the nodes. By default they are kept as long
+ * as the nodes; with invalidation enabled, they are forgotten when the code they depend on is modified.
+ * <br>An observer is then registered, once, on the root of every tree where a type is cached and of every tree
+ * declaring a cached type. It looks at where each modification is made:
+ * <ul>
+ *     <li>in the body of a method, a constructor or an initializer, only the types cached in that body are dropped.
+ *     What is declared in a body is only visible in that body, and the types of the members of a class do not
+ *     depend on the bodies of its methods;</li>
+ *     <li>anywhere else, the modification can change a declaration used by any tree, so all the types cached by the
+ *     facades resolving that tree are dropped.</li>
+ * </ul>
+ * Changes to comments and ranges are ignored.
+ */
+final class ResolvedTypeCache {
+
+    static final DataKey<CachedType> TYPE_WITH_LAMBDAS_RESOLVED = new DataKey<CachedType>() {
+    };
+
+    static final DataKey<CachedType> TYPE_WITHOUT_LAMBDAS_RESOLVED = new DataKey<CachedType>() {
+    };
+
+    private static final DataKey<Invalidator> INVALIDATOR = new DataKey<Invalidator>() {
+    };
+
+    // only taken to register the observer of a tree, the first time a type related to it is cached
+    private static final Object REGISTRATION_LOCK = new Object();
+
+    private volatile boolean invalidationEnabled = false;
+
+    /**
+     * Counts the modifications of declarations made in the trees watched by this cache. A cached type is only used
+     * while the count is the one it was calculated with.
+     */
+    private final AtomicLong declarationChanges = new AtomicLong();
+
+    boolean isInvalidationEnabled() {
+        return invalidationEnabled;
+    }
+
+    void setInvalidationEnabled(boolean invalidationEnabled) {
+        this.invalidationEnabled = invalidationEnabled;
+    }
+
+    /**
+     * @return the type cached for this node by this cache, unless a declaration was modified since it was calculated.
+     * An outdated type is left in place until {@link #put} replaces it.
+     */
+    Optional<ResolvedType> get(Node node, DataKey<CachedType> key) {
+        if (!node.containsData(key)) {
+            return Optional.empty();
+        }
+        CachedType cached = node.getData(key);
+        if (cached.cache != this) {
+            return Optional.empty();
+        }
+        if (invalidationEnabled && cached.declarationChanges != declarationChanges.get()) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.type);
+    }
+
+    /**
+     * Caches the type of the node. With invalidation enabled, the tree of the node and the tree declaring the type
+     * are watched from then on: modifying a declaration changes the types calculated in the trees using it.
+     */
+    void put(Node node, DataKey<CachedType> key, ResolvedType type) {
+        long changes = declarationChanges.get();
+        if (invalidationEnabled) {
+            watch(node);
+            declarationOf(type).ifPresent(this::watch);
+        }
+        node.setData(key, new CachedType(this, type, changes));
+    }
+
+    void remove(Node node, DataKey<CachedType> key) {
+        node.removeData(key);
+    }
+
+    /**
+     * Starts looking at the modifications of the tree this node is in. The observer of a tree is registered once,
+     * after that this only checks that the tree already knows this cache.
+     */
+    private void watch(Node node) {
+        Node root = node.findRootNode();
+        Invalidator invalidator = root.containsData(INVALIDATOR) ? root.getData(INVALIDATOR) : null;
+        if (invalidator == null) {
+            synchronized (REGISTRATION_LOCK) {
+                if (root.containsData(INVALIDATOR)) {
+                    invalidator = root.getData(INVALIDATOR);
+                } else {
+                    invalidator = new Invalidator();
+                    root.register(invalidator, Node.ObserverRegistrationMode.SELF_PROPAGATING);
+                    root.setData(INVALIDATOR, invalidator);
+                }
+            }
+        }
+        invalidator.add(this);
+    }
+
+    /**
+     * @return the node declaring the type, or the type of its elements for an array, when it comes from source code.
+     */
+    private static Optional<Node> declarationOf(ResolvedType type) {
+        ResolvedType elementType = type;
+        while (elementType.isArray()) {
+            elementType = elementType.asArrayType().getComponentType();
+        }
+        if (!elementType.isReferenceType()) {
+            return Optional.empty();
+        }
+        return elementType.asReferenceType().getTypeDeclaration().flatMap(ResolvedReferenceTypeDeclaration::toAst);
+    }
+
+    /**
+     * @return the body of the method, constructor or initializer this node is in, or null when it is in none.
+     */
+    private static Node bodyOf(Node node) {
+        Node current = node;
+        while (current != null) {
+            Node parent = current.getParentNode().orElse(null);
+            if (current instanceof BlockStmt && (parent instanceof MethodDeclaration
+                    || parent instanceof ConstructorDeclaration || parent instanceof InitializerDeclaration)) {
+                return current;
+            }
+            current = parent;
+        }
+        return null;
+    }
+
+    private static void modified(Node node, List<WeakReference<ResolvedTypeCache>> caches) {
+        if (node == null || node instanceof Comment) {
+            return;
+        }
+        Node body = bodyOf(node);
+        if (body == null) {
+            for (WeakReference<ResolvedTypeCache> reference : caches) {
+                ResolvedTypeCache cache = reference.get();
+                if (cache == null) {
+                    caches.remove(reference);
+                } else {
+                    cache.declarationChanges.incrementAndGet();
+                }
+            }
+            return;
+        }
+        body.walk(n -> {
+            n.removeData(TYPE_WITH_LAMBDAS_RESOLVED);
+            n.removeData(TYPE_WITHOUT_LAMBDAS_RESOLVED);
+        });
+    }
+
+    static final class CachedType {
+
+        private final ResolvedTypeCache cache;
+
+        private final ResolvedType type;
+
+        private final long declarationChanges;
+
+        private CachedType(ResolvedTypeCache cache, ResolvedType type, long declarationChanges) {
+            this.cache = cache;
+            this.type = type;
+            this.declarationChanges = declarationChanges;
+        }
+    }
+
+    private static final class Invalidator extends PropagatingAstObserver {
+
+        // the caches of the facades resolving the tree, which are dropped with their facade
+        private final List<WeakReference<ResolvedTypeCache>> caches = new CopyOnWriteArrayList<>();
+
+        private boolean contains(ResolvedTypeCache cache) {
+            for (WeakReference<ResolvedTypeCache> reference : caches) {
+                if (reference.get() == cache) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void add(ResolvedTypeCache cache) {
+            if (contains(cache)) {
+                return;
+            }
+            synchronized (this) {
+                if (!contains(cache)) {
+                    caches.add(new WeakReference<>(cache));
+                }
+            }
+        }
+
+        private void modified(Node node) {
+            ResolvedTypeCache.modified(node, caches);
+        }
+
+        @Override
+        public void concretePropertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+            if (property != ObservableProperty.RANGE && property != ObservableProperty.COMMENT) {
+                modified(observedNode);
+            }
+        }
+
+        @Override
+        public void concreteListChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+            modified(observedNode.getParentNode().orElse(null));
+        }
+
+        @Override
+        public void concreteListReplacement(NodeList<?> observedNode, int index, Node oldValue, Node newValue) {
+            modified(observedNode.getParentNode().orElse(null));
+        }
+
+        @Override
+        public void parentChange(Node observedNode, Node previousParent, Node newParent) {
+            if (!(observedNode instanceof Comment)) {
+                modified(previousParent);
+                modified(newParent);
+            }
+        }
+    }
+}
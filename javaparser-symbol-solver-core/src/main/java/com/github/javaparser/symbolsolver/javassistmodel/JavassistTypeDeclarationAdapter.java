@@ -47,6 +47,8 @@ public class JavassistTypeDeclarationAdapter {
     private CtClass ctClass;
     private TypeSolver typeSolver;
     private ResolvedReferenceTypeDeclaration typeDeclaration;
+    private volatile Set<ResolvedMethodDeclaration> declaredMethods;
+    private volatile List<ResolvedConstructorDeclaration> constructors;
 
     public JavassistTypeDeclarationAdapter(CtClass ctClass, TypeSolver typeSolver, ResolvedReferenceTypeDeclaration typeDeclaration) {
         this.ctClass = ctClass;
@@ -134,16 +136,27 @@ public class JavassistTypeDeclarationAdapter {
     }
 
     public Set<ResolvedMethodDeclaration> getDeclaredMethods() {
-        return Arrays.stream(ctClass.getDeclaredMethods())
-                .filter(m -> ((m.getMethodInfo().getAccessFlags() & AccessFlag.BRIDGE) == 0)
-                        && ((m.getMethodInfo().getAccessFlags() & AccessFlag.SYNTHETIC) == 0))
-                .map(m -> new JavassistMethodDeclaration(m, typeSolver)).collect(Collectors.toSet());
+        // Computed once: the declared methods of a class never change, and they are looked up for every method call.
+        Set<ResolvedMethodDeclaration> methods = declaredMethods;
+        if (methods == null) {
+            methods = Collections.unmodifiableSet(Arrays.stream(ctClass.getDeclaredMethods())
+                    .filter(m -> ((m.getMethodInfo().getAccessFlags() & AccessFlag.BRIDGE) == 0)
+                            && ((m.getMethodInfo().getAccessFlags() & AccessFlag.SYNTHETIC) == 0))
+                    .map(m -> new JavassistMethodDeclaration(m, typeSolver)).collect(Collectors.toSet()));
+            declaredMethods = methods;
+        }
+        return methods;
     }
 
     public List<ResolvedConstructorDeclaration> getConstructors() {
-        return Arrays.stream(ctClass.getConstructors())
-                .filter(m -> (m.getMethodInfo().getAccessFlags() & AccessFlag.SYNTHETIC) == 0)
-                .map(m -> new JavassistConstructorDeclaration(m, typeSolver)).collect(Collectors.toList());
+        List<ResolvedConstructorDeclaration> declaredConstructors = constructors;
+        if (declaredConstructors == null) {
+            declaredConstructors = Collections.unmodifiableList(Arrays.stream(ctClass.getConstructors())
+                    .filter(m -> (m.getMethodInfo().getAccessFlags() & AccessFlag.SYNTHETIC) == 0)
+                    .map(m -> new JavassistConstructorDeclaration(m, typeSolver)).collect(Collectors.toList()));
+            constructors = declaredConstructors;
+        }
+        return declaredConstructors;
     }
 
     public List<ResolvedFieldDeclaration> getDeclaredFields() {
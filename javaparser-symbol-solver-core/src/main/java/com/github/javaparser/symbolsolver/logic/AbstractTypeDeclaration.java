@@ -23,8 +23,10 @@ package com.github.javaparser.symbolsolver.logic;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
+import com.github.javaparser.resolution.MemberCache;
 import com.github.javaparser.resolution.MethodUsage;
 import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
@@ -49,6 +51,14 @@ public abstract class AbstractTypeDeclaration implements ResolvedReferenceTypeDe
 	 */
     @Override
     public final Set<MethodUsage> getAllMethods() {
+        Optional<MemberCache> cache = MemberCache.current();
+        if (cache.isPresent()) {
+            return cache.get().getAllMethods(this, this::computeAllMethods);
+        }
+        return computeAllMethods();
+    }
+
+    private Set<MethodUsage> computeAllMethods() {
         Set<MethodUsage> methods = new HashSet<>();
 
         Set<String> methodsSignatures = new HashSet<>();
@@ -109,7 +109,7 @@ public class ReflectionAnnotationDeclaration extends AbstractTypeDeclaration imp
 
         ReflectionAnnotationDeclaration that = (ReflectionAnnotationDeclaration) o;
 
-        return clazz.getCanonicalName().equals(that.clazz.getCanonicalName());
+        return clazz.getName().equals(that.clazz.getName());
     }
 
     @Override
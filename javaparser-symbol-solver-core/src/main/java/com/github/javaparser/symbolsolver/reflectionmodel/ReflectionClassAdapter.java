@@ -46,6 +46,8 @@ class ReflectionClassAdapter {
     private Class<?> clazz;
     private TypeSolver typeSolver;
     private ResolvedReferenceTypeDeclaration typeDeclaration;
+    private volatile Set<ResolvedMethodDeclaration> declaredMethods;
+    private volatile List<ResolvedConstructorDeclaration> constructors;
 
     public ReflectionClassAdapter(Class<?> clazz, TypeSolver typeSolver, ResolvedReferenceTypeDeclaration typeDeclaration) {
         this.clazz = clazz;
@@ -157,10 +159,16 @@ class ReflectionClassAdapter {
     }
 
     public Set<ResolvedMethodDeclaration> getDeclaredMethods() {
-        return Arrays.stream(clazz.getDeclaredMethods())
-                .filter(m -> !m.isSynthetic() && !m.isBridge())
-                .map(m -> new ReflectionMethodDeclaration(m, typeSolver))
-                .collect(Collectors.toSet());
+        // Computed once: the declared methods of a class never change, and they are looked up for every method call.
+        Set<ResolvedMethodDeclaration> methods = declaredMethods;
+        if (methods == null) {
+            methods = Collections.unmodifiableSet(Arrays.stream(clazz.getDeclaredMethods())
+                    .filter(m -> !m.isSynthetic() && !m.isBridge())
+                    .map(m -> new ReflectionMethodDeclaration(m, typeSolver))
+                    .collect(Collectors.toSet()));
+            declaredMethods = methods;
+        }
+        return methods;
     }
 
     public List<ResolvedTypeParameterDeclaration> getTypeParameters() {
@@ -211,10 +219,15 @@ class ReflectionClassAdapter {
     }
 
     public List<ResolvedConstructorDeclaration> getConstructors() {
-        return Arrays.stream(clazz.getDeclaredConstructors())
-                .filter(m -> !m.isSynthetic())
-                .map(m -> new ReflectionConstructorDeclaration(m, typeSolver))
-                .collect(Collectors.toList());
+        List<ResolvedConstructorDeclaration> declaredConstructors = constructors;
+        if (declaredConstructors == null) {
+            declaredConstructors = Collections.unmodifiableList(Arrays.stream(clazz.getDeclaredConstructors())
+                    .filter(m -> !m.isSynthetic())
+                    .map(m -> new ReflectionConstructorDeclaration(m, typeSolver))
+                    .collect(Collectors.toList()));
+            constructors = declaredConstructors;
+        }
+        return declaredConstructors;
     }
     
     public Optional<ResolvedReferenceTypeDeclaration> containerType() {
@@ -108,7 +108,7 @@ public class ReflectionClassDeclaration extends AbstractClassDeclaration
 
         ReflectionClassDeclaration that = (ReflectionClassDeclaration) o;
 
-        if (!clazz.getCanonicalName().equals(that.clazz.getCanonicalName())) return false;
+        if (!clazz.getName().equals(that.clazz.getName())) return false;
 
         return true;
     }
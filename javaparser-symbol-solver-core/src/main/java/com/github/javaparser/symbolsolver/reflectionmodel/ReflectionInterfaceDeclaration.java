@@ -129,7 +129,7 @@ public class ReflectionInterfaceDeclaration extends AbstractTypeDeclaration
 
         ReflectionInterfaceDeclaration that = (ReflectionInterfaceDeclaration) o;
 
-        if (!clazz.getCanonicalName().equals(that.clazz.getCanonicalName())) return false;
+        if (!clazz.getName().equals(that.clazz.getName())) return false;
 
         if (!getTypeParameters().equals(that.getTypeParameters())) {
             return false;
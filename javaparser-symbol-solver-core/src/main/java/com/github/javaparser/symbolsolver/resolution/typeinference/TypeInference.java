@@ -365,7 +365,7 @@ public class TypeInference {
         int k = interfaceDeclaration.getTypeParameters().size();
         List<InferenceVariable> alphas = InferenceVariable.instantiate(interfaceDeclaration.getTypeParameters());
 
-        TypeInferenceCache.recordInferenceVariables(typeSolver, lambdaExpr, alphas);
+        TypeInferenceCache.forTypeSolver(typeSolver).putInferenceVariables(lambdaExpr, alphas);
 
         // If n ≠ k, no valid parameterization exists.
 
@@ -24,54 +24,124 @@ package com.github.javaparser.symbolsolver.resolution.typeinference;
 import com.github.javaparser.ast.expr.LambdaExpr;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.cache.CacheStats;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.github.javaparser.utils.Utils.assertNotNull;
+import static com.github.javaparser.utils.Utils.assertPositive;
 
 /**
+ * Remembers what type inference found out about lambda expressions: the types of their parameters and the inference
+ * variables of their function types.
+ * <br>There is one cache for each type solver, see {@link #forTypeSolver(TypeSolver)}. It can be used by many threads at
+ * once. It only keeps weak references to the lambda expressions, so it does not prevent compilation units from being
+ * garbage collected, and it remembers at most {@link #DEFAULT_MAXIMUM_SIZE} lambda expressions of each kind.
+ *
  * @author Federico Tomassetti
  */
 public class TypeInferenceCache {
 
-    private static Map<TypeSolver, IdentityHashMap<LambdaExpr, Map<String, ResolvedType>>> typeForLambdaParameters = new HashMap<>();
-    private static Map<TypeSolver, IdentityHashMap<LambdaExpr, List<InferenceVariable>>> inferenceVariables = new HashMap<>();
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private static final ConcurrentMap<TypeSolver, TypeInferenceCache> instances = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * @return the cache used when inferring types with this type solver.
+     */
+    public static TypeInferenceCache forTypeSolver(TypeSolver typeSolver) {
+        return instances.computeIfAbsent(assertNotNull(typeSolver), ts -> new TypeInferenceCache(DEFAULT_MAXIMUM_SIZE));
+    }
+
+    private final Cache<LambdaExpr, Map<String, ResolvedType>> typeForLambdaParameters;
+
+    private final Cache<LambdaExpr, List<InferenceVariable>> inferenceVariables;
+
+    /**
+     * @param maximumSize how many lambda expressions the types of the parameters and the inference variables are
+     *                    remembered for, each.
+     */
+    public TypeInferenceCache(long maximumSize) {
+        assertPositive(maximumSize);
+        // weakKeys() compares the keys by identity, like the nodes should be
+        typeForLambdaParameters = CacheBuilder.newBuilder().weakKeys().maximumSize(maximumSize).recordStats().build();
+        inferenceVariables = CacheBuilder.newBuilder().weakKeys().maximumSize(maximumSize).recordStats().build();
+    }
+
+    public void putParameterType(LambdaExpr lambdaExpr, String paramName, ResolvedType type) {
+        Map<String, ResolvedType> types = typeForLambdaParameters.asMap()
+                .computeIfAbsent(lambdaExpr, l -> new ConcurrentHashMap<>());
+        types.put(paramName, type);
+    }
+
+    public Optional<ResolvedType> getParameterType(LambdaExpr lambdaExpr, String paramName) {
+        Map<String, ResolvedType> types = typeForLambdaParameters.getIfPresent(lambdaExpr);
+        return types == null ? Optional.empty() : Optional.ofNullable(types.get(paramName));
+    }
+
+    public void putInferenceVariables(LambdaExpr lambdaExpr, List<InferenceVariable> inferenceVariables) {
+        this.inferenceVariables.put(lambdaExpr, inferenceVariables);
+    }
+
+    public Optional<List<InferenceVariable>> getInferenceVariables(LambdaExpr lambdaExpr) {
+        return Optional.ofNullable(inferenceVariables.getIfPresent(lambdaExpr));
+    }
+
+    /**
+     * @return how the types of parameters and the inference variables were looked up, together.
+     */
+    public CacheStats stats() {
+        com.google.common.cache.CacheStats stats = typeForLambdaParameters.stats().plus(inferenceVariables.stats());
+        return new CacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    /**
+     * @return how many lambda expressions something is remembered for. The ones that were garbage collected may be
+     * counted until the cache is used again.
+     */
+    public long size() {
+        return typeForLambdaParameters.size() + inferenceVariables.size();
+    }
+
+    public void clear() {
+        typeForLambdaParameters.invalidateAll();
+        inferenceVariables.invalidateAll();
+    }
 
+    /**
+     * @deprecated Use {@code forTypeSolver(typeSolver).putParameterType(lambdaExpr, paramName, type)}.
+     */
+    @Deprecated
     public static void addRecord(TypeSolver typeSolver, LambdaExpr lambdaExpr, String paramName, ResolvedType type) {
-        if (!typeForLambdaParameters.containsKey(typeSolver)) {
-            typeForLambdaParameters.put(typeSolver, new IdentityHashMap<>());
-        }
-        if (!typeForLambdaParameters.get(typeSolver).containsKey(lambdaExpr)) {
-            typeForLambdaParameters.get(typeSolver).put(lambdaExpr, new HashMap<>());
-        }
-        typeForLambdaParameters.get(typeSolver).get(lambdaExpr).put(paramName, type);
+        forTypeSolver(typeSolver).putParameterType(lambdaExpr, paramName, type);
     }
 
+    /**
+     * @deprecated Use {@code forTypeSolver(typeSolver).getParameterType(lambdaExpr, paramName)}.
+     */
+    @Deprecated
     public static Optional<ResolvedType> retrieve(TypeSolver typeSolver, LambdaExpr lambdaExpr, String paramName) {
-        if (!typeForLambdaParameters.containsKey(typeSolver)) {
-            return Optional.empty();
-        }
-        if (!typeForLambdaParameters.get(typeSolver).containsKey(lambdaExpr)) {
-            return Optional.empty();
-        }
-        if (!typeForLambdaParameters.get(typeSolver).get(lambdaExpr).containsKey(paramName)) {
-            return Optional.empty();
-        }
-        return Optional.of(typeForLambdaParameters.get(typeSolver).get(lambdaExpr).get(paramName));
+        return forTypeSolver(typeSolver).getParameterType(lambdaExpr, paramName);
     }
 
+    /**
+     * @deprecated Use {@code forTypeSolver(typeSolver).putInferenceVariables(lambdaExpr, inferenceVariables)}.
+     */
+    @Deprecated
     public static void recordInferenceVariables(TypeSolver typeSolver, LambdaExpr lambdaExpr, List<InferenceVariable> _inferenceVariables) {
-        if (!inferenceVariables.containsKey(typeSolver)) {
-            inferenceVariables.put(typeSolver, new IdentityHashMap<>());
-        }
-        inferenceVariables.get(typeSolver).put(lambdaExpr, _inferenceVariables);
+        forTypeSolver(typeSolver).putInferenceVariables(lambdaExpr, _inferenceVariables);
     }
 
+    /**
+     * @deprecated Use {@code forTypeSolver(typeSolver).getInferenceVariables(lambdaExpr)}.
+     */
+    @Deprecated
     public static Optional<List<InferenceVariable>> retrieveInferenceVariables(TypeSolver typeSolver, LambdaExpr lambdaExpr) {
-        if (!inferenceVariables.containsKey(typeSolver)) {
-            return Optional.empty();
-        }
-        if (!inferenceVariables.get(typeSolver).containsKey(lambdaExpr)) {
-            return Optional.empty();
-        }
-        return Optional.of(inferenceVariables.get(typeSolver).get(lambdaExpr));
+        return forTypeSolver(typeSolver).getInferenceVariables(lambdaExpr);
     }
 }
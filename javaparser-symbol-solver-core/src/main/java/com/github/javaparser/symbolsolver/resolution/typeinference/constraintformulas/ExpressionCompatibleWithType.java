@@ -230,7 +230,7 @@ public class ExpressionCompatibleWithType extends ConstraintFormula {
                             // FEDERICO: Added - Start
                             for (int i=0;i<lambdaExpr.getParameters().size();i++) {
                                 ResolvedType paramType = targetFunctionType.getFormalArgumentTypes().get(i);
-                                TypeInferenceCache.addRecord(typeSolver, lambdaExpr, lambdaExpr.getParameter(i).getNameAsString(), paramType);
+                                TypeInferenceCache.forTypeSolver(typeSolver).putParameterType(lambdaExpr, lambdaExpr.getParameter(i).getNameAsString(), paramType);
                             }
                             // FEDERICO: Added - End
                             Expression e = ((ExpressionStmt)lambdaExpr.getBody()).getExpression();
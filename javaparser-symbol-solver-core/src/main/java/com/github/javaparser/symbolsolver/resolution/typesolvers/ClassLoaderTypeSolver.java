@@ -40,6 +40,7 @@ public class ClassLoaderTypeSolver implements TypeSolver {
 
     private TypeSolver parent;
     private ClassLoader classLoader;
+    private final SolvedTypeCache solvedTypes = new SolvedTypeCache();
 
     public ClassLoaderTypeSolver(ClassLoader classLoader) {
         this.classLoader = classLoader;
@@ -66,49 +67,57 @@ public class ClassLoaderTypeSolver implements TypeSolver {
         return true;
     }
 
+    /**
+     * Solving a name gives the same declaration every time: the declarations built from the loaded classes are
+     * remembered. The names the class loader could not load are not, so they are looked up again every time.
+     */
     @Override
     public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
         if (filterName(name)) {
-            try {
-                // Some implementations could return null when the class was loaded through the bootstrap classloader
-                // see https://docs.oracle.com/javase/8/docs/api/java/lang/Class.html#getClassLoader--
-                if (classLoader == null) {
-                    throw new RuntimeException(
-                            "The ClassLoaderTypeSolver has been probably loaded through the bootstrap class loader. This usage is not supported by the JavaSymbolSolver");
-                }
+            return solvedTypes.get(getRoot(), name, this::tryToSolveTypeUncached);
+        } else {
+            return SymbolReference.unsolved();
+        }
+    }
+
+    private SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeUncached(String name) {
+        try {
+            // Some implementations could return null when the class was loaded through the bootstrap classloader
+            // see https://docs.oracle.com/javase/8/docs/api/java/lang/Class.html#getClassLoader--
+            if (classLoader == null) {
+                throw new RuntimeException(
+                        "The ClassLoaderTypeSolver has been probably loaded through the bootstrap class loader. This usage is not supported by the JavaSymbolSolver");
+            }
 
-                Class<?> clazz = classLoader.loadClass(name);
-                return SymbolReference.solved(ReflectionFactory.typeDeclarationFor(clazz, getRoot()));
-            } catch (NoClassDefFoundError e) {
-                // We can safely ignore this one because it is triggered when there are package names which are almost the
-                // same as class name, with the exclusion of the case.
-                // For example:
-                // java.lang.NoClassDefFoundError: com/github/javaparser/printer/ConcreteSyntaxModel
-                // (wrong name: com/github/javaparser/printer/concretesyntaxmodel)
-                // note that this exception seems to be thrown only on certain platform (mac yes, linux no)
+            Class<?> clazz = classLoader.loadClass(name);
+            return SymbolReference.solved(ReflectionFactory.typeDeclarationFor(clazz, getRoot()));
+        } catch (NoClassDefFoundError e) {
+            // We can safely ignore this one because it is triggered when there are package names which are almost the
+            // same as class name, with the exclusion of the case.
+            // For example:
+            // java.lang.NoClassDefFoundError: com/github/javaparser/printer/ConcreteSyntaxModel
+            // (wrong name: com/github/javaparser/printer/concretesyntaxmodel)
+            // note that this exception seems to be thrown only on certain platform (mac yes, linux no)
+            return SymbolReference.unsolved();
+        } catch (ClassNotFoundException e) {
+            // it could be an inner class
+            int lastDot = name.lastIndexOf('.');
+            if (lastDot == -1) {
                 return SymbolReference.unsolved();
-            } catch (ClassNotFoundException e) {
-                // it could be an inner class
-                int lastDot = name.lastIndexOf('.');
-                if (lastDot == -1) {
-                    return SymbolReference.unsolved();
+            } else {
+                String parentName = name.substring(0, lastDot);
+                String childName = name.substring(lastDot + 1);
+                SymbolReference<ResolvedReferenceTypeDeclaration> parent = tryToSolveType(parentName);
+                if (parent.isSolved()) {
+                    Optional<ResolvedReferenceTypeDeclaration> innerClass = parent.getCorrespondingDeclaration()
+                            .internalTypes()
+                            .stream().filter(it -> it.getName().equals(childName)).findFirst();
+                    return innerClass.map(SymbolReference::solved)
+                            .orElseGet(() -> SymbolReference.unsolved());
                 } else {
-                    String parentName = name.substring(0, lastDot);
-                    String childName = name.substring(lastDot + 1);
-                    SymbolReference<ResolvedReferenceTypeDeclaration> parent = tryToSolveType(parentName);
-                    if (parent.isSolved()) {
-                        Optional<ResolvedReferenceTypeDeclaration> innerClass = parent.getCorrespondingDeclaration()
-                                .internalTypes()
-                                .stream().filter(it -> it.getName().equals(childName)).findFirst();
-                        return innerClass.map(SymbolReference::solved)
-                                .orElseGet(() -> SymbolReference.unsolved());
-                    } else {
-                        return SymbolReference.unsolved();
-                    }
+                    return SymbolReference.unsolved();
                 }
             }
-        } else {
-            return SymbolReference.unsolved();
         }
     }
 
@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution.typesolvers;
+
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.javassistmodel.JavassistFactory;
+import javassist.ClassPath;
+import javassist.ClassPool;
+import javassist.NotFoundException;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static com.github.javaparser.utils.Utils.assertNotNull;
+
+/**
+ * Will let the symbol solver look inside all the jars of a class path while solving types.
+ * <br>It is meant to replace a {@link CombinedTypeSolver} of many {@link JarTypeSolver}s: the classes of all the jars
+ * are indexed in a single table, so solving a name is a single lookup, whether the name is found or not, and there is
+ * a single class pool for all the jars. When a class is in several jars, the first jar wins, like on a class path.
+ * <br>Class files are only read when their type is solved.
+ * <br>The list of classes of each jar can be kept in a directory, so that the next solver for the same jars does not
+ * have to read them again. A list is used as long as the size and the modification time of its jar do not change;
+ * the list of the previous version of a jar is deleted when the new one is written.
+ * <br>The jars are opened when a class is first read from them, and stay open until the solver is closed.
+ */
+public class ClassPathTypeSolver implements TypeSolver, AutoCloseable {
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    /**
+     * Where a class is found.
+     */
+    private static final class ClassEntry {
+
+        private final int jar;
+
+        private final String classPoolName;
+
+        private ClassEntry(int jar, String classPoolName) {
+            this.jar = jar;
+            this.classPoolName = classPoolName;
+        }
+    }
+
+    private final List<Path> jars;
+    // guarded by this
+    private final JarFile[] jarFiles;
+    private boolean closed = false;
+    private final Map<String, ClassEntry> knownClasses = new HashMap<>();
+    private final Map<String, ClassEntry> classPoolNames = new HashMap<>();
+    private final ClassPool classPool = new ClassPool();
+    private final SolvedTypeCache solvedTypes = new SolvedTypeCache();
+
+    private TypeSolver parent;
+
+    /**
+     * Create a {@link ClassPathTypeSolver} for a list of jars.
+     *
+     * @param jars The paths of the jars, in class path order.
+     *
+     * @throws IOException If an I/O exception occurs while reading a jar.
+     */
+    public ClassPathTypeSolver(List<Path> jars) throws IOException {
+        this(jars, null);
+    }
+
+    /**
+     * Create a {@link ClassPathTypeSolver} for a list of jars, keeping the list of classes of each jar in a directory.
+     *
+     * @param jars The paths of the jars, in class path order.
+     * @param indexDirectory The directory where the lists of classes are kept. It is created when needed.
+     *
+     * @throws IOException If an I/O exception occurs while reading a jar or a list of classes.
+     */
+    public ClassPathTypeSolver(List<Path> jars, Path indexDirectory) throws IOException {
+        this.jars = Collections.unmodifiableList(new ArrayList<>(assertNotNull(jars)));
+        this.jarFiles = new JarFile[this.jars.size()];
+        for (int i = 0; i < this.jars.size(); i++) {
+            Path jar = this.jars.get(i);
+            if (!Files.isRegularFile(jar)) {
+                throw new FileNotFoundException(jar.toString());
+            }
+            List<String> entryNames = indexDirectory == null ? readClassEntryNames(jar) : readClassEntryNames(jar, indexDirectory);
+            for (String entryName : entryNames) {
+                register(i, entryName);
+            }
+        }
+        classPool.appendClassPath(new IndexedClassPath());
+    }
+
+    /**
+     * Register a class file of a jar, unless an earlier jar already has it.
+     *
+     * The entries in Jar files follows the format {@code com/github/javaparser/ASTParser$JJCalls.class}
+     * while in the type solver we need to work with {@code com.github.javaparser.ASTParser.JJCalls}
+     * and in the class pool with {@code com.github.javaparser.ASTParser$JJCalls}.
+     */
+    private void register(int jar, String entryName) {
+        String classPoolName = entryName.substring(0, entryName.length() - CLASS_EXTENSION.length()).replace('/', '.');
+        if (classPoolNames.containsKey(classPoolName)) {
+            return;
+        }
+        ClassEntry entry = new ClassEntry(jar, classPoolName);
+        classPoolNames.put(classPoolName, entry);
+        knownClasses.putIfAbsent(classPoolName.replace('$', '.'), entry);
+    }
+
+    private static boolean isClassEntry(String entryName) {
+        return entryName.endsWith(CLASS_EXTENSION)
+                && !entryName.startsWith("META-INF/")
+                && !entryName.endsWith("module-info.class")
+                && !entryName.endsWith("package-info.class");
+    }
+
+    private static List<String> readClassEntryNames(Path jar) throws IOException {
+        List<String> entryNames = new ArrayList<>();
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            Enumeration<JarEntry> jarEntries = jarFile.entries();
+            while (jarEntries.hasMoreElements()) {
+                JarEntry entry = jarEntries.nextElement();
+                if (!entry.isDirectory() && isClassEntry(entry.getName())) {
+                    entryNames.add(entry.getName());
+                }
+            }
+        }
+        return entryNames;
+    }
+
+    private static List<String> readClassEntryNames(Path jar, Path indexDirectory) throws IOException {
+        String jarKey = hash(jar.toAbsolutePath().normalize().toString());
+        String indexFileName = jarKey + "-" + hash(Files.size(jar) + "|" + Files.getLastModifiedTime(jar).toMillis()) + ".idx";
+        Path indexFile = indexDirectory.resolve(indexFileName);
+        if (Files.isRegularFile(indexFile)) {
+            return Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+        }
+        List<String> entryNames = readClassEntryNames(jar);
+        Files.createDirectories(indexDirectory);
+        // Written aside and moved, so that a solver created at the same time never reads half a list
+        Path temporaryFile = Files.createTempFile(indexDirectory, indexFileName, ".tmp");
+        Files.write(temporaryFile, entryNames, StandardCharsets.UTF_8);
+        Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        deleteSupersededIndexFiles(indexDirectory, jarKey, indexFile);
+        return entryNames;
+    }
+
+    /**
+     * Deletes the lists of classes of the previous versions of a jar.
+     */
+    private static void deleteSupersededIndexFiles(Path indexDirectory, String jarKey, Path indexFile) throws IOException {
+        try (DirectoryStream<Path> indexFiles = Files.newDirectoryStream(indexDirectory, jarKey + "-*.idx")) {
+            for (Path superseded : indexFiles) {
+                if (!superseded.equals(indexFile)) {
+                    try {
+                        Files.delete(superseded);
+                    } catch (NoSuchFileException e) {
+                        // Deleted by another solver in the meantime
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a short key for the text, to be used in a file name.
+     */
+    private static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                key.append(String.format("%02x", digest[i]));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the jars of the class path, in order.
+     */
+    public List<Path> getJars() {
+        return jars;
+    }
+
+    /**
+     * Get the set of classes that can be resolved in the current type solver.
+     *
+     * @return The set of known classes.
+     */
+    public Set<String> getKnownClasses() {
+        return Collections.unmodifiableSet(knownClasses.keySet());
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+        Objects.requireNonNull(parent);
+        if (this.parent != null) {
+            throw new IllegalStateException("This TypeSolver already has a parent.");
+        }
+        if (parent == this) {
+            throw new IllegalStateException("The parent of this TypeSolver cannot be itself.");
+        }
+        this.parent = parent;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        ClassEntry entry = knownClasses.get(name);
+        // If the name is not registered in the list we can safely say is not solvable here
+        if (entry == null) {
+            return SymbolReference.unsolved();
+        }
+
+        return solvedTypes.get(getRoot(), entry.classPoolName, this::toTypeDeclaration);
+    }
+
+    private SymbolReference<ResolvedReferenceTypeDeclaration> toTypeDeclaration(String classPoolName) {
+        try {
+            return SymbolReference.solved(JavassistFactory.toTypeDeclaration(classPool.get(classPoolName), getRoot()));
+        } catch (NotFoundException e) {
+            throw new IllegalStateException(String.format("Unable to read the class file of %s from %s", classPoolName,
+                    jars.get(classPoolNames.get(classPoolName).jar)), e);
+        }
+    }
+
+    @Override
+    public ResolvedReferenceTypeDeclaration solveType(String name) throws UnsolvedSymbolException {
+        SymbolReference<ResolvedReferenceTypeDeclaration> ref = tryToSolveType(name);
+        if (ref.isSolved()) {
+            return ref.getCorrespondingDeclaration();
+        } else {
+            throw new UnsolvedSymbolException(name);
+        }
+    }
+
+    private synchronized JarFile jarFile(int jar) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The type solver is closed.");
+        }
+        if (jarFiles[jar] == null) {
+            jarFiles[jar] = new JarFile(jars.get(jar).toFile());
+        }
+        return jarFiles[jar];
+    }
+
+    /**
+     * Closes the jars that were opened. No class file can be read from them afterwards, so the types must be solved
+     * and used before.
+     *
+     * @throws IOException If an I/O exception occurs while closing a jar. All the jars are closed anyway.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        IOException failure = null;
+        for (int i = 0; i < jarFiles.length; i++) {
+            if (jarFiles[i] != null) {
+                try {
+                    jarFiles[i].close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+                jarFiles[i] = null;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Lets the class pool read a class file straight from the jar that has it, when it needs it.
+     */
+    private class IndexedClassPath implements ClassPath {
+
+        @Override
+        public InputStream openClassfile(String classname) throws NotFoundException {
+            ClassEntry entry = classPoolNames.get(classname);
+            if (entry == null) {
+                return null;
+            }
+            try {
+                JarFile jarFile = jarFile(entry.jar);
+                JarEntry jarEntry = jarFile.getJarEntry(entryName(entry));
+                return jarEntry == null ? null : jarFile.getInputStream(jarEntry);
+            } catch (IOException e) {
+                throw new NotFoundException(classname, e);
+            }
+        }
+
+        @Override
+        public URL find(String classname) {
+            ClassEntry entry = classPoolNames.get(classname);
+            if (entry == null) {
+                return null;
+            }
+            try {
+                return new URL("jar:" + jars.get(entry.jar).toUri() + "!/" + entryName(entry));
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+
+        private String entryName(ClassEntry entry) {
+            return entry.classPoolName.replace('.', '/') + CLASS_EXTENSION;
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ import com.github.javaparser.resolution.UnsolvedSymbolException;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
 import com.github.javaparser.symbolsolver.cache.Cache;
+import com.github.javaparser.symbolsolver.cache.CacheStats;
 import com.github.javaparser.symbolsolver.cache.InMemoryCache;
 
 import java.util.*;
@@ -97,6 +98,14 @@ public class CombinedTypeSolver implements TypeSolver {
         }
     }
 
+    /**
+     * @return How the cache of solved types was used. It is empty when a custom cache does not keep statistics.
+     * The caches of the combined solvers are not included.
+     */
+    public CacheStats getCacheStats() {
+        return typeCache.stats();
+    }
+
     /** @see #exceptionHandler */
     public void setExceptionHandler(Predicate<Exception> exceptionHandler) {
         this.exceptionHandler = exceptionHandler;
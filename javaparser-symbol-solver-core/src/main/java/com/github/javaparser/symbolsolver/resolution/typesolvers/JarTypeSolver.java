@@ -94,6 +94,7 @@ public class JarTypeSolver implements TypeSolver {
 
     private final ClassPool classPool = new ClassPool();
     private final Map<String, String> knownClasses = new HashMap<>();
+    private final SolvedTypeCache solvedTypes = new SolvedTypeCache();
 
     private TypeSolver parent;
 
@@ -261,6 +262,10 @@ public class JarTypeSolver implements TypeSolver {
             return SymbolReference.unsolved();
         }
 
+        return solvedTypes.get(getRoot(), storedKey, this::toTypeDeclaration);
+    }
+
+    private SymbolReference<ResolvedReferenceTypeDeclaration> toTypeDeclaration(String storedKey) {
         try {
             return SymbolReference.solved(JavassistFactory.toTypeDeclaration(classPool.get(storedKey), getRoot()));
         } catch (NotFoundException e) {
@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution.typesolvers;
+
+import com.github.javaparser.utils.Pair;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An index of the types declared in the .java files under a directory, from qualified name to file.
+ * <br>Files are not parsed: a light scan finds the package declaration and the names of top level and member types,
+ * skipping comments, literals and the bodies of methods. Local and anonymous classes are not indexed, just like
+ * {@link JavaParserTypeSolver} can not find them by name.
+ * <br>{@link #refresh()} only scans the files that were added or changed since the previous refresh.
+ */
+final class JavaParserTypeIndex {
+
+    /**
+     * Where a type is declared.
+     */
+    static final class Location {
+
+        private final Path file;
+
+        private final String packageName;
+
+        Location(Path file, String packageName) {
+            this.file = file;
+            this.packageName = packageName;
+        }
+
+        Path getFile() {
+            return file;
+        }
+
+        /**
+         * @return the name of the type relative to its package, for a type with the given qualified name.
+         */
+        String getNameInPackage(String qualifiedName) {
+            return packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        }
+    }
+
+    private static final class IndexedFile {
+
+        final long lastModified;
+
+        final List<String> qualifiedNames;
+
+        IndexedFile(long lastModified, List<String> qualifiedNames) {
+            this.lastModified = lastModified;
+            this.qualifiedNames = qualifiedNames;
+        }
+    }
+
+    private final Path srcDir;
+
+    private final Charset encoding;
+
+    private final Map<Path, IndexedFile> files = new HashMap<>();
+
+    private final Map<String, Location> types = new HashMap<>();
+
+    JavaParserTypeIndex(Path srcDir, Charset encoding) {
+        this.srcDir = srcDir;
+        this.encoding = encoding;
+    }
+
+    synchronized Optional<Location> find(String qualifiedName) {
+        return Optional.ofNullable(types.get(qualifiedName));
+    }
+
+    synchronized int size() {
+        return types.size();
+    }
+
+    /**
+     * Brings the index up to date with the files on disk.
+     *
+     * @return the files that were added, changed or removed since the previous refresh.
+     */
+    synchronized Set<Path> refresh() {
+        final Set<Path> changed = new HashSet<>();
+        final Set<Path> present = new HashSet<>();
+        try (Stream<Path> walk = Files.walk(srcDir)) {
+            for (Path file : walk.filter(f -> f.toString().endsWith(".java") && Files.isRegularFile(f)).collect(Collectors.toList())) {
+                final Path absoluteFile = file.toAbsolutePath();
+                present.add(absoluteFile);
+                final long lastModified = Files.getLastModifiedTime(file).toMillis();
+                final IndexedFile indexed = files.get(absoluteFile);
+                if (indexed == null || indexed.lastModified != lastModified) {
+                    remove(absoluteFile);
+                    add(absoluteFile, lastModified);
+                    changed.add(absoluteFile);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to index " + srcDir, e);
+        }
+        for (Path file : new ArrayList<>(files.keySet())) {
+            if (!present.contains(file)) {
+                remove(file);
+                changed.add(file);
+            }
+        }
+        return changed;
+    }
+
+    private void add(Path file, long lastModified) throws IOException {
+        final Pair<String, List<String>> declared = scan(new String(Files.readAllBytes(file), encoding));
+        final String packageName = declared.a;
+        final List<String> qualifiedNames = new ArrayList<>();
+        for (String name : declared.b) {
+            final String qualifiedName = packageName.isEmpty() ? name : packageName + "." + name;
+            qualifiedNames.add(qualifiedName);
+            types.putIfAbsent(qualifiedName, new Location(file, packageName));
+        }
+        files.put(file, new IndexedFile(lastModified, qualifiedNames));
+    }
+
+    private void remove(Path file) {
+        final IndexedFile indexed = files.remove(file);
+        if (indexed != null) {
+            for (String qualifiedName : indexed.qualifiedNames) {
+                final Location location = types.get(qualifiedName);
+                if (location != null && location.file.equals(file)) {
+                    types.remove(qualifiedName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the package name and the names of the top level and member types in the source code of a file.
+     * Member types are named relative to the package, like "Outer.Inner".
+     */
+    static Pair<String, List<String>> scan(String source) {
+        final List<String> names = new ArrayList<>();
+        // The name of the type for every open brace, or null for other braces.
+        final List<String> scopes = new ArrayList<>();
+        String packageName = "";
+        String pendingType = null;
+        boolean expectTypeName = false;
+        boolean expectRecordName = false;
+        boolean expectPackageName = false;
+        final StringBuilder packageNameBuilder = new StringBuilder();
+        char previous = ' ';
+        final int length = source.length();
+        int i = 0;
+        while (i < length) {
+            final char c = source.charAt(i);
+            if (c == '/' && i + 1 < length && source.charAt(i + 1) == '/') {
+                i = skipTo(source, "\n", i + 2);
+                continue;
+            } else if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+                i = skipTo(source, "*/", i + 2);
+                continue;
+            } else if (c == '"' && source.startsWith("\"\"\"", i)) {
+                i = skipTo(source, "\"\"\"", i + 3);
+                previous = c;
+                continue;
+            } else if (c == '"' || c == '\'') {
+                i = skipLiteral(source, c, i + 1);
+                previous = c;
+                continue;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int end = i + 1;
+                while (end < length && Character.isJavaIdentifierPart(source.charAt(end))) {
+                    end++;
+                }
+                final String word = source.substring(i, end);
+                if (expectPackageName) {
+                    packageNameBuilder.append(word);
+                } else if (expectTypeName) {
+                    pendingType = word;
+                    expectTypeName = false;
+                } else if (expectRecordName) {
+                    expectRecordName = false;
+                    final char next = nextSignificant(source, end);
+                    if (next == '(' || next == '<') {
+                        pendingType = word;
+                    }
+                } else if (previous != '.') {
+                    switch (word) {
+                        case "class":
+                        case "interface":
+                        case "enum":
+                            expectTypeName = true;
+                            break;
+                        case "record":
+                            expectRecordName = true;
+                            break;
+                        case "package":
+                            expectPackageName = scopes.isEmpty() && packageName.isEmpty();
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                previous = 'a';
+                i = end;
+                continue;
+            } else if (!Character.isWhitespace(c)) {
+                // A type name follows its keyword directly.
+                expectTypeName = false;
+                expectRecordName = false;
+                if (expectPackageName) {
+                    if (c == '.') {
+                        packageNameBuilder.append('.');
+                    } else if (c == ';') {
+                        packageName = packageNameBuilder.toString();
+                        expectPackageName = false;
+                    }
+                } else if (c == '{') {
+                    if (pendingType != null && !scopes.contains(null)) {
+                        final String name = scopes.isEmpty() ? pendingType : String.join(".", scopes) + "." + pendingType;
+                        names.add(name);
+                    }
+                    scopes.add(pendingType);
+                    pendingType = null;
+                } else if (c == '}') {
+                    if (!scopes.isEmpty()) {
+                        scopes.remove(scopes.size() - 1);
+                    }
+                    pendingType = null;
+                } else if (c == ';') {
+                    pendingType = null;
+                }
+                previous = c;
+            }
+            i++;
+        }
+        return new Pair<>(packageName, names);
+    }
+
+    /**
+     * @return the index just after the end marker, or the end of the source.
+     */
+    private static int skipTo(String source, String end, int from) {
+        final int found = source.indexOf(end, from);
+        return found < 0 ? source.length() : found + end.length();
+    }
+
+    /**
+     * @return the index just after the closing quote of a string or character literal.
+     */
+    private static int skipLiteral(String source, char quote, int from) {
+        int i = from;
+        while (i < source.length()) {
+            final char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote || c == '\n') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static char nextSignificant(String source, int from) {
+        for (int i = from; i < source.length(); i++) {
+            if (!Character.isWhitespace(source.charAt(i))) {
+                return source.charAt(i);
+            }
+        }
+        return ' ';
+    }
+}
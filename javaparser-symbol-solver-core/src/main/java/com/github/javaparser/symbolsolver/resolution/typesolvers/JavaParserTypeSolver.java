@@ -29,6 +29,7 @@ import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
 import com.github.javaparser.symbolsolver.cache.Cache;
+import com.github.javaparser.symbolsolver.cache.CacheStats;
 import com.github.javaparser.symbolsolver.cache.GuavaCache;
 import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import com.github.javaparser.symbolsolver.utils.FileUtils;
@@ -44,6 +45,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.github.javaparser.ParseStart.COMPILATION_UNIT;
 import static com.github.javaparser.ParserConfiguration.LanguageLevel.BLEEDING_EDGE;
@@ -65,6 +67,7 @@ public class JavaParserTypeSolver implements TypeSolver {
     private final Cache<Path, Optional<CompilationUnit>> parsedFiles;
     private final Cache<Path, List<CompilationUnit>> parsedDirectories;
     private final Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> foundTypes;
+    private volatile JavaParserTypeIndex index = null;
     private static final int CACHE_SIZE_UNSET = -1;
 
     public JavaParserTypeSolver(File srcDir) {
@@ -92,7 +95,7 @@ public class JavaParserTypeSolver implements TypeSolver {
     }
 
     private <TKey, TValue> Cache<TKey, TValue> BuildCache(long cacheSizeLimit) {
-        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder().softValues();
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder().softValues().recordStats();
         if (cacheSizeLimit != CACHE_SIZE_UNSET) {
             cacheBuilder.maximumSize(cacheSizeLimit);
         }
@@ -149,6 +152,34 @@ public class JavaParserTypeSolver implements TypeSolver {
         this.foundTypes = foundTypesCache;
     }
 
+    /**
+     * @return How the cache of parsed files was used. It is empty when a custom cache does not keep statistics.
+     */
+    public CacheStats getParsedFilesStats() {
+        return parsedFiles.stats();
+    }
+
+    /**
+     * @return How the cache of parsed directories was used. It is empty when a custom cache does not keep statistics.
+     */
+    public CacheStats getParsedDirectoriesStats() {
+        return parsedDirectories.stats();
+    }
+
+    /**
+     * @return How the cache of found types was used. It is empty when a custom cache does not keep statistics.
+     */
+    public CacheStats getFoundTypesStats() {
+        return foundTypes.stats();
+    }
+
+    /**
+     * @return The sum of the statistics of all the caches of this solver.
+     */
+    public CacheStats getCacheStats() {
+        return getParsedFilesStats().plus(getParsedDirectoriesStats()).plus(getFoundTypesStats());
+    }
+
     @Override
     public String toString() {
         return "JavaParserTypeSolver{" +
@@ -174,6 +205,44 @@ public class JavaParserTypeSolver implements TypeSolver {
         this.parent = parent;
     }
 
+    /**
+     * Makes this solver look up types in an index of the types declared under srcDir, instead of guessing file names
+     * and parsing whole directories when the guess is wrong.
+     * The index is built right away by scanning every file once, which is much cheaper than parsing them.
+     * A type that is not in the index is not found, without parsing anything: this makes looking up types that are
+     * declared elsewhere, like java.util.List, cheap.
+     * <br>Call {@link #refreshIndex()} after files under srcDir were changed.
+     */
+    public JavaParserTypeSolver useIndex() {
+        final JavaParserTypeIndex newIndex = new JavaParserTypeIndex(srcDir, javaParser.getParserConfiguration().getCharacterEncoding());
+        newIndex.refresh();
+        index = newIndex;
+        foundTypes.removeAll();
+        return this;
+    }
+
+    public boolean isIndexed() {
+        return index != null;
+    }
+
+    /**
+     * Scans the files that were added or changed since the index was built or refreshed, and forgets what was
+     * parsed from the files that changed.
+     *
+     * @throws IllegalStateException when {@link #useIndex()} was not called.
+     */
+    public void refreshIndex() {
+        if (index == null) {
+            throw new IllegalStateException("This type solver does not use an index.");
+        }
+        final Set<Path> changed = index.refresh();
+        if (!changed.isEmpty()) {
+            changed.forEach(parsedFiles::remove);
+            parsedDirectories.removeAll();
+            foundTypes.removeAll();
+        }
+    }
+
     private Optional<CompilationUnit> parse(Path srcFile) {
         try {
             Optional<Optional<CompilationUnit>> cachedParsedFile = parsedFiles.get(srcFile.toAbsolutePath());
@@ -190,6 +259,11 @@ public class JavaParserTypeSolver implements TypeSolver {
 
             // JavaParser only allow one parse at time.
             synchronized (javaParser) {
+                // Another thread may have parsed it while this one was waiting, and all threads must share the result.
+                cachedParsedFile = parsedFiles.get(srcFile.toAbsolutePath());
+                if (cachedParsedFile.isPresent()) {
+                    return cachedParsedFile.get();
+                }
                 Optional<CompilationUnit> compilationUnit = javaParser.parse(COMPILATION_UNIT, provider(srcFile, javaParser.getParserConfiguration().getCharacterEncoding()))
                         .getResult()
                         .map(cu -> cu.setStorage(srcFile));
@@ -256,6 +330,10 @@ public class JavaParserTypeSolver implements TypeSolver {
     }
 
     private SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeUncached(String name) {
+        final JavaParserTypeIndex currentIndex = index;
+        if (currentIndex != null) {
+            return tryToSolveTypeWithIndex(currentIndex, name);
+        }
         String[] nameElements = name.split("\\.");
 
         for (int i = nameElements.length; i > 0; i--) {
@@ -310,4 +388,20 @@ public class JavaParserTypeSolver implements TypeSolver {
         return SymbolReference.unsolved();
     }
 
+    private SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeWithIndex(JavaParserTypeIndex index, String name) {
+        Optional<JavaParserTypeIndex.Location> location = index.find(name);
+        if (location.isPresent()) {
+            Optional<CompilationUnit> compilationUnit = parse(location.get().getFile());
+            if (compilationUnit.isPresent()) {
+                Optional<com.github.javaparser.ast.body.TypeDeclaration<?>> astTypeDeclaration = Navigator
+                        .findType(compilationUnit.get(), location.get().getNameInPackage(name));
+                if (astTypeDeclaration.isPresent()) {
+                    return SymbolReference
+                            .solved(JavaParserFacade.get(this).getTypeDeclaration(astTypeDeclaration.get()));
+                }
+            }
+        }
+        return SymbolReference.unsolved();
+    }
+
 }
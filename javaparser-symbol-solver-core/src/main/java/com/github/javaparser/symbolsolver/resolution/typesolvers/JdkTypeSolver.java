@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution.typesolvers;
+
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.javassistmodel.JavassistFactory;
+import javassist.ClassPath;
+import javassist.ClassPool;
+import javassist.NotFoundException;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.ProviderNotFoundException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Will let the symbol solver find the types of a JDK, like java.lang.String, by reading its class files.
+ * <br>Unlike {@link ReflectionTypeSolver} the classes are not loaded in the running JVM, and the JDK does not have to
+ * be the one running: point it at the home of the JDK the analyzed code targets.
+ * <br>JDK 9 and later are read through their jrt:/ module image, JDK 8 and earlier through their rt.jar.
+ * The names of all the classes are indexed when the solver is created, but a class file is only read when its type
+ * is solved.
+ * <br>The rt.jar or the module image stays open until the solver is closed.
+ */
+public class JdkTypeSolver implements TypeSolver, AutoCloseable {
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    private final FileSystem fileSystem;
+    // what was opened to read the JDK, in order; the file system of the running JDK is shared, so it is not in there
+    private final List<Closeable> opened = new ArrayList<>();
+    private volatile boolean closed = false;
+    private final Map<String, Path> classFiles = new HashMap<>();
+    private final Map<String, String> knownClasses = new HashMap<>();
+    private final ClassPool classPool = new ClassPool();
+    private final SolvedTypeCache solvedTypes = new SolvedTypeCache();
+
+    private TypeSolver parent;
+
+    /**
+     * Create a {@link JdkTypeSolver} for the JDK that is running.
+     *
+     * @throws IOException If an I/O exception occurs while reading the JDK.
+     */
+    public JdkTypeSolver() throws IOException {
+        this(Paths.get(System.getProperty("java.home")));
+    }
+
+    /**
+     * Create a {@link JdkTypeSolver} for the JDK installed in a directory.
+     *
+     * @param javaHome The home directory of the JDK, or of its JRE.
+     *
+     * @throws IOException If an I/O exception occurs while reading the JDK.
+     */
+    public JdkTypeSolver(Path javaHome) throws IOException {
+        Path rtJar;
+        List<Path> roots = new ArrayList<>();
+        if (Files.isRegularFile(javaHome.resolve("lib").resolve("modules"))) {
+            fileSystem = openModuleImage(javaHome);
+        } else if (Files.isRegularFile(rtJar = javaHome.resolve("lib").resolve("rt.jar"))
+                || Files.isRegularFile(rtJar = javaHome.resolve("jre").resolve("lib").resolve("rt.jar"))) {
+            fileSystem = FileSystems.newFileSystem(rtJar, (ClassLoader) null);
+            opened.add(fileSystem);
+            roots.add(fileSystem.getPath("/"));
+        } else {
+            throw new FileNotFoundException(String.format("%s contains neither a module image nor an rt.jar", javaHome));
+        }
+        try {
+            if (roots.isEmpty()) {
+                try (DirectoryStream<Path> modules = Files.newDirectoryStream(fileSystem.getPath("/modules"))) {
+                    modules.forEach(roots::add);
+                }
+            }
+            for (Path root : roots) {
+                registerKnownClassesIn(root);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        classPool.appendClassPath(new ClassFilePath());
+    }
+
+    private FileSystem openModuleImage(Path javaHome) throws IOException {
+        URI jrt = URI.create("jrt:/");
+        if (isRunningJavaHome(javaHome)) {
+            return FileSystems.getFileSystem(jrt);
+        }
+        Map<String, String> env = Collections.singletonMap("java.home", javaHome.toString());
+        FileSystem moduleImage;
+        try {
+            moduleImage = FileSystems.newFileSystem(jrt, env);
+        } catch (ProviderNotFoundException e) {
+            // Running on JDK 8, which has no jrt:/ file system: use the one shipped with the JDK to read.
+            URL jrtFsJar = javaHome.resolve("lib").resolve("jrt-fs.jar").toUri().toURL();
+            URLClassLoader jrtFsClassLoader = new URLClassLoader(new URL[]{jrtFsJar});
+            opened.add(jrtFsClassLoader);
+            moduleImage = FileSystems.newFileSystem(jrt, env, jrtFsClassLoader);
+        }
+        opened.add(moduleImage);
+        return moduleImage;
+    }
+
+    private static boolean isRunningJavaHome(Path javaHome) throws IOException {
+        Path runningJavaHome = Paths.get(System.getProperty("java.home"));
+        return Files.exists(runningJavaHome) && Files.isSameFile(javaHome, runningJavaHome);
+    }
+
+    /**
+     * Register the class files found in a directory, which is the root of a package hierarchy.
+     *
+     * Like in jars, the paths follow the format {@code java/util/Map$Entry.class}. They are registered as
+     * {@code java.util.Map.Entry} for the type solver and as {@code java.util.Map$Entry} for the class pool.
+     */
+    private void registerKnownClassesIn(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.forEach(file -> {
+                String fileName = file.getFileName() == null ? "" : file.getFileName().toString();
+                if (fileName.endsWith(CLASS_EXTENSION) && !fileName.equals("module-info.class")
+                        && !fileName.equals("package-info.class")) {
+                    String entryPath = root.relativize(file).toString();
+                    String classPoolName = entryPath.substring(0, entryPath.length() - CLASS_EXTENSION.length())
+                            .replace('/', '.');
+                    String qualifiedName = classPoolName.replace('$', '.');
+                    // The first module declaring a package wins, as split packages are not allowed.
+                    if (classFiles.putIfAbsent(classPoolName, file) == null) {
+                        knownClasses.putIfAbsent(qualifiedName, qualifiedName.equals(classPoolName) ? qualifiedName : classPoolName);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Get the set of classes that can be resolved in the current type solver.
+     *
+     * @return The set of known classes.
+     */
+    public Set<String> getKnownClasses() {
+        return Collections.unmodifiableSet(knownClasses.keySet());
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+        Objects.requireNonNull(parent);
+        if (this.parent != null) {
+            throw new IllegalStateException("This TypeSolver already has a parent.");
+        }
+        if (parent == this) {
+            throw new IllegalStateException("The parent of this TypeSolver cannot be itself.");
+        }
+        this.parent = parent;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        String storedKey = knownClasses.get(name);
+        // If the name is not registered in the list we can safely say is not solvable here
+        if (storedKey == null) {
+            return SymbolReference.unsolved();
+        }
+
+        return solvedTypes.get(getRoot(), storedKey, this::toTypeDeclaration);
+    }
+
+    private SymbolReference<ResolvedReferenceTypeDeclaration> toTypeDeclaration(String storedKey) {
+        try {
+            return SymbolReference.solved(JavassistFactory.toTypeDeclaration(classPool.get(storedKey), getRoot()));
+        } catch (NotFoundException e) {
+            throw new IllegalStateException(String.format("Unable to read the class file of %s from %s", storedKey,
+                    fileSystem), e);
+        }
+    }
+
+    @Override
+    public ResolvedReferenceTypeDeclaration solveType(String name) throws UnsolvedSymbolException {
+        SymbolReference<ResolvedReferenceTypeDeclaration> ref = tryToSolveType(name);
+        if (ref.isSolved()) {
+            return ref.getCorrespondingDeclaration();
+        } else {
+            throw new UnsolvedSymbolException(name);
+        }
+    }
+
+    /**
+     * Closes the rt.jar or the module image of the JDK, unless it is the one of the running JDK. No class file can be
+     * read afterwards, so the types must be solved and used before.
+     *
+     * @throws IOException If an I/O exception occurs while closing. Everything is closed anyway.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        IOException failure = null;
+        // The file system is closed before the class loader it was loaded with
+        for (int i = opened.size() - 1; i >= 0; i--) {
+            try {
+                opened.get(i).close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        opened.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private InputStream openClassFile(Path file) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The type solver is closed.");
+        }
+        return Files.newInputStream(file);
+    }
+
+    /**
+     * Lets the class pool read the indexed class files, when it needs them.
+     */
+    private class ClassFilePath implements ClassPath {
+
+        @Override
+        public InputStream openClassfile(String classname) throws NotFoundException {
+            Path file = classFiles.get(classname);
+            if (file == null) {
+                return null;
+            }
+            try {
+                return openClassFile(file);
+            } catch (IOException e) {
+                throw new NotFoundException(classname, e);
+            }
+        }
+
+        @Override
+        public URL find(String classname) {
+            Path file = classFiles.get(classname);
+            if (file == null) {
+                return null;
+            }
+            try {
+                return file.toUri().toURL();
+            } catch (MalformedURLException e) {
+                // No handler for jrt: URLs when running on JDK 8, so the file is opened through its path.
+                try {
+                    return new URL(null, file.toUri().toString(), new URLStreamHandler() {
+                        @Override
+                        protected URLConnection openConnection(URL url) {
+                            return new URLConnection(url) {
+                                @Override
+                                public void connect() {
+                                }
+
+                                @Override
+                                public InputStream getInputStream() throws IOException {
+                                    return openClassFile(file);
+                                }
+                            };
+                        }
+                    });
+                } catch (MalformedURLException unexpected) {
+                    return null;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution.typesolvers;
+
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Remembers the declarations built by a type solver, so that solving the same name twice gives the same declaration
+ * instance instead of building a new one, with all of its members, every time.
+ * <br>The declarations refer to the root type solver they were built with, so they are forgotten when the root
+ * changes, for example when the type solver is added to a {@link CombinedTypeSolver}.
+ * <br>Only solved names are remembered: a type solver is asked for many names it cannot solve, so remembering those
+ * would let the cache grow without bound, while the solved ones are bounded by the types the solver knows.
+ * <br>It is safe to use from multiple threads. A type can be built twice when two threads ask for it at the same
+ * time, but only one of the declarations is ever returned.
+ */
+final class SolvedTypeCache {
+
+    private final ConcurrentMap<String, SymbolReference<ResolvedReferenceTypeDeclaration>> solvedTypes = new ConcurrentHashMap<>();
+
+    private volatile TypeSolver root;
+
+    /**
+     * @param root the root of the type solver asking, which the declarations are built for.
+     * @param solver builds the declaration when it is not known yet. It may ask this cache for other names.
+     */
+    SymbolReference<ResolvedReferenceTypeDeclaration> get(TypeSolver root, String name,
+                                                          Function<String, SymbolReference<ResolvedReferenceTypeDeclaration>> solver) {
+        if (this.root != root) {
+            synchronized (this) {
+                if (this.root != root) {
+                    solvedTypes.clear();
+                    this.root = root;
+                }
+            }
+        }
+        SymbolReference<ResolvedReferenceTypeDeclaration> cached = solvedTypes.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        // Not computeIfAbsent: solving a member type solves its outer type through this cache first.
+        SymbolReference<ResolvedReferenceTypeDeclaration> solved = solver.apply(name);
+        if (!solved.isSolved()) {
+            return solved;
+        }
+        cached = solvedTypes.putIfAbsent(name, solved);
+        return cached == null ? solved : cached;
+    }
+
+    void clear() {
+        solvedTypes.clear();
+    }
+
+    int size() {
+        return solvedTypes.size();
+    }
+}
@@ -21,7 +21,14 @@
 
 package com.github.javaparser.symbolsolver.resolution.typesolvers;
 
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.cache.BoundedCache;
+import com.github.javaparser.symbolsolver.cache.Cache;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.io.File;
@@ -29,7 +36,9 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+import static com.github.javaparser.ParserConfiguration.LanguageLevel.BLEEDING_EDGE;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -128,6 +137,26 @@ public class TypeSolverBuilder {
         return with(classLoaderTypeSolver);
     }
 
+    /**
+     * Allow the type solver to resolve types that are
+     * defined in a JDK, by reading its class files instead of loading them.
+     * <p/>
+     * The JDK does not have to be the one running, so the types can be those of the release the
+     * analyzed code targets.
+     *
+     * @param javaHome The home directory of the JDK.
+     *
+     * @return the current builder.
+     *
+     * @throws IOException If an I/O exception occurs while reading the JDK.
+     *
+     * @see JdkTypeSolver
+     */
+    public TypeSolverBuilder withJDK(@NonNull Path javaHome) throws IOException {
+        TypeSolver jdkTypeSolver = new JdkTypeSolver(javaHome);
+        return with(jdkTypeSolver);
+    }
+
     // Builders for JARS
 
     /**
@@ -181,6 +210,25 @@ public class TypeSolverBuilder {
         return with(jarTypeSolver);
     }
 
+    /**
+     * Allow the type solver to resolve types that are
+     * defined in the JAR files of a class path.
+     * <p/>
+     * This is cheaper than adding the JAR files one by one when there are many of them.
+     *
+     * @param pathsToJars The paths to the jar files, in class path order.
+     *
+     * @return the current builder.
+     *
+     * @throws IOException If an I/O exception occurs while reading the Jars.
+     *
+     * @see ClassPathTypeSolver
+     */
+    public TypeSolverBuilder withClassPath(@NonNull List<Path> pathsToJars) throws IOException {
+        TypeSolver classPathTypeSolver = new ClassPathTypeSolver(pathsToJars);
+        return with(classPathTypeSolver);
+    }
+
     // Builders for AarTypeSolver
 
     /**
@@ -281,6 +329,45 @@ public class TypeSolverBuilder {
         return with(aarTypeSolver);
     }
 
+    /**
+     * Allow the type solver to resolve types using
+     * external source code, keeping at most a given
+     * number of AST nodes in memory.
+     * <br>
+     * Instead of soft references, the parsed files are
+     * kept in {@link BoundedCache}s weighing each
+     * compilation unit by its number of nodes.
+     * The compilation units of a package count once more
+     * in the cache of parsed directories, and each found
+     * type weighs 1.
+     *
+     * @param pathToSourceCode The path to the source code.
+     * @param maximumNodes     The maximum number of nodes in each cache.
+     *
+     * @return the current builder.
+     *
+     * @see JavaParserTypeSolver
+     * @see BoundedCache
+     */
+    public TypeSolverBuilder withSourceCode(@NonNull Path pathToSourceCode, long maximumNodes) {
+        checkNotNull(pathToSourceCode, "The path to the source code can't be null.");
+        Cache<Path, Optional<CompilationUnit>> parsedFiles = BoundedCache.<Path, Optional<CompilationUnit>>newBuilder()
+                .maximumWeight(maximumNodes)
+                .weigher(cu -> cu.map(BoundedCache::countNodes).orElse(1L))
+                .build();
+        Cache<Path, List<CompilationUnit>> parsedDirectories = BoundedCache.<Path, List<CompilationUnit>>newBuilder()
+                .maximumWeight(maximumNodes)
+                .weigher(cus -> Math.max(1, cus.stream().mapToLong(BoundedCache::countNodes).sum()))
+                .build();
+        Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> foundTypes =
+                BoundedCache.<String, SymbolReference<ResolvedReferenceTypeDeclaration>>newBuilder()
+                        .maximumWeight(maximumNodes)
+                        .build();
+        TypeSolver javaParserTypeSolver = new JavaParserTypeSolver(pathToSourceCode,
+                new JavaParser(new ParserConfiguration().setLanguageLevel(BLEEDING_EDGE)), parsedFiles, parsedDirectories, foundTypes);
+        return with(javaParserTypeSolver);
+    }
+
     // Builders for ClassLoaderTypeSolver
 
     /**
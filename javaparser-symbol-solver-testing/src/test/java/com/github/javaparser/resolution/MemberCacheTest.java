@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.resolution;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.logic.MethodResolutionLogic;
+import com.github.javaparser.resolution.model.LambdaArgumentTypePlaceholder;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.resolution.model.typesystem.ReferenceTypeImpl;
+import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberCacheTest {
+
+    private static final String CODE = "import java.util.ArrayList;\n" +
+            "class A<T> extends ArrayList<T> { int a; void m(int i) {} }\n" +
+            "class B extends A<String> { String b; void m(String s) {}\n" +
+            "  void test() { m(1); m(\"x\"); size(); String s = this.b; int i = this.a; }\n" +
+            "}";
+
+    private CompilationUnit cu;
+
+    @BeforeEach
+    void setUp() {
+        ParserConfiguration configuration = new ParserConfiguration()
+                .setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()));
+        cu = new JavaParser(configuration).parse(CODE).getResult().get();
+    }
+
+    private ResolvedReferenceTypeDeclaration declaration(String name) {
+        return cu.getClassByName(name).map(ClassOrInterfaceDeclaration::resolve).get();
+    }
+
+    private List<String> resolveAll() {
+        List<String> signatures = cu.findAll(MethodCallExpr.class).stream()
+                .map(call -> call.resolve().getQualifiedSignature())
+                .collect(Collectors.toList());
+        cu.findAll(FieldAccessExpr.class).forEach(access -> signatures.add(access.calculateResolvedType().describe()));
+        return signatures;
+    }
+
+    @Test
+    void noCacheIsInUseByDefault() {
+        assertFalse(MemberCache.current().isPresent());
+    }
+
+    @Test
+    void resolvingWithTheCacheGivesTheSameResults() {
+        List<String> expected = resolveAll();
+        MemberCache cache = new MemberCache();
+
+        assertEquals(expected, cache.call(this::resolveAll));
+        assertTrue(cache.size() > 0);
+        assertEquals(expected, cache.call(this::resolveAll));
+    }
+
+    @Test
+    void membersAreComputedOnce() {
+        MemberCache cache = new MemberCache();
+        cache.run(() -> {
+            ResolvedReferenceTypeDeclaration b = declaration("B");
+            assertSame(b.getAllMethods(), declaration("B").getAllMethods());
+            assertEquals(b.getAncestors(), declaration("B").getAncestors());
+            assertEquals(b.getAllAncestors(), declaration("B").getAllAncestors());
+            assertEquals("a", b.getField("a").getName());
+            assertTrue(b.hasField("b"));
+            assertFalse(b.hasField("c"));
+        });
+        assertEquals(2, cache.getAllMethods(declaration("B"), "m").size());
+        assertTrue(cache.getAllMethods(declaration("B"), "n").isEmpty());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void ancestorsAreOnlyRememberedForTheKnownTraversals() {
+        MemberCache cache = new MemberCache();
+        AtomicInteger traversals = new AtomicInteger();
+        cache.run(() -> {
+            ResolvedReferenceTypeDeclaration b = declaration("B");
+            assertEquals(b.getAllAncestors(ResolvedReferenceTypeDeclaration.breadthFirstFunc),
+                    declaration("B").getAllAncestors(ResolvedReferenceTypeDeclaration.breadthFirstFunc));
+            int remembered = cache.size();
+            for (int i = 0; i < 2; i++) {
+                b.getAllAncestors(declaration -> {
+                    traversals.incrementAndGet();
+                    return declaration.getAncestors();
+                });
+            }
+            assertEquals(remembered, cache.size());
+        });
+        assertEquals(2, traversals.get());
+    }
+
+    @Test
+    void allMethodsOfReferenceTypesAreComputedOnce() {
+        Set<String> expected = new ReferenceTypeImpl(declaration("B")).getAllMethods().stream()
+                .map(ResolvedMethodDeclaration::getQualifiedSignature)
+                .collect(Collectors.toSet());
+        MemberCache cache = new MemberCache();
+        cache.run(() -> {
+            List<ResolvedMethodDeclaration> methods = new ReferenceTypeImpl(declaration("B")).getAllMethods();
+            assertEquals(expected, methods.stream().map(ResolvedMethodDeclaration::getQualifiedSignature).collect(Collectors.toSet()));
+            int size = methods.size();
+            methods.clear();
+            List<ResolvedMethodDeclaration> again = new ReferenceTypeImpl(declaration("B")).getAllMethods();
+            assertEquals(size, again.size());
+        });
+        assertTrue(cache.size() > 0);
+    }
+
+    @Test
+    void ancestorsCanBeModifiedByTheCaller() {
+        MemberCache cache = new MemberCache();
+        cache.run(() -> {
+            declaration("B").getAncestors().clear();
+            assertEquals(1, declaration("B").getAncestors().size());
+        });
+    }
+
+    @Test
+    void solvedMethodsAreRemembered() {
+        MemberCache cache = new MemberCache();
+        ResolvedReferenceTypeDeclaration b = declaration("B");
+        List<ResolvedType> arguments = Collections.singletonList(ResolvedPrimitiveType.INT);
+        AtomicInteger solutions = new AtomicInteger();
+        Supplier<SymbolReference<ResolvedMethodDeclaration>> solution = () -> {
+            solutions.incrementAndGet();
+            return MethodResolutionLogic.solveMethodInType(b, "m", arguments);
+        };
+
+        SymbolReference<ResolvedMethodDeclaration> first = cache.solveMethod(b, "m", arguments, false, solution);
+        assertEquals("A.m(int)", first.getCorrespondingDeclaration().getQualifiedSignature());
+        assertSame(first, cache.solveMethod(declaration("B"), "m", arguments, false, solution));
+        assertEquals(1, solutions.get());
+
+        cache.solveMethod(b, "m", arguments, true, solution);
+        assertEquals(2, solutions.get());
+    }
+
+    @Test
+    void methodsCalledWithLambdasAreSolvedEveryTime() {
+        MemberCache cache = new MemberCache();
+        ResolvedReferenceTypeDeclaration b = declaration("B");
+        List<ResolvedType> arguments = Collections.singletonList(new LambdaArgumentTypePlaceholder(0));
+        AtomicInteger solutions = new AtomicInteger();
+        Supplier<SymbolReference<ResolvedMethodDeclaration>> solution = () -> {
+            solutions.incrementAndGet();
+            return SymbolReference.unsolved();
+        };
+
+        cache.solveMethod(b, "m", arguments, false, solution);
+        cache.solveMethod(b, "m", arguments, false, solution);
+        assertEquals(2, solutions.get());
+    }
+
+    @Test
+    void theLeastRecentlyUsedSolvedMethodsAreForgotten() {
+        MemberCache cache = new MemberCache(2);
+        ResolvedReferenceTypeDeclaration b = declaration("B");
+        AtomicInteger solutions = new AtomicInteger();
+        Supplier<SymbolReference<ResolvedMethodDeclaration>> solution = () -> {
+            solutions.incrementAndGet();
+            return SymbolReference.unsolved();
+        };
+
+        cache.solveMethod(b, "m", Collections.singletonList(ResolvedPrimitiveType.INT), false, solution);
+        cache.solveMethod(b, "m", Collections.singletonList(ResolvedPrimitiveType.LONG), false, solution);
+        cache.solveMethod(b, "m", Collections.singletonList(ResolvedPrimitiveType.INT), false, solution);
+        assertEquals(2, solutions.get());
+        // forgets LONG, used less recently than INT
+        cache.solveMethod(b, "m", Collections.singletonList(ResolvedPrimitiveType.BOOLEAN), false, solution);
+        cache.solveMethod(b, "m", Collections.singletonList(ResolvedPrimitiveType.INT), false, solution);
+        assertEquals(3, solutions.get());
+        cache.solveMethod(b, "m", Collections.singletonList(ResolvedPrimitiveType.LONG), false, solution);
+        assertEquals(4, solutions.get());
+        assertThrows(AssertionError.class, () -> new MemberCache(0));
+    }
+
+    @Test
+    void thePreviousCacheIsRestored() {
+        MemberCache outer = new MemberCache();
+        MemberCache inner = new MemberCache();
+        outer.run(() -> {
+            assertSame(inner, inner.call(() -> MemberCache.current().get()));
+            assertSame(outer, MemberCache.current().get());
+        });
+        assertFalse(MemberCache.current().isPresent());
+    }
+}
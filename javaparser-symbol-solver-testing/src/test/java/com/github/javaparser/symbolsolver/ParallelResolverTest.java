@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.resolution.MemberCache;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import com.github.javaparser.symbolsolver.utils.LeanParserConfiguration;
+import com.github.javaparser.utils.ProjectRoot;
+import com.github.javaparser.utils.SourceRoot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelResolverTest extends AbstractSymbolResolutionTest {
+
+    private final Path src = adaptPath("src/test/test_sourcecode/javaparser_src/proper_source");
+
+    private TypeSolver typeSolver() {
+        CombinedTypeSolver typeSolver = new CombinedTypeSolver();
+        typeSolver.add(new ReflectionTypeSolver());
+        typeSolver.add(new JavaParserTypeSolver(src, new LeanParserConfiguration()));
+        typeSolver.add(new JavaParserTypeSolver(adaptPath("src/test/test_sourcecode/javaparser_src/generated"), new LeanParserConfiguration()));
+        return typeSolver;
+    }
+
+    private List<CompilationUnit> parse(String startPackage) throws IOException {
+        return new SourceRoot(src).tryToParse(startPackage).stream()
+                .map(result -> result.getResult().get())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records the outcome of every expression, keyed by where it is.
+     */
+    private static class Recorder implements ParallelResolver.Listener {
+
+        final Map<String, String> outcomes = new ConcurrentHashMap<>();
+
+        private static String key(Expression expression) {
+            return expression.findCompilationUnit().get().getStorage().get().getFileName() + " "
+                    + expression.getRange().get() + " " + expression.getClass().getSimpleName();
+        }
+
+        @Override
+        public void resolved(Expression expression, ResolvedType type) {
+            outcomes.put(key(expression), type.describe());
+        }
+
+        @Override
+        public void failed(Expression expression, RuntimeException exception) {
+            outcomes.put(key(expression), "failed");
+        }
+    }
+
+    @Test
+    void resolvingInParallelGivesTheSameResultsAsResolvingSequentially() throws IOException {
+        Recorder sequential = new Recorder();
+        ParallelResolver.Summary sequentialSummary = new ParallelResolver(typeSolver(), Runnable::run, 1)
+                .setListener(sequential)
+                .resolve(parse("com.github.javaparser.ast.body"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Recorder parallel = new Recorder();
+            ParallelResolver.Summary parallelSummary = new ParallelResolver(typeSolver(), executor, 8)
+                    .setListener(parallel)
+                    .resolve(parse("com.github.javaparser.ast.body"));
+
+            assertEquals(21, parallelSummary.getCompilationUnits());
+            assertTrue(parallelSummary.getSuccesses() > 0);
+            assertEquals(sequentialSummary.getSuccesses(), parallelSummary.getSuccesses());
+            assertEquals(sequentialSummary.getFailures(), parallelSummary.getFailures());
+            assertEquals(sequential.outcomes, parallel.outcomes);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void sharingAMemberCacheGivesTheSameResults() throws IOException {
+        Recorder withoutCache = new Recorder();
+        new ParallelResolver(typeSolver(), Runnable::run, 1)
+                .setListener(withoutCache)
+                .resolve(parse("com.github.javaparser.ast.body"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            MemberCache memberCache = new MemberCache();
+            Recorder withCache = new Recorder();
+            new ParallelResolver(typeSolver(), executor, 8)
+                    .setMemberCache(memberCache)
+                    .setListener(withCache)
+                    .resolve(parse("com.github.javaparser.ast.body"));
+
+            assertTrue(memberCache.size() > 0);
+            assertEquals(withoutCache.outcomes, withCache.outcomes);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void resolveProject(@TempDir Path dir) throws IOException {
+        Path sources = dir.resolve("src");
+        Files.createDirectories(sources.resolve("a"));
+        Files.write(sources.resolve("a/A.java"), "package a; class A { int f() { return \"x\".length() + B.g(); } }".getBytes(UTF_8));
+        Files.write(sources.resolve("a/B.java"), "package a; class B { static int g() { return Math.max(1, 2); } }".getBytes(UTF_8));
+        CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver(), new JavaParserTypeSolver(sources));
+        ProjectRoot projectRoot = new ProjectRoot(dir);
+        projectRoot.addSourceRoot(sources);
+
+        Recorder recorder = new Recorder();
+        ParallelResolver.Summary summary = new ParallelResolver(typeSolver).setListener(recorder).resolve(projectRoot);
+
+        assertEquals(2, summary.getCompilationUnits());
+        assertEquals(0, summary.getFailures(), recorder.outcomes::toString);
+        assertTrue(recorder.outcomes.containsValue("int"));
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.cache;
+
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.javaparser.StaticJavaParser.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    private static BoundedCache<String, String> cacheOf(long maximumWeight) {
+        return BoundedCache.<String, String>newBuilder()
+                .maximumWeight(maximumWeight)
+                .concurrencyLevel(1)
+                .build();
+    }
+
+    @Test
+    void put_ShouldStoreTheValue() {
+        BoundedCache<String, String> cache = cacheOf(10);
+        assertTrue(cache.isEmpty());
+
+        cache.put("key", "value");
+
+        assertFalse(cache.isEmpty());
+        assertTrue(cache.contains("key"));
+        assertEquals(Optional.of("value"), cache.get("key"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void remove_ShouldOnlyRemoveTheKey() {
+        BoundedCache<String, String> cache = cacheOf(10);
+        cache.put("key1", "");
+        cache.put("key2", "");
+
+        cache.remove("key1");
+
+        assertFalse(cache.contains("key1"));
+        assertTrue(cache.contains("key2"));
+
+        cache.removeAll();
+        assertTrue(cache.isEmpty());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void theWeightIsBounded() {
+        BoundedCache<String, String> cache = BoundedCache.<String, String>newBuilder()
+                .maximumWeight(100)
+                .weigher(String::length)
+                .build();
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key" + i, "0123456789");
+        }
+
+        assertTrue(cache.weight() <= 100);
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.stats().getEvictionCount() >= 990);
+    }
+
+    @Test
+    void aValueHeavierThanTheCacheIsNotStored() {
+        BoundedCache<String, String> cache = BoundedCache.<String, String>newBuilder()
+                .maximumWeight(5)
+                .weigher(String::length)
+                .build();
+
+        cache.put("key", "0123456789");
+
+        assertFalse(cache.contains("key"));
+        assertEquals(1, cache.stats().getEvictionCount());
+    }
+
+    @Test
+    void aValueCanWeighUpToTheMaximumWeightWithTheDefaultConcurrencyLevel() {
+        BoundedCache<String, String> cache = BoundedCache.<String, String>newBuilder()
+                .maximumWeight(100)
+                .weigher(String::length)
+                .build();
+        cache.put("small", "0123456789");
+
+        cache.get("large");
+        cache.put("large", String.join("", Collections.nCopies(9, "0123456789")));
+
+        assertTrue(cache.contains("large"));
+        assertTrue(cache.contains("small"));
+        assertEquals(100, cache.weight());
+        assertEquals(0, cache.stats().getEvictionCount());
+    }
+
+    @Test
+    void aCandidateThatIsNotAdmittedEvictsNothing() {
+        BoundedCache<String, String> cache = BoundedCache.<String, String>newBuilder()
+                .maximumWeight(10)
+                .weigher(String::length)
+                .concurrencyLevel(1)
+                .build();
+        cache.put("rare", "01234");
+        cache.put("frequent", "01234");
+        for (int i = 0; i < 5; i++) {
+            cache.get("frequent");
+        }
+        cache.get("candidate");
+        cache.get("candidate");
+
+        // It is used more often than the first entry it would evict, but not than the second one
+        cache.put("candidate", "0123456789");
+
+        assertFalse(cache.contains("candidate"));
+        assertTrue(cache.contains("rare"));
+        assertTrue(cache.contains("frequent"));
+        assertEquals(10, cache.weight());
+        assertEquals(1, cache.stats().getEvictionCount());
+    }
+
+    @Test
+    void keysUsedOftenAreKeptWhenManyKeysAreUsedOnce() {
+        BoundedCache<String, String> cache = cacheOf(100);
+        for (int i = 0; i < 50; i++) {
+            cache.put("hot" + i, "");
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get("hot" + i);
+            }
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("cold" + i, "");
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(cache.contains("hot" + i), "hot" + i);
+        }
+    }
+
+    @Test
+    void compilationUnitsCanBeWeighedByTheirNodes() {
+        CompilationUnit cu = parse("class A { int f; }");
+        BoundedCache<String, CompilationUnit> cache = BoundedCache.<String, CompilationUnit>newBuilder()
+                .weigher(BoundedCache::countNodes)
+                .build();
+
+        cache.put("A", cu);
+
+        assertEquals(cu.stream().count(), cache.weight());
+    }
+
+    @Test
+    void stats_ShouldCountHitsAndMisses() {
+        BoundedCache<String, String> cache = cacheOf(10);
+        cache.put("key", "value");
+
+        cache.get("key");
+        cache.get("key");
+        cache.get("other");
+
+        assertEquals(new CacheStats(2, 1, 0), cache.stats());
+    }
+
+    @Test
+    void oldEntriesAreRefreshedAfterTheyAreReturned() {
+        AtomicInteger loads = new AtomicInteger();
+        BoundedCache<String, String> cache = BoundedCache.<String, String>newBuilder()
+                .refreshAfterWrite(Duration.ZERO, key -> key + loads.incrementAndGet(), Runnable::run)
+                .build();
+        cache.put("key", "value");
+
+        assertEquals(Optional.of("value"), cache.get("key"));
+        assertEquals(Optional.of("key1"), cache.get("key"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void theOldValueIsKeptWhenTheRefreshFails() {
+        BoundedCache<String, String> cache = BoundedCache.<String, String>newBuilder()
+                .refreshAfterWrite(Duration.ZERO, key -> null, Runnable::run)
+                .build();
+        cache.put("key", "value");
+
+        assertEquals(Optional.of("value"), cache.get("key"));
+        assertEquals(Optional.of("value"), cache.get("key"));
+    }
+
+    @Test
+    void invalidConfigurationsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BoundedCache.newBuilder().maximumWeight(0));
+        assertThrows(IllegalArgumentException.class, () -> BoundedCache.newBuilder().concurrencyLevel(0));
+        assertThrows(NullPointerException.class, () -> cacheOf(10).put("key", null));
+    }
+
+    @Test
+    void theCacheCanBeUsedByManyThreads() throws Exception {
+        BoundedCache<String, String> cache = BoundedCache.<String, String>newBuilder()
+                .maximumWeight(1000)
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String key = "key" + ((i * 31 + thread) % 2000);
+                        if (!cache.get(key).isPresent()) {
+                            cache.put(key, key);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(cache.weight() <= 1000);
+        assertEquals(40_000, cache.stats().getRequestCount());
+    }
+}
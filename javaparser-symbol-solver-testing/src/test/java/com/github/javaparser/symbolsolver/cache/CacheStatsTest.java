@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheStatsTest {
+
+    @Test
+    void rates_ShouldBeComputedFromTheCounts() {
+        CacheStats stats = new CacheStats(3, 1, 0);
+
+        assertEquals(4, stats.getRequestCount());
+        assertEquals(0.75, stats.getHitRate());
+        assertEquals(0.25, stats.getMissRate());
+    }
+
+    @Test
+    void rates_WithoutRequests() {
+        assertEquals(1.0, CacheStats.EMPTY.getHitRate());
+        assertEquals(0.0, CacheStats.EMPTY.getMissRate());
+    }
+
+    @Test
+    void plusAndMinus_ShouldAddAndSubtractEachCount() {
+        CacheStats before = new CacheStats(1, 2, 3);
+        CacheStats after = before.plus(new CacheStats(10, 20, 30));
+
+        assertEquals(new CacheStats(11, 22, 33), after);
+        assertEquals(new CacheStats(10, 20, 30), after.minus(before));
+    }
+
+    @Test
+    void constructor_withNegativeCount_shouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheStats(-1, 0, 0));
+    }
+
+}
@@ -162,4 +162,23 @@ class GuavaCacheTest {
         assertTrue(adapter.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    void stats_ShouldBeTheStatsOfTheGuavaCache() {
+        GuavaCache<String, String> recording = new GuavaCache<>(CacheBuilder.newBuilder().maximumSize(1).recordStats().build());
+        recording.put("key1", "value");
+        recording.put("key2", "value");
+        recording.get("key1");
+        recording.get("key2");
+
+        assertEquals(new CacheStats(1, 1, 1), recording.stats());
+    }
+
+    @Test
+    void stats_ShouldBeEmptyWhenTheGuavaCacheDoesNotRecordThem() {
+        adapter.put("key", "value");
+        adapter.get("key");
+
+        assertEquals(CacheStats.EMPTY, adapter.stats());
+    }
+
+}
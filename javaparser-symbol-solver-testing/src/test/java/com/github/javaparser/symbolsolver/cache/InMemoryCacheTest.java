@@ -137,4 +137,16 @@ class InMemoryCacheTest {
         assertTrue(memoryCache.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    void stats_ShouldCountHitsAndMisses() {
+        assertEquals(CacheStats.EMPTY, memoryCache.stats());
+
+        memoryCache.put("key", "value");
+        memoryCache.get("key");
+        memoryCache.get("key");
+        memoryCache.get("other");
+
+        assertEquals(new CacheStats(2, 1, 0), memoryCache.stats());
+    }
+
+}
@@ -80,4 +80,12 @@ class NoCacheTest {
         assertTrue(cache.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    void stats_ShouldCountEveryGetAsAMiss() {
+        cache.put("key", "value");
+        cache.get("key");
+
+        assertEquals(new CacheStats(0, 1, 0), cache.stats());
+    }
+
+}
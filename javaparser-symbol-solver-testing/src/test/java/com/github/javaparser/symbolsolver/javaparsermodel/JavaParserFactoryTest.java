@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2007-2010 Júlio Vilmar Gesser.
+ * Copyright (C) 2011, 2013-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.javaparsermodel;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.resolution.Context;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaParserFactoryTest {
+
+    private static final String CODE = "import java.util.*;\n" +
+            "class A {\n" +
+            "    int field;\n" +
+            "    int m(List<String> list) {\n" +
+            "        int sum = field;\n" +
+            "        for (String s : list) { sum += s.length(); }\n" +
+            "        Runnable r = () -> System.out.println(sum);\n" +
+            "        return Math.max(sum, list.size());\n" +
+            "    }\n" +
+            "}\n";
+
+    private final TypeSolver typeSolver = new ReflectionTypeSolver();
+
+    private CompilationUnit parse() {
+        ParserConfiguration configuration = new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        return new JavaParser(configuration).parse(CODE).getResult().get();
+    }
+
+    @Test
+    void contextsAreCreatedEachTimeByDefault() {
+        MethodDeclaration method = parse().findFirst(MethodDeclaration.class).get();
+
+        assertFalse(JavaParserFacade.get(typeSolver).isContextCacheEnabled());
+        assertNotSame(JavaParserFactory.getContext(method, typeSolver), JavaParserFactory.getContext(method, typeSolver));
+    }
+
+    @Test
+    void cachedContextsAreReusedUntilTheTreeChanges() {
+        JavaParserFacade.get(typeSolver).setContextCacheEnabled(true);
+        CompilationUnit cu = parse();
+        MethodDeclaration method = cu.findFirst(MethodDeclaration.class).get();
+        BlockStmt body = method.getBody().get();
+        NameExpr list = cu.findFirst(NameExpr.class, n -> n.getNameAsString().equals("list")).get();
+
+        Context bodyContext = JavaParserFactory.getContext(body, typeSolver);
+        assertSame(bodyContext, JavaParserFactory.getContext(body, typeSolver));
+        assertSame(JavaParserFactory.getContext(list, typeSolver), JavaParserFactory.getContext(list, typeSolver));
+        assertNotSame(bodyContext, JavaParserFactory.getContext(body, new ReflectionTypeSolver()));
+        // Other type solvers don't cache contexts unless enabled for them too
+        TypeSolver otherTypeSolver = new ReflectionTypeSolver();
+        assertNotSame(JavaParserFactory.getContext(body, otherTypeSolver), JavaParserFactory.getContext(body, otherTypeSolver));
+
+        method.setName("renamed");
+
+        Context bodyContextAfterChange = JavaParserFactory.getContext(body, typeSolver);
+        assertNotSame(bodyContext, bodyContextAfterChange);
+        assertSame(bodyContextAfterChange, JavaParserFactory.getContext(body, typeSolver));
+
+        // Nodes attached after the first context was cached are observed too
+        body.addStatement("int added = 0;");
+        assertNotSame(bodyContextAfterChange, JavaParserFactory.getContext(body, typeSolver));
+    }
+
+    @Test
+    void cachedContextsResolveTheSameWay() {
+        List<String> withoutCache = resolveAll(parse());
+        JavaParserFacade.get(typeSolver).setContextCacheEnabled(true);
+        List<String> withCache = resolveAll(parse());
+
+        assertEquals(withoutCache, withCache);
+        assertFalse(withCache.isEmpty());
+    }
+
+    private static List<String> resolveAll(CompilationUnit cu) {
+        List<String> resolved = new ArrayList<>();
+        cu.findAll(NameExpr.class).forEach(n -> resolved.add(n + ": " + n.calculateResolvedType().describe()));
+        cu.findAll(MethodCallExpr.class).forEach(n -> resolved.add(n + ": " + n.resolve().getQualifiedSignature()));
+        return resolved;
+    }
+
+}
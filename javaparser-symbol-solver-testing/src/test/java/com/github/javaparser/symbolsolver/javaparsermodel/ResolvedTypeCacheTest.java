@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.javaparsermodel;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.type.PrimitiveType;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserClassDeclaration;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.MemoryTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import static com.github.javaparser.StaticJavaParser.parseType;
+import static com.github.javaparser.symbolsolver.javaparsermodel.ResolvedTypeCache.TYPE_WITHOUT_LAMBDAS_RESOLVED;
+import static com.github.javaparser.symbolsolver.javaparsermodel.ResolvedTypeCache.TYPE_WITH_LAMBDAS_RESOLVED;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResolvedTypeCacheTest {
+
+    private final MemoryTypeSolver memoryTypeSolver = new MemoryTypeSolver();
+
+    private final CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver(), memoryTypeSolver);
+
+    private CompilationUnit parse(String code) {
+        JavaParserFacade.get(typeSolver).setTypeInvalidationEnabled(true);
+        return parseWithoutInvalidation(code);
+    }
+
+    private CompilationUnit parseWithoutInvalidation(String code) {
+        ParserConfiguration configuration = new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        return new JavaParser(configuration).parse(code).getResult().get();
+    }
+
+    private static NameExpr name(CompilationUnit cu, String method, String name) {
+        return cu.findFirst(MethodDeclaration.class, m -> m.getNameAsString().equals(method)).get()
+                .findFirst(NameExpr.class, n -> n.getNameAsString().equals(name)).get();
+    }
+
+    private static boolean isCached(Expression expression) {
+        return expression.containsData(TYPE_WITH_LAMBDAS_RESOLVED) || expression.containsData(TYPE_WITHOUT_LAMBDAS_RESOLVED);
+    }
+
+    private static boolean isCachedBy(JavaParserFacade facade, Expression expression) {
+        return facade.getTypeCache().get(expression, TYPE_WITH_LAMBDAS_RESOLVED).isPresent()
+                || facade.getTypeCache().get(expression, TYPE_WITHOUT_LAMBDAS_RESOLVED).isPresent();
+    }
+
+    @Test
+    void modifyingABodyOnlyDropsTheTypesCachedInThatBody() {
+        CompilationUnit cu = parse("class A {\n" +
+                "  String f;\n" +
+                "  void m1() { int x = 1; long y = x + 1; }\n" +
+                "  void m2() { int z = f.length(); }\n" +
+                "}");
+        NameExpr x = name(cu, "m1", "x");
+        NameExpr f = name(cu, "m2", "f");
+        assertEquals("int", x.calculateResolvedType().describe());
+        assertEquals("java.lang.String", f.calculateResolvedType().describe());
+
+        cu.findFirst(VariableDeclarator.class, v -> v.getNameAsString().equals("x")).get()
+                .setType(PrimitiveType.doubleType());
+
+        assertFalse(isCached(x));
+        assertTrue(isCached(f));
+        assertEquals("double", x.calculateResolvedType().describe());
+    }
+
+    @Test
+    void statementsAddedToABodyAreResolvedInTheirNewScope() {
+        CompilationUnit cu = parse("class A {\n" +
+                "  int x;\n" +
+                "  void m() { System.out.println(x); }\n" +
+                "}");
+        NameExpr x = name(cu, "m", "x");
+        assertEquals("int", x.calculateResolvedType().describe());
+
+        cu.findFirst(MethodDeclaration.class).get().getBody().get().getStatements()
+                .addFirst(new JavaParser().parseStatement("String x = \"\";").getResult().get());
+
+        assertEquals("java.lang.String", x.calculateResolvedType().describe());
+    }
+
+    @Test
+    void modifyingADeclarationDropsTheTypesCachedInAllTheTrees() {
+        CompilationUnit a = parse("class A { String f; }");
+        ClassOrInterfaceDeclaration classA = a.getClassByName("A").get();
+        memoryTypeSolver.addDeclaration("A", new JavaParserClassDeclaration(classA, typeSolver));
+        CompilationUnit b = parse("class B { void m(A a) { Object o = a.f; } }");
+        FieldAccessExpr access = b.findFirst(FieldAccessExpr.class).get();
+        assertEquals("java.lang.String", access.calculateResolvedType().describe());
+
+        FieldDeclaration field = classA.getFieldByName("f").get();
+        Type integer = parseType("Integer");
+        field.getVariable(0).setType(integer);
+
+        assertEquals("java.lang.Integer", access.calculateResolvedType().describe());
+    }
+
+    @Test
+    void modifyingACommentKeepsTheCachedTypes() {
+        CompilationUnit cu = parse("class A { String f; void m() { f.length(); } }");
+        NameExpr f = name(cu, "m", "f");
+        f.calculateResolvedType();
+
+        cu.getClassByName("A").get().setLineComment("A class");
+
+        assertTrue(isCached(f));
+    }
+
+    @Test
+    void typesAreKeptAfterModificationsByDefault() {
+        CompilationUnit cu = parseWithoutInvalidation("class A { void m() { int x = 1; long y = x + 1; } }");
+        NameExpr x = name(cu, "m", "x");
+        assertEquals("int", x.calculateResolvedType().describe());
+
+        cu.findFirst(VariableDeclarator.class, v -> v.getNameAsString().equals("x")).get()
+                .setType(PrimitiveType.doubleType());
+
+        assertTrue(isCached(x));
+    }
+
+    @Test
+    void modifyingADeclarationOnlyDropsTheTypesCachedByTheFacadesWatchingIt() {
+        CompilationUnit a = parse("class A { String f; void m() { Object o = f; } }");
+        NameExpr f = name(a, "m", "f");
+        assertEquals("java.lang.String", f.calculateResolvedType().describe());
+        CombinedTypeSolver otherTypeSolver = new CombinedTypeSolver(new ReflectionTypeSolver());
+        JavaParserFacade other = JavaParserFacade.get(otherTypeSolver).setTypeInvalidationEnabled(true);
+        CompilationUnit b = new JavaParser().parse("class B { int g; void m() { Object o = g; } }").getResult().get();
+        NameExpr g = name(b, "m", "g");
+        assertEquals("int", other.getType(g).describe());
+
+        a.getClassByName("A").get().addField("int", "h");
+
+        assertFalse(isCachedBy(JavaParserFacade.get(typeSolver), f));
+        assertTrue(isCachedBy(other, g));
+    }
+}
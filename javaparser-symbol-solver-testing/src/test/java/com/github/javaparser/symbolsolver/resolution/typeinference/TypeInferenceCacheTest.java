@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution.typeinference;
+
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
+import com.github.javaparser.symbolsolver.cache.CacheStats;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static com.github.javaparser.StaticJavaParser.parseExpression;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeInferenceCacheTest {
+
+    @Test
+    void thereIsOneCachePerTypeSolver() {
+        TypeSolver typeSolver = new ReflectionTypeSolver();
+
+        assertSame(TypeInferenceCache.forTypeSolver(typeSolver), TypeInferenceCache.forTypeSolver(typeSolver));
+        assertNotSame(TypeInferenceCache.forTypeSolver(typeSolver), TypeInferenceCache.forTypeSolver(new ReflectionTypeSolver()));
+    }
+
+    @Test
+    void lambdaExpressionsAreComparedByIdentity() {
+        TypeInferenceCache cache = new TypeInferenceCache(10);
+        LambdaExpr lambda = parseExpression("x -> x");
+        LambdaExpr equalLambda = parseExpression("x -> x");
+
+        cache.putParameterType(lambda, "x", ResolvedPrimitiveType.INT);
+        cache.putInferenceVariables(lambda, Collections.emptyList());
+
+        assertEquals(Optional.of(ResolvedPrimitiveType.INT), cache.getParameterType(lambda, "x"));
+        assertEquals(Optional.empty(), cache.getParameterType(lambda, "y"));
+        assertEquals(Optional.of(Collections.emptyList()), cache.getInferenceVariables(lambda));
+        assertEquals(Optional.empty(), cache.getParameterType(equalLambda, "x"));
+        assertEquals(Optional.empty(), cache.getInferenceVariables(equalLambda));
+        assertEquals(2, cache.size());
+        assertEquals(new CacheStats(3, 2, 0), cache.stats());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void theNumberOfLambdaExpressionsIsBounded() {
+        TypeInferenceCache cache = new TypeInferenceCache(2);
+        for (int i = 0; i < 5; i++) {
+            cache.putParameterType(parseExpression("x -> x"), "x", ResolvedPrimitiveType.INT);
+        }
+
+        assertTrue(cache.size() <= 2);
+        assertTrue(cache.stats().getEvictionCount() >= 3);
+    }
+}
@@ -24,10 +24,14 @@ import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclar
 import com.github.javaparser.resolution.model.SymbolReference;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 abstract class ClassLoaderTypeSolverTest<T extends ClassLoaderTypeSolver> extends AbstractTypeSolverTest<T> {
@@ -53,4 +57,37 @@ abstract class ClassLoaderTypeSolverTest<T extends ClassLoaderTypeSolver> extend
         assertEquals(expectedCanonicalName, resolvedDeclaration.getQualifiedName());
     }
 
+    @Test
+    void solvingTheSameTypeTwiceGivesTheSameDeclaration() {
+        T typeSolver = createTypeSolver();
+        ResolvedReferenceTypeDeclaration resolvedDeclaration = typeSolver.solveType("java.util.Map.Entry");
+        assertSame(resolvedDeclaration, typeSolver.solveType("java.util.Map.Entry"));
+        assertSame(resolvedDeclaration.getDeclaredMethods(), typeSolver.solveType("java.util.Map.Entry").getDeclaredMethods());
+        assertFalse(typeSolver.tryToSolveType("java.util.Map.Missing").isSolved());
+        assertFalse(typeSolver.tryToSolveType("java.util.Map.Missing").isSolved());
+    }
+
+    @Test
+    void namesThatCannotBeLoadedAreNotRemembered() {
+        Set<String> requested = new HashSet<>();
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                requested.add(name);
+                return super.loadClass(name, resolve);
+            }
+        };
+        ClassLoaderTypeSolver typeSolver = new ClassLoaderTypeSolver(classLoader);
+
+        assertFalse(typeSolver.tryToSolveType("foo.Missing").isSolved());
+        assertTrue(requested.remove("foo.Missing"));
+        assertFalse(typeSolver.tryToSolveType("foo.Missing").isSolved());
+        assertTrue(requested.remove("foo.Missing"));
+
+        assertTrue(typeSolver.tryToSolveType("java.util.List").isSolved());
+        assertTrue(requested.remove("java.util.List"));
+        assertTrue(typeSolver.tryToSolveType("java.util.List").isSolved());
+        assertFalse(requested.contains("java.util.List"));
+    }
+
 }
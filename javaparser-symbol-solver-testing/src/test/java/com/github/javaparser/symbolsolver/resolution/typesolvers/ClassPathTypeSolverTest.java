@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution.typesolvers;
+
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.types.ResolvedReferenceType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassPathTypeSolverTest extends AbstractTypeSolverTest<ClassPathTypeSolver> {
+
+    private static final Supplier<ClassPathTypeSolver> CLASS_PATH_TYPE_PROVIDER = () -> {
+        try {
+            return new ClassPathTypeSolver(Arrays.asList(
+                    adaptPath("src/test/resources/jar1.jar"),
+                    adaptPath("src/test/resources/jar2.jar")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    };
+
+    public ClassPathTypeSolverTest() {
+        super(CLASS_PATH_TYPE_PROVIDER);
+    }
+
+    @Test
+    void solvesTypesOfAllTheJars() {
+        ClassPathTypeSolver typeSolver = createTypeSolver();
+
+        assertTrue(typeSolver.tryToSolveType("foo.bar.A").isSolved());
+        assertTrue(typeSolver.tryToSolveType("foo.zum.B").isSolved());
+        assertFalse(typeSolver.tryToSolveType("foo.zum.Missing").isSolved());
+        assertFalse(typeSolver.tryToSolveType("java.lang.Object").isSolved());
+        assertThrows(UnsolvedSymbolException.class, () -> typeSolver.solveType("java.lang.Object"));
+    }
+
+    @Test
+    void solvesReferencesBetweenJars() {
+        ClassPathTypeSolver typeSolver = createTypeSolver();
+
+        ResolvedReferenceTypeDeclaration b = typeSolver.solveType("foo.zum.B");
+        List<ResolvedReferenceType> ancestors = b.getAncestors();
+        assertEquals(1, ancestors.size());
+        assertEquals("foo.bar.A", ancestors.get(0).getQualifiedName());
+        assertSame(b, typeSolver.solveType("foo.zum.B"));
+    }
+
+    @Test
+    void solvesTheSameTypesAsJarTypeSolver() throws IOException {
+        Path pathToJar = adaptPath("src/test/resources/javaparser-core-2.1.0.jar");
+        JarTypeSolver jarTypeSolver = new JarTypeSolver(pathToJar);
+        ClassPathTypeSolver typeSolver = new ClassPathTypeSolver(Collections.singletonList(pathToJar));
+
+        assertEquals(jarTypeSolver.getKnownClasses(), typeSolver.getKnownClasses());
+        ResolvedReferenceTypeDeclaration node = typeSolver.solveType("com.github.javaparser.ast.Node");
+        assertEquals(jarTypeSolver.solveType("com.github.javaparser.ast.Node").getDeclaredMethods().size(),
+                node.getDeclaredMethods().size());
+        assertEquals("com.github.javaparser.ASTParser.JJCalls",
+                typeSolver.solveType("com.github.javaparser.ASTParser.JJCalls").getQualifiedName());
+    }
+
+    @Test
+    void keepsTheListsOfClassesInTheIndexDirectory(@TempDir Path indexDirectory) throws IOException {
+        List<Path> jars = Arrays.asList(
+                adaptPath("src/test/resources/jar1.jar"),
+                adaptPath("src/test/resources/jar2.jar"));
+
+        ClassPathTypeSolver first = new ClassPathTypeSolver(jars, indexDirectory);
+        try (Stream<Path> indexFiles = Files.list(indexDirectory)) {
+            assertEquals(2, indexFiles.count());
+        }
+
+        ClassPathTypeSolver second = new ClassPathTypeSolver(jars, indexDirectory);
+        assertEquals(first.getKnownClasses(), second.getKnownClasses());
+        assertTrue(second.tryToSolveType("foo.zum.B").isSolved());
+    }
+
+    @Test
+    void theListOfAPreviousVersionOfAJarIsDeleted(@TempDir Path directory) throws IOException {
+        Path jar = directory.resolve("jar1.jar");
+        Path indexDirectory = directory.resolve("index");
+        Files.copy(adaptPath("src/test/resources/jar1.jar"), jar);
+        new ClassPathTypeSolver(Collections.singletonList(jar), indexDirectory).close();
+
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() - 60_000));
+        ClassPathTypeSolver typeSolver = new ClassPathTypeSolver(Collections.singletonList(jar), indexDirectory);
+        try (Stream<Path> indexFiles = Files.list(indexDirectory)) {
+            assertEquals(1, indexFiles.count());
+        }
+        assertTrue(typeSolver.tryToSolveType("foo.bar.A").isSolved());
+        typeSolver.close();
+    }
+
+    @Test
+    void noClassIsReadOnceClosed() throws IOException {
+        ClassPathTypeSolver typeSolver = createTypeSolver();
+        assertTrue(typeSolver.tryToSolveType("foo.bar.A").isSolved());
+
+        typeSolver.close();
+        assertThrows(IllegalStateException.class, () -> typeSolver.solveType("foo.zum.B"));
+        typeSolver.close();
+    }
+
+    @Test
+    void missingJarsAreReported(@TempDir Path directory) {
+        assertThrows(FileNotFoundException.class,
+                () -> new ClassPathTypeSolver(Collections.singletonList(directory.resolve("missing.jar"))));
+    }
+
+}
@@ -25,6 +25,7 @@ import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
 import com.github.javaparser.symbolsolver.cache.Cache;
+import com.github.javaparser.symbolsolver.cache.CacheStats;
 import com.github.javaparser.symbolsolver.cache.InMemoryCache;
 import com.github.javaparser.symbolsolver.reflectionmodel.ReflectionClassDeclaration;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver.ExceptionHandlers;
@@ -186,4 +187,15 @@ class CombinedTypeSolverTest extends AbstractTypeSolverTest<CombinedTypeSolver>
         verifyNoMoreInteractions(cache);
     }
 
+    @Test
+    void testCacheStats_CountTheTypesSolvedAgain() {
+        CombinedTypeSolver combinedSolver = new CombinedTypeSolver(new ReflectionTypeSolver());
+
+        combinedSolver.tryToSolveType("java.lang.String");
+        combinedSolver.tryToSolveType("java.lang.String");
+        combinedSolver.tryToSolveType("com.example.Unknown");
+
+        assertEquals(new CacheStats(1, 2, 0), combinedSolver.getCacheStats());
+    }
+
 }
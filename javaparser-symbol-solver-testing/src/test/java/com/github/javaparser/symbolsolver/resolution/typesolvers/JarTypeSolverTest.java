@@ -122,6 +122,21 @@ class JarTypeSolverTest extends AbstractTypeSolverTest<JarTypeSolver> {
         assertEquals("com.github.javaparser.ast.Node", nodeType.getQualifiedName());
     }
 
+    @Test
+    void solvingTheSameTypeTwiceGivesTheSameDeclaration() throws IOException {
+        Path pathToJar = adaptPath("src/test/resources/javaparser-core-2.1.0.jar");
+        JarTypeSolver typeSolver = new JarTypeSolver(pathToJar);
+        ResolvedReferenceTypeDeclaration nodeType = typeSolver.solveType("com.github.javaparser.ast.Node");
+        assertSame(nodeType, typeSolver.solveType("com.github.javaparser.ast.Node"));
+        assertSame(nodeType.getDeclaredMethods(), typeSolver.solveType("com.github.javaparser.ast.Node").getDeclaredMethods());
+
+        // The declarations refer to the root type solver, so they are built again when it changes
+        CombinedTypeSolver combinedTypeSolver = new CombinedTypeSolver(typeSolver);
+        ResolvedReferenceTypeDeclaration nodeTypeInCombined = combinedTypeSolver.solveType("com.github.javaparser.ast.Node");
+        assertNotSame(nodeType, nodeTypeInCombined);
+        assertSame(nodeTypeInCombined, combinedTypeSolver.solveType("com.github.javaparser.ast.Node"));
+    }
+
     @Test
     void solveTypeShouldThrowUnsolvedSymbolWhenNotAvailable() throws IOException {
         Path pathToJar = adaptPath("src/test/resources/javaparser-core-2.1.0.jar");
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution.typesolvers;
+
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.utils.Pair;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaParserTypeIndexTest {
+
+    @Test
+    void scanFindsPackageAndMemberTypes() {
+        Pair<String, List<String>> scanned = JavaParserTypeIndex.scan(
+                "package a.b;\n" +
+                        "import java.util.List;\n" +
+                        "public class Outer {\n" +
+                        "    interface Inner { enum Deep { X, Y } }\n" +
+                        "    @interface Marker {}\n" +
+                        "    record Point(int x, int y) {}\n" +
+                        "}\n" +
+                        "class Second {}\n");
+        assertEquals("a.b", scanned.a);
+        assertEquals(Arrays.asList("Outer", "Outer.Inner", "Outer.Inner.Deep", "Outer.Marker", "Outer.Point",
+                "Second"), scanned.b);
+    }
+
+    @Test
+    void scanSkipsLocalAndAnonymousClasses() {
+        Pair<String, List<String>> scanned = JavaParserTypeIndex.scan(
+                "class A {\n" +
+                        "    void m() {\n" +
+                        "        class Local {}\n" +
+                        "        Object o = new Object() { class InAnonymous {} };\n" +
+                        "        record(foo());\n" +
+                        "    }\n" +
+                        "    static { class InInitializer {} }\n" +
+                        "    Class<?> c = String.class;\n" +
+                        "}\n");
+        assertEquals("", scanned.a);
+        assertEquals(Collections.singletonList("A"), scanned.b);
+    }
+
+    @Test
+    void scanSkipsCommentsAndLiterals() {
+        Pair<String, List<String>> scanned = JavaParserTypeIndex.scan(
+                "/* package wrong; class InComment {} */\n" +
+                        "package right;\n" +
+                        "// class InLineComment {\n" +
+                        "class A {\n" +
+                        "    String s = \"class InString { \\\" }\";\n" +
+                        "    char c = '{';\n" +
+                        "    String t = \"\"\"\n" +
+                        "        class InTextBlock {\n" +
+                        "        \"\"\";\n" +
+                        "    class B {}\n" +
+                        "}\n");
+        assertEquals("right", scanned.a);
+        assertEquals(Arrays.asList("A", "A.B"), scanned.b);
+    }
+
+    @Test
+    void indexedSolverFindsTypesAndFollowsChanges(@TempDir Path srcDir) throws IOException {
+        Path file = srcDir.resolve("p/Misnamed.java");
+        Files.createDirectories(file.getParent());
+        write(file, "package p; class Foo { class Bar {} }", 1000);
+
+        JavaParserTypeSolver typeSolver = new JavaParserTypeSolver(srcDir).useIndex();
+        assertTrue(typeSolver.isIndexed());
+
+        SymbolReference<ResolvedReferenceTypeDeclaration> bar = typeSolver.tryToSolveType("p.Foo.Bar");
+        assertTrue(bar.isSolved());
+        assertEquals("p.Foo.Bar", bar.getCorrespondingDeclaration().getQualifiedName());
+        assertFalse(typeSolver.tryToSolveType("p.Baz").isSolved());
+        assertFalse(typeSolver.tryToSolveType("java.lang.Object").isSolved());
+
+        write(file, "package p; class Foo {} class Baz {}", 2000);
+        typeSolver.refreshIndex();
+
+        assertTrue(typeSolver.tryToSolveType("p.Baz").isSolved());
+        assertFalse(typeSolver.tryToSolveType("p.Foo.Bar").isSolved());
+
+        Files.delete(file);
+        typeSolver.refreshIndex();
+
+        assertFalse(typeSolver.tryToSolveType("p.Foo").isSolved());
+    }
+
+    @Test
+    void refreshingWithoutIndexFails(@TempDir Path srcDir) {
+        assertThrows(IllegalStateException.class, () -> new JavaParserTypeSolver(srcDir).refreshIndex());
+    }
+
+    private static void write(Path file, String content, long lastModified) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+    }
+}
@@ -24,6 +24,7 @@ package com.github.javaparser.symbolsolver.resolution.typesolvers;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.cache.CacheStats;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserClassDeclaration;
 import com.github.javaparser.symbolsolver.utils.LeanParserConfiguration;
 import com.github.javaparser.utils.CodeGenerationUtils;
@@ -91,6 +92,22 @@ class JavaParserTypeSolverTest extends AbstractTypeSolverTest<JavaParserTypeSolv
         assertTrue(x.getCorrespondingDeclaration().isClass());
     }
 
+    @Test
+    void cacheStatsCountTheTypesFoundAgain() {
+        Path src = adaptPath("src/test/test_sourcecode/javaparser_new_src/javaparser-core");
+        JavaParserTypeSolver typeSolver = new JavaParserTypeSolver(src);
+        assertEquals(CacheStats.EMPTY, typeSolver.getCacheStats());
+
+        typeSolver.tryToSolveType("com.github.javaparser.ast.CompilationUnit");
+        CacheStats afterFirstLookUp = typeSolver.getFoundTypesStats();
+        typeSolver.tryToSolveType("com.github.javaparser.ast.CompilationUnit");
+
+        assertEquals(new CacheStats(1, 0, 0), typeSolver.getFoundTypesStats().minus(afterFirstLookUp));
+        assertTrue(typeSolver.getParsedFilesStats().getMissCount() > 0);
+        assertEquals(typeSolver.getParsedFilesStats().plus(typeSolver.getParsedDirectoriesStats()).plus(typeSolver.getFoundTypesStats()),
+                typeSolver.getCacheStats());
+    }
+
     @Test
     public void givenJavaParserTypeSolver_tryToSolveClassWithGeneric_expectSuccess() {
         Path src = adaptPath("src/test/test_sourcecode/javaparser_new_src/javaparser-core");
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2015-2016 Federico Tomassetti
+ * Copyright (C) 2017-2023 The JavaParser Team.
+ *
+ * This file is part of JavaParser.
+ *
+ * JavaParser can be used either under the terms of
+ * a) the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * b) the terms of the Apache License
+ *
+ * You should have received a copy of both licenses in LICENCE.LGPL and
+ * LICENCE.APACHE. Please refer to those files for details.
+ *
+ * JavaParser is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ */
+
+package com.github.javaparser.symbolsolver.resolution.typesolvers;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.javassistmodel.JavassistClassDeclaration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdkTypeSolverTest extends AbstractTypeSolverTest<JdkTypeSolver> {
+
+    private static final Supplier<JdkTypeSolver> JDK_TYPE_PROVIDER = () -> {
+        try {
+            return new JdkTypeSolver();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    };
+
+    public JdkTypeSolverTest() {
+        super(JDK_TYPE_PROVIDER);
+    }
+
+    @Test
+    void solvesTypesFromClassFiles() {
+        JdkTypeSolver typeSolver = createTypeSolver();
+
+        ResolvedReferenceTypeDeclaration string = typeSolver.solveType("java.lang.String");
+        assertTrue(string instanceof JavassistClassDeclaration);
+        assertEquals("java.lang.String", string.getQualifiedName());
+        assertTrue(string.getDeclaredMethods().stream().anyMatch(m -> m.getName().equals("length")));
+        assertSame(string, typeSolver.solveType("java.lang.String"));
+
+        assertEquals("java.util.Map.Entry", typeSolver.solveType("java.util.Map.Entry").getQualifiedName());
+        assertTrue(typeSolver.getKnownClasses().contains("java.util.concurrent.ConcurrentHashMap"));
+    }
+
+    @Test
+    void doesNotSolveTypesOutsideTheJdk() {
+        JdkTypeSolver typeSolver = createTypeSolver();
+
+        assertFalse(typeSolver.tryToSolveType("com.github.javaparser.ast.Node").isSolved());
+        assertFalse(typeSolver.tryToSolveType("java.lang.Missing").isSolved());
+        assertThrows(UnsolvedSymbolException.class, () -> typeSolver.solveType("java.lang.Missing"));
+    }
+
+    @Test
+    void resolvesMethodCallsOnJdkTypes() throws IOException {
+        ParserConfiguration configuration = new ParserConfiguration()
+                .setSymbolResolver(new JavaSymbolSolver(new JdkTypeSolver(Paths.get(System.getProperty("java.home")))));
+        CompilationUnit cu = new JavaParser(configuration)
+                .parse("class A { int m(java.util.List<String> list) { return list.get(0).length(); } }")
+                .getResult().get();
+
+        MethodCallExpr length = cu.findFirst(MethodCallExpr.class, call -> call.getNameAsString().equals("length")).get();
+        assertEquals("java.lang.String.length()", length.resolve().getQualifiedSignature());
+        assertEquals("int", length.calculateResolvedType().describe());
+    }
+
+    @Test
+    void closingLeavesTheModuleImageOfTheRunningJdkOpen() throws IOException {
+        JdkTypeSolver closed = createTypeSolver();
+        assertTrue(closed.tryToSolveType("java.lang.String").isSolved());
+        closed.close();
+        assertThrows(IllegalStateException.class, () -> closed.solveType("java.util.ArrayList"));
+
+        JdkTypeSolver typeSolver = createTypeSolver();
+        assertTrue(typeSolver.tryToSolveType("java.util.ArrayList").isSolved());
+        typeSolver.close();
+    }
+
+    @Test
+    void failsOnADirectoryWithoutJdk(@TempDir Path directory) {
+        assertThrows(FileNotFoundException.class, () -> new JdkTypeSolver(directory));
+    }
+
+}
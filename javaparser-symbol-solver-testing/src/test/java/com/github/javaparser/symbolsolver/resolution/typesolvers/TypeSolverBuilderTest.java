@@ -101,6 +101,23 @@ class TypeSolverBuilderTest {
         assertNotSolved(createdTypeSolver, "com.example.a.non.existing.Class");
     }
 
+    /**
+     * When build is set to include a JDK,
+     * the types of that JDK should be solved.
+     */
+    @Test
+    void testBuild_withJDKConfiguration() throws IOException {
+        // Execute
+        TypeSolver createdTypeSolver = typeSolverBuilder
+                .withJDK(Paths.get(System.getProperty("java.home")))
+                .build();
+
+        // Assert
+        assertIsSolved(createdTypeSolver, "java.lang.String");
+        assertNotSolved(createdTypeSolver, "com.github.javaparser.ast.Node");
+        assertNotSolved(createdTypeSolver, "com.example.a.non.existing.Class");
+    }
+
     /**
      * When build is set to include the class loader,
      * JRE types and other classes defined in the current
@@ -272,6 +289,26 @@ class TypeSolverBuilderTest {
         assertNotSolved(createdTypeSolver, "com.example.a.non.existing.Class");
     }
 
+    /**
+     * When build is set to include external source code with a bounded cache,
+     * the classes defined inside the source code should be solved
+     * and the cached nodes should stay under the bound.
+     */
+    @Test
+    void testBuild_withSourceCodeConfiguration_withMaximumNodes() {
+
+        // Execute
+        TypeSolver createdTypeSolver = typeSolverBuilder
+                .withSourceCode(Paths.get("src/test/test_sourcecode/javaparser_new_src/javaparser-core"), 20_000)
+                .build();
+
+        // Assert
+        assertIsSolved(createdTypeSolver, "com.github.javaparser.ast.Node");
+        assertIsSolved(createdTypeSolver, "com.github.javaparser.ast.CompilationUnit");
+        assertNotSolved(createdTypeSolver, "com.example.a.non.existing.Class");
+        assertTrue(((JavaParserTypeSolver) createdTypeSolver).getCacheStats().getRequestCount() > 0);
+    }
+
     /**
      * When build is set to include a custom class loader,
      * the classes defined in the class loader should be solved.